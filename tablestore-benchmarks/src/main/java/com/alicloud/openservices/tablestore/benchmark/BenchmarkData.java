@@ -0,0 +1,264 @@
+package com.alicloud.openservices.tablestore.benchmark;
+
+import com.alicloud.openservices.tablestore.core.protocol.PlainBufferCrc8;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.BytesValue;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.ColumnValues;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.ComplexColumnTypeInfo;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.DataType;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.LogicType;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.SQLResponseColumn;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.SQLResponseColumns;
+import com.alicloud.openservices.tablestore.model.Column;
+import com.alicloud.openservices.tablestore.model.ColumnValue;
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyBuilder;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyType;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyValue;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import com.alicloud.openservices.tablestore.model.RowPutChange;
+import com.alicloud.openservices.tablestore.model.SimpleRowMatrixBlockConstants;
+import com.alicloud.openservices.tablestore.model.TableMeta;
+import com.google.flatbuffers.FlatBufferBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic rows shared by the benchmarks, and encoders of the formats the SDK only decodes.<br/>
+ * Every table has a single INTEGER primary key named {@link #PK_NAME} and {@code columnCount} attribute columns
+ * of the same {@link ValueType}.
+ */
+public class BenchmarkData {
+
+    public static final String TABLE_NAME = "benchmark_table";
+
+    public static final String PK_NAME = "pk";
+
+    public static final int STRING_LENGTH = 32;
+
+    public static final int BINARY_LENGTH = 64;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    public enum ValueType {
+        STRING,
+        LONG,
+        BINARY
+    }
+
+    private final int columnCount;
+    private final ValueType valueType;
+    private final String[] columnNames;
+    private final Random random = new Random(7);
+
+    public BenchmarkData(int columnCount, ValueType valueType) {
+        this.columnCount = columnCount;
+        this.valueType = valueType;
+        this.columnNames = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnNames[i] = "attr_" + i;
+        }
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public static TableMeta tableMeta() {
+        TableMeta tableMeta = new TableMeta(TABLE_NAME);
+        tableMeta.addPrimaryKeyColumn(PK_NAME, PrimaryKeyType.INTEGER);
+        return tableMeta;
+    }
+
+    public static PrimaryKey primaryKey(long pk) {
+        return PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn(PK_NAME, PrimaryKeyValue.fromLong(pk))
+                .build();
+    }
+
+    public ColumnValue columnValue(int row, int column) {
+        switch (valueType) {
+            case STRING:
+                return ColumnValue.fromString(string(row, column));
+            case LONG:
+                return ColumnValue.fromLong((long) row * columnCount + column);
+            case BINARY:
+                return ColumnValue.fromBinary(binary());
+            default:
+                throw new IllegalArgumentException("Unknown value type: " + valueType);
+        }
+    }
+
+    public RowPutChange putChange(long pk) {
+        RowPutChange rowChange = new RowPutChange(TABLE_NAME, primaryKey(pk));
+        for (int i = 0; i < columnCount; i++) {
+            rowChange.addColumn(new Column(columnNames[i], columnValue((int) pk, i), 1000L));
+        }
+        return rowChange;
+    }
+
+    public List<RowChange> putChanges(int rowCount) {
+        List<RowChange> rowChanges = new ArrayList<RowChange>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rowChanges.add(putChange(i));
+        }
+        return rowChanges;
+    }
+
+    private String string(int row, int column) {
+        StringBuilder sb = new StringBuilder(STRING_LENGTH);
+        sb.append(row).append('_').append(column).append('_');
+        while (sb.length() < STRING_LENGTH) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+
+    private byte[] binary() {
+        byte[] bytes = new byte[BINARY_LENGTH];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Encodes rows in the SimpleRowMatrix format returned by BulkExport, the primary key comes first.
+     */
+    public ByteBuffer simpleRowMatrixBlock(int rowCount) {
+        byte[][] names = new byte[columnCount + 1][];
+        names[0] = PK_NAME.getBytes(UTF8);
+        for (int i = 0; i < columnCount; i++) {
+            names[i + 1] = columnNames[i].getBytes(UTF8);
+        }
+        int namesSize = 0;
+        for (byte[] name : names) {
+            namesSize += 2 + name.length;
+        }
+        int valueSize;
+        switch (valueType) {
+            case STRING:
+                valueSize = 4 + STRING_LENGTH;
+                break;
+            case LONG:
+                valueSize = 8;
+                break;
+            default:
+                valueSize = 4 + BINARY_LENGTH;
+        }
+        int headerSize = 5 * 4;
+        int optionsSize = 1 + 1 + 1 + 4;
+        int rowSize = 1 + (1 + 8) + columnCount * (1 + valueSize);
+        int totalSize = headerSize + namesSize + optionsSize + rowCount * rowSize + 2;
+
+        ByteBuffer buffer = ByteBuffer.allocate(totalSize).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(SimpleRowMatrixBlockConstants.API_VERSION);
+        buffer.putInt(headerSize + namesSize + optionsSize);
+        buffer.putInt(headerSize + namesSize);
+        buffer.putInt(1);
+        buffer.putInt(columnCount);
+        for (byte[] name : names) {
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+        }
+        buffer.put(SimpleRowMatrixBlockConstants.TAG_ENTIRE_PRIMARY_KEYS);
+        buffer.put((byte) 1);
+        buffer.put(SimpleRowMatrixBlockConstants.TAG_ROW_COUNT);
+        buffer.putInt(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            buffer.put(SimpleRowMatrixBlockConstants.TAG_ROW);
+            buffer.put((byte) 0);
+            buffer.putLong(row);
+            for (int column = 0; column < columnCount; column++) {
+                switch (valueType) {
+                    case STRING:
+                        byte[] string = string(row, column).getBytes(UTF8);
+                        buffer.put((byte) 3);
+                        buffer.putInt(string.length);
+                        buffer.put(string);
+                        break;
+                    case LONG:
+                        buffer.put((byte) 0);
+                        buffer.putLong((long) row * columnCount + column);
+                        break;
+                    default:
+                        buffer.put((byte) 7);
+                        buffer.putInt(BINARY_LENGTH);
+                        buffer.put(binary());
+                }
+            }
+        }
+        buffer.put(SimpleRowMatrixBlockConstants.TAG_CHECKSUM);
+        byte crc = 0;
+        for (int i = 0; i < buffer.position(); i++) {
+            crc = PlainBufferCrc8.crc8(crc, buffer.get(i));
+        }
+        buffer.put(crc);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Encodes rows in the column based flatbuffers format returned by SQL queries.
+     */
+    public SQLResponseColumns sqlResponseColumns(int rowCount) {
+        FlatBufferBuilder builder = new FlatBufferBuilder(1024);
+        boolean[] isNulls = new boolean[rowCount];
+        int[] columnOffsets = new int[columnCount];
+        for (int column = 0; column < columnCount; column++) {
+            int nameOffset = builder.createString(columnNames[column]);
+            int isNullOffset = ColumnValues.createIsNullvaluesVector(builder, isNulls);
+            int valuesOffset;
+            byte columnType;
+            switch (valueType) {
+                case STRING: {
+                    int[] strings = new int[rowCount];
+                    for (int row = 0; row < rowCount; row++) {
+                        strings[row] = builder.createString(string(row, column));
+                    }
+                    int vector = ColumnValues.createStringValuesVector(builder, strings);
+                    ColumnValues.startColumnValues(builder);
+                    ColumnValues.addIsNullvalues(builder, isNullOffset);
+                    ColumnValues.addStringValues(builder, vector);
+                    valuesOffset = ColumnValues.endColumnValues(builder);
+                    columnType = DataType.STRING;
+                    break;
+                }
+                case LONG: {
+                    long[] longs = new long[rowCount];
+                    for (int row = 0; row < rowCount; row++) {
+                        longs[row] = (long) row * columnCount + column;
+                    }
+                    int vector = ColumnValues.createLongValuesVector(builder, longs);
+                    ColumnValues.startColumnValues(builder);
+                    ColumnValues.addIsNullvalues(builder, isNullOffset);
+                    ColumnValues.addLongValues(builder, vector);
+                    valuesOffset = ColumnValues.endColumnValues(builder);
+                    columnType = DataType.LONG;
+                    break;
+                }
+                default: {
+                    int[] binaries = new int[rowCount];
+                    for (int row = 0; row < rowCount; row++) {
+                        int bytes = BytesValue.createValueVector(builder, binary());
+                        binaries[row] = BytesValue.createBytesValue(builder, bytes);
+                    }
+                    int vector = ColumnValues.createBinaryValuesVector(builder, binaries);
+                    ColumnValues.startColumnValues(builder);
+                    ColumnValues.addIsNullvalues(builder, isNullOffset);
+                    ColumnValues.addBinaryValues(builder, vector);
+                    valuesOffset = ColumnValues.endColumnValues(builder);
+                    columnType = DataType.BINARY;
+                }
+            }
+            int typeInfoOffset = ComplexColumnTypeInfo.createComplexColumnTypeInfo(builder, LogicType.NONE, DataType.NONE);
+            columnOffsets[column] = SQLResponseColumn.createSQLResponseColumn(builder, nameOffset, columnType, valuesOffset, typeInfoOffset);
+        }
+        int columnsOffset = SQLResponseColumns.createColumnsVector(builder, columnOffsets);
+        int root = SQLResponseColumns.createSQLResponseColumns(builder, columnsOffset, rowCount);
+        SQLResponseColumns.finishSQLResponseColumnsBuffer(builder, root);
+        return SQLResponseColumns.getRootAsSQLResponseColumns(builder.dataBuffer());
+    }
+}
@@ -0,0 +1,145 @@
+package com.alicloud.openservices.tablestore.benchmark;
+
+import com.alicloud.openservices.tablestore.AsyncClient;
+import com.alicloud.openservices.tablestore.ClientConfiguration;
+import com.alicloud.openservices.tablestore.core.Constants;
+import com.alicloud.openservices.tablestore.core.protocol.OtsInternalApi;
+import com.alicloud.openservices.tablestore.core.protocol.PlainBufferBuilder;
+import com.aliyun.ots.thirdparty.com.google.protobuf.ByteString;
+import com.aliyun.ots.thirdparty.com.google.protobuf.Message;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An in-process TableStore endpoint on the loopback interface, so that the writer and reader benchmarks run the whole
+ * client stack (encoding, signing, the async HTTP client and decoding) without a real service.<br/>
+ * It answers DescribeTable with the schema of {@link BenchmarkData#tableMeta()}, acknowledges every row of a BatchWriteRow,
+ * and returns the same canned row for every primary key of a BatchGetRow.
+ * The responses are not signed, so the client must disable the response validation.
+ */
+public class MockTableStoreServer {
+
+    static {
+        // otherwise Nagle's algorithm and delayed ACKs add tens of milliseconds to every small response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ByteString cannedRow;
+    private final OtsInternalApi.ConsumedCapacity consumed = OtsInternalApi.ConsumedCapacity.newBuilder()
+            .setCapacityUnit(OtsInternalApi.CapacityUnit.newBuilder().setRead(1).setWrite(1))
+            .build();
+
+    /**
+     * @param data The rows of the benchmark, the first one is returned by BatchGetRow.
+     * @param threadCount The number of threads serving the requests.
+     */
+    public MockTableStoreServer(BenchmarkData data, int threadCount) throws IOException {
+        this.cannedRow = ByteString.copyFrom(PlainBufferBuilder.buildRowPutChangeWithHeader(data.putChange(0)));
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        this.executor = Executors.newFixedThreadPool(threadCount);
+        server.setExecutor(executor);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    respond(exchange, handleRequest(exchange.getRequestURI().getPath(), exchange.getRequestBody()));
+                } catch (Exception e) {
+                    exchange.sendResponseHeaders(500, -1);
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+        server.start();
+    }
+
+    public String getEndpoint() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Creates a client of this endpoint, which does not validate the unsigned responses.
+     */
+    public AsyncClient createClient() {
+        ClientConfiguration config = new ClientConfiguration();
+        config.setEnableResponseValidation(false);
+        return new AsyncClient(getEndpoint(), "benchmarkAccessKeyId", "benchmarkAccessKeySecret", "benchmark", config);
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private Message handleRequest(String path, InputStream body) throws IOException {
+        String action = path.substring(path.lastIndexOf('/') + 1);
+        if ("DescribeTable".equals(action)) {
+            return describeTable();
+        } else if ("BatchWriteRow".equals(action)) {
+            return batchWriteRow(OtsInternalApi.BatchWriteRowRequest.parseFrom(body));
+        } else if ("BatchGetRow".equals(action)) {
+            return batchGetRow(OtsInternalApi.BatchGetRowRequest.parseFrom(body));
+        }
+        throw new IOException("Unsupported action: " + action);
+    }
+
+    private Message describeTable() {
+        return OtsInternalApi.DescribeTableResponse.newBuilder()
+                .setTableMeta(OtsInternalApi.TableMeta.newBuilder()
+                        .setTableName(BenchmarkData.TABLE_NAME)
+                        .addPrimaryKey(OtsInternalApi.PrimaryKeySchema.newBuilder()
+                                .setName(BenchmarkData.PK_NAME)
+                                .setType(OtsInternalApi.PrimaryKeyType.INTEGER)))
+                .setReservedThroughputDetails(OtsInternalApi.ReservedThroughputDetails.newBuilder()
+                        .setCapacityUnit(OtsInternalApi.CapacityUnit.newBuilder().setRead(0).setWrite(0))
+                        .setLastIncreaseTime(0))
+                .setTableOptions(OtsInternalApi.TableOptions.newBuilder()
+                        .setTimeToLive(-1)
+                        .setMaxVersions(1))
+                .build();
+    }
+
+    private Message batchWriteRow(OtsInternalApi.BatchWriteRowRequest request) {
+        OtsInternalApi.BatchWriteRowResponse.Builder response = OtsInternalApi.BatchWriteRowResponse.newBuilder();
+        for (OtsInternalApi.TableInBatchWriteRowRequest table : request.getTablesList()) {
+            OtsInternalApi.TableInBatchWriteRowResponse.Builder tableResponse = response.addTablesBuilder()
+                    .setTableName(table.getTableName());
+            for (int i = 0; i < table.getRowsCount(); i++) {
+                tableResponse.addRowsBuilder().setIsOk(true).setConsumed(consumed);
+            }
+        }
+        return response.build();
+    }
+
+    private Message batchGetRow(OtsInternalApi.BatchGetRowRequest request) {
+        OtsInternalApi.BatchGetRowResponse.Builder response = OtsInternalApi.BatchGetRowResponse.newBuilder();
+        for (OtsInternalApi.TableInBatchGetRowRequest table : request.getTablesList()) {
+            OtsInternalApi.TableInBatchGetRowResponse.Builder tableResponse = response.addTablesBuilder()
+                    .setTableName(table.getTableName());
+            for (int i = 0; i < table.getPrimaryKeyCount(); i++) {
+                tableResponse.addRowsBuilder().setIsOk(true).setConsumed(consumed).setRow(cannedRow);
+            }
+        }
+        return response.build();
+    }
+
+    private static void respond(HttpExchange exchange, Message message) throws IOException {
+        byte[] body = message.toByteArray();
+        exchange.getResponseHeaders().set(Constants.OTS_HEADER_REQUEST_ID, "benchmark");
+        exchange.sendResponseHeaders(200, body.length);
+        OutputStream output = exchange.getResponseBody();
+        output.write(body);
+        output.close();
+    }
+}
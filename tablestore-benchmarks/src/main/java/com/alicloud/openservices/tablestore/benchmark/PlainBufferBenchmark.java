@@ -0,0 +1,91 @@
+package com.alicloud.openservices.tablestore.benchmark;
+
+import com.alicloud.openservices.tablestore.core.protocol.PlainBufferBuilder;
+import com.alicloud.openservices.tablestore.core.protocol.PlainBufferCodedInputStream;
+import com.alicloud.openservices.tablestore.core.protocol.PlainBufferConversion;
+import com.alicloud.openservices.tablestore.core.protocol.PlainBufferInputStream;
+import com.alicloud.openservices.tablestore.core.protocol.PlainBufferRow;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import com.alicloud.openservices.tablestore.model.RowPutChange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes the rows of a batch write, and decodes the rows of a range read, in the PlainBuffer format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlainBufferBenchmark {
+
+    @Param({"4", "32"})
+    public int columnCount;
+
+    @Param({"STRING", "LONG", "BINARY"})
+    public BenchmarkData.ValueType valueType;
+
+    @Param({"10", "200"})
+    public int batchSize;
+
+    private List<RowChange> rowChanges;
+
+    private byte[] encodedRows;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkData data = new BenchmarkData(columnCount, valueType);
+        rowChanges = data.putChanges(batchSize);
+
+        // a range read returns a single header followed by all the rows
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (int i = 0; i < rowChanges.size(); i++) {
+            byte[] row = PlainBufferBuilder.buildRowPutChangeWithHeader((RowPutChange) rowChanges.get(i));
+            int headerSize = i == 0 ? 0 : 4;
+            output.write(row, headerSize, row.length - headerSize);
+        }
+        encodedRows = output.toByteArray();
+    }
+
+    @Benchmark
+    public void encodeRowsOneByOne(Blackhole blackhole) throws IOException {
+        for (RowChange rowChange : rowChanges) {
+            blackhole.consume(PlainBufferBuilder.buildRowPutChangeWithHeader((RowPutChange) rowChange));
+        }
+    }
+
+    @Benchmark
+    public Object encodeRowsInOneBuffer() throws IOException {
+        return PlainBufferBuilder.buildRowChangesWithHeader(rowChanges);
+    }
+
+    @Benchmark
+    public List<PlainBufferRow> decodeRows() throws IOException {
+        return new PlainBufferCodedInputStream(new PlainBufferInputStream(encodedRows)).readRowsWithHeader();
+    }
+
+    @Benchmark
+    public void decodeAndConvertRows(Blackhole blackhole) throws IOException {
+        List<PlainBufferRow> rows = new PlainBufferCodedInputStream(new PlainBufferInputStream(encodedRows)).readRowsWithHeader();
+        for (PlainBufferRow row : rows) {
+            blackhole.consume(PlainBufferConversion.toRow(row));
+        }
+    }
+}
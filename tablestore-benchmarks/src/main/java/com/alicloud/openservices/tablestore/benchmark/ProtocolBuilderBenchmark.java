@@ -0,0 +1,59 @@
+package com.alicloud.openservices.tablestore.benchmark;
+
+import com.alicloud.openservices.tablestore.core.protocol.OTSProtocolBuilder;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowRequest;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the protobuf message of a batch write, and serializes it as the request body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProtocolBuilderBenchmark {
+
+    @Param({"4", "32"})
+    public int columnCount;
+
+    @Param({"STRING", "LONG", "BINARY"})
+    public BenchmarkData.ValueType valueType;
+
+    @Param({"10", "200"})
+    public int batchSize;
+
+    private BatchWriteRowRequest request;
+
+    @Setup
+    public void setup() {
+        request = new BatchWriteRowRequest();
+        for (RowChange rowChange : new BenchmarkData(columnCount, valueType).putChanges(batchSize)) {
+            request.addRowChange(rowChange);
+        }
+    }
+
+    @Benchmark
+    public Object buildBatchWriteRowRequest() {
+        return OTSProtocolBuilder.buildBatchWriteRowRequest(request);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializeBatchWriteRowRequest() {
+        return OTSProtocolBuilder.buildBatchWriteRowRequest(request).toByteArray();
+    }
+}
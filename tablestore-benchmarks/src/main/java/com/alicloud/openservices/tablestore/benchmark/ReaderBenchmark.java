@@ -0,0 +1,88 @@
+package com.alicloud.openservices.tablestore.benchmark;
+
+import com.alicloud.openservices.tablestore.AsyncClient;
+import com.alicloud.openservices.tablestore.DefaultTableStoreReader;
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import com.alicloud.openservices.tablestore.reader.ReaderResult;
+import com.alicloud.openservices.tablestore.reader.TableStoreReaderConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads rows through the batch get requests of {@link DefaultTableStoreReader}, against a {@link MockTableStoreServer}.
+ * Every invocation adds a batch of primary keys, flushes them and waits for all of their rows.
+ * The encoding and decoding run on the reader and client threads, whose allocations are not part of gc.alloc.rate.norm,
+ * which only counts the benchmark thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReaderBenchmark {
+
+    @Param({"4", "32"})
+    public int columnCount;
+
+    @Param({"STRING", "LONG", "BINARY"})
+    public BenchmarkData.ValueType valueType;
+
+    @Param({"100", "1000"})
+    public int batchSize;
+
+    private MockTableStoreServer server;
+    private AsyncClient client;
+    private ExecutorService callbackExecutor;
+    private DefaultTableStoreReader reader;
+    private List<PrimaryKey> primaryKeys;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkData data = new BenchmarkData(columnCount, valueType);
+        primaryKeys = new ArrayList<PrimaryKey>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            primaryKeys.add(BenchmarkData.primaryKey(i));
+        }
+
+        server = new MockTableStoreServer(data, 4);
+        client = server.createClient();
+        callbackExecutor = Executors.newFixedThreadPool(2);
+        reader = new DefaultTableStoreReader(client, new TableStoreReaderConfig(), callbackExecutor, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        reader.close();
+        client.shutdown();
+        callbackExecutor.shutdown();
+        server.stop();
+    }
+
+    @Benchmark
+    public ReaderResult addPrimaryKeysAndFlush() throws InterruptedException, ExecutionException {
+        Future<ReaderResult> future = reader.addPrimaryKeysWithFuture(BenchmarkData.TABLE_NAME, primaryKeys);
+        reader.flush();
+        return future.get();
+    }
+}
@@ -0,0 +1,58 @@
+package com.alicloud.openservices.tablestore.benchmark;
+
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.SQLResponseColumns;
+import com.alicloud.openservices.tablestore.model.sql.SQLRowsFBsColumnBased;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads every value of a column based SQL result in row order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SQLRowsBenchmark {
+
+    @Param({"4", "32"})
+    public int columnCount;
+
+    @Param({"STRING", "LONG", "BINARY"})
+    public BenchmarkData.ValueType valueType;
+
+    @Param({"10", "200"})
+    public int batchSize;
+
+    private SQLResponseColumns columns;
+
+    @Setup
+    public void setup() {
+        columns = new BenchmarkData(columnCount, valueType).sqlResponseColumns(batchSize);
+    }
+
+    @Benchmark
+    public void readRows(Blackhole blackhole) {
+        SQLRowsFBsColumnBased rows = new SQLRowsFBsColumnBased(columns);
+        int rowCount = (int) rows.rowCount();
+        int columnCount = (int) rows.columnCount();
+        for (int row = 0; row < rowCount; row++) {
+            for (int column = 0; column < columnCount; column++) {
+                blackhole.consume(rows.get(row, column));
+            }
+        }
+    }
+}
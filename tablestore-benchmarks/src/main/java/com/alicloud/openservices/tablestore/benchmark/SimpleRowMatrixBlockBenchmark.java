@@ -0,0 +1,65 @@
+package com.alicloud.openservices.tablestore.benchmark;
+
+import com.alicloud.openservices.tablestore.model.Row;
+import com.alicloud.openservices.tablestore.model.SimpleRowMatrixBlockParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a SimpleRowMatrix block of BulkExport, through the cursor and through the row objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimpleRowMatrixBlockBenchmark {
+
+    @Param({"4", "32"})
+    public int columnCount;
+
+    @Param({"STRING", "LONG", "BINARY"})
+    public BenchmarkData.ValueType valueType;
+
+    @Param({"10", "200"})
+    public int batchSize;
+
+    private ByteBuffer block;
+
+    @Setup
+    public void setup() {
+        block = new BenchmarkData(columnCount, valueType).simpleRowMatrixBlock(batchSize);
+    }
+
+    @Benchmark
+    public void readCursor(Blackhole blackhole) {
+        SimpleRowMatrixBlockParser parser = new SimpleRowMatrixBlockParser(block.duplicate());
+        int fieldCount = parser.getFieldCount();
+        while (parser.hasNext()) {
+            parser.next();
+            for (int i = 0; i < fieldCount; i++) {
+                blackhole.consume(parser.getObject(i));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Row> readRows() {
+        return new SimpleRowMatrixBlockParser(block.duplicate()).getRows();
+    }
+}
@@ -0,0 +1,81 @@
+package com.alicloud.openservices.tablestore.benchmark;
+
+import com.alicloud.openservices.tablestore.core.utils.PrimitiveTimeseriesMetaCache;
+import com.alicloud.openservices.tablestore.model.timeseries.TimeseriesKey;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up the meta update time of every row of a PutTimeseriesData request, the way the FlatBuffer encoding does.
+ * {@code stringKeyLookup} is the former lookup: a Guava cache keyed by {@link TimeseriesKey#buildMetaCacheKey(String)},
+ * {@code hashKeyLookup} is the {@link PrimitiveTimeseriesMetaCache} keyed by {@link TimeseriesKey#getMetaCacheHash(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeseriesMetaCacheBenchmark {
+
+    private static final String TABLE_NAME = "benchmark_timeseries_table";
+    private static final int ROW_COUNT = 1000;
+
+    @Param({"2", "8"})
+    public int tagCount;
+
+    private TimeseriesKey[] keys;
+    private Cache<String, Long> stringKeyCache;
+    private PrimitiveTimeseriesMetaCache hashKeyCache;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        keys = new TimeseriesKey[ROW_COUNT];
+        stringKeyCache = CacheBuilder.newBuilder().expireAfterAccess(3600, TimeUnit.SECONDS).build();
+        hashKeyCache = new PrimitiveTimeseriesMetaCache(64 * 1024 * 1024, 3600);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            Map<String, String> tags = new HashMap<String, String>();
+            for (int t = 0; t < tagCount; t++) {
+                tags.put("tag_" + t, "value_" + (i % (t + 7)));
+            }
+            keys[i] = new TimeseriesKey("measurement_" + (i % 10), "data_source_" + i, tags);
+            stringKeyCache.put(keys[i].buildMetaCacheKey(TABLE_NAME), 1700000000L + i);
+            hashKeyCache.put(keys[i].getMetaCacheHash(TABLE_NAME), 1700000000L + i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public void stringKeyLookup(Blackhole blackhole) {
+        for (TimeseriesKey key : keys) {
+            Long updateTime = stringKeyCache.getIfPresent(key.buildMetaCacheKey(TABLE_NAME));
+            blackhole.consume(updateTime == null ? 0 : updateTime);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public void hashKeyLookup(Blackhole blackhole) {
+        for (TimeseriesKey key : keys) {
+            blackhole.consume(hashKeyCache.get(key.getMetaCacheHash(TABLE_NAME)));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.alicloud.openservices.tablestore.benchmark;
+
+import com.alicloud.openservices.tablestore.AsyncClient;
+import com.alicloud.openservices.tablestore.DefaultTableStoreWriter;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import com.alicloud.openservices.tablestore.writer.WriterConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes rows through the ring buffer, the buckets and the batch requests of {@link DefaultTableStoreWriter},
+ * against a {@link MockTableStoreServer}. Every invocation adds a batch of rows and waits for them with a flush.
+ * The encoding and decoding run on the writer and client threads, whose allocations are not part of gc.alloc.rate.norm,
+ * which only counts the benchmark thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriterBenchmark {
+
+    @Param({"4", "32"})
+    public int columnCount;
+
+    @Param({"STRING", "LONG", "BINARY"})
+    public BenchmarkData.ValueType valueType;
+
+    @Param({"200", "2000"})
+    public int batchSize;
+
+    private MockTableStoreServer server;
+    private AsyncClient client;
+    private ExecutorService callbackExecutor;
+    private DefaultTableStoreWriter writer;
+    private List<RowChange> rowChanges;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkData data = new BenchmarkData(columnCount, valueType);
+        rowChanges = data.putChanges(batchSize);
+
+        server = new MockTableStoreServer(data, 4);
+        client = server.createClient();
+        callbackExecutor = Executors.newFixedThreadPool(2);
+        WriterConfig config = new WriterConfig();
+        writer = new DefaultTableStoreWriter(client, BenchmarkData.TABLE_NAME, config, null, callbackExecutor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        writer.close();
+        client.shutdown();
+        callbackExecutor.shutdown();
+        server.stop();
+    }
+
+    @Benchmark
+    public long addRowsAndFlush() {
+        for (RowChange rowChange : rowChanges) {
+            writer.addRowChange(rowChange);
+        }
+        writer.flush();
+        return writer.getWriterStatistics().getTotalSucceedRowsCount();
+    }
+}
@@ -4,7 +4,13 @@ import java.util.Map;
 import java.util.concurrent.Future;
 import java.util.concurrent.ExecutorService;
 
+import com.alicloud.openservices.tablestore.core.CircuitBreakerRegistry;
+import com.alicloud.openservices.tablestore.core.GetRowBatcher;
+import com.alicloud.openservices.tablestore.core.GetRowCoalescer;
+import com.alicloud.openservices.tablestore.core.RequestHedger;
 import com.alicloud.openservices.tablestore.core.ResourceManager;
+import com.alicloud.openservices.tablestore.core.RetryBudget;
+import com.alicloud.openservices.tablestore.core.RowCache;
 import com.alicloud.openservices.tablestore.core.auth.CredentialsProvider;
 import com.alicloud.openservices.tablestore.model.*;
 import com.alicloud.openservices.tablestore.model.delivery.*;
@@ -140,6 +146,60 @@ public class AsyncClient implements AsyncClientInterface {
         return internalClient.getInstanceName();
     }
 
+    /**
+     * Returns the retry budget, see {@link ClientConfiguration#setRetryBudgetConfiguration}.
+     *
+     * @return the retry budget, or null if it is not enabled
+     */
+    public RetryBudget getRetryBudget() {
+        return internalClient.getRetryBudget();
+    }
+
+    /**
+     * Returns the circuit breakers, see {@link ClientConfiguration#setCircuitBreakerConfiguration}.
+     *
+     * @return the circuit breakers, or null if they are not enabled
+     */
+    public CircuitBreakerRegistry getCircuitBreakerRegistry() {
+        return internalClient.getCircuitBreakerRegistry();
+    }
+
+    /**
+     * Returns the hedger of the point reads, see {@link ClientConfiguration#setHedgingConfiguration}.
+     *
+     * @return the hedger, or null if hedging is not enabled
+     */
+    public RequestHedger getRequestHedger() {
+        return internalClient.getRequestHedger();
+    }
+
+    /**
+     * Returns the cache of the rows read, see {@link ClientConfiguration#setRowCacheConfiguration}.
+     *
+     * @return the row cache, or null if it is not enabled
+     */
+    public RowCache getRowCache() {
+        return internalClient.getRowCache();
+    }
+
+    /**
+     * Returns the coalescer of the identical GetRow requests, see {@link ClientConfiguration#setEnableGetRowCoalescing}.
+     *
+     * @return the coalescer, or null if it is not enabled
+     */
+    public GetRowCoalescer getGetRowCoalescer() {
+        return internalClient.getGetRowCoalescer();
+    }
+
+    /**
+     * Returns the batcher of the GetRow requests, see {@link ClientConfiguration#setGetRowBatchingConfiguration}.
+     *
+     * @return the batcher, or null if it is not enabled
+     */
+    public GetRowBatcher getGetRowBatcher() {
+        return internalClient.getGetRowBatcher();
+    }
+
     @Override
     public Future<ListTableResponse> listTable(
         TableStoreCallback<ListTableRequest, ListTableResponse> callback)
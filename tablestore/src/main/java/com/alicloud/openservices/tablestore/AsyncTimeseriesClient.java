@@ -5,19 +5,17 @@ import com.alicloud.openservices.tablestore.core.auth.CredentialsProvider;
 import com.alicloud.openservices.tablestore.core.auth.DefaultCredentialProvider;
 import com.alicloud.openservices.tablestore.core.utils.Preconditions;
 import com.alicloud.openservices.tablestore.model.timeseries.*;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.Weigher;
+import com.alicloud.openservices.tablestore.core.utils.PrimitiveTimeseriesMetaCache;
+import com.alicloud.openservices.tablestore.core.utils.TimeseriesMetaCache;
 
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 
 public class AsyncTimeseriesClient implements AsyncTimeseriesClientInterface {
 
     private InternalClient internalClient;
-    private Cache<String, Long> timeseriesMetaCache;
+    private TimeseriesMetaCache timeseriesMetaCache;
 
     /**
      * Constructs a new {@link AsyncTimeseriesClient} instance using the specified TableStore Endpoint and default configuration.
@@ -107,15 +105,9 @@ public class AsyncTimeseriesClient implements AsyncTimeseriesClientInterface {
         if (config.getTimeseriesConfiguration() == null) {
             config.setTimeseriesConfiguration(new TimeseriesConfiguration());
         }
-        this.timeseriesMetaCache = CacheBuilder.newBuilder()
-                .maximumWeight(config.getTimeseriesConfiguration().getMetaCacheMaxDataSize())
-                .expireAfterAccess(config.getTimeseriesConfiguration().getMetaCacheExpireTimeAfterAccessInSec(), TimeUnit.SECONDS)
-                .weigher(new Weigher<String, Long>() {
-                    @Override
-                    public int weigh(String key, Long value) {
-                        return key.length() + 48 + 16; // add some overhead
-                    }
-                }).build();
+        this.timeseriesMetaCache = new PrimitiveTimeseriesMetaCache(
+                config.getTimeseriesConfiguration().getMetaCacheMaxDataSize(),
+                config.getTimeseriesConfiguration().getMetaCacheExpireTimeAfterAccessInSec());
         this.internalClient.setTimeseriesMetaCache(timeseriesMetaCache);
     }
 
@@ -0,0 +1,78 @@
+package com.alicloud.openservices.tablestore;
+
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+
+/**
+ * The circuit breakers of a client, one for each action and table, e.g. "GetRow" of table "t1".
+ * A breaker opens when, within the sliding window, at least minRequestCount requests completed and the ratio of them
+ * failed by the service being unavailable (network errors, timeouts, server busy, partition unavailable, 5xx) reaches
+ * failureRatioThreshold. While open, the requests of the action and table fail at once with
+ * {@link CircuitBreakerOpenException}. After openDurationInMillis, one probe request is let through: the breaker
+ * closes if it succeeds, and opens again if it fails.
+ */
+public class CircuitBreakerConfiguration {
+
+    private double failureRatioThreshold = 0.5;
+    private int minRequestCount = 20;
+    private int windowSizeInSec = 10;
+    private long openDurationInMillis = 5000;
+
+    public CircuitBreakerConfiguration() {}
+
+    public double getFailureRatioThreshold() {
+        return failureRatioThreshold;
+    }
+
+    /**
+     * Set the failure ratio which opens the breaker, the default value is 0.5.
+     *
+     * @param failureRatioThreshold The ratio, in (0, 1].
+     */
+    public void setFailureRatioThreshold(double failureRatioThreshold) {
+        Preconditions.checkArgument(failureRatioThreshold > 0 && failureRatioThreshold <= 1,
+                "The failure ratio threshold should be in (0, 1].");
+        this.failureRatioThreshold = failureRatioThreshold;
+    }
+
+    public int getMinRequestCount() {
+        return minRequestCount;
+    }
+
+    /**
+     * Set the requests which must complete in the window before the breaker can open, the default value is 20.
+     *
+     * @param minRequestCount The count of requests, which is greater than 0.
+     */
+    public void setMinRequestCount(int minRequestCount) {
+        Preconditions.checkArgument(minRequestCount > 0, "The min request count should be greater than 0.");
+        this.minRequestCount = minRequestCount;
+    }
+
+    public int getWindowSizeInSec() {
+        return windowSizeInSec;
+    }
+
+    /**
+     * Set the length of the sliding window, the default value is 10 seconds.
+     *
+     * @param windowSizeInSec The length of the window in seconds.
+     */
+    public void setWindowSizeInSec(int windowSizeInSec) {
+        Preconditions.checkArgument(windowSizeInSec > 0, "The window size should be greater than 0.");
+        this.windowSizeInSec = windowSizeInSec;
+    }
+
+    public long getOpenDurationInMillis() {
+        return openDurationInMillis;
+    }
+
+    /**
+     * Set how long the breaker stays open before a probe request, the default value is 5000 milliseconds.
+     *
+     * @param openDurationInMillis The duration in milliseconds.
+     */
+    public void setOpenDurationInMillis(long openDurationInMillis) {
+        Preconditions.checkArgument(openDurationInMillis > 0, "The open duration should be greater than 0.");
+        this.openDurationInMillis = openDurationInMillis;
+    }
+}
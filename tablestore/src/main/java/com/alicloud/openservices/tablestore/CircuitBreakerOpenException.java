@@ -0,0 +1,19 @@
+package com.alicloud.openservices.tablestore;
+
+/**
+ * {@link CircuitBreakerOpenException} occurs when a request is not sent because the circuit breaker of its action and table
+ * is open, see {@link CircuitBreakerConfiguration}. It is not retried by the SDK.
+ */
+public class CircuitBreakerOpenException extends ClientException {
+
+    private static final long serialVersionUID = -2960371518305427045L;
+
+    /**
+     * Constructor.
+     *
+     * @param message Exception information
+     */
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
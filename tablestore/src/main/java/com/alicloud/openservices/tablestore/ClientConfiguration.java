@@ -4,6 +4,8 @@ import com.alicloud.openservices.tablestore.core.utils.Preconditions;
 import com.alicloud.openservices.tablestore.model.DefaultRetryStrategy;
 import com.alicloud.openservices.tablestore.model.RetryStrategy;
 
+import java.util.zip.Deflater;
+
 /**
  * Client configuration for accessing the Alibaba Cloud service.
  */
@@ -19,6 +21,7 @@ public class ClientConfiguration {
 
     private boolean enableRequestCompression = false;
     private boolean enableResponseCompression = false;
+    private int requestCompressionLevel = Deflater.DEFAULT_COMPRESSION;
     private boolean enableResponseValidation = true;
     private boolean enableResponseContentMD5Checking = false;
     private RetryStrategy retryStrategy = new DefaultRetryStrategy();
@@ -36,6 +39,36 @@ public class ClientConfiguration {
 
     private TimeseriesConfiguration timeseriesConfiguration;
 
+    /**
+     * The retry budget shared by all the requests of the client. Default is not enabled.
+     */
+    private RetryBudgetConfiguration retryBudgetConfiguration;
+
+    /**
+     * The circuit breakers of every action and table of the client. Default is not enabled.
+     */
+    private CircuitBreakerConfiguration circuitBreakerConfiguration;
+
+    /**
+     * The hedging of the point reads of the client. Default is not enabled.
+     */
+    private HedgingConfiguration hedgingConfiguration;
+
+    /**
+     * The cache of the rows read by the client. Default is not enabled.
+     */
+    private RowCacheConfiguration rowCacheConfiguration;
+
+    /**
+     * Whether to merge the concurrent identical GetRow requests into one request. Default is not enabled.
+     */
+    private boolean enableGetRowCoalescing = false;
+
+    /**
+     * The micro-batching of the GetRow requests of the client. Default is not enabled.
+     */
+    private GetRowBatchingConfiguration getRowBatchingConfiguration;
+
     /**
      * Whether to enable link tracking. Default is not enabled.
      */
@@ -87,6 +120,28 @@ public class ClientConfiguration {
         return enableRequestCompression;
     }
 
+    /**
+     * Set the deflate level used when request compression is enabled.
+     * {@link Deflater#BEST_SPEED} trades some compression ratio for much less CPU, and the request stays in the deflate format the server accepts.
+     *
+     * @param requestCompressionLevel The level from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}, or {@link Deflater#DEFAULT_COMPRESSION}.
+     */
+    public void setRequestCompressionLevel(int requestCompressionLevel) {
+        Preconditions.checkArgument(requestCompressionLevel == Deflater.DEFAULT_COMPRESSION
+                        || (requestCompressionLevel >= Deflater.BEST_SPEED && requestCompressionLevel <= Deflater.BEST_COMPRESSION),
+                "The request compression level should be between 1 and 9, or -1 for the default level.");
+        this.requestCompressionLevel = requestCompressionLevel;
+    }
+
+    /**
+     * Returns the deflate level used when request compression is enabled.
+     *
+     * @return The deflate level.
+     */
+    public int getRequestCompressionLevel() {
+        return requestCompressionLevel;
+    }
+
     /**
      * Whether to inform TableStore to compress the content of the returned response.
      *
@@ -591,4 +646,120 @@ public class ClientConfiguration {
      * @return sslSessionTimeout The timeout of the ssl session, 0 means no limit, -1 means not configured; timeout is in seconds
      */
     public int getSslSessionTimeoutInSec() { return sslSessionTimeoutInSec; }
+
+    /**
+     * Get the configuration of the retry budget.
+     *
+     * @return The configuration, or null if the retry budget is not enabled.
+     */
+    public RetryBudgetConfiguration getRetryBudgetConfiguration() {
+        return retryBudgetConfiguration;
+    }
+
+    /**
+     * Set the configuration of the retry budget. When the retries of the window exceed the budget, a failed request
+     * fails at once instead of being retried by the {@link RetryStrategy}.
+     *
+     * @param retryBudgetConfiguration The configuration, null means not enabled.
+     */
+    public void setRetryBudgetConfiguration(RetryBudgetConfiguration retryBudgetConfiguration) {
+        this.retryBudgetConfiguration = retryBudgetConfiguration;
+    }
+
+    /**
+     * Get the configuration of the circuit breakers.
+     *
+     * @return The configuration, or null if the circuit breakers are not enabled.
+     */
+    public CircuitBreakerConfiguration getCircuitBreakerConfiguration() {
+        return circuitBreakerConfiguration;
+    }
+
+    /**
+     * Set the configuration of the circuit breakers. When the breaker of an action and a table is open, its requests
+     * fail at once with {@link CircuitBreakerOpenException}.
+     *
+     * @param circuitBreakerConfiguration The configuration, null means not enabled.
+     */
+    public void setCircuitBreakerConfiguration(CircuitBreakerConfiguration circuitBreakerConfiguration) {
+        this.circuitBreakerConfiguration = circuitBreakerConfiguration;
+    }
+
+    /**
+     * Get the configuration of the hedging of the point reads.
+     *
+     * @return The configuration, or null if hedging is not enabled.
+     */
+    public HedgingConfiguration getHedgingConfiguration() {
+        return hedgingConfiguration;
+    }
+
+    /**
+     * Set the configuration of the hedging of the point reads. A GetRow or BatchGetRow request which has not completed
+     * after a percentile of the recent latencies is sent again, and the first response is returned.
+     *
+     * @param hedgingConfiguration The configuration, null means not enabled.
+     */
+    public void setHedgingConfiguration(HedgingConfiguration hedgingConfiguration) {
+        this.hedgingConfiguration = hedgingConfiguration;
+    }
+
+    /**
+     * Get the configuration of the row cache.
+     *
+     * @return The configuration, or null if the row cache is not enabled.
+     */
+    public RowCacheConfiguration getRowCacheConfiguration() {
+        return rowCacheConfiguration;
+    }
+
+    /**
+     * Set the configuration of the row cache, which serves the repeated reads of the latest version of a row
+     * from the memory of the client.
+     *
+     * @param rowCacheConfiguration The configuration, null means not enabled.
+     */
+    public void setRowCacheConfiguration(RowCacheConfiguration rowCacheConfiguration) {
+        this.rowCacheConfiguration = rowCacheConfiguration;
+    }
+
+    /**
+     * Get whether the concurrent identical GetRow requests are merged into one request.
+     */
+    public boolean isEnableGetRowCoalescing() {
+        return enableGetRowCoalescing;
+    }
+
+    /**
+     * Set whether to merge the concurrent identical GetRow requests into one request. A GetRow request issued while
+     * a request of the same table, primary key, columns to get, max versions and time range is in flight is not sent,
+     * it is completed with the response of the request in flight.<br/>
+     * So a read may be served the row as of a read sent up to one round trip earlier. The writes of a row through this
+     * client detach its reads in flight, so the reads issued after a write completes are sent again, but the writes of
+     * other clients are not seen until the reads in flight complete.
+     *
+     * @param enableGetRowCoalescing Whether to merge the concurrent identical GetRow requests.
+     */
+    public void setEnableGetRowCoalescing(boolean enableGetRowCoalescing) {
+        this.enableGetRowCoalescing = enableGetRowCoalescing;
+    }
+
+    /**
+     * Get the configuration of the micro-batching of the GetRow requests.
+     *
+     * @return The configuration, or null if the micro-batching is not enabled.
+     */
+    public GetRowBatchingConfiguration getGetRowBatchingConfiguration() {
+        return getRowBatchingConfiguration;
+    }
+
+    /**
+     * Set the configuration of the micro-batching of the GetRow requests. The GetRow requests issued within a short
+     * delay of each other are sent as one BatchGetRow request.
+     *
+     * @param getRowBatchingConfiguration The configuration, null means not enabled.
+     */
+    public void setGetRowBatchingConfiguration(GetRowBatchingConfiguration getRowBatchingConfiguration) {
+        this.getRowBatchingConfiguration = getRowBatchingConfiguration;
+    }
 }
@@ -75,6 +75,7 @@ public class DefaultTableStoreTimeseriesWriter implements TableStoreTimeseriesWr
         this.executor = executor;
         this.allowDuplicatePkInBatchRequest = timeseriesWriterConfig.isAllowDuplicatedRowInBatchRequest();
         semaphore = new Semaphore(timeseriesWriterConfig.getConcurrency());
+        timeseriesWriterHandleStatistics.setConcurrencyLimit(timeseriesWriterConfig.getConcurrency());
         isInnerConstruct = false;
         initialize();
         closed.set(false);
@@ -116,6 +117,7 @@ public class DefaultTableStoreTimeseriesWriter implements TableStoreTimeseriesWr
         this.executor = this.createThreadPool(config);
         this.allowDuplicatePkInBatchRequest = this.timeseriesWriterConfig.isAllowDuplicatedRowInBatchRequest();
         this.semaphore = new Semaphore(this.timeseriesWriterConfig.getConcurrency());
+        this.timeseriesWriterHandleStatistics.setConcurrencyLimit(this.timeseriesWriterConfig.getConcurrency());
         this.isInnerConstruct = true;
         this.initialize();
         this.closed.set(false);
@@ -146,6 +148,7 @@ public class DefaultTableStoreTimeseriesWriter implements TableStoreTimeseriesWr
         this.executor = this.createThreadPool(config);
         this.allowDuplicatePkInBatchRequest = this.timeseriesWriterConfig.isAllowDuplicatedRowInBatchRequest();
         this.semaphore = new Semaphore(this.timeseriesWriterConfig.getConcurrency());
+        this.timeseriesWriterHandleStatistics.setConcurrencyLimit(this.timeseriesWriterConfig.getConcurrency());
         this.isInnerConstruct = true;
         this.initialize();
         this.closed.set(false);
@@ -9,7 +9,9 @@ import com.alicloud.openservices.tablestore.model.*;
 import com.alicloud.openservices.tablestore.writer.*;
 import com.alicloud.openservices.tablestore.writer.config.BucketConfig;
 import com.alicloud.openservices.tablestore.writer.dispatch.*;
+import com.alicloud.openservices.tablestore.writer.enums.BufferFullPolicy;
 import com.alicloud.openservices.tablestore.writer.Group;
+import com.alicloud.openservices.tablestore.writer.handle.AdaptiveConcurrencySemaphore;
 import com.alicloud.openservices.tablestore.writer.handle.WriterHandleStatistics;
 import com.alicloud.openservices.tablestore.writer.retry.CertainCodeNotRetryStrategy;
 import com.alicloud.openservices.tablestore.writer.retry.CertainCodeRetryStrategy;
@@ -80,7 +82,7 @@ public class DefaultTableStoreWriter implements TableStoreWriter {
         this.resultCallback = createResultCallback(callback);
         this.executor = executor;
         this.allowDuplicatePkInBatchRequest = writerConfig.isAllowDuplicatedRowInBatchRequest();
-        semaphore = new Semaphore(writerConfig.getConcurrency());
+        semaphore = createSemaphore(writerConfig);
         isInnerConstruct = false;
 
         initialize();
@@ -114,7 +116,7 @@ public class DefaultTableStoreWriter implements TableStoreWriter {
         this.resultCallback = resultCallback;
         this.executor = createThreadPool(config);
         this.allowDuplicatePkInBatchRequest = writerConfig.isAllowDuplicatedRowInBatchRequest();
-        semaphore = new Semaphore(writerConfig.getConcurrency());
+        semaphore = createSemaphore(writerConfig);
         isInnerConstruct = true;
 
         initialize();
@@ -138,7 +140,7 @@ public class DefaultTableStoreWriter implements TableStoreWriter {
         this.resultCallback = resultCallback;
         this.executor = createThreadPool(config);
         this.allowDuplicatePkInBatchRequest = writerConfig.isAllowDuplicatedRowInBatchRequest();
-        semaphore = new Semaphore(writerConfig.getConcurrency());
+        semaphore = createSemaphore(writerConfig);
         isInnerConstruct = true;
 
         initialize();
@@ -146,6 +148,18 @@ public class DefaultTableStoreWriter implements TableStoreWriter {
     }
 
 
+    private Semaphore createSemaphore(WriterConfig config) {
+        if (config.isEnableAdaptiveConcurrency()) {
+            Preconditions.checkArgument(config.getMinConcurrency() <= config.getConcurrency()
+                            && config.getConcurrency() <= config.getMaxConcurrency(),
+                    "The concurrency should be between the MinConcurrency and the MaxConcurrency.");
+            return new AdaptiveConcurrencySemaphore(config.getConcurrency(), config.getMinConcurrency(),
+                    config.getMaxConcurrency(), writerStatistics);
+        }
+        writerStatistics.setConcurrencyLimit(config.getConcurrency());
+        return new Semaphore(config.getConcurrency());
+    }
+
     private void initialize() {
         logger.info("Start initialize ots writer, table name: {}.", tableName);
         DescribeTableRequest request = new DescribeTableRequest();
@@ -172,7 +186,8 @@ public class DefaultTableStoreWriter implements TableStoreWriter {
                     this.writerConfig.getWriteMode(),
                     this.allowDuplicatePkInBatchRequest);
 
-            buckets[i] = new Bucket(bucketConfig, ots, writerConfig, resultCallback, executor, writerStatistics, semaphore);
+            buckets[i] = new Bucket(bucketConfig, ots, writerConfig, resultCallback, executor, writerStatistics, semaphore,
+                    scheduledExecutorService);
         }
 
         switch (writerConfig.getDispatchMode()) {
@@ -241,16 +256,7 @@ public class DefaultTableStoreWriter implements TableStoreWriter {
         }
 
         Group group = new Group(1);
-        while (true) {
-            if (!addRowChangeInternal(rowChange, group)) {
-                try {
-                    Thread.sleep(1);
-                } catch (InterruptedException exp) {
-                }
-            } else {
-                break;
-            }
-        }
+        addRowChangeBlocking(rowChange, group);
     }
 
     @Override
@@ -260,16 +266,7 @@ public class DefaultTableStoreWriter implements TableStoreWriter {
         }
 
         Group group = new Group(1);
-        while (true) {
-            if (!addRowChangeInternal(rowChange, group)) {
-                try {
-                    Thread.sleep(1);
-                } catch (InterruptedException exp) {
-                }
-            } else {
-                break;
-            }
-        }
+        addRowChangeBlocking(rowChange, group);
 
         return group.getFuture();
     }
@@ -284,6 +281,72 @@ public class DefaultTableStoreWriter implements TableStoreWriter {
         return addRowChangeInternal(rowChange, group);
     }
 
+    @Override
+    public boolean offerRowChange(RowChange rowChange, long timeout, TimeUnit unit) {
+        Preconditions.checkArgument(timeout >= 0, "The timeout should not be negative.");
+        if (writerConfig.isEnableSchemaCheck()) {
+            ParamChecker.checkRowChange(tableMeta, rowChange, writerConfig);
+        }
+
+        Group group = new Group(1);
+        if (!offerRowChangeInternal(rowChange, group, unit.toNanos(timeout))) {
+            writerStatistics.incrementRejectedRowsCount();
+            return false;
+        }
+        return true;
+    }
+
+    private void addRowChangeBlocking(RowChange rowChange, Group group) {
+        if (BufferFullPolicy.REJECT.equals(writerConfig.getBufferFullPolicy())) {
+            if (!addRowChangeInternal(rowChange, group)) {
+                writerStatistics.incrementRejectedRowsCount();
+                throw new ClientException("The buffer of the writer is full.");
+            }
+            return;
+        }
+        offerRowChangeInternal(rowChange, group, -1);
+    }
+
+    /**
+     * Adds the row into its bucket. While the buffer of the bucket is full, the caller is parked until the bucket frees a slot.
+     *
+     * @param timeoutNanos The maximum time to wait, or a negative value to wait without a timeout.
+     * @return false if the buffer is still full when the timeout elapses.
+     */
+    private boolean offerRowChangeInternal(RowChange rowChange, Group group, long timeoutNanos) {
+        if (closed.get()) {
+            throw new ClientException("The writer has been closed.");
+        }
+
+        Bucket bucket = buckets[dispatcher.getDispatchIndex(rowChange)];
+        if (bucket.addRowChange(rowChange, group)) {
+            return true;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            while (!bucket.addRowChange(rowChange, group)) {
+                if (closed.get()) {
+                    throw new ClientException("The writer has been closed.");
+                }
+                long remaining = -1;
+                if (timeoutNanos >= 0) {
+                    remaining = timeoutNanos - (System.nanoTime() - startTime);
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                }
+                bucket.awaitCapacity(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException(String.format("The thread was interrupted: %s", e.getMessage()));
+        } finally {
+            writerStatistics.addBlockedTime(System.nanoTime() - startTime);
+        }
+    }
+
     private boolean addRowChangeInternal(RowChange rowChange, final Group group) {
         if (closed.get()) {
             throw new ClientException("The writer has been closed.");
@@ -348,16 +411,7 @@ public class DefaultTableStoreWriter implements TableStoreWriter {
             }
 
             try {
-                while (true) {
-                    if (!addRowChangeInternal(rowChange, group)) {
-                        try {
-                            Thread.sleep(1);
-                        } catch (InterruptedException exp) {
-                        }
-                    } else {
-                        break;
-                    }
-                }
+                addRowChangeBlocking(rowChange, group);
             } catch (ClientException e) {
                 group.failedOneRow(rowChange, e);
             }
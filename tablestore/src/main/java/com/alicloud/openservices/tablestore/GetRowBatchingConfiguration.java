@@ -0,0 +1,52 @@
+package com.alicloud.openservices.tablestore;
+
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+
+/**
+ * The micro-batching of the GetRow requests of a client. The GetRow requests of the same table and criteria issued
+ * within maxDelayInMicros of each other are sent as one BatchGetRow request of at most maxBatchSize rows, and each
+ * request is completed with the result of its row. A row which fails in the batch is sent again as a GetRow request,
+ * with the retry strategy of the client. The requests with a filter, a start or end column, a token or a transaction
+ * are not batched.
+ */
+public class GetRowBatchingConfiguration {
+
+    /**
+     * The max count of rows of a BatchGetRow request.
+     */
+    public static final int MAX_BATCH_SIZE_LIMIT = 100;
+
+    private int maxBatchSize = MAX_BATCH_SIZE_LIMIT;
+    private long maxDelayInMicros = 500;
+
+    public GetRowBatchingConfiguration() {}
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Set the count of rows at which a batch is sent at once, the default value is 100.
+     *
+     * @param maxBatchSize The count of rows, which is in [1, 100].
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        Preconditions.checkArgument(maxBatchSize > 0 && maxBatchSize <= MAX_BATCH_SIZE_LIMIT,
+                "The max batch size should be in [1, " + MAX_BATCH_SIZE_LIMIT + "].");
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getMaxDelayInMicros() {
+        return maxDelayInMicros;
+    }
+
+    /**
+     * Set the time the first request of a batch waits for the others, the default value is 500 microseconds.
+     *
+     * @param maxDelayInMicros The time in microseconds, which is greater than 0.
+     */
+    public void setMaxDelayInMicros(long maxDelayInMicros) {
+        Preconditions.checkArgument(maxDelayInMicros > 0, "The max delay should be greater than 0.");
+        this.maxDelayInMicros = maxDelayInMicros;
+    }
+}
@@ -0,0 +1,78 @@
+package com.alicloud.openservices.tablestore;
+
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+
+/**
+ * The hedging of the idempotent point reads of a client, i.e. GetRow and BatchGetRow.
+ * When a request has not completed after the latencyPercentile of the recent latencies of its action, a duplicate
+ * request is sent, the first response is returned and the other request is cancelled, so a slow replica does not set
+ * the tail latency. Every request adds hedgeRatio tokens to a bucket of at most maxHedgeTokens tokens, and a hedge
+ * takes a token, so the hedges are at most hedgeRatio of the requests and can not overload the service.
+ */
+public class HedgingConfiguration {
+
+    private double latencyPercentile = 0.95;
+    private long minDelayInMillis = 5;
+    private double hedgeRatio = 0.05;
+    private int maxHedgeTokens = 10;
+
+    public HedgingConfiguration() {}
+
+    public double getLatencyPercentile() {
+        return latencyPercentile;
+    }
+
+    /**
+     * Set the percentile of the recent latencies after which a request is hedged, the default value is 0.95.
+     *
+     * @param latencyPercentile The percentile, which is in (0, 1).
+     */
+    public void setLatencyPercentile(double latencyPercentile) {
+        Preconditions.checkArgument(latencyPercentile > 0 && latencyPercentile < 1,
+                "The latency percentile should be in (0, 1).");
+        this.latencyPercentile = latencyPercentile;
+    }
+
+    public long getMinDelayInMillis() {
+        return minDelayInMillis;
+    }
+
+    /**
+     * Set the min delay before a request is hedged, the default value is 5 milliseconds.
+     *
+     * @param minDelayInMillis The delay in milliseconds, which is not negative.
+     */
+    public void setMinDelayInMillis(long minDelayInMillis) {
+        Preconditions.checkArgument(minDelayInMillis >= 0, "The min delay can not be negative.");
+        this.minDelayInMillis = minDelayInMillis;
+    }
+
+    public double getHedgeRatio() {
+        return hedgeRatio;
+    }
+
+    /**
+     * Set the tokens added to the bucket by every request, i.e. the max ratio of the hedges to the requests.
+     * The default value is 0.05.
+     *
+     * @param hedgeRatio The ratio, which is in (0, 1].
+     */
+    public void setHedgeRatio(double hedgeRatio) {
+        Preconditions.checkArgument(hedgeRatio > 0 && hedgeRatio <= 1, "The hedge ratio should be in (0, 1].");
+        this.hedgeRatio = hedgeRatio;
+    }
+
+    public int getMaxHedgeTokens() {
+        return maxHedgeTokens;
+    }
+
+    /**
+     * Set the capacity of the token bucket, i.e. the max burst of hedges, the default value is 10.
+     *
+     * @param maxHedgeTokens The capacity, which is greater than 0.
+     */
+    public void setMaxHedgeTokens(int maxHedgeTokens) {
+        Preconditions.checkArgument(maxHedgeTokens > 0, "The max hedge tokens should be greater than 0.");
+        this.maxHedgeTokens = maxHedgeTokens;
+    }
+}
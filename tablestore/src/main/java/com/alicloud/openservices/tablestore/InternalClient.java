@@ -15,8 +15,11 @@ import com.alicloud.openservices.tablestore.model.sql.SQLQueryResponse;
 import com.alicloud.openservices.tablestore.model.timeseries.*;
 import com.alicloud.openservices.tablestore.model.tunnel.*;
 import com.alicloud.openservices.tablestore.model.tunnel.internal.*;
-import com.google.common.cache.Cache;
+import com.alicloud.openservices.tablestore.core.utils.TimeseriesMetaCache;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
@@ -37,7 +40,10 @@ public class InternalClient {
     private RetryStrategy retryStrategy;
     private LauncherFactory launcherFactory;
     private Random random = new Random();
-    private Cache<String, Long> timeseriesMetaCache;
+    private TimeseriesMetaCache timeseriesMetaCache;
+    private RowCache rowCache;
+    private GetRowCoalescer getRowCoalescer;
+    private GetRowBatcher getRowBatcher;
 
     /**
      * Constructs a new {@link AsyncClient} instance using the specified TableStore Endpoint and default configuration.
@@ -159,6 +165,24 @@ public class InternalClient {
         this.callbackExecutor = this.resourceManager.getResources().getCallbackExecutor();
 
         this.launcherFactory = new LauncherFactory(endpoint, instanceName, httpClient, crdsProvider, config);
+
+        if (config.getRowCacheConfiguration() != null) {
+            this.rowCache = new RowCache(config.getRowCacheConfiguration());
+        }
+
+        if (config.isEnableGetRowCoalescing()) {
+            this.getRowCoalescer = new GetRowCoalescer();
+        }
+
+        if (config.getGetRowBatchingConfiguration() != null) {
+            this.getRowBatcher = new GetRowBatcher(config.getGetRowBatchingConfiguration()) {
+                @Override
+                protected void send(BatchGetRowRequest request,
+                                    TableStoreCallback<BatchGetRowRequest, BatchGetRowResponse> callback) {
+                    sendBatchedGetRows(request, callback);
+                }
+            };
+        }
     }
 
     public void setExtraHeaders(Map<String, String> extraHeaders) {
@@ -192,14 +216,156 @@ public class InternalClient {
         return clientConfig;
     }
 
-    protected void setTimeseriesMetaCache(Cache<String, Long> cache) {
+    /**
+     * Returns the retry budget, see {@link ClientConfiguration#setRetryBudgetConfiguration}.
+     *
+     * @return the retry budget, or null if it is not enabled
+     */
+    public RetryBudget getRetryBudget() {
+        return httpClient.getRetryBudget();
+    }
+
+    /**
+     * Returns the circuit breakers, see {@link ClientConfiguration#setCircuitBreakerConfiguration}.
+     *
+     * @return the circuit breakers, or null if they are not enabled
+     */
+    public CircuitBreakerRegistry getCircuitBreakerRegistry() {
+        return httpClient.getCircuitBreakerRegistry();
+    }
+
+    /**
+     * Returns the hedger of the point reads, see {@link ClientConfiguration#setHedgingConfiguration}.
+     *
+     * @return the hedger, or null if hedging is not enabled
+     */
+    public RequestHedger getRequestHedger() {
+        return httpClient.getRequestHedger();
+    }
+
+    /**
+     * Returns the cache of the rows read, see {@link ClientConfiguration#setRowCacheConfiguration}.
+     *
+     * @return the row cache, or null if it is not enabled
+     */
+    public RowCache getRowCache() {
+        return rowCache;
+    }
+
+    /**
+     * Returns the coalescer of the identical GetRow requests, see {@link ClientConfiguration#setEnableGetRowCoalescing}.
+     *
+     * @return the coalescer, or null if it is not enabled
+     */
+    public GetRowCoalescer getGetRowCoalescer() {
+        return getRowCoalescer;
+    }
+
+    /**
+     * Returns the batcher of the GetRow requests, see {@link ClientConfiguration#setGetRowBatchingConfiguration}.
+     *
+     * @return the batcher, or null if it is not enabled
+     */
+    public GetRowBatcher getGetRowBatcher() {
+        return getRowBatcher;
+    }
+
+    protected void setTimeseriesMetaCache(TimeseriesMetaCache cache) {
         timeseriesMetaCache = cache;
     }
 
-    protected Cache<String, Long> getTimeseriesMetaCache() {
+    protected TimeseriesMetaCache getTimeseriesMetaCache() {
         return this.timeseriesMetaCache;
     }
 
+    private TableStoreCallback<GetRowRequest, GetRowResponse> cacheRowOnCompletion(final long sentAtNanos) {
+        return new TableStoreCallback<GetRowRequest, GetRowResponse>() {
+            @Override
+            public void onCompleted(GetRowRequest req, GetRowResponse res) {
+                // a wide row with a next token is partial, a cache hit would return it as complete
+                if (res.hasNextToken()) {
+                    return;
+                }
+                SingleRowQueryCriteria criteria = req.getRowQueryCriteria();
+                rowCache.put(criteria.getTableName(), criteria.getPrimaryKey(), criteria.getColumnsToGet(), res.getRow(), sentAtNanos);
+            }
+
+            @Override
+            public void onFailed(GetRowRequest req, Exception ex) {
+            }
+        };
+    }
+
+    /**
+     * Sends a batch of the GetRow requests. Its failed rows are not retried in the batch, the batcher sends them again
+     * as GetRow requests.
+     */
+    private void sendBatchedGetRows(BatchGetRowRequest request,
+            TableStoreCallback<BatchGetRowRequest, BatchGetRowResponse> callback) {
+        TraceLogger tracer = getTraceLogger();
+        RetryStrategy retry = GetRowBatcher.withoutPartialRetry(this.retryStrategy.clone());
+        BatchGetRowLauncher launcher = launcherFactory.batchGetRow(tracer, retry, request);
+
+        AsyncCompletion<BatchGetRowRequest, BatchGetRowResponse> completion = new AsyncCompletion<BatchGetRowRequest, BatchGetRowResponse>(
+                launcher, request, tracer, callbackExecutor, retry, retryExecutor);
+        completion.watchBy(callback);
+
+        launcher.launch(request, completion);
+    }
+
+    private boolean isRowCacheable(GetRowRequest request) {
+        SingleRowQueryCriteria criteria = request.getRowQueryCriteria();
+        return RowCache.isCacheable(criteria) && !criteria.hasSetToken() && !request.hasSetTransactionId();
+    }
+
+    /**
+     * Invalidates the cached rows and the GetRow requests in flight of the written rows both when the write is sent
+     * and when it completes, before the future of the write is notified. So neither a read sent before the write nor
+     * a read racing with it leaves a stale row in the cache, and the reads issued after the write has completed do not
+     * share the response of a read sent before it.
+     *
+     * @return the callback notifying the future after the invalidation
+     */
+    private <Req extends Request, Res extends Response> TableStoreCallback<Req, Res> invalidateRowsBefore(
+            final TableStoreCallback<Req, Res> future, final List<RowChange> rowChanges) {
+        if (rowCache == null && getRowCoalescer == null) {
+            return future;
+        }
+        invalidateCachedRows(rowChanges);
+        return new TableStoreCallback<Req, Res>() {
+            @Override
+            public void onCompleted(Req req, Res res) {
+                invalidateCachedRows(rowChanges);
+                future.onCompleted(req, res);
+            }
+
+            @Override
+            public void onFailed(Req req, Exception ex) {
+                invalidateCachedRows(rowChanges);
+                future.onFailed(req, ex);
+            }
+        };
+    }
+
+    private void invalidateCachedRows(List<RowChange> rowChanges) {
+        for (RowChange rowChange : rowChanges) {
+            if (rowCache != null) {
+                rowCache.invalidate(rowChange.getTableName(), rowChange.getPrimaryKey());
+            }
+            if (getRowCoalescer != null) {
+                getRowCoalescer.invalidate(rowChange.getTableName(), rowChange.getPrimaryKey());
+            }
+        }
+    }
+
+    private static List<RowChange> flatten(Map<String, List<RowChange>> rowChangesByTable) {
+        List<RowChange> rowChanges = new ArrayList<RowChange>();
+        for (List<RowChange> tableRowChanges : rowChangesByTable.values()) {
+            rowChanges.addAll(tableRowChanges);
+        }
+        return rowChanges;
+    }
+
     private TraceLogger getTraceLogger() {
         String traceId = new UUID(random.nextLong(), (new Random()).nextLong()).toString();
         return new TraceLogger(traceId, this.clientConfig.getTimeThresholdOfTraceLogger());
@@ -560,7 +726,7 @@ public class InternalClient {
             f.watchBy(callback);
         }
 
-        launcher.fire(request, completion);
+        launcher.launch(request, completion);
 
         return f;
     }
@@ -583,7 +749,32 @@ public class InternalClient {
             f.watchBy(callback);
         }
 
-        launcher.fire(request, completion);
+        boolean cacheable = rowCache != null && isRowCacheable(request);
+        if (cacheable) {
+            SingleRowQueryCriteria criteria = request.getRowQueryCriteria();
+            RowCache.Entry entry = rowCache.get(criteria.getTableName(), criteria.getPrimaryKey(), criteria.getColumnsToGet());
+            if (entry != null) {
+                completion.onCompleted(request, new GetRowResponse(new Response(tracer.getTraceId()), entry.getRow(),
+                        new ConsumedCapacity(new CapacityUnit(0, 0))));
+                return f;
+            }
+        }
+
+        // only the request which is sent caches its response
+        if (getRowCoalescer != null && GetRowCoalescer.isCoalescible(request) && getRowCoalescer.coalesce(request, completion)) {
+            return f;
+        }
+
+        if (cacheable) {
+            completion.watchBy(cacheRowOnCompletion(System.nanoTime()));
+        }
+
+        if (getRowBatcher != null && GetRowBatcher.isBatchable(request)) {
+            getRowBatcher.add(request, launcher, completion);
+            return f;
+        }
+
+        launcher.launch(request, completion);
 
         return f;
     }
@@ -599,7 +790,7 @@ public class InternalClient {
         AsyncCompletion<PutRowRequest, PutRowResponse> completion = new AsyncCompletion<PutRowRequest, PutRowResponse>(
                 launcher, request, tracer, callbackExecutor, retry, retryExecutor);
         CallbackImpledFuture<PutRowRequest, PutRowResponse> f = new CallbackImpledFuture<PutRowRequest, PutRowResponse>();
-        completion.watchBy(f);
+        completion.watchBy(invalidateRowsBefore(f, Collections.<RowChange>singletonList(request.getRowChange())));
         if (callback != null) {
             // user callback must be triggered after completion of the return
             // future.
@@ -622,7 +813,7 @@ public class InternalClient {
         AsyncCompletion<UpdateRowRequest, UpdateRowResponse> completion = new AsyncCompletion<UpdateRowRequest, UpdateRowResponse>(
                 launcher, request, tracer, callbackExecutor, retry, retryExecutor);
         CallbackImpledFuture<UpdateRowRequest, UpdateRowResponse> f = new CallbackImpledFuture<UpdateRowRequest, UpdateRowResponse>();
-        completion.watchBy(f);
+        completion.watchBy(invalidateRowsBefore(f, Collections.<RowChange>singletonList(request.getRowChange())));
         if (callback != null) {
             // user callback must be triggered after completion of the return
             // future.
@@ -645,7 +836,7 @@ public class InternalClient {
         AsyncCompletion<DeleteRowRequest, DeleteRowResponse> completion = new AsyncCompletion<DeleteRowRequest, DeleteRowResponse>(
                 launcher, request, tracer, callbackExecutor, retry, retryExecutor);
         CallbackImpledFuture<DeleteRowRequest, DeleteRowResponse> f = new CallbackImpledFuture<DeleteRowRequest, DeleteRowResponse>();
-        completion.watchBy(f);
+        completion.watchBy(invalidateRowsBefore(f, Collections.<RowChange>singletonList(request.getRowChange())));
         if (callback != null) {
             // user callback must be triggered after completion of the return
             // future.
@@ -675,7 +866,7 @@ public class InternalClient {
             f.watchBy(callback);
         }
 
-        launcher.fire(request, completion);
+        launcher.launch(request, completion);
 
         return f;
     }
@@ -698,7 +889,7 @@ public class InternalClient {
             f.watchBy(callback);
         }
 
-        launcher.fire(request, completion);
+        launcher.launch(request, completion);
 
         return f;
     }
@@ -714,7 +905,7 @@ public class InternalClient {
         AsyncCompletion<BatchWriteRowRequest, BatchWriteRowResponse> completion = new AsyncCompletion<BatchWriteRowRequest, BatchWriteRowResponse>(
                 launcher, request, tracer, callbackExecutor, retry, retryExecutor);
         CallbackImpledFuture<BatchWriteRowRequest, BatchWriteRowResponse> f = new CallbackImpledFuture<BatchWriteRowRequest, BatchWriteRowResponse>();
-        completion.watchBy(f);
+        completion.watchBy(invalidateRowsBefore(f, flatten(request.getRowChange())));
         if (callback != null) {
             // user callback must be triggered after completion of the return
             // future.
@@ -736,7 +927,7 @@ public class InternalClient {
         AsyncCompletion<BulkImportRequest, BulkImportResponse> completion = new AsyncCompletion<BulkImportRequest, BulkImportResponse>(
                 launcher, request, tracer, callbackExecutor, retry, retryExecutor);
         CallbackImpledFuture<BulkImportRequest, BulkImportResponse> f = new CallbackImpledFuture<BulkImportRequest, BulkImportResponse>();
-        completion.watchBy(f);
+        completion.watchBy(invalidateRowsBefore(f, request.getRowChange()));
         if (callback != null) {
             // user callback must be triggered after completion of the return
             // future.
@@ -866,6 +1057,9 @@ public class InternalClient {
     }
 
     public void shutdown() {
+        if (this.getRowBatcher != null) {
+            this.getRowBatcher.shutdown();
+        }
         this.resourceManager.shutdown();
         if (this.timeseriesMetaCache != null) {
             this.timeseriesMetaCache.invalidateAll();
@@ -0,0 +1,60 @@
+package com.alicloud.openservices.tablestore;
+
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+
+/**
+ * The retry budget shared by all the requests of a client. Within the sliding window, the retries can be at most
+ * retryRatio of the sent requests plus minRetriesPerSecond per second. Once the budget is spent, failed requests are
+ * returned to the caller without retry, instead of multiplying the load during an outage.
+ */
+public class RetryBudgetConfiguration {
+
+    private double retryRatio = 0.1;
+    private int minRetriesPerSecond = 10;
+    private int windowSizeInSec = 10;
+
+    public RetryBudgetConfiguration() {}
+
+    public double getRetryRatio() {
+        return retryRatio;
+    }
+
+    /**
+     * Set the max ratio of the retries to the requests sent in the window, the default value is 0.1.
+     *
+     * @param retryRatio The ratio, which is not negative.
+     */
+    public void setRetryRatio(double retryRatio) {
+        Preconditions.checkArgument(retryRatio >= 0, "The retry ratio can not be negative.");
+        this.retryRatio = retryRatio;
+    }
+
+    public int getMinRetriesPerSecond() {
+        return minRetriesPerSecond;
+    }
+
+    /**
+     * Set the retries allowed per second regardless of the ratio, so that a client with few requests can still retry.
+     * The default value is 10.
+     *
+     * @param minRetriesPerSecond The retries per second, which is not negative.
+     */
+    public void setMinRetriesPerSecond(int minRetriesPerSecond) {
+        Preconditions.checkArgument(minRetriesPerSecond >= 0, "The min retries per second can not be negative.");
+        this.minRetriesPerSecond = minRetriesPerSecond;
+    }
+
+    public int getWindowSizeInSec() {
+        return windowSizeInSec;
+    }
+
+    /**
+     * Set the length of the sliding window, the default value is 10 seconds.
+     *
+     * @param windowSizeInSec The length of the window in seconds.
+     */
+    public void setWindowSizeInSec(int windowSizeInSec) {
+        Preconditions.checkArgument(windowSizeInSec > 0, "The window size should be greater than 0.");
+        this.windowSizeInSec = windowSizeInSec;
+    }
+}
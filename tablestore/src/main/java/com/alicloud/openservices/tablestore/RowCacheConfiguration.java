@@ -0,0 +1,77 @@
+package com.alicloud.openservices.tablestore;
+
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+
+/**
+ * The in-process cache of the rows read by a client, keyed by the table, the primary key and the columns to get.
+ * A GetRow of the latest version (MaxVersions 1, without time range, filter, start or end column) is served from the
+ * cache, and so is a row read by {@link DefaultTableStoreReader} with such a criteria. The absence of a row is also
+ * cached for negativeTtlInMillis. The PutRow, UpdateRow, DeleteRow, BatchWriteRow and BulkImport requests of the same
+ * client, including the ones of {@link DefaultTableStoreWriter}, invalidate the rows they write. The writes of other
+ * clients are only seen after the entries expire.
+ */
+public class RowCacheConfiguration {
+
+    private long maxRowCount = 10000;
+    private long maxWeightInBytes = 64 * 1024 * 1024;
+    private long ttlInMillis = 5000;
+    private long negativeTtlInMillis = 1000;
+
+    public RowCacheConfiguration() {}
+
+    public long getMaxRowCount() {
+        return maxRowCount;
+    }
+
+    /**
+     * Set the max count of the cached rows, the default value is 10000.
+     *
+     * @param maxRowCount The max count, which is greater than 0.
+     */
+    public void setMaxRowCount(long maxRowCount) {
+        Preconditions.checkArgument(maxRowCount > 0, "The max row count should be greater than 0.");
+        this.maxRowCount = maxRowCount;
+    }
+
+    public long getMaxWeightInBytes() {
+        return maxWeightInBytes;
+    }
+
+    /**
+     * Set the max total size of the cached rows, the default value is 64MB.
+     *
+     * @param maxWeightInBytes The max size in bytes, which is greater than 0.
+     */
+    public void setMaxWeightInBytes(long maxWeightInBytes) {
+        Preconditions.checkArgument(maxWeightInBytes > 0, "The max weight should be greater than 0.");
+        this.maxWeightInBytes = maxWeightInBytes;
+    }
+
+    public long getTtlInMillis() {
+        return ttlInMillis;
+    }
+
+    /**
+     * Set the time a row stays in the cache after it is read, the default value is 5000 milliseconds.
+     *
+     * @param ttlInMillis The time in milliseconds, which is greater than 0.
+     */
+    public void setTtlInMillis(long ttlInMillis) {
+        Preconditions.checkArgument(ttlInMillis > 0, "The ttl should be greater than 0.");
+        this.ttlInMillis = ttlInMillis;
+    }
+
+    public long getNegativeTtlInMillis() {
+        return negativeTtlInMillis;
+    }
+
+    /**
+     * Set the time the absence of a row stays in the cache, the default value is 1000 milliseconds.
+     *
+     * @param negativeTtlInMillis The time in milliseconds, 0 means the absence of a row is not cached.
+     */
+    public void setNegativeTtlInMillis(long negativeTtlInMillis) {
+        Preconditions.checkArgument(negativeTtlInMillis >= 0, "The negative ttl can not be negative.");
+        this.negativeTtlInMillis = negativeTtlInMillis;
+    }
+}
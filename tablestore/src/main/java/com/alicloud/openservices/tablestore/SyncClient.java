@@ -4,7 +4,13 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.*;
 
+import com.alicloud.openservices.tablestore.core.CircuitBreakerRegistry;
+import com.alicloud.openservices.tablestore.core.GetRowBatcher;
+import com.alicloud.openservices.tablestore.core.GetRowCoalescer;
+import com.alicloud.openservices.tablestore.core.RequestHedger;
 import com.alicloud.openservices.tablestore.core.ResourceManager;
+import com.alicloud.openservices.tablestore.core.RetryBudget;
+import com.alicloud.openservices.tablestore.core.RowCache;
 import com.alicloud.openservices.tablestore.core.auth.CredentialsProvider;
 import com.alicloud.openservices.tablestore.core.auth.ServiceCredentials;
 import com.alicloud.openservices.tablestore.core.utils.Preconditions;
@@ -131,6 +137,60 @@ public class SyncClient implements SyncClientInterface {
         return this.internalClient.getInstanceName();
     }
 
+    /**
+     * Returns the retry budget, see {@link ClientConfiguration#setRetryBudgetConfiguration}.
+     *
+     * @return the retry budget, or null if it is not enabled
+     */
+    public RetryBudget getRetryBudget() {
+        return this.internalClient.getRetryBudget();
+    }
+
+    /**
+     * Returns the circuit breakers, see {@link ClientConfiguration#setCircuitBreakerConfiguration}.
+     *
+     * @return the circuit breakers, or null if they are not enabled
+     */
+    public CircuitBreakerRegistry getCircuitBreakerRegistry() {
+        return this.internalClient.getCircuitBreakerRegistry();
+    }
+
+    /**
+     * Returns the hedger of the point reads, see {@link ClientConfiguration#setHedgingConfiguration}.
+     *
+     * @return the hedger, or null if hedging is not enabled
+     */
+    public RequestHedger getRequestHedger() {
+        return this.internalClient.getRequestHedger();
+    }
+
+    /**
+     * Returns the cache of the rows read, see {@link ClientConfiguration#setRowCacheConfiguration}.
+     *
+     * @return the row cache, or null if it is not enabled
+     */
+    public RowCache getRowCache() {
+        return this.internalClient.getRowCache();
+    }
+
+    /**
+     * Returns the coalescer of the identical GetRow requests, see {@link ClientConfiguration#setEnableGetRowCoalescing}.
+     *
+     * @return the coalescer, or null if it is not enabled
+     */
+    public GetRowCoalescer getGetRowCoalescer() {
+        return this.internalClient.getGetRowCoalescer();
+    }
+
+    /**
+     * Returns the batcher of the GetRow requests, see {@link ClientConfiguration#setGetRowBatchingConfiguration}.
+     *
+     * @return the batcher, or null if it is not enabled
+     */
+    public GetRowBatcher getGetRowBatcher() {
+        return this.internalClient.getGetRowBatcher();
+    }
+
     @Override
     public CreateTableResponse createTable(CreateTableRequest createTableRequest) throws TableStoreException, ClientException {
         Preconditions.checkNotNull(createTableRequest);
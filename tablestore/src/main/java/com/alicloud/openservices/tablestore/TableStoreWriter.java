@@ -9,6 +9,7 @@ import com.alicloud.openservices.tablestore.writer.WriterStatistics;
 
 import java.util.List;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * TableStore provides the BatchWriteRow interface to allow users to import data in bulk to TableStore. However, in practical usage, the BatchWriteRow interface is not developer-friendly. For example, users need to calculate and control the size of data sent in one BatchWriteRow operation, ensure that the row or column sizes do not exceed TableStore's limits, deduplicate primary keys, and handle retries for single-row errors, among other tasks.
@@ -79,6 +80,21 @@ public interface TableStoreWriter {
      */
     boolean tryAddRowChange(RowChange rowChange) throws ClientException;
 
+    /**
+     * Same with {@link #addRowChange(RowChange)}, but if the buffer is full it waits at most the given time for a free slot.
+     *
+     * The default implementation does not wait, it is the same with {@link #tryAddRowChange(RowChange)}.
+     *
+     * @param rowChange The row to be written.
+     * @param timeout   The maximum time to wait.
+     * @param unit      The time unit of the timeout.
+     * @return true if add succeed, return false if the buffer is still full when the timeout elapses.
+     * @throws ClientException If the row is determined to be dirty data.
+     */
+    default boolean offerRowChange(RowChange rowChange, long timeout, TimeUnit unit) throws ClientException {
+        return tryAddRowChange(rowChange);
+    }
+
     /**
      * Batch write rows to the local buffer.
      *
@@ -5,9 +5,8 @@ import com.alicloud.openservices.tablestore.core.auth.CredentialsProvider;
 import com.alicloud.openservices.tablestore.core.auth.DefaultCredentialProvider;
 import com.alicloud.openservices.tablestore.core.utils.Preconditions;
 import com.alicloud.openservices.tablestore.model.timeseries.*;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.Weigher;
+import com.alicloud.openservices.tablestore.core.utils.PrimitiveTimeseriesMetaCache;
+import com.alicloud.openservices.tablestore.core.utils.TimeseriesMetaCache;
 
 import java.util.Map;
 import java.util.concurrent.*;
@@ -15,7 +14,7 @@ import java.util.concurrent.*;
 public class TimeseriesClient implements TimeseriesClientInterface {
 
     private InternalClient internalClient;
-    private Cache<String, Long> timeseriesMetaCache;
+    private TimeseriesMetaCache timeseriesMetaCache;
 
     /**
      * Constructs a new {@link TimeseriesClient} instance using the specified TableStore Endpoint and default configuration.
@@ -105,15 +104,9 @@ public class TimeseriesClient implements TimeseriesClientInterface {
         if (config.getTimeseriesConfiguration() == null) {
             config.setTimeseriesConfiguration(new TimeseriesConfiguration());
         }
-        this.timeseriesMetaCache = CacheBuilder.newBuilder()
-                .maximumWeight(config.getTimeseriesConfiguration().getMetaCacheMaxDataSize())
-                .expireAfterAccess(config.getTimeseriesConfiguration().getMetaCacheExpireTimeAfterAccessInSec(), TimeUnit.SECONDS)
-                .weigher(new Weigher<String, Long>() {
-                    @Override
-                    public int weigh(String key, Long value) {
-                        return key.length() + 48 + 16; // add some overhead
-                    }
-                }).build();
+        this.timeseriesMetaCache = new PrimitiveTimeseriesMetaCache(
+                config.getTimeseriesConfiguration().getMetaCacheMaxDataSize(),
+                config.getTimeseriesConfiguration().getMetaCacheExpireTimeAfterAccessInSec());
         this.internalClient.setTimeseriesMetaCache(timeseriesMetaCache);
     }
 
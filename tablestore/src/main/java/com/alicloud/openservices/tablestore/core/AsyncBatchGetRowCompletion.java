@@ -163,7 +163,7 @@ public class AsyncBatchGetRowCompletion
     void sendNextRequest() {
         buildNextRequest();
         retry = retry.clone();
-        launcher.fire(nextRequest, this);
+        launcher.launch(nextRequest, this);
     }
 
     BatchGetRowResponse buildFinalResult() {
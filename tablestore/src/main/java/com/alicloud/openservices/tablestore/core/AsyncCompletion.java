@@ -5,6 +5,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import com.aliyun.ots.thirdparty.org.apache.http.concurrent.FutureCallback;
 
+import com.alicloud.openservices.tablestore.CircuitBreakerOpenException;
 import com.alicloud.openservices.tablestore.PartialResultFailedException;
 import com.alicloud.openservices.tablestore.TableStoreCallback;
 import com.alicloud.openservices.tablestore.ClientException;
@@ -75,6 +76,10 @@ public class AsyncCompletion<Req extends Request, Res extends Response>
                 e = new ClientException("Unexpected error: " + ex, ex, tracer.getTraceId());
             }
             long nextPause = retry.nextPause(request.getOperationName(), e);
+            // a request rejected by its circuit breaker, or over the retry budget of the client, fails fast
+            if (e instanceof CircuitBreakerOpenException || (nextPause > 0 && !launcher.tryAcquireRetry())) {
+                nextPause = 0;
+            }
             LogUtil.logOnFailed(tracer, retry, e, requestId, nextPause > 0);
             if (nextPause <= 0) {
                 tracer.printLog();
@@ -91,7 +96,7 @@ public class AsyncCompletion<Req extends Request, Res extends Response>
                         public void run() {
                             try {
                                 Req requestForRetry = (Req) launcher.getRequestForRetry(e);
-                                launcher.fire(requestForRetry, self);
+                                launcher.launch(requestForRetry, self);
                             } catch (Exception ex) {
                                 failed(new ClientException("Fail to retry.", ex));
                             }
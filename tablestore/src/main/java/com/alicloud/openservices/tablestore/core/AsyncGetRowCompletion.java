@@ -82,7 +82,7 @@ public class AsyncGetRowCompletion
     void sendNextRequest(byte[] token) {
         buildNextRequest(token);
         retry = retry.clone();
-        launcher.fire(nextRequest, this);
+        launcher.launch(nextRequest, this);
     }
 
     GetRowResponse buildFinalResult() {
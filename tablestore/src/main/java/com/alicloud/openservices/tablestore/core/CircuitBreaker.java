@@ -0,0 +1,140 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.CircuitBreakerConfiguration;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The circuit breaker of an action and a table, see {@link CircuitBreakerConfiguration}.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        /**
+         * The requests are sent, and their failures are counted.
+         */
+        CLOSED,
+        /**
+         * The requests fail at once.
+         */
+        OPEN,
+        /**
+         * A probe request has been sent after the open duration, the others fail at once until it completes.
+         */
+        HALF_OPEN
+    }
+
+    private static final int SUCCESSES = 0;
+    private static final int FAILURES = 1;
+
+    private final String name;
+    private final CircuitBreakerConfiguration config;
+    private final SlidingWindowCounter counter;
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong openedCount = new AtomicLong();
+    private State state = State.CLOSED;
+    private long openedAtMillis;
+
+    public CircuitBreaker(String name, CircuitBreakerConfiguration config) {
+        this.name = name;
+        this.config = config;
+        this.counter = new SlidingWindowCounter(config.getWindowSizeInSec(), 2);
+    }
+
+    /**
+     * @return whether the request can be sent.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN && System.currentTimeMillis() - openedAtMillis >= config.getOpenDurationInMillis()) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        rejectedCount.incrementAndGet();
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            counter.reset();
+        } else if (state == State.CLOSED) {
+            counter.add(SUCCESSES, SlidingWindowCounter.currentSecond());
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            long second = SlidingWindowCounter.currentSecond();
+            counter.add(FAILURES, second);
+            long failures = counter.sum(FAILURES, second);
+            long total = failures + counter.sum(SUCCESSES, second);
+            if (total >= config.getMinRequestCount() && failures >= total * config.getFailureRatioThreshold()) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * The request was cancelled by the client, so it tells nothing about the service.
+     */
+    public synchronized void onCancelled() {
+        if (state == State.HALF_OPEN) {
+            // the open duration has passed, so the next request is the probe
+            state = State.OPEN;
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtMillis = System.currentTimeMillis();
+        openedCount.incrementAndGet();
+        counter.reset();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return the successful requests in the window, while the breaker is closed.
+     */
+    public long getSuccessCount() {
+        return counter.sum(SUCCESSES, SlidingWindowCounter.currentSecond());
+    }
+
+    /**
+     * @return the failed requests in the window, while the breaker is closed.
+     */
+    public long getFailureCount() {
+        return counter.sum(FAILURES, SlidingWindowCounter.currentSecond());
+    }
+
+    /**
+     * @return the requests which failed at once since the breaker was created.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * @return how many times the breaker has opened since it was created.
+     */
+    public long getOpenedCount() {
+        return openedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{name=" + name + ", state=" + getState() + ", successes=" + getSuccessCount()
+                + ", failures=" + getFailureCount() + ", rejected=" + getRejectedCount() + ", opened=" + getOpenedCount() + "}";
+    }
+}
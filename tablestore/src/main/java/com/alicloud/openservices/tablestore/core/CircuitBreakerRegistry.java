@@ -0,0 +1,115 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.CircuitBreakerConfiguration;
+import com.alicloud.openservices.tablestore.CircuitBreakerOpenException;
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.PartialResultFailedException;
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+import com.alicloud.openservices.tablestore.model.BatchGetRowRequest;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowRequest;
+import com.alicloud.openservices.tablestore.model.DeleteRowRequest;
+import com.alicloud.openservices.tablestore.model.GetRangeRequest;
+import com.alicloud.openservices.tablestore.model.GetRowRequest;
+import com.alicloud.openservices.tablestore.model.PutRowRequest;
+import com.alicloud.openservices.tablestore.model.UpdateRowRequest;
+import com.alicloud.openservices.tablestore.model.search.SearchRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The circuit breakers of a client, one for each action and table. The requests whose table is not known,
+ * e.g. the table operations and the batch requests of several tables, share the breaker of their action.
+ */
+public class CircuitBreakerRegistry {
+    private static final String NO_TABLE = "";
+
+    private final CircuitBreakerConfiguration config;
+    private final ConcurrentMap<String, ConcurrentMap<String, CircuitBreaker>> breakers =
+            new ConcurrentHashMap<String, ConcurrentMap<String, CircuitBreaker>>();
+
+    public CircuitBreakerRegistry(CircuitBreakerConfiguration config) {
+        Preconditions.checkNotNull(config, "CircuitBreakerConfiguration must not be null.");
+        this.config = config;
+    }
+
+    public CircuitBreaker getCircuitBreaker(String action, String tableName) {
+        ConcurrentMap<String, CircuitBreaker> breakersOfAction = breakers.get(action);
+        if (breakersOfAction == null) {
+            breakers.putIfAbsent(action, new ConcurrentHashMap<String, CircuitBreaker>());
+            breakersOfAction = breakers.get(action);
+        }
+        String table = tableName == null ? NO_TABLE : tableName;
+        CircuitBreaker breaker = breakersOfAction.get(table);
+        if (breaker == null) {
+            String name = table.isEmpty() ? action : action + "/" + table;
+            breakersOfAction.putIfAbsent(table, new CircuitBreaker(name, config));
+            breaker = breakersOfAction.get(table);
+        }
+        return breaker;
+    }
+
+    /**
+     * @return all the breakers, e.g. to report their states.
+     */
+    public List<CircuitBreaker> getCircuitBreakers() {
+        List<CircuitBreaker> result = new ArrayList<CircuitBreaker>();
+        for (ConcurrentMap<String, CircuitBreaker> breakersOfAction : breakers.values()) {
+            result.addAll(breakersOfAction.values());
+        }
+        return result;
+    }
+
+    /**
+     * @return the table of the data request, or null if it is not known.
+     */
+    static String tableNameOf(Object request) {
+        if (request instanceof GetRowRequest) {
+            return ((GetRowRequest) request).getRowQueryCriteria().getTableName();
+        } else if (request instanceof GetRangeRequest) {
+            return ((GetRangeRequest) request).getRangeRowQueryCriteria().getTableName();
+        } else if (request instanceof PutRowRequest) {
+            return ((PutRowRequest) request).getRowChange().getTableName();
+        } else if (request instanceof UpdateRowRequest) {
+            return ((UpdateRowRequest) request).getRowChange().getTableName();
+        } else if (request instanceof DeleteRowRequest) {
+            return ((DeleteRowRequest) request).getRowChange().getTableName();
+        } else if (request instanceof BatchGetRowRequest) {
+            return singleTableName(((BatchGetRowRequest) request).getCriteriasByTable().keySet());
+        } else if (request instanceof BatchWriteRowRequest) {
+            return singleTableName(((BatchWriteRowRequest) request).getRowChange().keySet());
+        } else if (request instanceof SearchRequest) {
+            return ((SearchRequest) request).getTableName();
+        }
+        return null;
+    }
+
+    private static String singleTableName(Set<String> tableNames) {
+        return tableNames.size() == 1 ? tableNames.iterator().next() : null;
+    }
+
+    /**
+     * Whether the failure shows the service is unavailable for the request, rather than the request being wrong.
+     */
+    static boolean isServiceFailure(Exception ex) {
+        if (ex instanceof CircuitBreakerOpenException || ex instanceof PartialResultFailedException) {
+            return false;
+        }
+        if (ex instanceof TableStoreException) {
+            TableStoreException otsException = (TableStoreException) ex;
+            String errorCode = otsException.getErrorCode();
+            return otsException.getHttpStatus() >= 500
+                    || ErrorCode.SERVER_BUSY.equals(errorCode)
+                    || ErrorCode.PARTITION_UNAVAILABLE.equals(errorCode)
+                    || ErrorCode.STORAGE_TIMEOUT.equals(errorCode)
+                    || ErrorCode.INTERNAL_SERVER_ERROR.equals(errorCode)
+                    || ErrorCode.SERVER_UNAVAILABLE.equals(errorCode)
+                    || ErrorCode.TUNNEL_SERVER_UNAVAILABLE.equals(errorCode);
+        }
+        return ex instanceof ClientException;
+    }
+}
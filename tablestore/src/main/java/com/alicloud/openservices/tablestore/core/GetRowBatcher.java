@@ -0,0 +1,292 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.GetRowBatchingConfiguration;
+import com.alicloud.openservices.tablestore.PartialResultFailedException;
+import com.alicloud.openservices.tablestore.TableStoreCallback;
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+import com.alicloud.openservices.tablestore.model.BatchGetRowRequest;
+import com.alicloud.openservices.tablestore.model.BatchGetRowResponse;
+import com.alicloud.openservices.tablestore.model.GetRowRequest;
+import com.alicloud.openservices.tablestore.model.GetRowResponse;
+import com.alicloud.openservices.tablestore.model.MultiRowQueryCriteria;
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import com.alicloud.openservices.tablestore.model.RetryStrategy;
+import com.alicloud.openservices.tablestore.model.SingleRowQueryCriteria;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the GetRow requests of a client as BatchGetRow requests, see {@link GetRowBatchingConfiguration}.
+ */
+public abstract class GetRowBatcher {
+
+    private final GetRowBatchingConfiguration config;
+    private final ScheduledExecutorService scheduler;
+    private final Map<RowQueryCriteriaKey, Batch> pendingBatches = new HashMap<RowQueryCriteriaKey, Batch>();
+    private boolean closed = false;
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong batchedRequestCount = new AtomicLong();
+    private final AtomicLong retriedRequestCount = new AtomicLong();
+
+    public GetRowBatcher(GetRowBatchingConfiguration config) {
+        Preconditions.checkNotNull(config, "GetRowBatchingConfiguration must not be null.");
+        this.config = config;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "tablestore-get-row-batcher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Whether the request can be sent in a BatchGetRow request: its criteria can be expressed by a
+     * {@link MultiRowQueryCriteria} shared with the other rows of the table.
+     */
+    public static boolean isBatchable(GetRowRequest request) {
+        SingleRowQueryCriteria criteria = request.getRowQueryCriteria();
+        return !criteria.hasSetToken() && !criteria.hasSetFilter() && !criteria.hasSetStartColumn()
+                && !criteria.hasSetEndColumn() && !request.hasSetTransactionId();
+    }
+
+    /**
+     * Sends the batch. The callback should be completed with the result of every row, and be failed only if the
+     * whole request fails.
+     */
+    protected abstract void send(BatchGetRowRequest request,
+                                 TableStoreCallback<BatchGetRowRequest, BatchGetRowResponse> callback);
+
+    /**
+     * Adds the request to the pending batch of its table and criteria, which is sent when it is full or when
+     * the max delay has passed since its first request.
+     *
+     * @param launcher   The launcher of the request, which sends it again if its row fails in the batch.
+     * @param completion The completion of the request, which is completed with the result of its row.
+     */
+    public void add(GetRowRequest request, OperationLauncher<GetRowRequest, GetRowResponse> launcher,
+                    AsyncCompletion<GetRowRequest, GetRowResponse> completion) {
+        SingleRowQueryCriteria criteria = request.getRowQueryCriteria();
+        final RowQueryCriteriaKey key = new RowQueryCriteriaKey(criteria, null);
+        Batch full;
+        synchronized (this) {
+            if (closed) {
+                full = null;
+            } else {
+                Batch batch = pendingBatches.get(key);
+                if (batch == null) {
+                    batch = new Batch(criteria);
+                    pendingBatches.put(key, batch);
+                    final Batch scheduled = batch;
+                    scheduler.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            flush(key, scheduled);
+                        }
+                    }, config.getMaxDelayInMicros(), TimeUnit.MICROSECONDS);
+                }
+                batch.add(new Call(request, launcher, completion));
+                if (batch.getRowCount() < config.getMaxBatchSize()) {
+                    return;
+                }
+                pendingBatches.remove(key);
+                full = batch;
+            }
+        }
+        if (full == null) {
+            // the batcher has been shut down
+            launcher.launch(request, completion);
+        } else {
+            sendBatch(full);
+        }
+    }
+
+    private void flush(RowQueryCriteriaKey key, Batch batch) {
+        synchronized (this) {
+            // the batch may have been sent when it became full
+            if (pendingBatches.get(key) != batch) {
+                return;
+            }
+            pendingBatches.remove(key);
+        }
+        sendBatch(batch);
+    }
+
+    private void sendBatch(final Batch batch) {
+        batchCount.incrementAndGet();
+        batchedRequestCount.addAndGet(batch.getCallCount());
+        BatchGetRowRequest request = new BatchGetRowRequest();
+        request.addMultiRowQueryCriteria(batch.criteria);
+        send(request, new TableStoreCallback<BatchGetRowRequest, BatchGetRowResponse>() {
+            @Override
+            public void onCompleted(BatchGetRowRequest req, BatchGetRowResponse res) {
+                List<BatchGetRowResponse.RowResult> rowResults = res.getBatchGetRowResult(batch.criteria.getTableName());
+                BatchGetRowResponse.RowResult[] rowResultByIndex = new BatchGetRowResponse.RowResult[batch.getRowCount()];
+                if (rowResults != null) {
+                    for (BatchGetRowResponse.RowResult rowResult : rowResults) {
+                        rowResultByIndex[rowResult.getIndex()] = rowResult;
+                    }
+                }
+                for (int i = 0; i < rowResultByIndex.length; i++) {
+                    BatchGetRowResponse.RowResult rowResult = rowResultByIndex[i];
+                    for (Call call : batch.calls.get(i)) {
+                        if (rowResult != null && rowResult.isSucceed()) {
+                            GetRowResponse response = new GetRowResponse(res, rowResult.getRow(), rowResult.getConsumedCapacity());
+                            // the token of a wide row, which is read on in the following requests
+                            response.setNextToken(rowResult.getNextToken());
+                            call.completion.onCompleted(call.request, response);
+                        } else {
+                            // the row is read again on its own, with its own retries
+                            retriedRequestCount.incrementAndGet();
+                            call.launcher.launch(call.request, call.completion);
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public void onFailed(BatchGetRowRequest req, Exception ex) {
+                for (List<Call> calls : batch.calls) {
+                    for (Call call : calls) {
+                        call.completion.onFailed(call.request, ex);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Sends the pending batches, and sends the requests added later on their own.
+     */
+    public void shutdown() {
+        List<Batch> batches;
+        synchronized (this) {
+            closed = true;
+            batches = new ArrayList<Batch>(pendingBatches.values());
+            pendingBatches.clear();
+        }
+        scheduler.shutdownNow();
+        for (Batch batch : batches) {
+            sendBatch(batch);
+        }
+    }
+
+    /**
+     * @return the count of the BatchGetRow requests sent.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * @return the count of the GetRow requests sent in the BatchGetRow requests.
+     */
+    public long getBatchedRequestCount() {
+        return batchedRequestCount.get();
+    }
+
+    /**
+     * @return the count of the GetRow requests sent again on their own, as their rows failed in the batch.
+     */
+    public long getRetriedRequestCount() {
+        return retriedRequestCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchCount: " + getBatchCount() + ", BatchedRequestCount: " + getBatchedRequestCount()
+                + ", RetriedRequestCount: " + getRetriedRequestCount();
+    }
+
+    /**
+     * Wraps the retry strategy of a BatchGetRow request sent by the batcher, so that the rows which fail in it are
+     * not retried in the batch, but sent again on their own. The failures of the whole request are still retried.
+     */
+    public static RetryStrategy withoutPartialRetry(RetryStrategy retry) {
+        return new PartialResultNoRetryStrategy(retry);
+    }
+
+    private static final class PartialResultNoRetryStrategy implements RetryStrategy {
+        private final RetryStrategy retry;
+
+        PartialResultNoRetryStrategy(RetryStrategy retry) {
+            this.retry = retry;
+        }
+
+        @Override
+        public RetryStrategy clone() {
+            return new PartialResultNoRetryStrategy(retry.clone());
+        }
+
+        @Override
+        public int getRetries() {
+            return retry.getRetries();
+        }
+
+        @Override
+        public long nextPause(String action, Exception ex) {
+            if (ex instanceof PartialResultFailedException) {
+                return 0;
+            }
+            return retry.nextPause(action, ex);
+        }
+    }
+
+    private static final class Call {
+        private final GetRowRequest request;
+        private final OperationLauncher<GetRowRequest, GetRowResponse> launcher;
+        private final AsyncCompletion<GetRowRequest, GetRowResponse> completion;
+
+        Call(GetRowRequest request, OperationLauncher<GetRowRequest, GetRowResponse> launcher,
+             AsyncCompletion<GetRowRequest, GetRowResponse> completion) {
+            this.request = request;
+            this.launcher = launcher;
+            this.completion = completion;
+        }
+    }
+
+    /**
+     * The requests of a batch, by the index of their rows. The requests of the same row share it.
+     */
+    private static final class Batch {
+        private final MultiRowQueryCriteria criteria;
+        private final Map<PrimaryKey, Integer> indexes = new HashMap<PrimaryKey, Integer>();
+        private final List<List<Call>> calls = new ArrayList<List<Call>>();
+        private int callCount;
+
+        Batch(SingleRowQueryCriteria rowCriteria) {
+            this.criteria = new MultiRowQueryCriteria(rowCriteria.getTableName());
+            rowCriteria.copyTo(criteria);
+        }
+
+        void add(Call call) {
+            PrimaryKey primaryKey = call.request.getRowQueryCriteria().getPrimaryKey();
+            Integer index = indexes.get(primaryKey);
+            if (index == null) {
+                index = calls.size();
+                indexes.put(primaryKey, index);
+                criteria.addRow(primaryKey);
+                calls.add(new ArrayList<Call>());
+            }
+            calls.get(index).add(call);
+            callCount++;
+        }
+
+        int getRowCount() {
+            return calls.size();
+        }
+
+        int getCallCount() {
+            return callCount;
+        }
+    }
+}
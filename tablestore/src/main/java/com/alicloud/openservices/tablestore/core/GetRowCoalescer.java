@@ -0,0 +1,230 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.TableStoreCallback;
+import com.alicloud.openservices.tablestore.model.GetRowRequest;
+import com.alicloud.openservices.tablestore.model.GetRowResponse;
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import com.alicloud.openservices.tablestore.model.SingleRowQueryCriteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Merges the concurrent identical GetRow requests of a client into one request in flight (single flight).<br/>
+ * The first request of a row is sent, and the identical requests issued before its response arrives wait for it,
+ * then all of them are completed with its response, or failed with its error.<br/>
+ * A write of a row {@link #invalidate invalidates} the requests of the row in flight, so that the requests issued
+ * after the write are sent again instead of sharing a response which may predate it.
+ */
+public class GetRowCoalescer {
+
+    private final ConcurrentMap<RowQueryCriteriaKey, InFlight> inFlights = new ConcurrentHashMap<RowQueryCriteriaKey, InFlight>();
+    /**
+     * The requests in flight of each row, so that a write finds those of its row without scanning all of them.
+     */
+    private final ConcurrentMap<RowKey, RowInFlights> inFlightsByRow = new ConcurrentHashMap<RowKey, RowInFlights>();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * Whether the request can share the response of another request: it reads a row as of now, without paging
+     * its columns, filtering them or reading in a transaction.
+     */
+    public static boolean isCoalescible(GetRowRequest request) {
+        SingleRowQueryCriteria criteria = request.getRowQueryCriteria();
+        return !criteria.hasSetToken() && !criteria.hasSetFilter() && !criteria.hasSetStartColumn()
+                && !criteria.hasSetEndColumn() && !request.hasSetTransactionId();
+    }
+
+    /**
+     * Joins the request to the identical request in flight.
+     *
+     * @param request    The request.
+     * @param completion The completion of the request. If there is no identical request in flight, the request
+     *                   should be sent, and the identical requests issued meanwhile are completed with its completion.
+     * @return true if the request has joined a request in flight and should not be sent.
+     */
+    public boolean coalesce(GetRowRequest request, AsyncCompletion<GetRowRequest, GetRowResponse> completion) {
+        SingleRowQueryCriteria criteria = request.getRowQueryCriteria();
+        RowQueryCriteriaKey key = new RowQueryCriteriaKey(criteria, criteria.getPrimaryKey());
+        RowKey rowKey = new RowKey(criteria.getTableName(), criteria.getPrimaryKey());
+        while (true) {
+            InFlight inFlight = inFlights.get(key);
+            if (inFlight == null) {
+                inFlight = new InFlight(key, rowKey);
+                if (register(inFlight)) {
+                    completion.watchBy(inFlight);
+                    sentCount.incrementAndGet();
+                    return false;
+                }
+            } else if (inFlight.join(request, completion)) {
+                coalescedCount.incrementAndGet();
+                return true;
+            }
+            // the request in flight has just completed, try again
+        }
+    }
+
+    /**
+     * Detaches the requests in flight of a row, the requests issued afterwards do not join them but are sent again.
+     * The requests which have already joined are still completed with their response.
+     *
+     * @param tableName  The table of the row.
+     * @param primaryKey The primary key of the row.
+     */
+    public void invalidate(String tableName, PrimaryKey primaryKey) {
+        if (inFlights.isEmpty()) {
+            return;
+        }
+        RowInFlights rowInFlights = inFlightsByRow.get(new RowKey(tableName, primaryKey));
+        if (rowInFlights == null) {
+            return;
+        }
+        List<InFlight> detached;
+        synchronized (rowInFlights) {
+            detached = new ArrayList<InFlight>(rowInFlights.inFlights);
+        }
+        for (InFlight inFlight : detached) {
+            inFlight.finish();
+        }
+    }
+
+    /**
+     * Puts the request in flight, unless an identical one is. It is put and indexed by its row at once, so that
+     * an invalidation of the row either finds it or happens before it.
+     *
+     * @return true if the request is put in flight.
+     */
+    private boolean register(InFlight inFlight) {
+        while (true) {
+            RowInFlights rowInFlights = inFlightsByRow.get(inFlight.rowKey);
+            if (rowInFlights == null) {
+                rowInFlights = new RowInFlights();
+                RowInFlights existing = inFlightsByRow.putIfAbsent(inFlight.rowKey, rowInFlights);
+                if (existing != null) {
+                    rowInFlights = existing;
+                }
+            }
+            synchronized (rowInFlights) {
+                if (rowInFlights.removed) {
+                    // the last request in flight of the row has just completed, try again
+                    continue;
+                }
+                if (inFlights.putIfAbsent(inFlight.key, inFlight) != null) {
+                    return false;
+                }
+                rowInFlights.inFlights.add(inFlight);
+                return true;
+            }
+        }
+    }
+
+    private void unregister(InFlight inFlight) {
+        RowInFlights rowInFlights = inFlightsByRow.get(inFlight.rowKey);
+        if (rowInFlights == null) {
+            return;
+        }
+        synchronized (rowInFlights) {
+            rowInFlights.inFlights.remove(inFlight);
+            if (rowInFlights.inFlights.isEmpty() && !rowInFlights.removed) {
+                rowInFlights.removed = true;
+                inFlightsByRow.remove(inFlight.rowKey, rowInFlights);
+            }
+        }
+    }
+
+    /**
+     * @return the count of the requests which have been sent for themselves and the identical requests.
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * @return the count of the requests which have been completed by an identical request, without being sent.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * @return the count of the requests in flight which identical requests can join.
+     */
+    public int getInFlightCount() {
+        return inFlights.size();
+    }
+
+    @Override
+    public String toString() {
+        return "SentCount: " + getSentCount() + ", CoalescedCount: " + getCoalescedCount()
+                + ", InFlightCount: " + getInFlightCount();
+    }
+
+    /**
+     * The requests in flight of a row, guarded by itself.
+     */
+    private static final class RowInFlights {
+        private final List<InFlight> inFlights = new ArrayList<InFlight>(1);
+        /**
+         * Whether it has been removed from the index once empty, then no request can be added to it.
+         */
+        private boolean removed = false;
+    }
+
+    private final class InFlight implements TableStoreCallback<GetRowRequest, GetRowResponse> {
+        private final RowQueryCriteriaKey key;
+        private final RowKey rowKey;
+        private final List<GetRowRequest> requests = new ArrayList<GetRowRequest>();
+        private final List<AsyncCompletion<GetRowRequest, GetRowResponse>> completions =
+                new ArrayList<AsyncCompletion<GetRowRequest, GetRowResponse>>();
+        private boolean done = false;
+
+        InFlight(RowQueryCriteriaKey key, RowKey rowKey) {
+            this.key = key;
+            this.rowKey = rowKey;
+        }
+
+        synchronized boolean join(GetRowRequest request, AsyncCompletion<GetRowRequest, GetRowResponse> completion) {
+            if (done) {
+                return false;
+            }
+            requests.add(request);
+            completions.add(completion);
+            return true;
+        }
+
+        /**
+         * No request can join after it returns.
+         */
+        private void finish() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                inFlights.remove(key, this);
+                done = true;
+            }
+            unregister(this);
+        }
+
+        @Override
+        public void onCompleted(GetRowRequest req, GetRowResponse res) {
+            finish();
+            // the completions of the joined requests only notify their futures and callbacks
+            for (int i = 0; i < completions.size(); i++) {
+                completions.get(i).onCompleted(requests.get(i), res);
+            }
+        }
+
+        @Override
+        public void onFailed(GetRowRequest req, Exception ex) {
+            finish();
+            for (int i = 0; i < completions.size(); i++) {
+                completions.get(i).onFailed(requests.get(i), ex);
+            }
+        }
+    }
+}
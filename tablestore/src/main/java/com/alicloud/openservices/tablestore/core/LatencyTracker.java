@@ -0,0 +1,45 @@
+package com.alicloud.openservices.tablestore.core;
+
+import java.util.Arrays;
+
+/**
+ * Tracks a percentile of the latest latencies of an action. The percentile is computed again every few samples,
+ * so reading it is a volatile read.
+ */
+class LatencyTracker {
+    private static final int SAMPLE_COUNT = 1024;
+    private static final int MIN_SAMPLE_COUNT = 100;
+    private static final int REFRESH_INTERVAL = 64;
+
+    private final double percentile;
+    private final long[] samples = new long[SAMPLE_COUNT];
+    private int size;
+    private int next;
+    private int recordedSinceRefresh;
+    private volatile long percentileInMillis = -1;
+
+    LatencyTracker(double percentile) {
+        this.percentile = percentile;
+    }
+
+    synchronized void record(long latencyInMillis) {
+        samples[next] = latencyInMillis;
+        next = (next + 1) % SAMPLE_COUNT;
+        if (size < SAMPLE_COUNT) {
+            size++;
+        }
+        if (size >= MIN_SAMPLE_COUNT && (++recordedSinceRefresh >= REFRESH_INTERVAL || percentileInMillis < 0)) {
+            recordedSinceRefresh = 0;
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            percentileInMillis = sorted[Math.max(0, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+
+    /**
+     * @return the percentile of the latest latencies, or -1 if there are not enough samples yet.
+     */
+    long getPercentileInMillis() {
+        return percentileInMillis;
+    }
+}
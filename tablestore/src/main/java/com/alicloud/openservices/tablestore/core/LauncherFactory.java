@@ -17,7 +17,7 @@ import com.alicloud.openservices.tablestore.model.tunnel.DeleteTunnelRequest;
 import com.alicloud.openservices.tablestore.model.tunnel.DescribeTunnelRequest;
 import com.alicloud.openservices.tablestore.model.tunnel.ListTunnelRequest;
 import com.alicloud.openservices.tablestore.model.tunnel.internal.*;
-import com.google.common.cache.Cache;
+import com.alicloud.openservices.tablestore.core.utils.TimeseriesMetaCache;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -622,7 +622,7 @@ public class LauncherFactory {
     }
 
     public PutTimeseriesDataLauncher putTimeseriesData(TraceLogger tracer, RetryStrategy retry,
-                                                       PutTimeseriesDataRequest originRequest, Cache<String, Long> timeseriesMetaCache) {
+                                                       PutTimeseriesDataRequest originRequest, TimeseriesMetaCache timeseriesMetaCache) {
         Context ctx = contexts.get(OP_PUT_TIMESERIES_DATA);
         return new PutTimeseriesDataLauncher(
                 ctx.uri, tracer, retry, instanceName, client, crdsProvider, config, originRequest, timeseriesMetaCache);
@@ -1,22 +1,28 @@
 package com.alicloud.openservices.tablestore.core;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
+import com.alicloud.openservices.tablestore.CircuitBreakerOpenException;
 import com.alicloud.openservices.tablestore.RequestTracer;
 import com.alicloud.openservices.tablestore.core.auth.CredentialsProvider;
 import com.alicloud.openservices.tablestore.core.http.*;
 import com.alicloud.openservices.tablestore.core.utils.*;
 import com.alicloud.openservices.tablestore.model.ExtensionRequest;
+import com.alicloud.openservices.tablestore.model.Request;
+import com.aliyun.ots.thirdparty.com.google.protobuf.CodedOutputStream;
 import com.aliyun.ots.thirdparty.com.google.protobuf.Message;
 import com.aliyun.ots.thirdparty.org.apache.http.client.methods.HttpPost;
 import com.aliyun.ots.thirdparty.org.apache.http.client.utils.URIBuilder;
 import com.aliyun.ots.thirdparty.org.apache.http.concurrent.FutureCallback;
-import com.aliyun.ots.thirdparty.org.apache.http.entity.ByteArrayEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,6 +37,8 @@ import static com.alicloud.openservices.tablestore.core.Constants.*;
 public abstract class OperationLauncher<Req, Res> {
     private static Logger logger = LoggerFactory.getLogger(OperationLauncher.class);
 
+    private static final int COMPRESS_BUFFER_SIZE = 8192;
+
     private String instanceName;
     private AsyncServiceClient client;
     private CredentialsProvider crdsProvider;
@@ -62,22 +70,29 @@ public abstract class OperationLauncher<Req, Res> {
         }
     }
 
-    private static ExecutionContext createContext(
+    // The stateless response handlers are shared by all requests, in the order they need to follow.
+    private static final List<ResponseHandler> DEFAULT_RESPONSE_HANDLERS = Collections.unmodifiableList(
+            Arrays.<ResponseHandler>asList(new OTSDeflateResponseHandler(), new ErrorResponseHandler()));
+    private static final List<ResponseHandler> MD5_CHECKING_RESPONSE_HANDLERS = Collections.unmodifiableList(
+            Arrays.<ResponseHandler>asList(new OTSDeflateResponseHandler(), new ErrorResponseHandler(), new ContentMD5ResponseHandler()));
+
+    private ExecutionContext createContext(
         OTSUri uri,
-        String instanceName,
         ServiceCredentials credentials,
-        ClientConfiguration config,
         Object rpcContext)
     {
-        ExecutionContext ec = new ExecutionContext();
-        ec.setSigner(new RequestSigner(instanceName, credentials));
+        RequestSigner signer = client.getSignerCache().getSigner(instanceName, credentials);
 
         // ResponseHandlers need to follow the order below.
-        ec.getResponseHandlers().add(new OTSDeflateResponseHandler());
-        ec.getResponseHandlers().add(new ErrorResponseHandler());
-        if (config.isEnableResponseContentMD5Checking()) {
-            ec.getResponseHandlers().add(new ContentMD5ResponseHandler());
+        List<ResponseHandler> responseHandlers = config.isEnableResponseContentMD5Checking() ?
+                MD5_CHECKING_RESPONSE_HANDLERS : DEFAULT_RESPONSE_HANDLERS;
+        if (!config.isEnableResponseValidation() && !config.isEnableRequestTracer()) {
+            return new ExecutionContext(signer, responseHandlers);
         }
+
+        ExecutionContext ec = new ExecutionContext();
+        ec.setSigner(signer);
+        ec.getResponseHandlers().addAll(responseHandlers);
         if (config.isEnableResponseValidation()) {
             ec.getResponseHandlers().add(
                 new OTSValidationResponseHandler(credentials, uri));
@@ -95,6 +110,19 @@ public abstract class OperationLauncher<Req, Res> {
     
     public abstract void fire(Req request, FutureCallback<Res> cb);
 
+    /**
+     * Fires the request, and hedges it if the client hedges its action, see {@link RequestHedger}.
+     */
+    public void launch(Req request, FutureCallback<Res> cb) {
+        RequestHedger hedger = client.getRequestHedger();
+        if (hedger != null && request instanceof Request
+                && hedger.isHedgeable(((Request) request).getOperationName())) {
+            hedger.launch(this, request, ((Request) request).getOperationName(), cb);
+        } else {
+            fire(request, cb);
+        }
+    }
+
     protected void asyncInvokePost(
             OTSUri actionURI,
             Map<String, String> queryParameters,
@@ -103,6 +131,23 @@ public abstract class OperationLauncher<Req, Res> {
             ResponseConsumer<Res> consumer,
             FutureCallback<Res> callback)
     {
+        FutureCallback<Res> originCallback = callback;
+        CircuitBreakerRegistry breakers = client.getCircuitBreakerRegistry();
+        if (breakers != null) {
+            CircuitBreaker breaker = breakers.getCircuitBreaker(
+                    actionURI.getAction(), CircuitBreakerRegistry.tableNameOf(originRequest));
+            if (!breaker.tryAcquirePermission()) {
+                callback.failed(new CircuitBreakerOpenException(
+                        "The circuit breaker of " + breaker.getName() + " is open, the request is not sent."));
+                return;
+            }
+            callback = recordOnCompletion(breaker, callback);
+        }
+        RetryBudget retryBudget = client.getRetryBudget();
+        if (retryBudget != null) {
+            retryBudget.recordRequest();
+        }
+
         URI uri = buildURI(actionURI, queryParameters);
         HttpPost request = new HttpPost(uri);
 
@@ -111,20 +156,15 @@ public abstract class OperationLauncher<Req, Res> {
                     actionURI, message.toString(), traceLogger.getTraceId());
         }
 
-        byte[] content = message.toByteArray();
-
-        if (config.isEnableRequestCompression() && content != null && content.length > 0) {
-            int contentLength = content.length;
-            try {
-                content = CompressUtil.compress(
-                        new ByteArrayInputStream(content),
-                        new Deflater());
-                request.addHeader(OTS_HEADER_REQUEST_COMPRESS_TYPE, OTS_COMPRESS_TYPE);
-                request.addHeader(
-                        OTS_HEADER_REQUEST_COMPRESS_SIZE, Integer.toString(contentLength));
-            } catch (IOException e) {
-                throw new ClientException("RequestCompressFail: " + e.getMessage());
-            }
+        int contentLength = message.getSerializedSize();
+        final RequestBody body;
+        if (config.isEnableRequestCompression() && contentLength > 0) {
+            body = encodeCompressed(message, contentLength, config.getRequestCompressionLevel());
+            request.addHeader(OTS_HEADER_REQUEST_COMPRESS_TYPE, OTS_COMPRESS_TYPE);
+            request.addHeader(
+                    OTS_HEADER_REQUEST_COMPRESS_SIZE, Integer.toString(contentLength));
+        } else {
+            body = encode(message, contentLength);
         }
         /**
          * Integrate with the link tracking system
@@ -142,29 +182,129 @@ public abstract class OperationLauncher<Req, Res> {
             rpcContext = config.getRequestTracer().getRpcContext();
         }
 
-        if (content == null) {
-            content = new byte[0];
-        }
+        request.setEntity(body.toEntity());
 
-        request.setEntity(new ByteArrayEntity(content));
-
-        String contentMd5 = Base64.toBase64String(BinaryUtil.calculateMd5(content));
+        String contentMd5 = Base64.toBase64String(body.digestMd5());
 
         // build a wrapper for HttpRequestBase to store additional information
         RequestMessage requestMessage = new RequestMessage(request);
         requestMessage.setActionUri(actionURI);
         requestMessage.setContentMd5(contentMd5);
-        requestMessage.setContentLength(content.length);
+        requestMessage.setContentLength(body.size());
 
         addRequiredHeaders(requestMessage, contentMd5, traceLogger.getTraceId());
 
         ServiceCredentials credentials = crdsProvider.getCredentials();
 
 
-        ExecutionContext ctx = createContext(
-                actionURI, instanceName, credentials, config, rpcContext);
+        ExecutionContext ctx = createContext(actionURI, credentials, rpcContext);
+
+        Future<Res> future = client.asyncSendRequest(requestMessage, ctx, consumer, releaseOnCompletion(body, callback),
+                traceLogger, config.getRequestTracer(), rpcContext);
+        if (originCallback instanceof RequestHedger.Attempt) {
+            ((RequestHedger.Attempt<Res>) originCallback).setFuture(future);
+        }
+    }
+
+    /**
+     * Serializes the message straight into a pooled body.
+     */
+    private static RequestBody encode(Message message, int contentLength) {
+        RequestBody body = RequestBody.acquire(contentLength);
+        body.ensureFree(contentLength);
+        CodedOutputStream output = CodedOutputStream.newInstance(body.array(), body.size(), contentLength);
+        try {
+            message.writeTo(output);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            body.release();
+            throw new ClientException("RequestEncodeFail: " + e.getMessage());
+        }
+        body.commit(contentLength);
+        return body;
+    }
+
+    /**
+     * Serializes the message through a deflater into a pooled body, without materializing the uncompressed bytes.
+     */
+    private static RequestBody encodeCompressed(Message message, int contentLength, int level) {
+        RequestBody body = RequestBody.acquire(contentLength / 2);
+        Deflater deflater = CompressUtil.acquireDeflater(level);
+        try {
+            DeflaterOutputStream output = new DeflaterOutputStream(body, deflater, COMPRESS_BUFFER_SIZE);
+            message.writeTo(output);
+            output.finish();
+        } catch (IOException e) {
+            body.release();
+            throw new ClientException("RequestCompressFail: " + e.getMessage());
+        } finally {
+            CompressUtil.releaseDeflater(deflater);
+        }
+        return body;
+    }
+
+    /**
+     * Takes a retry from the retry budget of the client.
+     *
+     * @return false if the budget is spent, true if it is not or the client has no budget.
+     */
+    public boolean tryAcquireRetry() {
+        RetryBudget retryBudget = client.getRetryBudget();
+        return retryBudget == null || retryBudget.tryAcquireRetry();
+    }
+
+    /**
+     * Reports the outcome of the exchange to the circuit breaker, before the retry decision is made.
+     */
+    private static <Res> FutureCallback<Res> recordOnCompletion(final CircuitBreaker breaker, final FutureCallback<Res> callback) {
+        return new FutureCallback<Res>() {
+            @Override
+            public void completed(Res result) {
+                breaker.onSuccess();
+                callback.completed(result);
+            }
 
-        client.asyncSendRequest(requestMessage, ctx, consumer, callback, traceLogger, config.getRequestTracer(), rpcContext);
+            @Override
+            public void failed(Exception ex) {
+                if (CircuitBreakerRegistry.isServiceFailure(ex)) {
+                    breaker.onFailure();
+                } else {
+                    breaker.onSuccess();
+                }
+                callback.failed(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                breaker.onCancelled();
+                callback.cancelled();
+            }
+        };
+    }
+
+    /**
+     * The body is sent by the IO threads of the HTTP client, so it goes back to the pool only once the exchange has finished.
+     */
+    private static <Res> FutureCallback<Res> releaseOnCompletion(final RequestBody body, final FutureCallback<Res> callback) {
+        return new FutureCallback<Res>() {
+            @Override
+            public void completed(Res result) {
+                body.release();
+                callback.completed(result);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                body.release();
+                callback.failed(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                body.release();
+                callback.cancelled();
+            }
+        };
     }
 
 
@@ -176,7 +316,7 @@ public abstract class OperationLauncher<Req, Res> {
         request.addHeader(OTS_HEADER_INSTANCE_NAME, instanceName);
         request.addHeader(OTS_HEADER_TRACE_THRESHOLD,
                 Integer.toString(config.getTimeThresholdOfServerTracer()));
-        request.addHeader(OTS_HEADER_DATE, DateUtil.getCurrentIso8601Date());
+        request.addHeader(OTS_HEADER_DATE, DateUtil.getCachedIso8601Date());
         if (requestExtension != null) {
             if (requestExtension.getPriority() != null) {
                 request.addHeader(OTS_HEADER_REQUEST_PRIORITY, Long.toString(requestExtension.getPriority().getValue()));
@@ -14,7 +14,7 @@ import com.alicloud.openservices.tablestore.core.utils.Preconditions;
 import com.alicloud.openservices.tablestore.model.RetryStrategy;
 import com.alicloud.openservices.tablestore.model.timeseries.PutTimeseriesDataRequest;
 import com.alicloud.openservices.tablestore.model.timeseries.PutTimeseriesDataResponse;
-import com.google.common.cache.Cache;
+import com.alicloud.openservices.tablestore.core.utils.TimeseriesMetaCache;
 import com.aliyun.ots.thirdparty.org.apache.http.concurrent.FutureCallback;
 
 public class PutTimeseriesDataLauncher extends OperationLauncher<PutTimeseriesDataRequest, PutTimeseriesDataResponse> {
@@ -22,7 +22,7 @@ public class PutTimeseriesDataLauncher extends OperationLauncher<PutTimeseriesDa
     private OTSUri uri;
     private TraceLogger tracer;
     private RetryStrategy retry;
-    private Cache<String, Long> timeseriesMetaCache;
+    private TimeseriesMetaCache timeseriesMetaCache;
 
     public PutTimeseriesDataLauncher(
             OTSUri uri,
@@ -33,7 +33,7 @@ public class PutTimeseriesDataLauncher extends OperationLauncher<PutTimeseriesDa
             CredentialsProvider crdsProvider,
             ClientConfiguration config,
             PutTimeseriesDataRequest originRequest,
-            Cache<String, Long> timeseriesMetaCache) {
+            TimeseriesMetaCache timeseriesMetaCache) {
         super(instanceName, client, crdsProvider, config, originRequest);
         Preconditions.checkNotNull(uri);
         Preconditions.checkNotNull(tracer);
@@ -0,0 +1,278 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.HedgingConfiguration;
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+import com.alicloud.openservices.tablestore.model.OperationNames;
+import com.aliyun.ots.thirdparty.org.apache.http.concurrent.FutureCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hedges the idempotent point reads of a client, see {@link HedgingConfiguration}.
+ */
+public class RequestHedger {
+
+    private final HedgingConfiguration config;
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentMap<String, LatencyTracker> trackers = new ConcurrentHashMap<String, LatencyTracker>();
+    private final Object tokenLock = new Object();
+    private double tokens;
+    private final AtomicLong hedgeCount = new AtomicLong();
+    private final AtomicLong wonHedgeCount = new AtomicLong();
+    private final AtomicLong rejectedHedgeCount = new AtomicLong();
+
+    public RequestHedger(HedgingConfiguration config) {
+        Preconditions.checkNotNull(config, "HedgingConfiguration must not be null.");
+        this.config = config;
+        this.tokens = config.getMaxHedgeTokens();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "tablestore-request-hedger");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        ((ScheduledThreadPoolExecutor) scheduler).setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Only the point reads are hedged, sending them twice has no side effect.
+     */
+    public boolean isHedgeable(String operationName) {
+        return OperationNames.OP_GET_ROW.equals(operationName) || OperationNames.OP_BATCH_GET_ROW.equals(operationName);
+    }
+
+    /**
+     * Sends the request, and sends it again if it has not completed after the hedge delay of its action.
+     * The callback is completed by the first response, or failed once all the sent requests have failed.
+     */
+    <Req, Res> void launch(final OperationLauncher<Req, Res> launcher, final Req request, String operationName,
+                           FutureCallback<Res> callback) {
+        LatencyTracker tracker = trackerOf(operationName);
+        synchronized (tokenLock) {
+            tokens = Math.min(config.getMaxHedgeTokens(), tokens + config.getHedgeRatio());
+        }
+        final HedgedCall<Res> call = new HedgedCall<Res>(callback, tracker);
+        launcher.fire(request, call.newAttempt(false));
+
+        long delay = getHedgeDelayInMillis(operationName);
+        if (delay < 0) {
+            return;
+        }
+        ScheduledFuture<?> hedgeTask = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                Attempt<Res> hedge;
+                synchronized (call) {
+                    if (call.done) {
+                        return;
+                    }
+                    if (!tryAcquireToken()) {
+                        rejectedHedgeCount.incrementAndGet();
+                        return;
+                    }
+                    hedge = call.newAttempt(true);
+                }
+                hedgeCount.incrementAndGet();
+                try {
+                    launcher.fire(request, hedge);
+                } catch (Exception ex) {
+                    hedge.failed(ex);
+                }
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+        call.setHedgeTask(hedgeTask);
+    }
+
+    private boolean tryAcquireToken() {
+        synchronized (tokenLock) {
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private LatencyTracker trackerOf(String operationName) {
+        LatencyTracker tracker = trackers.get(operationName);
+        if (tracker == null) {
+            trackers.putIfAbsent(operationName, new LatencyTracker(config.getLatencyPercentile()));
+            tracker = trackers.get(operationName);
+        }
+        return tracker;
+    }
+
+    /**
+     * @return the delay after which a request of the action is hedged, or -1 if there are not enough latencies yet.
+     */
+    public long getHedgeDelayInMillis(String operationName) {
+        LatencyTracker tracker = trackers.get(operationName);
+        long percentile = tracker == null ? -1 : tracker.getPercentileInMillis();
+        return percentile < 0 ? -1 : Math.max(percentile, config.getMinDelayInMillis());
+    }
+
+    /**
+     * @return the hedges sent since the client was created.
+     */
+    public long getHedgeCount() {
+        return hedgeCount.get();
+    }
+
+    /**
+     * @return the hedges which responded before the original requests.
+     */
+    public long getWonHedgeCount() {
+        return wonHedgeCount.get();
+    }
+
+    /**
+     * @return the hedges which were not sent for lack of tokens.
+     */
+    public long getRejectedHedgeCount() {
+        return rejectedHedgeCount.get();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return "RequestHedger{hedges=" + getHedgeCount() + ", wonHedges=" + getWonHedgeCount()
+                + ", rejectedHedges=" + getRejectedHedgeCount() + "}";
+    }
+
+    /**
+     * The original request and the hedge of a call, the first response completes the call and cancels the other one.
+     */
+    private final class HedgedCall<Res> {
+        private final FutureCallback<Res> callback;
+        private final LatencyTracker tracker;
+        private final long startNanos = System.nanoTime();
+        private final List<Attempt<Res>> attempts = new ArrayList<Attempt<Res>>(2);
+        private int pendingCount;
+        private boolean done;
+        private ScheduledFuture<?> hedgeTask;
+
+        HedgedCall(FutureCallback<Res> callback, LatencyTracker tracker) {
+            this.callback = callback;
+            this.tracker = tracker;
+        }
+
+        synchronized Attempt<Res> newAttempt(boolean isHedge) {
+            Attempt<Res> attempt = new Attempt<Res>(this, isHedge);
+            attempts.add(attempt);
+            pendingCount++;
+            return attempt;
+        }
+
+        void setHedgeTask(ScheduledFuture<?> task) {
+            synchronized (this) {
+                if (!done) {
+                    hedgeTask = task;
+                    return;
+                }
+            }
+            task.cancel(false);
+        }
+
+        void completed(Attempt<Res> winner, Res result) {
+            List<Future<?>> losers = new ArrayList<Future<?>>(1);
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                if (hedgeTask != null) {
+                    hedgeTask.cancel(false);
+                }
+                for (Attempt<Res> attempt : attempts) {
+                    if (attempt != winner && attempt.future != null) {
+                        losers.add(attempt.future);
+                    }
+                }
+            }
+            tracker.record((System.nanoTime() - startNanos) / 1000000);
+            if (winner.isHedge) {
+                wonHedgeCount.incrementAndGet();
+            }
+            for (Future<?> loser : losers) {
+                loser.cancel(true);
+            }
+            callback.completed(result);
+        }
+
+        void failed(Exception ex) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                // waits for the other request, which may still succeed
+                if (--pendingCount > 0) {
+                    return;
+                }
+                done = true;
+                if (hedgeTask != null) {
+                    hedgeTask.cancel(false);
+                }
+            }
+            callback.failed(ex);
+        }
+    }
+
+    /**
+     * The callback of a sent request of a hedged call.
+     */
+    final class Attempt<Res> implements FutureCallback<Res> {
+        private final HedgedCall<Res> call;
+        private final boolean isHedge;
+        private Future<?> future;
+
+        private Attempt(HedgedCall<Res> call, boolean isHedge) {
+            this.call = call;
+            this.isHedge = isHedge;
+        }
+
+        /**
+         * Keeps the future of the HTTP exchange, to cancel it if the other request responds first.
+         */
+        void setFuture(Future<?> future) {
+            synchronized (call) {
+                if (!call.done) {
+                    this.future = future;
+                    return;
+                }
+            }
+            future.cancel(true);
+        }
+
+        @Override
+        public void completed(Res result) {
+            call.completed(this, result);
+        }
+
+        @Override
+        public void failed(Exception ex) {
+            call.failed(ex);
+        }
+
+        @Override
+        public void cancelled() {
+            // the loser cancelled by the call is ignored as the call is done
+            call.failed(new ClientException("request cancelled"));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.RetryBudgetConfiguration;
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The retry budget shared by all the requests of a client, see {@link RetryBudgetConfiguration}.
+ * Every sent request, including the retries, is recorded, and a failed request is only retried if the retries of the
+ * window stay within the budget.
+ */
+public class RetryBudget {
+    private static final int REQUESTS = 0;
+    private static final int RETRIES = 1;
+
+    private final double retryRatio;
+    private final int windowSizeInSec;
+    private final long minRetries;
+    private final SlidingWindowCounter counter;
+    private final AtomicLong rejectedRetryCount = new AtomicLong();
+
+    public RetryBudget(RetryBudgetConfiguration config) {
+        Preconditions.checkNotNull(config, "RetryBudgetConfiguration must not be null.");
+        this.retryRatio = config.getRetryRatio();
+        this.windowSizeInSec = config.getWindowSizeInSec();
+        this.minRetries = (long) config.getMinRetriesPerSecond() * config.getWindowSizeInSec();
+        this.counter = new SlidingWindowCounter(windowSizeInSec, 2);
+    }
+
+    public void recordRequest() {
+        counter.add(REQUESTS, SlidingWindowCounter.currentSecond());
+    }
+
+    /**
+     * Takes a retry from the budget.
+     *
+     * @return false if the budget is spent, then the request should not be retried.
+     */
+    public boolean tryAcquireRetry() {
+        long second = SlidingWindowCounter.currentSecond();
+        synchronized (counter) {
+            long allowed = minRetries + (long) (counter.sum(REQUESTS, second) * retryRatio);
+            if (counter.sum(RETRIES, second) < allowed) {
+                counter.add(RETRIES, second);
+                return true;
+            }
+        }
+        rejectedRetryCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * @return the requests sent in the window, including the retries.
+     */
+    public long getRequestCount() {
+        return counter.sum(REQUESTS, SlidingWindowCounter.currentSecond());
+    }
+
+    /**
+     * @return the retries taken from the budget in the window.
+     */
+    public long getRetryCount() {
+        return counter.sum(RETRIES, SlidingWindowCounter.currentSecond());
+    }
+
+    /**
+     * @return the retries refused since the client was created.
+     */
+    public long getRejectedRetryCount() {
+        return rejectedRetryCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "RetryBudget{requests=" + getRequestCount() + ", retries=" + getRetryCount()
+                + ", rejectedRetries=" + getRejectedRetryCount() + ", windowSizeInSec=" + windowSizeInSec + "}";
+    }
+}
@@ -0,0 +1,283 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.RowCacheConfiguration;
+import com.alicloud.openservices.tablestore.core.utils.CalculateHelper;
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+import com.alicloud.openservices.tablestore.model.Column;
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import com.alicloud.openservices.tablestore.model.Row;
+import com.alicloud.openservices.tablestore.model.RowQueryCriteria;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The rows read by a client, see {@link RowCacheConfiguration}.<br/>
+ * The rows are kept in LRU segments, bounded by both the count and the size of the rows. A row read by a request is
+ * only cached if the row has not been invalidated since the request was sent, so a response which was read before a
+ * write never overwrites the invalidation of the write.
+ */
+public class RowCache {
+    private static final int SEGMENT_COUNT = 16;
+    private static final int STRIPE_COUNT_PER_SEGMENT = 64;
+    /**
+     * The memory of the cache structures of an entry, besides the primary key and the row.
+     */
+    private static final int ENTRY_OVERHEAD_IN_BYTES = 128;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final long ttlInNanos;
+    private final long negativeTtlInNanos;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public RowCache(RowCacheConfiguration config) {
+        Preconditions.checkNotNull(config, "RowCacheConfiguration must not be null.");
+        this.ttlInNanos = config.getTtlInMillis() * 1000000;
+        this.negativeTtlInNanos = config.getNegativeTtlInMillis() * 1000000;
+        long maxRowCount = Math.max(1, config.getMaxRowCount() / SEGMENT_COUNT);
+        long maxWeight = Math.max(1, config.getMaxWeightInBytes() / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(maxRowCount, maxWeight);
+        }
+    }
+
+    /**
+     * Whether the rows read with the criteria can be cached: only the latest version of the columns is read.
+     */
+    public static boolean isCacheable(RowQueryCriteria criteria) {
+        return criteria.hasSetMaxVersions() && criteria.getMaxVersions() == 1 && !criteria.hasSetTimeRange()
+                && !criteria.hasSetFilter() && !criteria.hasSetStartColumn() && !criteria.hasSetEndColumn();
+    }
+
+    /**
+     * @return the cached entry, or null if the row is not in the cache.
+     */
+    public Entry get(String tableName, PrimaryKey primaryKey, Set<String> columnsToGet) {
+        RowKey rowKey = new RowKey(tableName, primaryKey);
+        Entry entry = segmentFor(rowKey).get(rowKey, columnsToGet, System.nanoTime());
+        if (entry == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return entry;
+    }
+
+    /**
+     * Caches the row read by a request.
+     *
+     * @param row              The row, or null if it does not exist.
+     * @param sentAtNanos      The {@link System#nanoTime()} before the request was sent.
+     */
+    public void put(String tableName, PrimaryKey primaryKey, Set<String> columnsToGet, Row row, long sentAtNanos) {
+        long ttl = row == null ? negativeTtlInNanos : ttlInNanos;
+        if (ttl == 0) {
+            return;
+        }
+        RowKey rowKey = new RowKey(tableName, primaryKey);
+        int weight = ENTRY_OVERHEAD_IN_BYTES + CalculateHelper.calcStringSizeInBytes(tableName) + primaryKey.getDataSize();
+        for (String column : columnsToGet) {
+            weight += CalculateHelper.calcStringSizeInBytes(column);
+        }
+        if (row != null) {
+            for (Column column : row.getColumns()) {
+                weight += column.getDataSize();
+            }
+        }
+        long now = System.nanoTime();
+        segmentFor(rowKey).put(rowKey, new HashSet<String>(columnsToGet), new Entry(row, now + ttl, weight), sentAtNanos, now);
+    }
+
+    /**
+     * Removes the row of all the columns to get, and keeps the responses of the requests sent before from being cached.
+     */
+    public void invalidate(String tableName, PrimaryKey primaryKey) {
+        RowKey rowKey = new RowKey(tableName, primaryKey);
+        segmentFor(rowKey).invalidate(rowKey, System.nanoTime());
+    }
+
+    public void invalidateAll() {
+        long now = System.nanoTime();
+        for (Segment segment : segments) {
+            segment.invalidateAll(now);
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public long getRowCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            count += segment.getRowCount();
+        }
+        return count;
+    }
+
+    public long getWeightInBytes() {
+        long weight = 0;
+        for (Segment segment : segments) {
+            weight += segment.getWeight();
+        }
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return "RowCache{hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount()
+                + ", rows=" + getRowCount() + ", weightInBytes=" + getWeightInBytes() + "}";
+    }
+
+    private Segment segmentFor(RowKey rowKey) {
+        return segments[(rowKey.hash >>> 16) & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * A cached row of a set of columns to get.
+     */
+    public static final class Entry {
+        private final Row row;
+        private final long expireAtNanos;
+        private final int weight;
+
+        private Entry(Row row, long expireAtNanos, int weight) {
+            this.row = row;
+            this.expireAtNanos = expireAtNanos;
+            this.weight = weight;
+        }
+
+        /**
+         * @return the row, or null if the row does not exist.
+         */
+        public Row getRow() {
+            return row;
+        }
+    }
+
+    private final class Segment {
+        private final long maxRowCount;
+        private final long maxWeight;
+        // in access order, so the first row is the least recently used
+        private final LinkedHashMap<RowKey, Map<Set<String>, Entry>> rows =
+                new LinkedHashMap<RowKey, Map<Set<String>, Entry>>(16, 0.75f, true);
+        private final long[] invalidatedAtNanos = new long[STRIPE_COUNT_PER_SEGMENT];
+        private long rowCount;
+        private long weight;
+
+        Segment(long maxRowCount, long maxWeight) {
+            this.maxRowCount = maxRowCount;
+            this.maxWeight = maxWeight;
+            long now = System.nanoTime();
+            for (int i = 0; i < invalidatedAtNanos.length; i++) {
+                invalidatedAtNanos[i] = now;
+            }
+        }
+
+        synchronized Entry get(RowKey rowKey, Set<String> columnsToGet, long now) {
+            Map<Set<String>, Entry> entries = rows.get(rowKey);
+            if (entries == null) {
+                return null;
+            }
+            Entry entry = entries.get(columnsToGet);
+            if (entry != null && now - entry.expireAtNanos >= 0) {
+                removeEntry(rowKey, entries, columnsToGet, entry);
+                return null;
+            }
+            return entry;
+        }
+
+        synchronized void put(RowKey rowKey, Set<String> columnsToGet, Entry entry, long sentAtNanos, long now) {
+            if (invalidatedAtNanos[stripeOf(rowKey)] - sentAtNanos >= 0) {
+                return;
+            }
+            Map<Set<String>, Entry> entries = rows.get(rowKey);
+            if (entries == null) {
+                entries = new HashMap<Set<String>, Entry>(2);
+                rows.put(rowKey, entries);
+            }
+            Entry old = entries.put(columnsToGet, entry);
+            if (old != null) {
+                weight -= old.weight;
+            } else {
+                rowCount++;
+            }
+            weight += entry.weight;
+            evict(now);
+        }
+
+        synchronized void invalidate(RowKey rowKey, long now) {
+            invalidatedAtNanos[stripeOf(rowKey)] = now;
+            Map<Set<String>, Entry> entries = rows.remove(rowKey);
+            if (entries != null) {
+                for (Entry entry : entries.values()) {
+                    rowCount--;
+                    weight -= entry.weight;
+                }
+            }
+        }
+
+        synchronized void invalidateAll(long now) {
+            for (int i = 0; i < invalidatedAtNanos.length; i++) {
+                invalidatedAtNanos[i] = now;
+            }
+            rows.clear();
+            rowCount = 0;
+            weight = 0;
+        }
+
+        synchronized long getRowCount() {
+            return rowCount;
+        }
+
+        synchronized long getWeight() {
+            return weight;
+        }
+
+        private int stripeOf(RowKey rowKey) {
+            return rowKey.hash & (STRIPE_COUNT_PER_SEGMENT - 1);
+        }
+
+        /**
+         * Removes the least recently used rows, or the expired ones, until the segment is within its bounds.
+         */
+        private void evict(long now) {
+            Iterator<Map.Entry<RowKey, Map<Set<String>, Entry>>> it = rows.entrySet().iterator();
+            while ((rowCount > maxRowCount || weight > maxWeight) && it.hasNext()) {
+                Map<Set<String>, Entry> entries = it.next().getValue();
+                for (Entry entry : entries.values()) {
+                    rowCount--;
+                    weight -= entry.weight;
+                    if (now - entry.expireAtNanos < 0) {
+                        evictionCount.incrementAndGet();
+                    }
+                }
+                it.remove();
+            }
+        }
+
+        private void removeEntry(RowKey rowKey, Map<Set<String>, Entry> entries, Set<String> columnsToGet, Entry entry) {
+            entries.remove(columnsToGet);
+            rowCount--;
+            weight -= entry.weight;
+            if (entries.isEmpty()) {
+                rows.remove(rowKey);
+            }
+        }
+    }
+}
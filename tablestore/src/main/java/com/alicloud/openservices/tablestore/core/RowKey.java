@@ -0,0 +1,40 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+
+/**
+ * The key of a row: its table and primary key.
+ */
+final class RowKey {
+    private final String tableName;
+    private final PrimaryKey primaryKey;
+    /**
+     * The spread hash code, whose high and low bits can both pick a segment or stripe.
+     */
+    final int hash;
+
+    RowKey(String tableName, PrimaryKey primaryKey) {
+        this.tableName = tableName;
+        this.primaryKey = primaryKey;
+        int h = 31 * tableName.hashCode() + primaryKey.hashCode();
+        h = (h ^ (h >>> 16)) * 0x45d9f3b;
+        this.hash = h ^ (h >>> 16);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RowKey)) {
+            return false;
+        }
+        RowKey other = (RowKey) o;
+        return hash == other.hash && tableName.equals(other.tableName) && primaryKey.equals(other.primaryKey);
+    }
+}
@@ -0,0 +1,62 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import com.alicloud.openservices.tablestore.model.RowQueryCriteria;
+import com.alicloud.openservices.tablestore.model.TimeRange;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The key of the reads of the same table, columns to get, max versions, time range and cache blocks, and optionally
+ * of the same row. The filter, start and end columns are not part of it, the reads which set them are not keyed.
+ */
+final class RowQueryCriteriaKey {
+    private final String tableName;
+    private final PrimaryKey primaryKey;
+    private final Set<String> columnsToGet;
+    private final Integer maxVersions;
+    private final TimeRange timeRange;
+    private final Boolean cacheBlocks;
+    private final int hashCode;
+
+    /**
+     * @param primaryKey The primary key of the row, or null for the reads of any row.
+     */
+    RowQueryCriteriaKey(RowQueryCriteria criteria, PrimaryKey primaryKey) {
+        this.tableName = criteria.getTableName();
+        this.primaryKey = primaryKey;
+        this.columnsToGet = new HashSet<String>(criteria.getColumnsToGet());
+        this.maxVersions = criteria.hasSetMaxVersions() ? criteria.getMaxVersions() : null;
+        this.timeRange = criteria.hasSetTimeRange() ? criteria.getTimeRange() : null;
+        this.cacheBlocks = criteria.hasSetCacheBlock() ? criteria.getCacheBlocks() : null;
+        int h = tableName.hashCode();
+        h = 31 * h + (primaryKey == null ? 0 : primaryKey.hashCode());
+        h = 31 * h + columnsToGet.hashCode();
+        h = 31 * h + (maxVersions == null ? 0 : maxVersions.hashCode());
+        h = 31 * h + (timeRange == null ? 0 : timeRange.hashCode());
+        this.hashCode = h;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RowQueryCriteriaKey)) {
+            return false;
+        }
+        RowQueryCriteriaKey other = (RowQueryCriteriaKey) o;
+        return hashCode == other.hashCode && tableName.equals(other.tableName)
+                && (primaryKey == null ? other.primaryKey == null : primaryKey.equals(other.primaryKey))
+                && columnsToGet.equals(other.columnsToGet)
+                && (maxVersions == null ? other.maxVersions == null : maxVersions.equals(other.maxVersions))
+                && (timeRange == null ? other.timeRange == null : timeRange.equals(other.timeRange))
+                && (cacheBlocks == null ? other.cacheBlocks == null : cacheBlocks.equals(other.cacheBlocks));
+    }
+}
@@ -0,0 +1,57 @@
+package com.alicloud.openservices.tablestore.core;
+
+import java.util.Arrays;
+
+/**
+ * Counts events in the last windowSizeInSec seconds, with a bucket per second, for a few kinds of events.
+ * The seconds may start from any origin, including negative ones.
+ */
+class SlidingWindowCounter {
+    private final int windowSizeInSec;
+    private final long[] bucketSeconds;
+    /**
+     * Whether the bucket holds the counts of its second, the buckets which have not been used since the reset do not.
+     */
+    private final boolean[] bucketValid;
+    private final long[][] counts;
+
+    SlidingWindowCounter(int windowSizeInSec, int kindCount) {
+        this.windowSizeInSec = windowSizeInSec;
+        this.bucketSeconds = new long[windowSizeInSec];
+        this.bucketValid = new boolean[windowSizeInSec];
+        this.counts = new long[kindCount][windowSizeInSec];
+    }
+
+    static long currentSecond() {
+        return System.nanoTime() / 1000000000L;
+    }
+
+    synchronized void add(int kind, long second) {
+        int bucket = (int) Math.floorMod(second, (long) windowSizeInSec);
+        if (!bucketValid[bucket] || bucketSeconds[bucket] != second) {
+            bucketSeconds[bucket] = second;
+            bucketValid[bucket] = true;
+            for (long[] kindCounts : counts) {
+                kindCounts[bucket] = 0;
+            }
+        }
+        counts[kind][bucket]++;
+    }
+
+    synchronized long sum(int kind, long second) {
+        long sum = 0;
+        for (int bucket = 0; bucket < windowSizeInSec; bucket++) {
+            if (bucketValid[bucket] && second - bucketSeconds[bucket] < windowSizeInSec) {
+                sum += counts[kind][bucket];
+            }
+        }
+        return sum;
+    }
+
+    synchronized void reset() {
+        Arrays.fill(bucketValid, false);
+        for (long[] kindCounts : counts) {
+            Arrays.fill(kindCounts, 0);
+        }
+    }
+}
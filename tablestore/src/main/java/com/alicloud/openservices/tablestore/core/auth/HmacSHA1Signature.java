@@ -15,6 +15,10 @@ public class HmacSHA1Signature implements ServiceSignature {
 
     private Mac mac;
 
+    private HmacSHA1Signature(Mac mac) {
+        this.mac = mac;
+    }
+
     public String getAlgorithm() {
         return ALGORITHM;
     }
@@ -63,4 +67,16 @@ public class HmacSHA1Signature implements ServiceSignature {
         byte[] signature = mac.doFinal();
         return Base64.toBase64String(signature);
     }
+
+    /**
+     * Returns a signature in the current state of this one, without initializing the key again.
+     * A signature which has not been updated yet can be kept as a prototype and copied for every string to sign.
+     */
+    public HmacSHA1Signature copy() {
+        try {
+            return new HmacSHA1Signature((Mac) mac.clone());
+        } catch (CloneNotSupportedException e) {
+            return null;
+        }
+    }
 }
@@ -16,6 +16,10 @@ public class HmacSHA256Signature implements ServiceSignature {
 
     private Mac mac;
 
+    private HmacSHA256Signature(Mac mac) {
+        this.mac = mac;
+    }
+
     static {
         synchronized (LOCK) {
             if (macInstance == null) {
@@ -65,4 +69,16 @@ public class HmacSHA256Signature implements ServiceSignature {
         byte[] signature = mac.doFinal();
         return Base64.toBase64String(signature);
     }
+
+    /**
+     * Returns a signature in the current state of this one, without initializing the key again.
+     * A signature which has not been updated yet can be kept as a prototype and copied for every string to sign.
+     */
+    public HmacSHA256Signature copy() {
+        try {
+            return new HmacSHA256Signature((Mac) mac.clone());
+        } catch (CloneNotSupportedException e) {
+            return null;
+        }
+    }
 }
@@ -14,15 +14,19 @@ import com.aliyun.ots.thirdparty.org.apache.http.Header;
 public class RequestSigner implements RequestSignerInterface {
 
     private ServiceCredentials credentials;
+    private String accessKeySecret;
     private byte[] accessKey;
     private byte[] instanceName;
+    private SignatureMakerInterface signatureMaker;
 
     public RequestSigner(String instanceName, ServiceCredentials credentials) {
         Preconditions.checkNotNull(instanceName);
         Preconditions.checkNotNull(credentials);
 
         this.credentials = credentials;
-        this.accessKey = Bytes.toBytes(credentials.getAccessKeySecret());
+        this.accessKeySecret = credentials.getAccessKeySecret();
+        this.accessKey = Bytes.toBytes(accessKeySecret);
+        this.signatureMaker = SignatureMakerFactory.getSignatureMaker(credentials);
         try {
             this.instanceName = instanceName.getBytes(Constants.HTTP_HEADER_ENCODING);
         } catch (UnsupportedEncodingException e) {
@@ -30,10 +34,21 @@ public class RequestSigner implements RequestSignerInterface {
         }
     }
 
+    /**
+     * Whether this signer still signs with the given credentials,
+     * which is no longer the case once the provider has returned new credentials or the access key has been updated.
+     */
+    public boolean isSigningWith(ServiceCredentials credentials) {
+        if (this.credentials != credentials) {
+            return false;
+        }
+        String secret = credentials.getAccessKeySecret();
+        return secret == accessKeySecret || accessKeySecret.equals(secret);
+    }
+
     @Override
     public void sign(RequestMessage request) throws ClientException {
         try {
-            SignatureMakerInterface signatureMaker = SignatureMakerFactory.getSignatureMaker(credentials);
             signatureMaker.addExtraHeader(request);
             String signature = signatureMaker.getSignature(
                     accessKey,
@@ -0,0 +1,25 @@
+package com.alicloud.openservices.tablestore.core.auth;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+
+/**
+ * Keeps the signer of every instance accessed through a client, so the signing state of a request,
+ * e.g. the signature maker and the HMAC key, is built only when the credentials change rather than for every request.
+ */
+public class RequestSignerCache {
+    private final ConcurrentHashMap<String, RequestSigner> signers = new ConcurrentHashMap<String, RequestSigner>();
+
+    public RequestSigner getSigner(String instanceName, ServiceCredentials credentials) {
+        Preconditions.checkNotNull(instanceName);
+        Preconditions.checkNotNull(credentials);
+
+        RequestSigner signer = signers.get(instanceName);
+        if (signer == null || !signer.isSigningWith(credentials)) {
+            signer = new RequestSigner(instanceName, credentials);
+            signers.put(instanceName, signer);
+        }
+        return signer;
+    }
+}
@@ -0,0 +1,25 @@
+package com.alicloud.openservices.tablestore.core.auth;
+
+import java.util.Arrays;
+
+/**
+ * A signature keyed with an access key and not updated yet, which is copied for every string to sign,
+ * so the HMAC key is initialized only once per access key instead of once per request.
+ */
+final class SignaturePrototype<T extends ServiceSignature> {
+    private final byte[] key;
+    private final T signature;
+
+    SignaturePrototype(byte[] key, T signature) {
+        this.key = key;
+        this.signature = signature;
+    }
+
+    boolean isKeyedWith(byte[] accessKey) {
+        return key == accessKey || Arrays.equals(key, accessKey);
+    }
+
+    T getSignature() {
+        return signature;
+    }
+}
@@ -11,6 +11,7 @@ import com.aliyun.ots.thirdparty.org.apache.http.Header;
 public class V2SignatureMaker implements SignatureMakerInterface {
 
     private final ServiceCredentials credentials;
+    private volatile SignaturePrototype<HmacSHA1Signature> prototype;
 
     public V2SignatureMaker(ServiceCredentials credentials) {
         this.credentials = credentials;
@@ -35,13 +36,23 @@ public class V2SignatureMaker implements SignatureMakerInterface {
                 append("\n").
                 append(canonicalizedOtsHeader.toString());
 
-        ServiceSignature signer = new HmacSHA1Signature(accessKey);
+        ServiceSignature signer = newSignature(accessKey);
 
         signer.updateUTF8String(sb.toString());
 
         return signer.computeSignature();
     }
 
+    private HmacSHA1Signature newSignature(byte[] accessKey) {
+        SignaturePrototype<HmacSHA1Signature> current = prototype;
+        if (current == null || !current.isKeyedWith(accessKey)) {
+            current = new SignaturePrototype<HmacSHA1Signature>(accessKey, new HmacSHA1Signature(accessKey));
+            prototype = current;
+        }
+        HmacSHA1Signature signature = current.getSignature().copy();
+        return signature != null ? signature : new HmacSHA1Signature(accessKey);
+    }
+
     public String getSignatureHeader() {
         return Constants.OTS_HEADER_SIGNATURE;
     }
@@ -21,12 +21,16 @@ public class V4Credentials implements ServiceCredentialsV4 {
         }
     };
 
+    private static final long MILLIS_PER_DAY = 24 * 3600 * 1000L;
+
     private final String accessKeyId;
     private final String v4SigningStsToken;
     private final String region;
     private String accessKeySecret;
     private String v4SigningAccessKey;
     private String signingDate;
+    // The UTC day of the signing date, so checking whether the key is outdated does not format the date for every request.
+    private long signingDay;
     private boolean autoUpdateV4SigningAccessKey = false;
 
     public V4Credentials(String accessKeyId, String v4SigningAccessKey, String region, String signingDate) {
@@ -57,13 +61,15 @@ public class V4Credentials implements ServiceCredentialsV4 {
     }
 
     public static V4Credentials createByServiceCredentials(ServiceCredentials serviceCredentials, String region) {
-        String signDate = DATA_FORMAT.get().format(new Date());
+        long now = System.currentTimeMillis();
+        String signDate = DATA_FORMAT.get().format(new Date(now));
         String v4SigningAccessKey =
                 CalculateV4SigningKeyUtil.finalSigningKeyString(serviceCredentials.getAccessKeySecret(), signDate, region, PRODUCT, SIGNING_KEY_SIGN_METHOD);
 
         V4Credentials v4Credentials =
                 new V4Credentials(serviceCredentials.getAccessKeyId(), v4SigningAccessKey, serviceCredentials.getSecurityToken(), region, signDate);
         v4Credentials.accessKeySecret = serviceCredentials.getAccessKeySecret();
+        v4Credentials.signingDay = now / MILLIS_PER_DAY;
         v4Credentials.autoUpdateV4SigningAccessKey = true;
         return v4Credentials;
     }
@@ -94,10 +100,14 @@ public class V4Credentials implements ServiceCredentialsV4 {
      */
     private void updateV4Signature() {
         if (autoUpdateV4SigningAccessKey) {
-            String dataNow = DATA_FORMAT.get().format(new Date());
-            if (!dataNow.equals(signingDate)) {
-                signingDate = dataNow;
-                v4SigningAccessKey = CalculateV4SigningKeyUtil.finalSigningKeyString(accessKeySecret, signingDate, region, PRODUCT, SIGNING_KEY_SIGN_METHOD);
+            long now = System.currentTimeMillis();
+            if (now / MILLIS_PER_DAY != signingDay) {
+                String dataNow = DATA_FORMAT.get().format(new Date(now));
+                if (!dataNow.equals(signingDate)) {
+                    signingDate = dataNow;
+                    v4SigningAccessKey = CalculateV4SigningKeyUtil.finalSigningKeyString(accessKeySecret, signingDate, region, PRODUCT, SIGNING_KEY_SIGN_METHOD);
+                }
+                signingDay = now / MILLIS_PER_DAY;
             }
         }
     }
@@ -11,6 +11,7 @@ import com.aliyun.ots.thirdparty.org.apache.http.Header;
 public class V4SignatureMaker implements SignatureMakerInterface {
 
     private final ServiceCredentialsV4 credentials;
+    private volatile SignaturePrototype<HmacSHA256Signature> prototype;
 
     public V4SignatureMaker(ServiceCredentialsV4 credentials) {
         this.credentials = credentials;
@@ -37,12 +38,22 @@ public class V4SignatureMaker implements SignatureMakerInterface {
         // add salt for v4 signature
         sb.append(Constants.V4_SIGNATURE_SALT);
         // Hmac SHA-256 for V4 signature
-        ServiceSignature signer = new HmacSHA256Signature(accessKey);
+        ServiceSignature signer = newSignature(accessKey);
         signer.updateUTF8String(sb.toString());
 
         return signer.computeSignature();
     }
 
+    private HmacSHA256Signature newSignature(byte[] accessKey) {
+        SignaturePrototype<HmacSHA256Signature> current = prototype;
+        if (current == null || !current.isKeyedWith(accessKey)) {
+            current = new SignaturePrototype<HmacSHA256Signature>(accessKey, new HmacSHA256Signature(accessKey));
+            prototype = current;
+        }
+        HmacSHA256Signature signature = current.getSignature().copy();
+        return signature != null ? signature : new HmacSHA256Signature(accessKey);
+    }
+
     public String getSignatureHeader() {
         return Constants.OTS_HEADER_SIGNATURE_V4;
     }
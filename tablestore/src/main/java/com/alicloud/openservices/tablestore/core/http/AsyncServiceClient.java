@@ -3,6 +3,7 @@ package com.alicloud.openservices.tablestore.core.http;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import com.alicloud.openservices.tablestore.RequestTracer;
@@ -27,7 +28,11 @@ import com.aliyun.ots.thirdparty.org.apache.http.protocol.HttpContext;
 
 import com.alicloud.openservices.tablestore.ClientConfiguration;
 import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.core.CircuitBreakerRegistry;
+import com.alicloud.openservices.tablestore.core.RequestHedger;
+import com.alicloud.openservices.tablestore.core.RetryBudget;
 import com.alicloud.openservices.tablestore.core.TraceLogger;
+import com.alicloud.openservices.tablestore.core.auth.RequestSignerCache;
 import com.alicloud.openservices.tablestore.core.utils.Preconditions;
 
 import javax.net.ssl.SSLContext;
@@ -38,8 +43,18 @@ public class AsyncServiceClient {
     private CloseableHttpAsyncClient httpClient;
     private IdleConnectionEvictor connEvictor;
     private Map<String, String> extraHeaders;
+    private final RequestSignerCache signerCache = new RequestSignerCache();
+    private final RetryBudget retryBudget;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RequestHedger requestHedger;
 
     public AsyncServiceClient(ClientConfiguration config) {
+        retryBudget = config.getRetryBudgetConfiguration() == null ? null
+                : new RetryBudget(config.getRetryBudgetConfiguration());
+        circuitBreakerRegistry = config.getCircuitBreakerConfiguration() == null ? null
+                : new CircuitBreakerRegistry(config.getCircuitBreakerConfiguration());
+        requestHedger = config.getHedgingConfiguration() == null ? null
+                : new RequestHedger(config.getHedgingConfiguration());
         try {
             IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
                     .setIoThreadCount(config.getIoThreadCount()).build();
@@ -90,6 +105,31 @@ public class AsyncServiceClient {
         }
     }
 
+    public RequestSignerCache getSignerCache() {
+        return signerCache;
+    }
+
+    /**
+     * @return the retry budget of the client, or null if it is not enabled.
+     */
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * @return the circuit breakers of the client, or null if they are not enabled.
+     */
+    public CircuitBreakerRegistry getCircuitBreakerRegistry() {
+        return circuitBreakerRegistry;
+    }
+
+    /**
+     * @return the hedger of the point reads of the client, or null if hedging is not enabled.
+     */
+    public RequestHedger getRequestHedger() {
+        return requestHedger;
+    }
+
     public Map<String, String> getExtraHeaders() {
         return extraHeaders;
     }
@@ -170,7 +210,7 @@ public class AsyncServiceClient {
         }
     }
 
-    public <Res> void asyncSendRequest(
+    public <Res> Future<Res> asyncSendRequest(
             RequestMessage request,
             ExecutionContext context,
             ResponseConsumer<Res> consumer,
@@ -191,7 +231,7 @@ public class AsyncServiceClient {
             LOG.debug(TRACE_ID_WITH_COLON + traceLogger.getTraceId() + DELIMITER + INTO_HTTP_ASYNC_CLIENT);
         }
         traceLogger.addEventTime(INTO_HTTP_ASYNC_CLIENT, System.currentTimeMillis());
-        httpClient.execute(
+        return httpClient.execute(
                 new OTSRequestProducer(target, request, traceLogger, requestTracer, rpcContext),
                 consumer, callback);
     }
@@ -216,6 +256,9 @@ public class AsyncServiceClient {
 
     public void shutdown() {
         try {
+            if (this.requestHedger != null) {
+                this.requestHedger.shutdown();
+            }
             this.connEvictor.shutdown();
             this.connEvictor.join();
             this.httpClient.close();
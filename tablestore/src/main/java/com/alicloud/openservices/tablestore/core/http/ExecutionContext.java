@@ -15,6 +15,17 @@ public class ExecutionContext {
     public ExecutionContext() {
     }
 
+    /**
+     * @param signer
+     *            the signer to set
+     * @param responseHandlers
+     *            the response handlers, which may be shared with other contexts and must not be modified
+     */
+    public ExecutionContext(RequestSigner signer, List<ResponseHandler> responseHandlers) {
+        this.signer = signer;
+        this.responseHandlers = responseHandlers;
+    }
+
     /**
      * @return the signer
      */
@@ -2,7 +2,6 @@ package com.alicloud.openservices.tablestore.core.http;
 
 import java.io.InputStream;
 import java.util.Map;
-import java.util.zip.Inflater;
 
 import com.aliyun.ots.thirdparty.org.apache.http.entity.ByteArrayEntity;
 
@@ -42,8 +41,7 @@ public class OTSDeflateResponseHandler implements ResponseHandler {
                     throw new ClientException("The compress size is invalid: " + rawDataSize);
                 }
                 InputStream oldInput = responseData.getContent();
-                Inflater decompresser = new Inflater();
-                byte[] content = CompressUtil.decompress(oldInput, rawDataSize, decompresser);
+                byte[] content = CompressUtil.decompress(oldInput, rawDataSize);
                 responseData.getResponse().setEntity(new ByteArrayEntity(content));
                 oldInput.close();
             } catch(Exception e) {
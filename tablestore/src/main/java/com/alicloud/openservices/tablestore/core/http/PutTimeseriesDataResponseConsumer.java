@@ -12,7 +12,7 @@ import com.alicloud.openservices.tablestore.model.Response;
 import com.alicloud.openservices.tablestore.model.RetryStrategy;
 import com.alicloud.openservices.tablestore.model.timeseries.PutTimeseriesDataRequest;
 import com.alicloud.openservices.tablestore.model.timeseries.PutTimeseriesDataResponse;
-import com.google.common.cache.Cache;
+import com.alicloud.openservices.tablestore.core.utils.TimeseriesMetaCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -20,11 +20,11 @@ import java.util.List;
 public class PutTimeseriesDataResponseConsumer extends ResponseConsumer<PutTimeseriesDataResponse> {
 
     private PutTimeseriesDataRequest request;
-    private Cache<String, Long> timeseriesMetaCache;
+    private TimeseriesMetaCache timeseriesMetaCache;
 
     public PutTimeseriesDataResponseConsumer(ResultParser resultParser, TraceLogger traceLogger, RetryStrategy retry,
                                              PutTimeseriesDataResponse lastResult, PutTimeseriesDataRequest request,
-                                             Cache<String, Long> timeseriesMetaCache) {
+                                             TimeseriesMetaCache timeseriesMetaCache) {
         super(resultParser, traceLogger, retry, lastResult);
         this.request = request;
         this.timeseriesMetaCache = timeseriesMetaCache;
@@ -0,0 +1,132 @@
+package com.alicloud.openservices.tablestore.core.http;
+
+import com.alicloud.openservices.tablestore.core.utils.BinaryUtil;
+import com.aliyun.ots.thirdparty.org.apache.http.entity.ByteArrayEntity;
+
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The encoded body of a request.<br/>
+ * The request message is serialized (and compressed) into this buffer exactly once, the MD5 is updated as the bytes are written,
+ * and the HTTP client sends the buffer itself through {@link #toEntity()}, so a body is never copied after encoding.<br/>
+ * Bodies are recycled through a pool shared by all clients, whose retained memory is bounded by {@link #MAX_POOLED_BYTES}.
+ * A body must be released only after the HTTP exchange that sends it has finished, and must not be used afterwards.
+ */
+public class RequestBody extends OutputStream {
+
+    static final int MIN_CAPACITY = 1024;
+
+    /**
+     * Larger buffers are left to the GC instead of being pooled.
+     */
+    static final int MAX_POOLED_CAPACITY = 8 * 1024 * 1024;
+
+    static final long MAX_POOLED_BYTES = 32 * 1024 * 1024;
+
+    private static final ConcurrentLinkedQueue<RequestBody> pool = new ConcurrentLinkedQueue<RequestBody>();
+    private static final AtomicLong pooledBytes = new AtomicLong(0);
+
+    private byte[] buffer;
+    private int count;
+    private final MessageDigest md5;
+
+    private RequestBody(int capacity) {
+        this.buffer = new byte[Math.max(capacity, MIN_CAPACITY)];
+        this.md5 = BinaryUtil.newMd5Digest();
+    }
+
+    /**
+     * Takes a body from the pool, or creates a new one.
+     *
+     * @param expectedSize The expected size of the encoded body, the body still grows beyond it if necessary.
+     */
+    public static RequestBody acquire(int expectedSize) {
+        RequestBody body = pool.poll();
+        if (body == null) {
+            return new RequestBody(expectedSize);
+        }
+        pooledBytes.addAndGet(-body.buffer.length);
+        body.ensureCapacity(expectedSize);
+        return body;
+    }
+
+    /**
+     * Returns the body to the pool.
+     */
+    public void release() {
+        count = 0;
+        md5.reset();
+        if (buffer.length > MAX_POOLED_CAPACITY) {
+            return;
+        }
+        if (pooledBytes.addAndGet(buffer.length) > MAX_POOLED_BYTES) {
+            pooledBytes.addAndGet(-buffer.length);
+            return;
+        }
+        pool.offer(this);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            byte[] newBuffer = new byte[Math.max(capacity, buffer.length << 1)];
+            System.arraycopy(buffer, 0, newBuffer, 0, count);
+            buffer = newBuffer;
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        buffer[count++] = (byte) b;
+        md5.update((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+        md5.update(b, off, len);
+    }
+
+    /**
+     * Writes bytes that are already in the buffer, see {@link #array()}.
+     */
+    public void commit(int len) {
+        md5.update(buffer, count, len);
+        count += len;
+    }
+
+    /**
+     * The backing array, valid from 0 to {@link #size()}.
+     * Callers may write into it directly after {@link #ensureFree(int)}, and must then call {@link #commit(int)}.
+     */
+    public byte[] array() {
+        return buffer;
+    }
+
+    public void ensureFree(int len) {
+        ensureCapacity(count + len);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * The MD5 of the bytes written so far, can be called only once.
+     */
+    public byte[] digestMd5() {
+        return md5.digest();
+    }
+
+    /**
+     * Wraps the written bytes into an entity without copying them.
+     */
+    public ByteArrayEntity toEntity() {
+        return new ByteArrayEntity(buffer, 0, count);
+    }
+}
@@ -890,6 +890,26 @@ public class OTSProtocolBuilder {
         return builder.build();
     }
 
+    private static OtsInternalApi.OperationType buildOperationType(RowChange rowChange) {
+        if (rowChange instanceof RowPutChange) {
+            return OtsInternalApi.OperationType.PUT;
+        } else if (rowChange instanceof RowUpdateChange) {
+            return OtsInternalApi.OperationType.UPDATE;
+        } else if (rowChange instanceof RowDeleteChange) {
+            return OtsInternalApi.OperationType.DELETE;
+        } else {
+            throw new ClientException("Unknown type of rowChange.");
+        }
+    }
+
+    private static List<ByteString> buildRowChangesWithHeader(List<RowChange> rowChanges) {
+        try {
+            return PlainBufferBuilder.buildRowChangesWithHeader(rowChanges);
+        } catch (IOException e) {
+            throw new ClientException("Bug: serialize row change failed.", e);
+        }
+    }
+
     public static OtsInternalApi.BatchWriteRowRequest buildBatchWriteRowRequest(BatchWriteRowRequest request) {
         OtsInternalApi.BatchWriteRowRequest.Builder builder = OtsInternalApi.BatchWriteRowRequest.newBuilder();
 
@@ -900,27 +920,15 @@ public class OTSProtocolBuilder {
 
             List<RowChange> rowChanges = request.getRowChange().get(tableName);
             if (rowChanges != null && !rowChanges.isEmpty()) {
-                for (RowChange rowChange : rowChanges) {
-                    try {
-                        OtsInternalApi.RowInBatchWriteRowRequest.Builder rowBuilder = OtsInternalApi.RowInBatchWriteRowRequest.newBuilder();
-                        if (rowChange instanceof RowPutChange) {
-                            rowBuilder.setType(OtsInternalApi.OperationType.PUT);
-                            rowBuilder.setRowChange(ByteString.copyFrom(PlainBufferBuilder.buildRowPutChangeWithHeader((RowPutChange) rowChange)));
-                        } else if (rowChange instanceof RowUpdateChange) {
-                            rowBuilder.setType(OtsInternalApi.OperationType.UPDATE);
-                            rowBuilder.setRowChange(ByteString.copyFrom(PlainBufferBuilder.buildRowUpdateChangeWithHeader((RowUpdateChange) rowChange)));
-                        } else if (rowChange instanceof RowDeleteChange) {
-                            rowBuilder.setType(OtsInternalApi.OperationType.DELETE);
-                            rowBuilder.setRowChange(ByteString.copyFrom(PlainBufferBuilder.buildRowDeleteChangeWithHeader((RowDeleteChange) rowChange)));
-                        } else {
-                            throw new ClientException("Unknown type of rowChange.");
-                        }
-                        rowBuilder.setCondition(buildCondition(rowChange.getCondition()));
-                        rowBuilder.setReturnContent(buildReturnContent(rowChange.getReturnType(), rowChange.getReturnColumnNames()));
-                        tableBuilder.addRows(rowBuilder.build());
-                    } catch (IOException e) {
-                        throw new ClientException("Bug: serialize row put change failed.", e);
-                    }
+                List<ByteString> serializedRowChanges = buildRowChangesWithHeader(rowChanges);
+                for (int i = 0; i < rowChanges.size(); i++) {
+                    RowChange rowChange = rowChanges.get(i);
+                    OtsInternalApi.RowInBatchWriteRowRequest.Builder rowBuilder = OtsInternalApi.RowInBatchWriteRowRequest.newBuilder();
+                    rowBuilder.setType(buildOperationType(rowChange));
+                    rowBuilder.setRowChange(serializedRowChanges.get(i));
+                    rowBuilder.setCondition(buildCondition(rowChange.getCondition()));
+                    rowBuilder.setReturnContent(buildReturnContent(rowChange.getReturnType(), rowChange.getReturnColumnNames()));
+                    tableBuilder.addRows(rowBuilder.build());
                 }
             }
 
@@ -946,25 +954,12 @@ public class OTSProtocolBuilder {
 
         List<RowChange> rowChanges = request.getRowChange();
         if (rowChanges != null && !rowChanges.isEmpty()) {
-            for (RowChange rowChange : rowChanges) {
-                try {
-                    OtsInternalApi.RowInBulkImportRequest.Builder rowBuilder = OtsInternalApi.RowInBulkImportRequest.newBuilder();
-                    if (rowChange instanceof RowPutChange) {
-                        rowBuilder.setType(OtsInternalApi.OperationType.PUT);
-                        rowBuilder.setRowChange(ByteString.copyFrom(PlainBufferBuilder.buildRowPutChangeWithHeader((RowPutChange) rowChange)));
-                    } else if (rowChange instanceof RowUpdateChange) {
-                        rowBuilder.setType(OtsInternalApi.OperationType.UPDATE);
-                        rowBuilder.setRowChange(ByteString.copyFrom(PlainBufferBuilder.buildRowUpdateChangeWithHeader((RowUpdateChange) rowChange)));
-                    } else if (rowChange instanceof RowDeleteChange) {
-                        rowBuilder.setType(OtsInternalApi.OperationType.DELETE);
-                        rowBuilder.setRowChange(ByteString.copyFrom(PlainBufferBuilder.buildRowDeleteChangeWithHeader((RowDeleteChange) rowChange)));
-                    } else {
-                        throw new ClientException("Unknown type of rowChange.");
-                    }
-                    builder.addRows(rowBuilder.build());
-                } catch (IOException e) {
-                    throw new ClientException("Bug: serialize row put change failed.", e);
-                }
+            List<ByteString> serializedRowChanges = buildRowChangesWithHeader(rowChanges);
+            for (int i = 0; i < rowChanges.size(); i++) {
+                OtsInternalApi.RowInBulkImportRequest.Builder rowBuilder = OtsInternalApi.RowInBulkImportRequest.newBuilder();
+                rowBuilder.setType(buildOperationType(rowChanges.get(i)));
+                rowBuilder.setRowChange(serializedRowChanges.get(i));
+                builder.addRows(rowBuilder.build());
             }
         }
         return builder.build();
@@ -4,9 +4,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.alicloud.openservices.tablestore.ClientException;
 import com.alicloud.openservices.tablestore.model.*;
 import com.alicloud.openservices.tablestore.core.utils.BinaryUtil;
 import com.alicloud.openservices.tablestore.core.utils.Pair;
+import com.aliyun.ots.thirdparty.com.google.protobuf.ByteString;
+import com.aliyun.ots.thirdparty.com.google.protobuf.UnsafeByteOperations;
 
 public class PlainBufferBuilder {
 
@@ -311,34 +314,23 @@ public class PlainBufferBuilder {
         return output.getBuffer();
     }
 
-    public static byte[] buildRowPutChangeWithHeader(RowPutChange rowChange) throws IOException {
-
-        List<PlainBufferCell> pkCells = new ArrayList<PlainBufferCell>(rowChange.getPrimaryKey().size());
-        for (PrimaryKeyColumn column : rowChange.getPrimaryKey().getPrimaryKeyColumns()) {
+    private static List<PlainBufferCell> toPrimaryKeyCells(PrimaryKey primaryKey) throws IOException {
+        List<PlainBufferCell> pkCells = new ArrayList<PlainBufferCell>(primaryKey.size());
+        for (PrimaryKeyColumn column : primaryKey.getPrimaryKeyColumns()) {
             pkCells.add(PlainBufferConversion.toPlainBufferCell(column));
         }
+        return pkCells;
+    }
+
+    static PlainBufferRow toPlainBufferRow(RowPutChange rowChange) throws IOException {
         List<PlainBufferCell> cells = new ArrayList<PlainBufferCell>(rowChange.getColumnsToPut().size());
         for (Column column: rowChange.getColumnsToPut()) {
             cells.add(PlainBufferConversion.toPlainBufferCell(column, false, false, false, (byte)0x0));
         }
-
-        PlainBufferRow row = new PlainBufferRow(pkCells, cells, false);
-
-        int size = computePlainBufferRowWithHeader(row);
-        PlainBufferOutputStream output = new PlainBufferOutputStream(size);
-        PlainBufferCodedOutputStream codedOutput = new PlainBufferCodedOutputStream(output);
-        codedOutput.writeRowWithHeader(row);
-        if (!output.isFull()) {
-            throw new IOException("Bug: serialize row put change failed.");
-        }
-        return output.getBuffer();
+        return new PlainBufferRow(toPrimaryKeyCells(rowChange.getPrimaryKey()), cells, false);
     }
 
-    public static byte[] buildRowUpdateChangeWithHeader(RowUpdateChange rowChange) throws IOException {
-        List<PlainBufferCell> pkCells = new ArrayList<PlainBufferCell>(rowChange.getPrimaryKey().size());
-        for (PrimaryKeyColumn column : rowChange.getPrimaryKey().getPrimaryKeyColumns()) {
-            pkCells.add(PlainBufferConversion.toPlainBufferCell(column));
-        }
+    static PlainBufferRow toPlainBufferRow(RowUpdateChange rowChange) throws IOException {
         List<PlainBufferCell> cells = new ArrayList<PlainBufferCell>(rowChange.getColumnsToUpdate().size());
         if (!rowChange.getColumnsToUpdate().isEmpty()) {
             for (Pair<Column, RowUpdateChange.Type> column : rowChange.getColumnsToUpdate()) {
@@ -358,38 +350,85 @@ public class PlainBufferBuilder {
                 }
             }
         }
+        return new PlainBufferRow(toPrimaryKeyCells(rowChange.getPrimaryKey()), cells, false);
+    }
 
-        PlainBufferRow row = new PlainBufferRow(pkCells, cells, false);
+    static PlainBufferRow toPlainBufferRow(RowDeleteChange rowChange) throws IOException {
+        return new PlainBufferRow(toPrimaryKeyCells(rowChange.getPrimaryKey()), new ArrayList<PlainBufferCell>(), true);
+    }
 
+    static PlainBufferRow toPlainBufferRow(RowChange rowChange) throws IOException {
+        if (rowChange instanceof RowPutChange) {
+            return toPlainBufferRow((RowPutChange) rowChange);
+        } else if (rowChange instanceof RowUpdateChange) {
+            return toPlainBufferRow((RowUpdateChange) rowChange);
+        } else if (rowChange instanceof RowDeleteChange) {
+            return toPlainBufferRow((RowDeleteChange) rowChange);
+        } else {
+            throw new ClientException("Unknown type of rowChange.");
+        }
+    }
+
+    private static byte[] buildRowWithHeader(PlainBufferRow row, String changeType) throws IOException {
         int size = computePlainBufferRowWithHeader(row);
         PlainBufferOutputStream output = new PlainBufferOutputStream(size);
         PlainBufferCodedOutputStream codedOutput = new PlainBufferCodedOutputStream(output);
         codedOutput.writeRowWithHeader(row);
 
         if (!output.isFull()) {
-            throw new IOException("Bug: serialize row update change failed.");
+            throw new IOException("Bug: serialize row " + changeType + " change failed.");
         }
         return output.getBuffer();
     }
 
+    public static byte[] buildRowPutChangeWithHeader(RowPutChange rowChange) throws IOException {
+        return buildRowWithHeader(toPlainBufferRow(rowChange), "put");
+    }
+
+    public static byte[] buildRowUpdateChangeWithHeader(RowUpdateChange rowChange) throws IOException {
+        return buildRowWithHeader(toPlainBufferRow(rowChange), "update");
+    }
+
     public static byte[] buildRowDeleteChangeWithHeader(RowDeleteChange rowChange) throws IOException {
-        List<PlainBufferCell> pkCells = new ArrayList<PlainBufferCell>(rowChange.getPrimaryKey().size());
-        for (PrimaryKeyColumn column : rowChange.getPrimaryKey().getPrimaryKeyColumns()) {
-            pkCells.add(PlainBufferConversion.toPlainBufferCell(column));
-        }
-        List<PlainBufferCell> cells = new ArrayList<PlainBufferCell>();
+        return buildRowWithHeader(toPlainBufferRow(rowChange), "delete");
+    }
 
-        PlainBufferRow row = new PlainBufferRow(pkCells, cells, true);
+    /**
+     * Serializes the row changes of a batch, each with its own header, into a single buffer of the exact total size.
+     * The size of every row is computed once, and the returned byte strings are views on the buffer,
+     * so neither a per-row array nor a copy into the protobuf message is needed.
+     *
+     * @param rowChanges The row changes to serialize, of type put, update or delete.
+     * @return The serialized row changes, in the same order.
+     */
+    public static List<ByteString> buildRowChangesWithHeader(List<RowChange> rowChanges) throws IOException {
+        PlainBufferRow[] rows = new PlainBufferRow[rowChanges.size()];
+        int[] sizes = new int[rows.length];
+        long totalSize = 0;
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = toPlainBufferRow(rowChanges.get(i));
+            sizes[i] = computePlainBufferRowWithHeader(rows[i]);
+            totalSize += sizes[i];
+        }
+        if (totalSize > Integer.MAX_VALUE) {
+            throw new ClientException("The size of the row changes exceeds the limit: " + totalSize);
+        }
 
-        int size = computePlainBufferRowWithHeader(row);
-        PlainBufferOutputStream output = new PlainBufferOutputStream(size);
+        List<ByteString> result = new ArrayList<ByteString>(rows.length);
+        if (rows.length == 0) {
+            return result;
+        }
+        PlainBufferOutputStream output = new PlainBufferOutputStream((int) totalSize);
         PlainBufferCodedOutputStream codedOutput = new PlainBufferCodedOutputStream(output);
-        codedOutput.writeRowWithHeader(row);
-
-        if (!output.isFull()) {
-            throw new IOException("Bug: serialize row delete change failed.");
+        for (int i = 0; i < rows.length; i++) {
+            int offset = output.count();
+            codedOutput.writeRowWithHeader(rows[i]);
+            if (output.count() - offset != sizes[i]) {
+                throw new IOException("Bug: serialize row change failed.");
+            }
+            result.add(UnsafeByteOperations.unsafeWrap(output.getBuffer(), offset, sizes[i]));
         }
-        return output.getBuffer();
+        return result;
     }
 
 }
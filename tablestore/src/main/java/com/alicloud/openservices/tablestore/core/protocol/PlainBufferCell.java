@@ -50,6 +50,15 @@ public class PlainBufferCell {
         this.hasChecksum = false;
     }
 
+    /**
+     * @param cellName The name of the cell.
+     * @param nameRawData The utf-8 bytes of the name, which may be shared and must not be modified.
+     */
+    public void setCellName(String cellName, byte[] nameRawData) {
+        setCellName(cellName);
+        this.nameRawData = nameRawData;
+    }
+
     public boolean hasCellName() {
         return hasCellName;
     }
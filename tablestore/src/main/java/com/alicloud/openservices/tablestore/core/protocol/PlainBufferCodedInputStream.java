@@ -56,8 +56,7 @@ public class PlainBufferCodedInputStream {
                 break;
             }
             case VT_STRING: {
-                byte[] originBytes = input.readBytes(input.readUInt32());
-                columnValue = ColumnValue.fromString(PlainBufferInputStream.bytes2UTFString(originBytes), originBytes);
+                columnValue = ColumnValue.fromStringInBytes(input.readBytes(input.readUInt32()));
                 break;
             }
             case VT_BOOLEAN: {
@@ -125,7 +124,8 @@ public class PlainBufferCodedInputStream {
 
         readTag();
         if (getLastTag() == TAG_CELL_NAME) {
-            cell.setCellName(input.readUTFString(input.readRawLittleEndian32()));
+            String cellName = input.readCellName(input.readRawLittleEndian32());
+            cell.setCellName(cellName, input.getLastCellNameRawData());
             readTag();
         }
 
@@ -8,9 +8,20 @@ import java.nio.ByteBuffer;
 
 public class PlainBufferInputStream {
 
+    /**
+     * The number of slots of the cell name table, must be a power of 2.
+     */
+    static final int CELL_NAME_TABLE_SIZE = 64;
+
     private ByteBuffer buffer;
     private int lastTag;
 
+    // The cell names read from this buffer, the rows of a response usually repeat the same names,
+    // so every name is decoded once per buffer rather than once per cell.
+    private String[] cellNames;
+    private byte[][] cellNameRawData;
+    private byte[] lastCellNameRawData;
+
     public PlainBufferInputStream(ByteBuffer buffer) {
         this.buffer = buffer;
         this.lastTag = 0;
@@ -109,6 +120,54 @@ public class PlainBufferInputStream {
         return new String(readBytes(size), Constants.UTF8_ENCODING);
     }
 
+    /**
+     * Reads the name of a cell, a name already read from this buffer is returned without being copied or decoded again.
+     * The raw bytes of the name are then available from {@link #getLastCellNameRawData()}, they must not be modified.
+     */
+    public String readCellName(int size) throws IOException {
+        if (size < 0 || buffer.remaining() < size) {
+            throw new IOException(PlainBufferConsts.READ_BYTE_EOF);
+        }
+        if (cellNames == null) {
+            cellNames = new String[CELL_NAME_TABLE_SIZE];
+            cellNameRawData = new byte[CELL_NAME_TABLE_SIZE][];
+        }
+
+        int position = buffer.position();
+        int hash = size;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + buffer.get(position + i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & (CELL_NAME_TABLE_SIZE - 1);
+
+        byte[] rawData = cellNameRawData[slot];
+        if (rawData != null && rawData.length == size && equalsAt(position, rawData)) {
+            buffer.position(position + size);
+            lastCellNameRawData = rawData;
+            return cellNames[slot];
+        }
+
+        rawData = readBytes(size);
+        String name = bytes2UTFString(rawData);
+        cellNames[slot] = name;
+        cellNameRawData[slot] = rawData;
+        lastCellNameRawData = rawData;
+        return name;
+    }
+
+    public byte[] getLastCellNameRawData() {
+        return lastCellNameRawData;
+    }
+
+    private boolean equalsAt(int position, byte[] rawData) {
+        for (int i = 0; i < rawData.length; i++) {
+            if (buffer.get(position + i) != rawData[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static String bytes2UTFString(byte[] bytes) throws IOException {
         return new String(bytes, Constants.UTF8_ENCODING);
     }
@@ -7,11 +7,17 @@ import com.alicloud.openservices.tablestore.core.utils.Preconditions;
 import com.alicloud.openservices.tablestore.core.utils.PureJavaCrc32C;
 import com.alicloud.openservices.tablestore.model.*;
 import com.alicloud.openservices.tablestore.model.timeseries.*;
+import com.alicloud.openservices.tablestore.core.utils.GuavaTimeseriesMetaCache;
+import com.alicloud.openservices.tablestore.core.utils.TimeseriesMetaCache;
 import com.google.common.cache.Cache;
 import com.google.flatbuffers.FlatBufferBuilder;
 import com.aliyun.ots.thirdparty.com.google.protobuf.ByteString;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
@@ -21,6 +27,86 @@ public class TimeseriesProtocolBuilder {
 
     public static final int SUPPORTED_TABLE_VERSION = 1;
 
+    private static final int INITIAL_FLAT_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_FLAT_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * The builder of the PutTimeseriesData rows of each thread, so that its buffer is reused by the following requests.
+     */
+    private static final ThreadLocal<FlatBufferBuilder> FLAT_BUFFER_BUILDER = new ThreadLocal<FlatBufferBuilder>();
+
+    /**
+     * Shares the offset of every distinct name within a FlatBuffer, e.g. the tag names and values and the data sources
+     * repeated by the rows of a request. The field values are not shared.
+     */
+    private static final class FlatBufferStringTable {
+        private final FlatBufferBuilder fbb;
+        private final Map<String, Integer> offsets = new HashMap<String, Integer>();
+
+        FlatBufferStringTable(FlatBufferBuilder fbb) {
+            this.fbb = fbb;
+        }
+
+        FlatBufferBuilder getBuilder() {
+            return fbb;
+        }
+
+        int get(String s) {
+            Integer offset = offsets.get(s);
+            if (offset == null) {
+                offset = fbb.createString(s);
+                offsets.put(s, offset);
+            }
+            return offset;
+        }
+    }
+
+    /**
+     * The measurement and the field names and types of a row, the rows with the same schema share a row group.
+     */
+    private static final class RowSchema {
+        private final TimeseriesRow row;
+        private final int hash;
+
+        RowSchema(TimeseriesRow row) {
+            this.row = row;
+            int h = row.getTimeseriesKey().getMeasurementName().hashCode();
+            for (Map.Entry<String, ColumnValue> entry : row.getFields().entrySet()) {
+                h = 31 * (31 * h + entry.getKey().hashCode()) + entry.getValue().getType().ordinal();
+            }
+            this.hash = h;
+        }
+
+        boolean matches(TimeseriesRow other) {
+            if (other == row) {
+                return true;
+            }
+            if (!row.getTimeseriesKey().getMeasurementName().equals(other.getTimeseriesKey().getMeasurementName())
+                    || row.getFields().size() != other.getFields().size()) {
+                return false;
+            }
+            Iterator<Map.Entry<String, ColumnValue>> it = other.getFields().entrySet().iterator();
+            for (Map.Entry<String, ColumnValue> entry : row.getFields().entrySet()) {
+                Map.Entry<String, ColumnValue> otherEntry = it.next();
+                if (!entry.getKey().equals(otherEntry.getKey())
+                        || entry.getValue().getType() != otherEntry.getValue().getType()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RowSchema && hash == ((RowSchema) o).hash && matches(((RowSchema) o).row);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
     public static void checkTagKey(String s) {
         if (s.isEmpty()) {
             throw new IllegalArgumentException("empty tag key");
@@ -86,113 +172,145 @@ public class TimeseriesProtocolBuilder {
     }
 
     public static int buildTags(SortedMap<String, String> tags, FlatBufferBuilder fbb) {
+        return buildTags(tags, new FlatBufferStringTable(fbb));
+    }
+
+    private static int buildTags(SortedMap<String, String> tags, FlatBufferStringTable strings) {
+        FlatBufferBuilder fbb = strings.getBuilder();
         int[] tagOffs = new int[tags.size()];
         int idx = 0;
         for (Map.Entry<String, String> entry : tags.entrySet()) {
-            tagOffs[idx++] = Tag.createTag(fbb, fbb.createString(entry.getKey()), fbb.createString(entry.getValue()));
+            tagOffs[idx++] = Tag.createTag(fbb, strings.get(entry.getKey()), strings.get(entry.getValue()));
         }
         return FlatBufferRowInGroup.createTagListVector(fbb, tagOffs);
     }
 
-    public static int buildRowToRowGroupOffset(TimeseriesRow row, FlatBufferBuilder fbb, String timeseriesTableName, Cache<String, Long> timeseriesMetaCache) {
-        int fieldCount = row.getFields().size();
-        byte[] fieldValueTypes = new byte[fieldCount];
-        int[] fieldNameOffs = new int[fieldCount];
-        int idx = 0;
+    private static byte toFlatBufferDataType(ColumnType type) {
+        switch (type) {
+            case INTEGER:
+                return DataType.LONG;
+            case BOOLEAN:
+                return DataType.BOOLEAN;
+            case DOUBLE:
+                return DataType.DOUBLE;
+            case STRING:
+                return DataType.STRING;
+            case BINARY:
+                return DataType.BINARY;
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Builds the values of a row, which are stored by type in the order of the field names.
+     * The value counts of each type are the same for all the rows of a row group.
+     */
+    private static int buildFieldValues(TimeseriesRow row, FlatBufferBuilder fbb, int[] valueCounts) {
+        long[] longValues = new long[valueCounts[DataType.LONG]];
+        boolean[] boolValues = new boolean[valueCounts[DataType.BOOLEAN]];
+        double[] doubleValues = new double[valueCounts[DataType.DOUBLE]];
+        int[] strValueOffs = new int[valueCounts[DataType.STRING]];
+        int[] binaryValueOffs = new int[valueCounts[DataType.BINARY]];
         int longValueCount = 0;
         int boolValueCount = 0;
         int doubleValueCount = 0;
         int stringValueCount = 0;
         int binaryValueCount = 0;
-        for (Map.Entry<String, ColumnValue> entry : row.getFields().entrySet()) {
-            fieldNameOffs[idx] = fbb.createString(entry.getKey());
-            switch (entry.getValue().getType()) {
-                case INTEGER: {
-                    fieldValueTypes[idx] = DataType.LONG;
-                    longValueCount++;
-                    break;
-                }
-                case BOOLEAN: {
-                    fieldValueTypes[idx] = DataType.BOOLEAN;
-                    boolValueCount++;
-                    break;
-                }
-                case DOUBLE: {
-                    fieldValueTypes[idx] = DataType.DOUBLE;
-                    doubleValueCount++;
-                    break;
-                }
-                case STRING: {
-                    fieldValueTypes[idx] = DataType.STRING;
-                    stringValueCount++;
-                    break;
-                }
-                case BINARY: {
-                    fieldValueTypes[idx] = DataType.BINARY;
-                    binaryValueCount++;
-                    break;
-                }
-                default:
-                    throw new IllegalStateException();
-            }
-            idx++;
-        }
-        long[] longValues = new long[longValueCount];
-        boolean[] boolValues = new boolean[boolValueCount];
-        double[] doubleValues = new double[doubleValueCount];
-        int[] strValueOffs = new int[stringValueCount];
-        int[] binaryValueOffs = new int[binaryValueCount];
-        longValueCount = 0;
-        boolValueCount = 0;
-        doubleValueCount = 0;
-        stringValueCount = 0;
-        binaryValueCount = 0;
-        for (Map.Entry<String, ColumnValue> entry : row.getFields().entrySet()) {
-            switch (entry.getValue().getType()) {
+        for (ColumnValue value : row.getFields().values()) {
+            switch (value.getType()) {
                 case INTEGER: {
-                    longValues[longValueCount++] = entry.getValue().asLong();
+                    longValues[longValueCount++] = value.asLong();
                     break;
                 }
                 case BOOLEAN: {
-                    boolValues[boolValueCount++] = entry.getValue().asBoolean();
+                    boolValues[boolValueCount++] = value.asBoolean();
                     break;
                 }
                 case DOUBLE: {
-                    doubleValues[doubleValueCount++] = entry.getValue().asDouble();
+                    doubleValues[doubleValueCount++] = value.asDouble();
                     break;
                 }
                 case STRING: {
-                    strValueOffs[stringValueCount++] = fbb.createString(entry.getValue().asString());
+                    strValueOffs[stringValueCount++] = fbb.createString(value.asString());
                     break;
                 }
                 case BINARY: {
                     binaryValueOffs[binaryValueCount++] = BytesValue.createBytesValue(fbb,
-                            BytesValue.createValueVector(fbb, entry.getValue().asBinary()));
+                            BytesValue.createValueVector(fbb, value.asBinary()));
                     break;
                 }
                 default:
                     throw new IllegalStateException();
             }
         }
-        int fieldValueOff = FieldValues.createFieldValues(fbb,
+        return FieldValues.createFieldValues(fbb,
                 longValueCount == 0 ? 0 : FieldValues.createLongValuesVector(fbb, longValues),
                 boolValueCount == 0 ? 0 : FieldValues.createBoolValuesVector(fbb, boolValues),
                 doubleValueCount == 0 ? 0 : FieldValues.createDoubleValuesVector(fbb, doubleValues),
                 stringValueCount == 0 ? 0 : FieldValues.createStringValuesVector(fbb, strValueOffs),
                 binaryValueCount == 0 ? 0 : FieldValues.createBinaryValuesVector(fbb, binaryValueOffs));
-        int[] rowInGroupOffs = new int[1];
-        Long updateTimeInSec = timeseriesMetaCache.getIfPresent(row.getTimeseriesKey().buildMetaCacheKey(timeseriesTableName));
-        long updateTime = updateTimeInSec == null ? 0 : updateTimeInSec;
-        rowInGroupOffs[0] = FlatBufferRowInGroup.createFlatBufferRowInGroup(fbb,
-                row.getTimeseriesKey().getDataSource() == null ? fbb.createString("") : fbb.createString(row.getTimeseriesKey().getDataSource()),
-                fbb.createString(""),
-                row.getTimeInUs(), fieldValueOff, updateTime, buildTags(row.getTimeseriesKey().getTags(), fbb));
-        return FlatBufferRowGroup.createFlatBufferRowGroup(fbb, fbb.createString(row.getTimeseriesKey().getMeasurementName()),
+    }
+
+    private static int buildRowInGroup(TimeseriesRow row, FlatBufferStringTable strings, int[] valueCounts,
+                                       String timeseriesTableName, TimeseriesMetaCache timeseriesMetaCache) {
+        FlatBufferBuilder fbb = strings.getBuilder();
+        int fieldValueOff = buildFieldValues(row, fbb, valueCounts);
+        int tagListOff = buildTags(row.getTimeseriesKey().getTags(), strings);
+        String dataSource = row.getTimeseriesKey().getDataSource();
+        int dataSourceOff = strings.get(dataSource == null ? "" : dataSource);
+        int tagsOff = strings.get("");
+        long updateTime = timeseriesMetaCache.get(timeseriesTableName, row.getTimeseriesKey());
+        return FlatBufferRowInGroup.createFlatBufferRowInGroup(fbb, dataSourceOff, tagsOff,
+                row.getTimeInUs(), fieldValueOff, updateTime, tagListOff);
+    }
+
+    /**
+     * Builds a row group of the rows with the same measurement and field schema, which is taken from the first row.
+     *
+     * @param rowIndexes the indexes of the rows in the group, from {@code from} (inclusive) to {@code to} (exclusive).
+     */
+    private static int buildRowGroup(List<TimeseriesRow> rows, int[] rowIndexes, int from, int to,
+                                     FlatBufferStringTable strings, String timeseriesTableName,
+                                     TimeseriesMetaCache timeseriesMetaCache) {
+        FlatBufferBuilder fbb = strings.getBuilder();
+        TimeseriesRow first = rows.get(rowIndexes[from]);
+        int fieldCount = first.getFields().size();
+        byte[] fieldValueTypes = new byte[fieldCount];
+        int[] fieldNameOffs = new int[fieldCount];
+        int[] valueCounts = new int[DataType.BINARY + 1];
+        int idx = 0;
+        for (Map.Entry<String, ColumnValue> entry : first.getFields().entrySet()) {
+            fieldNameOffs[idx] = strings.get(entry.getKey());
+            fieldValueTypes[idx] = toFlatBufferDataType(entry.getValue().getType());
+            valueCounts[fieldValueTypes[idx]]++;
+            idx++;
+        }
+        int[] rowInGroupOffs = new int[to - from];
+        for (int i = from; i < to; i++) {
+            rowInGroupOffs[i - from] = buildRowInGroup(rows.get(rowIndexes[i]), strings, valueCounts,
+                    timeseriesTableName, timeseriesMetaCache);
+        }
+        int measurementOff = strings.get(first.getTimeseriesKey().getMeasurementName());
+        return FlatBufferRowGroup.createFlatBufferRowGroup(fbb, measurementOff,
                 FlatBufferRowGroup.createFieldNamesVector(fbb, fieldNameOffs),
                 FlatBufferRowGroup.createFieldTypesVector(fbb, fieldValueTypes),
                 FlatBufferRowGroup.createRowsVector(fbb, rowInGroupOffs));
     }
 
+    public static int buildRowToRowGroupOffset(TimeseriesRow row, FlatBufferBuilder fbb, String timeseriesTableName, TimeseriesMetaCache timeseriesMetaCache) {
+        return buildRowGroup(Collections.singletonList(row), new int[]{0}, 0, 1,
+                new FlatBufferStringTable(fbb), timeseriesTableName, timeseriesMetaCache);
+    }
+
+    /**
+     * @deprecated please change to {@link #buildRowToRowGroupOffset(TimeseriesRow, FlatBufferBuilder, String, TimeseriesMetaCache)}
+     */
+    @Deprecated
+    public static int buildRowToRowGroupOffset(TimeseriesRow row, FlatBufferBuilder fbb, String timeseriesTableName, Cache<String, Long> timeseriesMetaCache) {
+        return buildRowToRowGroupOffset(row, fbb, timeseriesTableName, new GuavaTimeseriesMetaCache(timeseriesMetaCache));
+    }
+
     private static Timeseries.TimeseriesTableOptions buildTimeseriesTableOptions(TimeseriesTableOptions timeseriesTableOptions) {
         Timeseries.TimeseriesTableOptions.Builder builder = Timeseries.TimeseriesTableOptions.newBuilder();
 
@@ -244,18 +362,110 @@ public class TimeseriesProtocolBuilder {
         return builder.build();
     }
 
-    public static ByteBuffer buildFlatbufferRows(List<TimeseriesRow> rows, String timeseriesTableName, Cache<String, Long> timeseriesMetaCache) {
-        FlatBufferBuilder fbb = new FlatBufferBuilder();
-        int[] rowGroupOffs = new int[rows.size()];
+    /**
+     * Groups the rows with the same measurement and field schema (the field names and types).
+     *
+     * @param groupStarts filled with the start of each group in the returned order, followed by the row count.
+     * @return the indexes of the rows in the encoding order: the groups are in the order of their first rows,
+     * and the rows of a group keep their order in the request.
+     */
+    private static int[] groupRows(List<TimeseriesRow> rows, List<Integer> groupStarts) {
+        int[] groupOfRows = new int[rows.size()];
+        Map<RowSchema, Integer> groups = new HashMap<RowSchema, Integer>();
+        List<Integer> groupSizes = new ArrayList<Integer>();
+        RowSchema lastSchema = null;
+        int lastGroup = -1;
         for (int i = 0; i < rows.size(); i++) {
             TimeseriesRow row = rows.get(i);
-            rowGroupOffs[i] = buildRowToRowGroupOffset(row, fbb, timeseriesTableName, timeseriesMetaCache);
+            // the rows of a series usually come together, which avoids most lookups
+            if (lastSchema == null || !lastSchema.matches(row)) {
+                lastSchema = new RowSchema(row);
+                Integer group = groups.get(lastSchema);
+                if (group == null) {
+                    group = groupSizes.size();
+                    groups.put(lastSchema, group);
+                    groupSizes.add(0);
+                }
+                lastGroup = group;
+            }
+            groupOfRows[i] = lastGroup;
+            groupSizes.set(lastGroup, groupSizes.get(lastGroup) + 1);
+        }
+
+        int[] nextPositions = new int[groupSizes.size()];
+        int start = 0;
+        for (int group = 0; group < groupSizes.size(); group++) {
+            groupStarts.add(start);
+            nextPositions[group] = start;
+            start += groupSizes.get(group);
+        }
+        groupStarts.add(start);
+        int[] rowIndexes = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            rowIndexes[nextPositions[groupOfRows[i]]++] = i;
+        }
+        return rowIndexes;
+    }
+
+    /**
+     * The server refers to the rows by their positions in the encoded row groups.
+     *
+     * @return the index in the request of the row at each encoded position.
+     */
+    static int[] buildEncodedRowIndexes(List<TimeseriesRow> rows) {
+        return groupRows(rows, new ArrayList<Integer>());
+    }
+
+    private static void writeFlatbufferRows(List<TimeseriesRow> rows, String timeseriesTableName,
+                                            TimeseriesMetaCache timeseriesMetaCache, FlatBufferBuilder fbb) {
+        List<Integer> groupStarts = new ArrayList<Integer>();
+        int[] rowIndexes = groupRows(rows, groupStarts);
+        FlatBufferStringTable strings = new FlatBufferStringTable(fbb);
+        int[] rowGroupOffs = new int[groupStarts.size() - 1];
+        for (int i = 0; i < rowGroupOffs.length; i++) {
+            rowGroupOffs[i] = buildRowGroup(rows, rowIndexes, groupStarts.get(i), groupStarts.get(i + 1), strings,
+                    timeseriesTableName, timeseriesMetaCache);
         }
         int rowsOffset = FlatBufferRows.createFlatBufferRows(fbb, FlatBufferRows.createRowGroupsVector(fbb, rowGroupOffs));
         fbb.finish(rowsOffset);
+    }
+
+    /**
+     * Encodes the rows into row groups, one for each measurement and field schema, see {@link #buildEncodedRowIndexes(List)}
+     * for the order of the rows.
+     */
+    public static ByteBuffer buildFlatbufferRows(List<TimeseriesRow> rows, String timeseriesTableName, TimeseriesMetaCache timeseriesMetaCache) {
+        FlatBufferBuilder fbb = new FlatBufferBuilder();
+        writeFlatbufferRows(rows, timeseriesTableName, timeseriesMetaCache, fbb);
         return fbb.dataBuffer();
     }
 
+    /**
+     * @deprecated please change to {@link #buildFlatbufferRows(List, String, TimeseriesMetaCache)}
+     */
+    @Deprecated
+    public static ByteBuffer buildFlatbufferRows(List<TimeseriesRow> rows, String timeseriesTableName, Cache<String, Long> timeseriesMetaCache) {
+        return buildFlatbufferRows(rows, timeseriesTableName, new GuavaTimeseriesMetaCache(timeseriesMetaCache));
+    }
+
+    private static FlatBufferBuilder acquireFlatBufferBuilder() {
+        FlatBufferBuilder fbb = FLAT_BUFFER_BUILDER.get();
+        if (fbb == null) {
+            fbb = new FlatBufferBuilder(INITIAL_FLAT_BUFFER_SIZE);
+            FLAT_BUFFER_BUILDER.set(fbb);
+        } else {
+            fbb.clear();
+        }
+        return fbb;
+    }
+
+    private static void releaseFlatBufferBuilder(FlatBufferBuilder fbb) {
+        // does not keep the buffer of a huge request for the thread
+        if (fbb.dataBuffer().capacity() > MAX_POOLED_FLAT_BUFFER_SIZE) {
+            FLAT_BUFFER_BUILDER.remove();
+        }
+    }
+
     public static Timeseries.CreateTimeseriesTableRequest buildCreateTimeseriesTableRequest(CreateTimeseriesTableRequest createTimeseriesTableRequest) {
 
         Timeseries.CreateTimeseriesTableRequest.Builder builder = Timeseries.CreateTimeseriesTableRequest.newBuilder();
@@ -281,21 +491,28 @@ public class TimeseriesProtocolBuilder {
         return builder.build();
     }
 
-    public static Timeseries.PutTimeseriesDataRequest buildPutTimeseriesDataRequest(PutTimeseriesDataRequest request, Cache<String, Long> timeseriesMetaCache) {
+    public static Timeseries.PutTimeseriesDataRequest buildPutTimeseriesDataRequest(PutTimeseriesDataRequest request, TimeseriesMetaCache timeseriesMetaCache) {
         Timeseries.PutTimeseriesDataRequest.Builder builder = Timeseries.PutTimeseriesDataRequest.newBuilder();
         builder.setSupportedTableVersion(SUPPORTED_TABLE_VERSION);
         builder.setTableName(request.getTimeseriesTableName());
 
         Timeseries.TimeseriesRows.Builder rowsBuilder = Timeseries.TimeseriesRows.newBuilder();
         rowsBuilder.setType(Timeseries.RowsSerializeType.RST_FLAT_BUFFER);
-        ByteBuffer flatbufferRowsData = buildFlatbufferRows(request.getRows(), request.getTimeseriesTableName(), timeseriesMetaCache);
-        
-        Checksum crc32c = new PureJavaCrc32C();
-        crc32c.update(flatbufferRowsData.array(), flatbufferRowsData.position() + flatbufferRowsData.arrayOffset(),
-            flatbufferRowsData.remaining());
-        int crc = (int) crc32c.getValue();
-        rowsBuilder.setRowsData(ByteString.copyFrom(flatbufferRowsData));
-        rowsBuilder.setFlatbufferCrc32C(crc);
+        FlatBufferBuilder fbb = acquireFlatBufferBuilder();
+        try {
+            writeFlatbufferRows(request.getRows(), request.getTimeseriesTableName(), timeseriesMetaCache, fbb);
+            ByteBuffer flatbufferRowsData = fbb.dataBuffer();
+
+            Checksum crc32c = new PureJavaCrc32C();
+            crc32c.update(flatbufferRowsData.array(), flatbufferRowsData.position() + flatbufferRowsData.arrayOffset(),
+                flatbufferRowsData.remaining());
+            int crc = (int) crc32c.getValue();
+            // copies the data out of the pooled builder
+            rowsBuilder.setRowsData(ByteString.copyFrom(flatbufferRowsData));
+            rowsBuilder.setFlatbufferCrc32C(crc);
+        } finally {
+            releaseFlatBufferBuilder(fbb);
+        }
         builder.setRowsData(rowsBuilder);
         if (request.getMetaUpdateMode().equals(PutTimeseriesDataRequest.MetaUpdateMode.IGNORE)) {
             builder.setMetaUpdateMode(Timeseries.MetaUpdateMode.MUM_IGNORE);
@@ -303,6 +520,14 @@ public class TimeseriesProtocolBuilder {
         return builder.build();
     }
 
+    /**
+     * @deprecated please change to {@link #buildPutTimeseriesDataRequest(PutTimeseriesDataRequest, TimeseriesMetaCache)}
+     */
+    @Deprecated
+    public static Timeseries.PutTimeseriesDataRequest buildPutTimeseriesDataRequest(PutTimeseriesDataRequest request, Cache<String, Long> timeseriesMetaCache) {
+        return buildPutTimeseriesDataRequest(request, new GuavaTimeseriesMetaCache(timeseriesMetaCache));
+    }
+
     public static Timeseries.TimeseriesKey buildTimeseriesKey(TimeseriesKey timeseriesKey) {
         Timeseries.TimeseriesKey.Builder tsKeyBuilder = Timeseries.TimeseriesKey.newBuilder();
         tsKeyBuilder.setMeasurement(timeseriesKey.getMeasurementName());
@@ -8,6 +8,8 @@ import com.alicloud.openservices.tablestore.model.TimeseriesMetaOptions;
 import com.alicloud.openservices.tablestore.model.TimeseriesTableMeta;
 import com.alicloud.openservices.tablestore.model.TimeseriesTableOptions;
 import com.alicloud.openservices.tablestore.model.timeseries.*;
+import com.alicloud.openservices.tablestore.core.utils.GuavaTimeseriesMetaCache;
+import com.alicloud.openservices.tablestore.core.utils.TimeseriesMetaCache;
 import com.google.common.cache.Cache;
 
 import java.io.IOException;
@@ -27,15 +29,20 @@ public class TimeseriesResponseFactory {
     }
 
     public static PutTimeseriesDataResponse createPutTimeseriesDataResponse(
-            ResponseContentWithMeta meta, Timeseries.PutTimeseriesDataResponse pbResponse, PutTimeseriesDataRequest request, Cache<String, Long> timeseriesMetaCache) {
+            ResponseContentWithMeta meta, Timeseries.PutTimeseriesDataResponse pbResponse, PutTimeseriesDataRequest request, TimeseriesMetaCache timeseriesMetaCache) {
         PutTimeseriesDataResponse response = new PutTimeseriesDataResponse(meta.getMeta());
+        // the server refers to the rows by their positions in the row groups, which are mapped back to the request
+        int[] rowIndexes = null;
+        if (pbResponse.getFailedRowsCount() > 0 || pbResponse.hasMetaUpdateStatus()) {
+            rowIndexes = TimeseriesProtocolBuilder.buildEncodedRowIndexes(request.getRows());
+        }
         if (pbResponse.getFailedRowsCount() > 0) {
             List<PutTimeseriesDataResponse.FailedRowResult> failedRowResultList =
                     new ArrayList<PutTimeseriesDataResponse.FailedRowResult>();
             for (int i = 0; i < pbResponse.getFailedRowsCount(); i++) {
                 Timeseries.FailedRowInfo failedRowInfo = pbResponse.getFailedRows(i);
                 failedRowResultList.add(new PutTimeseriesDataResponse.FailedRowResult(
-                        failedRowInfo.getRowIndex(),
+                        toRequestRowIndex(rowIndexes, failedRowInfo.getRowIndex()),
                         new Error(failedRowInfo.getErrorCode(), failedRowInfo.getErrorMessage())));
             }
             response.setFailedRows(failedRowResultList);
@@ -46,14 +53,13 @@ public class TimeseriesResponseFactory {
                 if (i >= pbResponse.getMetaUpdateStatus().getMetaUpdateTimesCount()) {
                     break;
                 }
-                int idx = rowIds.get(i);
+                int idx = toRequestRowIndex(rowIndexes, rowIds.get(i));
                 if (idx < request.getRows().size()) {
                     long updateTimeInSec = ((long) (pbResponse.getMetaUpdateStatus().getMetaUpdateTimes(i))) & 0xffffffffL;
                     if (updateTimeInSec > 0) {
-                        String cacheKey = request.getRows().get(idx).getTimeseriesKey().buildMetaCacheKey(request.getTimeseriesTableName());
-                        Long timeInCache = timeseriesMetaCache.getIfPresent(cacheKey);
-                        if (timeInCache == null || timeInCache < updateTimeInSec) {
-                            timeseriesMetaCache.put(cacheKey, updateTimeInSec);
+                        TimeseriesKey timeseriesKey = request.getRows().get(idx).getTimeseriesKey();
+                        if (timeseriesMetaCache.get(request.getTimeseriesTableName(), timeseriesKey) < updateTimeInSec) {
+                            timeseriesMetaCache.put(request.getTimeseriesTableName(), timeseriesKey, updateTimeInSec);
                         }
                     }
                 }
@@ -62,6 +68,22 @@ public class TimeseriesResponseFactory {
         return response;
     }
 
+    /**
+     * @deprecated please change to {@link #createPutTimeseriesDataResponse(ResponseContentWithMeta, Timeseries.PutTimeseriesDataResponse, PutTimeseriesDataRequest, TimeseriesMetaCache)}
+     */
+    @Deprecated
+    public static PutTimeseriesDataResponse createPutTimeseriesDataResponse(
+            ResponseContentWithMeta meta, Timeseries.PutTimeseriesDataResponse pbResponse, PutTimeseriesDataRequest request, Cache<String, Long> timeseriesMetaCache) {
+        return createPutTimeseriesDataResponse(meta, pbResponse, request, new GuavaTimeseriesMetaCache(timeseriesMetaCache));
+    }
+
+    private static int toRequestRowIndex(int[] rowIndexes, int encodedIndex) {
+        if (encodedIndex >= 0 && encodedIndex < rowIndexes.length) {
+            return rowIndexes[encodedIndex];
+        }
+        return encodedIndex;
+    }
+
     public static SortedMap<String, String> parseTagsOrAttrs(String tagsStr) {
         SortedMap<String, String> tags = new TreeMap<String, String>();
         if (tagsStr.isEmpty()) {
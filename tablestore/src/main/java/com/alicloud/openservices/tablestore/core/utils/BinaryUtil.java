@@ -16,7 +16,15 @@ public class BinaryUtil {
     private static final Object LOCK = new Object();
 
     public static byte[] calculateMd5(byte[] binaryData) {
+        MessageDigest messageDigest = newMd5Digest();
+        messageDigest.update(binaryData);
+        return messageDigest.digest();
+    }
 
+    /**
+     * Creates a new MD5 digest, for callers that feed the data incrementally.
+     */
+    public static MessageDigest newMd5Digest() {
         // Use the prototype pattern to improve performance under multi-threaded high concurrency.
         if (messageDigestMd5 == null) {
             synchronized (LOCK) {
@@ -29,18 +37,15 @@ public class BinaryUtil {
                 }
             }
         }
-        MessageDigest messageDigest = null;
         try {
-            messageDigest = (MessageDigest) messageDigestMd5.clone();
+            return (MessageDigest) messageDigestMd5.clone();
         } catch (CloneNotSupportedException e) {
             try {
-                messageDigest = MessageDigest.getInstance("MD5");
+                return MessageDigest.getInstance("MD5");
             } catch (NoSuchAlgorithmException e1) {
                 throw new RuntimeException("MD5 algorithm not found.");
             }
         }
-        messageDigest.update(binaryData);
-        return messageDigest.digest();
     }
 
     public static String toString(ByteBuffer buffer) {
@@ -3,6 +3,8 @@ package com.alicloud.openservices.tablestore.core.utils;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
@@ -11,6 +13,76 @@ public class CompressUtil {
     
     static final int MIN_BUFFER_SIZE = 10240; // 10KB
 
+    /**
+     * Every Deflater/Inflater holds native zlib memory until it is ended, so codecs are reused through bounded pools.
+     * A codec released while its pool is full is ended at once. The most recently released codec is reused first.
+     */
+    static final int MAX_POOLED_CODECS = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final ConcurrentLinkedDeque<Deflater> deflaterPool = new ConcurrentLinkedDeque<Deflater>();
+    private static final AtomicInteger pooledDeflaters = new AtomicInteger(0);
+    private static final ConcurrentLinkedDeque<Inflater> inflaterPool = new ConcurrentLinkedDeque<Inflater>();
+    private static final AtomicInteger pooledInflaters = new AtomicInteger(0);
+
+    /**
+     * Takes a Deflater from the pool, it must be given back by {@link #releaseDeflater(Deflater)} instead of being ended.
+     *
+     * @param level The compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}, or {@link Deflater#DEFAULT_COMPRESSION}.
+     */
+    public static Deflater acquireDeflater(int level) {
+        Deflater deflater = deflaterPool.pollFirst();
+        if (deflater == null) {
+            return new Deflater(level);
+        }
+        pooledDeflaters.decrementAndGet();
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    public static void releaseDeflater(Deflater deflater) {
+        deflater.reset();
+        if (pooledDeflaters.incrementAndGet() <= MAX_POOLED_CODECS) {
+            deflaterPool.offerFirst(deflater);
+        } else {
+            pooledDeflaters.decrementAndGet();
+            deflater.end();
+        }
+    }
+
+    /**
+     * Takes an Inflater from the pool, it must be given back by {@link #releaseInflater(Inflater)} instead of being ended.
+     */
+    public static Inflater acquireInflater() {
+        Inflater inflater = inflaterPool.pollFirst();
+        if (inflater == null) {
+            return new Inflater();
+        }
+        pooledInflaters.decrementAndGet();
+        return inflater;
+    }
+
+    public static void releaseInflater(Inflater inflater) {
+        inflater.reset();
+        if (pooledInflaters.incrementAndGet() <= MAX_POOLED_CODECS) {
+            inflaterPool.offerFirst(inflater);
+        } else {
+            pooledInflaters.decrementAndGet();
+            inflater.end();
+        }
+    }
+
+    /**
+     * Decompresses with a pooled Inflater.
+     */
+    public static byte[] decompress(InputStream input, int rawDataSize) throws DataFormatException, IOException {
+        Inflater decompresser = acquireInflater();
+        try {
+            return doDecompress(input, rawDataSize, decompresser);
+        } finally {
+            releaseInflater(decompresser);
+        }
+    }
+
     public static byte[] compress(InputStream input, Deflater compresser) throws IOException{
         int availableLength = input.available();
         int estimateLength = availableLength > 0 ? availableLength : 1024;
@@ -53,6 +125,14 @@ public class CompressUtil {
     }
 
     public static byte[] decompress(InputStream input, int rawDataSize, Inflater decompresser) throws DataFormatException, IOException{
+        try {
+            return doDecompress(input, rawDataSize, decompresser);
+        } finally {
+            decompresser.end();
+        }
+    }
+
+    private static byte[] doDecompress(InputStream input, int rawDataSize, Inflater decompresser) throws DataFormatException, IOException{
         ByteArrayOutputStream output = new ByteArrayOutputStream(rawDataSize);
         int av = input.available();
         int bufferSize = av < MIN_BUFFER_SIZE ? MIN_BUFFER_SIZE : av;
@@ -88,7 +168,6 @@ public class CompressUtil {
         }
         finally{
             output.close();
-            decompresser.end();
         }
     }
 }
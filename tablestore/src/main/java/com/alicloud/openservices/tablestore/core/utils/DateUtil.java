@@ -40,6 +40,10 @@ public class DateUtil {
     private static volatile long currentTime = System.currentTimeMillis();
     private static volatile String currentRfc822Date = RFC822_DATE_FORMATTER.print(currentTime);
     private static AtomicBoolean isUpdating = new AtomicBoolean(false);
+
+    private static volatile long currentIso8601Time = System.currentTimeMillis();
+    private static volatile String currentIso8601Date = ISO8601_DATE_FORMATTER.print(currentIso8601Time);
+    private static AtomicBoolean isUpdatingIso8601 = new AtomicBoolean(false);
     
     public static String getCurrentRfc822Date() {
         long current = System.currentTimeMillis();
@@ -79,6 +83,29 @@ public class DateUtil {
     public static String getCurrentIso8601Date() {
         return formatIso8601Date(new Date());
     }
+
+    /**
+     * The current ISO 8601 date, formatted at most once per second and shared by all threads,
+     * for the request headers whose date is only checked against the clock skew allowed by the server.
+     */
+    public static String getCachedIso8601Date() {
+        long current = System.currentTimeMillis();
+        if (current > currentIso8601Time + 1000) {
+            if (isUpdatingIso8601.compareAndSet(false, true)) {
+                if (current > currentIso8601Time + 1000) {
+                    currentIso8601Date = ISO8601_DATE_FORMATTER.print(current);
+                    currentIso8601Time = current;
+                }
+                isUpdatingIso8601.compareAndSet(true, false);
+            }
+        }
+        // same as getCurrentRfc822Date, force an update if the thread updating the date is stuck
+        if (current > currentIso8601Time + 10000) {
+            currentIso8601Date = ISO8601_DATE_FORMATTER.print(current);
+            currentIso8601Time = current;
+        }
+        return currentIso8601Date;
+    }
     
     public static Date parseIso8601Date(String dateString) {
         return ISO8601_DATE_FORMATTER.parseDateTime(dateString).toDate();
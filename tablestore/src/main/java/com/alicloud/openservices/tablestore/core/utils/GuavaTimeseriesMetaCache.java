@@ -0,0 +1,39 @@
+package com.alicloud.openservices.tablestore.core.utils;
+
+import com.alicloud.openservices.tablestore.model.timeseries.TimeseriesKey;
+import com.google.common.cache.Cache;
+
+/**
+ * A {@link TimeseriesMetaCache} over a cache keyed by {@link TimeseriesKey#buildMetaCacheKey(String)}, which is the
+ * meta cache of the clients of the previous versions. It builds a key string for each lookup.
+ */
+public class GuavaTimeseriesMetaCache implements TimeseriesMetaCache {
+
+    private final Cache<String, Long> cache;
+
+    public GuavaTimeseriesMetaCache(Cache<String, Long> cache) {
+        Preconditions.checkNotNull(cache, "The meta cache can not be null.");
+        this.cache = cache;
+    }
+
+    @Override
+    public long get(String tableName, TimeseriesKey timeseriesKey) {
+        Long updateTimeInSec = cache.getIfPresent(timeseriesKey.buildMetaCacheKey(tableName));
+        return updateTimeInSec == null ? 0 : updateTimeInSec;
+    }
+
+    @Override
+    public void put(String tableName, TimeseriesKey timeseriesKey, long updateTimeInSec) {
+        cache.put(timeseriesKey.buildMetaCacheKey(tableName), updateTimeInSec);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public long size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,268 @@
+package com.alicloud.openservices.tablestore.core.utils;
+
+import com.alicloud.openservices.tablestore.model.timeseries.TimeseriesKey;
+
+/**
+ * The {@link TimeseriesMetaCache} of the clients, keyed by {@link TimeseriesKey#getMetaCacheHash(String)}.<br/>
+ * It is a striped open addressing hash table of primitive longs, so a lookup neither builds a key string nor boxes the time.
+ * An entry expires when it has not been accessed for the expire time, and when a segment is full, the least recently
+ * accessed of a few neighbouring entries is evicted.
+ */
+public class PrimitiveTimeseriesMetaCache implements TimeseriesMetaCache {
+
+    /**
+     * The memory of an entry: the key, the time, the access time and the free slots of the table.
+     */
+    public static final int ENTRY_SIZE_IN_BYTES = 32;
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+    private static final int EVICTION_SAMPLE_COUNT = 8;
+    private static final long EMPTY_KEY = 0;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final int expireAfterAccessInSec;
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * @param maxDataSize            The max memory of the entries in bytes.
+     * @param expireAfterAccessInSec The time after which an entry which has not been accessed expires.
+     */
+    public PrimitiveTimeseriesMetaCache(long maxDataSize, int expireAfterAccessInSec) {
+        Preconditions.checkArgument(maxDataSize >= 0, "The max data size of meta cache can not be negative.");
+        Preconditions.checkArgument(expireAfterAccessInSec > 0, "The expire time of meta cache should be greater than 0.");
+        this.expireAfterAccessInSec = expireAfterAccessInSec;
+        long maxSize = maxDataSize / ENTRY_SIZE_IN_BYTES / SEGMENT_COUNT;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment((int) Math.min(maxSize, 1 << 28));
+        }
+    }
+
+    @Override
+    public long get(String tableName, TimeseriesKey timeseriesKey) {
+        return get(timeseriesKey.getMetaCacheHash(tableName));
+    }
+
+    @Override
+    public void put(String tableName, TimeseriesKey timeseriesKey, long updateTimeInSec) {
+        put(timeseriesKey.getMetaCacheHash(tableName), updateTimeInSec);
+    }
+
+    /**
+     * @return the meta update time, or 0 if the timeseries is not in the cache.
+     */
+    public long get(long key) {
+        key = normalize(key);
+        return segmentFor(key).get(key, now());
+    }
+
+    public void put(long key, long updateTimeInSec) {
+        key = normalize(key);
+        segmentFor(key).put(key, updateTimeInSec, now());
+    }
+
+    @Override
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private static long normalize(long key) {
+        return key == EMPTY_KEY ? 1 : key;
+    }
+
+    private Segment segmentFor(long key) {
+        return segments[(int) (key >>> 60) & (SEGMENT_COUNT - 1)];
+    }
+
+    private int now() {
+        return (int) ((System.nanoTime() - startNanos) / 1000000000L);
+    }
+
+    private final class Segment {
+        private final int maxSize;
+        private long[] keys;
+        private long[] values;
+        private int[] accessTimes;
+        private int size;
+        private int lastPurgeTime = -1;
+
+        Segment(int maxSize) {
+            this.maxSize = maxSize;
+            allocate(MIN_SEGMENT_CAPACITY);
+        }
+
+        synchronized long get(long key, int now) {
+            int i = indexOf(key);
+            if (i < 0) {
+                return 0;
+            }
+            if (isExpired(i, now)) {
+                removeAt(i);
+                return 0;
+            }
+            accessTimes[i] = now;
+            return values[i];
+        }
+
+        synchronized void put(long key, long value, int now) {
+            if (maxSize == 0) {
+                return;
+            }
+            int i = indexOf(key);
+            if (i >= 0) {
+                values[i] = value;
+                accessTimes[i] = now;
+                return;
+            }
+            if (size >= maxSize) {
+                purgeExpired(now);
+                if (size >= maxSize) {
+                    evictNear(slotOf(key));
+                }
+            }
+            // keeps the load factor under 3/4
+            if ((size + 1) * 4L > keys.length * 3L) {
+                rehash(keys.length * 2, now);
+            }
+            int mask = keys.length - 1;
+            i = slotOf(key);
+            while (keys[i] != EMPTY_KEY) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            accessTimes[i] = now;
+            size++;
+        }
+
+        synchronized void clear() {
+            allocate(MIN_SEGMENT_CAPACITY);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            values = new long[capacity];
+            accessTimes = new int[capacity];
+            size = 0;
+        }
+
+        private int slotOf(long key) {
+            return (int) (key ^ (key >>> 32)) & (keys.length - 1);
+        }
+
+        private int indexOf(long key) {
+            int mask = keys.length - 1;
+            for (int i = slotOf(key); keys[i] != EMPTY_KEY; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private boolean isExpired(int i, int now) {
+            return now - accessTimes[i] >= expireAfterAccessInSec;
+        }
+
+        private void purgeExpired(int now) {
+            // scans the whole table, at most once a second
+            if (lastPurgeTime == now) {
+                return;
+            }
+            lastPurgeTime = now;
+            int live = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY_KEY && !isExpired(i, now)) {
+                    live++;
+                }
+            }
+            if (live < size) {
+                rehash(keys.length, now);
+            }
+        }
+
+        /**
+         * Rebuilds the table with the given capacity, without the expired entries.
+         */
+        private void rehash(int capacity, int now) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            int[] oldAccessTimes = accessTimes;
+            allocate(capacity);
+            int mask = capacity - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] == EMPTY_KEY || now - oldAccessTimes[j] >= expireAfterAccessInSec) {
+                    continue;
+                }
+                int i = slotOf(oldKeys[j]);
+                while (keys[i] != EMPTY_KEY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+                accessTimes[i] = oldAccessTimes[j];
+                size++;
+            }
+        }
+
+        /**
+         * Evicts the least recently accessed entry among the entries from the slot.
+         */
+        private void evictNear(int slot) {
+            int mask = keys.length - 1;
+            int victim = -1;
+            int sampled = 0;
+            int sampleCount = Math.min(EVICTION_SAMPLE_COUNT, size);
+            for (int i = slot; sampled < sampleCount; i = (i + 1) & mask) {
+                if (keys[i] == EMPTY_KEY) {
+                    continue;
+                }
+                if (victim < 0 || accessTimes[i] < accessTimes[victim]) {
+                    victim = i;
+                }
+                sampled++;
+            }
+            removeAt(victim);
+        }
+
+        /**
+         * Removes the entry of the slot, and moves back the following entries of the probe sequence.
+         */
+        private void removeAt(int i) {
+            int mask = keys.length - 1;
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (keys[j] == EMPTY_KEY) {
+                    break;
+                }
+                int k = slotOf(keys[j]);
+                // the entry of j stays if its home slot k is cyclically in (i, j]
+                if (i <= j ? (i < k && k <= j) : (i < k || k <= j)) {
+                    continue;
+                }
+                keys[i] = keys[j];
+                values[i] = values[j];
+                accessTimes[i] = accessTimes[j];
+                i = j;
+            }
+            keys[i] = EMPTY_KEY;
+            size--;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.alicloud.openservices.tablestore.core.utils;
+
+import com.alicloud.openservices.tablestore.model.timeseries.TimeseriesKey;
+
+/**
+ * The meta update times (in seconds) of the timeseries written by a client, which are sent with the rows so that the
+ * server only updates the meta of a timeseries when it is stale.
+ */
+public interface TimeseriesMetaCache {
+
+    /**
+     * @return the meta update time of the timeseries of the table, or 0 if it is not in the cache.
+     */
+    long get(String tableName, TimeseriesKey timeseriesKey);
+
+    void put(String tableName, TimeseriesKey timeseriesKey, long updateTimeInSec);
+
+    void invalidateAll();
+
+    long size();
+}
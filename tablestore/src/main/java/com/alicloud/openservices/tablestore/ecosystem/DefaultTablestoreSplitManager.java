@@ -2,15 +2,24 @@ package com.alicloud.openservices.tablestore.ecosystem;
 
 import com.alicloud.openservices.tablestore.SyncClient;
 import com.alicloud.openservices.tablestore.model.*;
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
 import com.alicloud.openservices.tablestore.model.search.*;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -27,14 +36,61 @@ public class DefaultTablestoreSplitManager implements ITablestoreSplitManager {
 
 
     private final static AtomicBoolean enableSplitCache = new AtomicBoolean(true);
-    // key: instance_table_splitPointLimit_splitSizeInMBs
-    private static final Map<String, ComputeSplitsBySizeResponse> splitsCache =
-            new ConcurrentHashMap<String, ComputeSplitsBySizeResponse>();
+    public static final int DEFAULT_SPLIT_CACHE_MAX_SIZE = 1000;
+    public static final long DEFAULT_SPLIT_CACHE_EXPIRE_AFTER_WRITE_SECONDS = 3600;
+    public static final long DEFAULT_SPLIT_CACHE_REFRESH_AFTER_WRITE_SECONDS = 600;
+    private static final ExecutorService splitsRefresher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "tablestore-splits-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private static volatile SplitsCache splitsCache = new SplitsCache(DEFAULT_SPLIT_CACHE_MAX_SIZE,
+            DEFAULT_SPLIT_CACHE_EXPIRE_AFTER_WRITE_SECONDS, DEFAULT_SPLIT_CACHE_REFRESH_AFTER_WRITE_SECONDS);
 
     public static void setEnableSplitCache(boolean enableSplitCache) {
         DefaultTablestoreSplitManager.enableSplitCache.set(enableSplitCache);
     }
 
+    /**
+     * Replaces the cache of the splits of the tables, which is shared by all the split managers.
+     * The cached splits are dropped.
+     *
+     * @param maxSize                   The max count of the cached splits, of the tables and compute parameters.
+     * @param expireAfterWriteSeconds   The splits are computed again when they are read after this time.
+     * @param refreshAfterWriteSeconds  The splits are computed again in background, with the client of the read,
+     *                                  when they are read after this time, the old splits are returned meanwhile and
+     *                                  until they expire if the refresh fails. It is disabled if not less than
+     *                                  expireAfterWriteSeconds.
+     */
+    public static void setSplitCacheOptions(int maxSize, long expireAfterWriteSeconds, long refreshAfterWriteSeconds) {
+        Preconditions.checkArgument(maxSize > 0, "The maxSize must be greater than 0.");
+        Preconditions.checkArgument(expireAfterWriteSeconds > 0, "The expireAfterWriteSeconds must be greater than 0.");
+        Preconditions.checkArgument(refreshAfterWriteSeconds > 0, "The refreshAfterWriteSeconds must be greater than 0.");
+        splitsCache = new SplitsCache(maxSize, expireAfterWriteSeconds, refreshAfterWriteSeconds);
+    }
+
+    /**
+     * Drops the cached splits, so that they are computed again.
+     */
+    public static void invalidateSplitCache() {
+        splitsCache.cache.invalidateAll();
+    }
+
+    /**
+     * @return the hits, misses, loads and evictions of the split cache since its options were set. The requests
+     * waiting for the load of another request count as misses, but not as loads. The refreshes are not counted.
+     */
+    public static CacheStats getSplitCacheStats() {
+        return splitsCache.cache.stats();
+    }
+
+    public static long getSplitCacheSize() {
+        return splitsCache.cache.size();
+    }
+
     @Override
     public List<ITablestoreSplit> generateTablestoreSplits(
             SyncClient client,
@@ -110,33 +166,141 @@ public class DefaultTablestoreSplitManager implements ITablestoreSplitManager {
         return tableSplits;
     }
 
-    private String formatSplitsCacheKey(String instanceName, String tableName, ComputeParameters parameter) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(instanceName).append("_");
-        sb.append(tableName).append("_");
-        sb.append(parameter.getMaxSplitsCount()).append("_");
-        sb.append(parameter.getSplitSizeInMBs());
-        return sb.toString();
+    /**
+     * The cache of the splits of the tables, with the options it is built with.
+     * It keeps no client: a load or refresh computes the splits with the client of the read which triggers it.
+     */
+    private static final class SplitsCache {
+        private final Cache<SplitsCacheKey, CachedSplits> cache;
+        private final long refreshAfterWriteNanos;
+
+        SplitsCache(int maxSize, long expireAfterWriteSeconds, long refreshAfterWriteSeconds) {
+            this.cache = CacheBuilder.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                    .recordStats()
+                    .build();
+            this.refreshAfterWriteNanos = refreshAfterWriteSeconds < expireAfterWriteSeconds
+                    ? TimeUnit.SECONDS.toNanos(refreshAfterWriteSeconds) : -1;
+        }
+
+        List<Split> get(final SyncClient client, final SplitsCacheKey key) {
+            CachedSplits cached;
+            try {
+                // concurrent loads of the same key wait for one ComputeSplitsBySize
+                cached = cache.get(key, new Callable<CachedSplits>() {
+                    @Override
+                    public CachedSplits call() {
+                        return new CachedSplits(computeSplitsBySize(client, key.tableName, key.maxSplitsCount, key.splitSizeInMBs));
+                    }
+                });
+            } catch (UncheckedExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            } catch (ExecutionException e) {
+                throw new UncheckedExecutionException(e.getCause());
+            }
+            if (refreshAfterWriteNanos >= 0 && System.nanoTime() - cached.computedAtNanos >= refreshAfterWriteNanos
+                    && cached.refreshing.compareAndSet(false, true)) {
+                refresh(client, key, cached);
+            }
+            return cached.response.getSplits();
+        }
+
+        private void refresh(final SyncClient client, final SplitsCacheKey key, final CachedSplits cached) {
+            splitsRefresher.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        CachedSplits refreshed = new CachedSplits(
+                                computeSplitsBySize(client, key.tableName, key.maxSplitsCount, key.splitSizeInMBs));
+                        cache.asMap().replace(key, cached, refreshed);
+                    } catch (Exception e) {
+                        // the next read after the refresh time tries again, with its client
+                        LOG.warn("Failed to refresh the splits of {}, the cached splits are kept until they expire.", key, e);
+                        cached.refreshing.set(false);
+                    }
+                }
+            });
+        }
+    }
+
+    private static final class CachedSplits {
+        private final ComputeSplitsBySizeResponse response;
+        private final long computedAtNanos = System.nanoTime();
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        CachedSplits(ComputeSplitsBySizeResponse response) {
+            this.response = response;
+        }
     }
 
-    public List<Split> getTableSplits(SyncClient client, String tableName, ComputeParameters parameter) {
-        String key = formatSplitsCacheKey(client.getInstanceName(), tableName, parameter);
-        if (enableSplitCache.get() && splitsCache.containsKey(key)) {
-            LOG.info("Load splits from cache, key: {}", key);
-            return splitsCache.get(key).getSplits();
-        } else {
-            ComputeSplitsBySizeRequest request = new ComputeSplitsBySizeRequest();
-            request.setTableName(tableName);
-            request.setSplitPointLimit(parameter.getMaxSplitsCount());
-            request.setSplitSizeInByte(parameter.getSplitSizeInMBs(), 1024 * 1024);
-            ComputeSplitsBySizeResponse response = client.computeSplitsBySize(request);
-            LOG.info("ComputeSplitsBySize, request param: [{}, {}], resp split size: {}",
-                    parameter.getMaxSplitsCount(), parameter.getSplitSizeInMBs(), response.getSplits().size());
-            if (enableSplitCache.get()) {
-                splitsCache.put(key, response);
+    /**
+     * The key of the split cache: instance, table, splitPointLimit and splitSizeInMBs.
+     */
+    private static final class SplitsCacheKey {
+        private final String instanceName;
+        private final String tableName;
+        private final int maxSplitsCount;
+        private final long splitSizeInMBs;
+
+        SplitsCacheKey(SyncClient client, String tableName, ComputeParameters parameter) {
+            this.instanceName = client.getInstanceName();
+            this.tableName = tableName;
+            this.maxSplitsCount = parameter.getMaxSplitsCount();
+            this.splitSizeInMBs = parameter.getSplitSizeInMBs();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
             }
-            return response.getSplits();
+            if (!(o instanceof SplitsCacheKey)) {
+                return false;
+            }
+            SplitsCacheKey that = (SplitsCacheKey) o;
+            return maxSplitsCount == that.maxSplitsCount && splitSizeInMBs == that.splitSizeInMBs
+                    && instanceName.equals(that.instanceName) && tableName.equals(that.tableName);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = instanceName.hashCode();
+            result = 31 * result + tableName.hashCode();
+            result = 31 * result + maxSplitsCount;
+            result = 31 * result + (int) (splitSizeInMBs ^ (splitSizeInMBs >>> 32));
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return instanceName + "_" + tableName + "_" + maxSplitsCount + "_" + splitSizeInMBs;
+        }
+    }
+
+    private static ComputeSplitsBySizeResponse computeSplitsBySize(SyncClient client, String tableName,
+                                                                   int maxSplitsCount, long splitSizeInMBs) {
+        ComputeSplitsBySizeRequest request = new ComputeSplitsBySizeRequest();
+        request.setTableName(tableName);
+        request.setSplitPointLimit(maxSplitsCount);
+        request.setSplitSizeInByte(splitSizeInMBs, 1024 * 1024);
+        ComputeSplitsBySizeResponse response = client.computeSplitsBySize(request);
+        LOG.info("ComputeSplitsBySize, request param: [{}, {}], resp split size: {}",
+                maxSplitsCount, splitSizeInMBs, response.getSplits().size());
+        return response;
+    }
+
+    public List<Split> getTableSplits(SyncClient client, String tableName, ComputeParameters parameter) {
+        if (!enableSplitCache.get()) {
+            return computeSplitsBySize(client, tableName, parameter.getMaxSplitsCount(),
+                    parameter.getSplitSizeInMBs()).getSplits();
         }
+        SplitsCacheKey key = new SplitsCacheKey(client, tableName, parameter);
+        LOG.debug("Load splits from cache, key: {}", key);
+        return splitsCache.get(client, key);
     }
 
     public LeftMatchResult calculateComputeMode(SyncClient client, TableCatalog catalog, Filter filter, ComputeParameters parameter, List<String> requiredColumns) {
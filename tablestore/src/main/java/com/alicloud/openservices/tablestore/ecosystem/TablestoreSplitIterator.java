@@ -1,31 +1,170 @@
 package com.alicloud.openservices.tablestore.ecosystem;
 
+import com.alicloud.openservices.tablestore.AsyncClientInterface;
 import com.alicloud.openservices.tablestore.ClientException;
 import com.alicloud.openservices.tablestore.SyncClientInterface;
+import com.alicloud.openservices.tablestore.TableStoreCallback;
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
 import com.alicloud.openservices.tablestore.model.*;
 import com.alicloud.openservices.tablestore.model.iterator.RowIterator;
+import com.alicloud.openservices.tablestore.model.tunnel.BulkExportQueryCriteria;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
 
+/**
+ * Reads the rows of the PK ranges of a split, range after range.
+ * <p>
+ * The ranges are scanned concurrently on the async client: up to maxConcurrentRanges ranges have a request in flight,
+ * and the pages in flight or not consumed yet are at most maxBufferedPages. The range being consumed can always
+ * fetch its next page, so the budget never blocks it. Each range has at most one request in flight, so the rows are
+ * returned in the same order as a serial scan.
+ * </p>
+ */
 public class TablestoreSplitIterator implements RowIterator {
 
-    private ArrayList<Iterator<Row>> rowIterators;
+    public static final int DEFAULT_MAX_CONCURRENT_RANGES = 4;
+    public static final int DEFAULT_MAX_BUFFERED_PAGES = 8;
+
+    /**
+     * The progress of the scan of a PK range.
+     */
+    public static class RangeProgress {
+        private final PrimaryKey begin;
+        private final PrimaryKey end;
+        private final long rowCount;
+        private final long completedBytes;
+        private final int pageCount;
+        private final boolean finished;
+
+        RangeProgress(PrimaryKey begin, PrimaryKey end, long rowCount, long completedBytes, int pageCount, boolean finished) {
+            this.begin = begin;
+            this.end = end;
+            this.rowCount = rowCount;
+            this.completedBytes = completedBytes;
+            this.pageCount = pageCount;
+            this.finished = finished;
+        }
+
+        public PrimaryKey getBegin() {
+            return begin;
+        }
+
+        public PrimaryKey getEnd() {
+            return end;
+        }
+
+        /**
+         * @return the count of the rows fetched from the range.
+         */
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * @return the body bytes of the pages fetched from the range.
+         */
+        public long getCompletedBytes() {
+            return completedBytes;
+        }
+
+        public int getPageCount() {
+            return pageCount;
+        }
+
+        /**
+         * @return whether all the pages of the range have been fetched.
+         */
+        public boolean isFinished() {
+            return finished;
+        }
+    }
+
+    /**
+     * The scan of a PK range, guarded by the lock of the iterator.
+     */
+    private final class RangeScan {
+        private final PrimaryKey begin;
+        private final PrimaryKey end;
+        private PrimaryKey nextStart;
+        private boolean fetching;
+        private final LinkedList<Iterator<Row>> pages = new LinkedList<Iterator<Row>>();
+        private long rowCount;
+        private long completedBytes;
+        private int pageCount;
+
+        RangeScan(PrimaryKey begin, PrimaryKey end) {
+            this.begin = begin;
+            this.end = end;
+            this.nextStart = begin;
+        }
+
+        boolean isFinished() {
+            return nextStart == null && !fetching;
+        }
+
+        void onPage(Iterator<Row> rows, int count, long bodyBytes, PrimaryKey next) {
+            fetching = false;
+            nextStart = (next == null || next.isEmpty()) ? null : next;
+            pages.addLast(rows);
+            rowCount += count;
+            completedBytes += bodyBytes;
+            pageCount++;
+        }
+
+        RangeProgress getProgress() {
+            return new RangeProgress(begin, end, rowCount, completedBytes, pageCount, isFinished());
+        }
+    }
 
-    private ArrayList<PrimaryKey> getRows;
+    private final AsyncClientInterface asyncClient;
+    private final String tableName;
+    private final List<String> requiredColumns;
+    private final boolean bulkExport;
+    private final int maxConcurrentRanges;
+    private final int maxBufferedPages;
+
+    private final Object lock = new Object();
+    private final List<RangeScan> ranges = new ArrayList<RangeScan>();
+    private int headIndex;
+    private int inFlight;
+    private int bufferedPages;
+    private Exception exception;
+
+    private Iterator<Row> singleRows;
     private Iterator<Row> current;
-    private int iteratorIndex;
-    private boolean needFetchSingleRow;
+
     public TablestoreSplitIterator(SyncClientInterface client, List<TablestoreSplit.PkRange> pkRanges, String tableName, List<String> requiredColumns) {
-        rowIterators = new ArrayList<Iterator<Row>>();
-        for(TablestoreSplit.PkRange pkRange : pkRanges) {
-            if(pkRange.getEqual() == null) {
-                Iterator<Row> rows= generateIterator(client, pkRange.getBegin(),pkRange.getEnd(), tableName, requiredColumns);
-                rowIterators.add(rows);
+        this(client, pkRanges, tableName, requiredColumns, DEFAULT_MAX_CONCURRENT_RANGES, DEFAULT_MAX_BUFFERED_PAGES);
+    }
+
+    /**
+     * @param maxConcurrentRanges The max count of the ranges with a request in flight.
+     * @param maxBufferedPages    The max count of the pages in flight or not consumed yet.
+     */
+    public TablestoreSplitIterator(SyncClientInterface client, List<TablestoreSplit.PkRange> pkRanges, String tableName,
+                                   List<String> requiredColumns, int maxConcurrentRanges, int maxBufferedPages) {
+        Preconditions.checkArgument(maxConcurrentRanges > 0, "The maxConcurrentRanges must be greater than 0.");
+        Preconditions.checkArgument(maxBufferedPages > 0, "The maxBufferedPages must be greater than 0.");
+        this.tableName = tableName;
+        this.requiredColumns = requiredColumns;
+        this.bulkExport = requiredColumns != null && !requiredColumns.isEmpty();
+        this.maxConcurrentRanges = maxConcurrentRanges;
+        this.maxBufferedPages = maxBufferedPages;
+
+        boolean needFetchSingleRow = false;
+        for (TablestoreSplit.PkRange pkRange : pkRanges) {
+            if (pkRange.getEqual() == null) {
+                ranges.add(new RangeScan(pkRange.getBegin(), pkRange.getEnd()));
             } else {
                 needFetchSingleRow = true;
             }
         }
+        this.asyncClient = ranges.isEmpty() ? null : client.asAsyncClient();
 
         if (needFetchSingleRow) {
             BatchGetRowRequest request = buildBatchGet(pkRanges, tableName);
@@ -37,18 +176,12 @@ public class TablestoreSplitIterator implements RowIterator {
                         rowCollction.add(result.getRow());
                     }
                 }
-                if (rowCollction.size() > 0) {
-                    rowIterators.add(rowCollction.iterator());
-                }
+                singleRows = rowCollction.iterator();
             }
         }
 
-        if (rowIterators.size() > 0) {
-            iteratorIndex = 0;
-            current = rowIterators.get(iteratorIndex);
-        } else {
-            iteratorIndex = 0;
-            current = null;
+        synchronized (lock) {
+            schedule();
         }
     }
 
@@ -65,23 +198,175 @@ public class TablestoreSplitIterator implements RowIterator {
         return request;
     }
 
-    private Iterator<Row> generateIterator(SyncClientInterface client, PrimaryKey begin, PrimaryKey end, String tableName, List<String> requiredColumns) {
-        RangeIteratorParameter rangeIteratorParameter = new RangeIteratorParameter(tableName);
-        rangeIteratorParameter.setInclusiveStartPrimaryKey(begin);
-        rangeIteratorParameter.setExclusiveEndPrimaryKey(end);
-        rangeIteratorParameter.setMaxVersions(1);
-        if (requiredColumns != null && !requiredColumns.isEmpty()) {
-            for (String col : requiredColumns) {
-                rangeIteratorParameter.addColumnsToGet(col);
+    private List<String> columnsToGet(RangeScan range) {
+        if (bulkExport) {
+            return requiredColumns;
+        }
+        return Collections.singletonList(range.begin.getPrimaryKeyColumn(0).getName());
+    }
+
+    /**
+     * Sends the next requests within the limits, must be called with lock held.
+     * The range being consumed is not limited by the page budget, so it can always make progress.
+     */
+    private void schedule() {
+        for (int i = headIndex; i < ranges.size() && exception == null && inFlight < maxConcurrentRanges; i++) {
+            RangeScan range = ranges.get(i);
+            if (range.fetching || range.nextStart == null) {
+                continue;
             }
-        } else {
-            String defaultString = begin.getPrimaryKeyColumn(0).getName();
-            rangeIteratorParameter.addColumnsToGet(defaultString);
+            boolean headStarving = i == headIndex && range.pages.isEmpty();
+            if (!headStarving && inFlight + bufferedPages >= maxBufferedPages) {
+                break;
+            }
+            send(range);
         }
-        if (requiredColumns != null && !requiredColumns.isEmpty()) {
-            return client.createBulkExportIterator(rangeIteratorParameter);
-        } else {
-            return client.createRangeIterator(rangeIteratorParameter);
+    }
+
+    private void send(final RangeScan range) {
+        range.fetching = true;
+        inFlight++;
+        try {
+            if (bulkExport) {
+                sendBulkExport(range);
+            } else {
+                sendGetRange(range);
+            }
+        } catch (RuntimeException ex) {
+            range.fetching = false;
+            inFlight--;
+            exception = ex;
+        }
+    }
+
+    private void sendGetRange(final RangeScan range) {
+        RangeRowQueryCriteria criteria = new RangeRowQueryCriteria(tableName);
+        criteria.setInclusiveStartPrimaryKey(range.nextStart);
+        criteria.setExclusiveEndPrimaryKey(range.end);
+        criteria.setMaxVersions(1);
+        criteria.addColumnsToGet(columnsToGet(range));
+        asyncClient.getRange(new GetRangeRequest(criteria), new TableStoreCallback<GetRangeRequest, GetRangeResponse>() {
+            @Override
+            public void onCompleted(GetRangeRequest req, GetRangeResponse res) {
+                synchronized (lock) {
+                    inFlight--;
+                    bufferedPages++;
+                    range.onPage(res.getRows().iterator(), res.getRows().size(), res.getBodyBytes(),
+                            res.getNextStartPrimaryKey());
+                    schedule();
+                    lock.notifyAll();
+                }
+            }
+
+            @Override
+            public void onFailed(GetRangeRequest req, Exception ex) {
+                onFetchFailed(ex);
+            }
+        });
+    }
+
+    private void sendBulkExport(final RangeScan range) {
+        BulkExportQueryCriteria criteria = new BulkExportQueryCriteria(tableName);
+        criteria.setInclusiveStartPrimaryKey(range.nextStart);
+        criteria.setExclusiveEndPrimaryKey(range.end);
+        criteria.addColumnsToGet(columnsToGet(range));
+        asyncClient.bulkExport(new BulkExportRequest(criteria), new TableStoreCallback<BulkExportRequest, BulkExportResponse>() {
+            @Override
+            public void onCompleted(BulkExportRequest req, BulkExportResponse res) {
+                // the block is parsed here, its rows are only built when they are consumed
+                final SimpleRowMatrixBlockParser parser = new SimpleRowMatrixBlockParser(res.getRows());
+                Iterator<Row> rows = new Iterator<Row>() {
+                    @Override
+                    public boolean hasNext() {
+                        return parser.hasNext();
+                    }
+
+                    @Override
+                    public Row next() {
+                        parser.next();
+                        return parser.getRow();
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+                synchronized (lock) {
+                    inFlight--;
+                    bufferedPages++;
+                    range.onPage(rows, parser.getRowCount(), res.getBodyBytes(), res.getNextStartPrimaryKey());
+                    schedule();
+                    lock.notifyAll();
+                }
+            }
+
+            @Override
+            public void onFailed(BulkExportRequest req, Exception ex) {
+                onFetchFailed(ex);
+            }
+        });
+    }
+
+    private void onFetchFailed(Exception ex) {
+        synchronized (lock) {
+            inFlight--;
+            if (exception == null) {
+                exception = ex;
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Takes the next page of the range being consumed, moving to the next range when it is finished.
+     *
+     * @return The next page, or null if all the ranges have been read.
+     */
+    private Iterator<Row> takePage() {
+        synchronized (lock) {
+            while (headIndex < ranges.size()) {
+                if (exception != null) {
+                    Exception ex = exception;
+                    if (ex instanceof RuntimeException) {
+                        throw (RuntimeException) ex;
+                    }
+                    throw new ClientException("Failed to scan the PK ranges.", ex);
+                }
+                RangeScan head = ranges.get(headIndex);
+                if (!head.pages.isEmpty()) {
+                    bufferedPages--;
+                    Iterator<Row> page = head.pages.removeFirst();
+                    schedule();
+                    return page;
+                }
+                if (head.isFinished()) {
+                    headIndex++;
+                    schedule();
+                    continue;
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ClientException(String.format(
+                            "The thread was interrupted: %s", e.getMessage()));
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @return the progress of the scan of each PK range, in the order of the ranges.
+     */
+    public List<RangeProgress> getRangeProgress() {
+        synchronized (lock) {
+            List<RangeProgress> progress = new ArrayList<RangeProgress>(ranges.size());
+            for (RangeScan range : ranges) {
+                progress.add(range.getProgress());
+            }
+            return progress;
         }
     }
 
@@ -92,24 +377,25 @@ public class TablestoreSplitIterator implements RowIterator {
 
     @Override
     public boolean hasNext() {
-        if (current != null && (current.hasNext() || iteratorIndex < rowIterators.size() - 1)) {
-            return true;
-        } else {
-            return false;
+        while (current == null || !current.hasNext()) {
+            Iterator<Row> page = takePage();
+            if (page == null) {
+                // the rows read by BatchGetRow come after the ranges
+                if (singleRows != null && singleRows != current) {
+                    current = singleRows;
+                    continue;
+                }
+                return false;
+            }
+            current = page;
         }
+        return true;
     }
 
     @Override
     public Row next() {
-        if (current == null) {
-            return null;
-        }
-
-        if (!current.hasNext()) {
-            while (!current.hasNext() && iteratorIndex < rowIterators.size() -1) {
-                iteratorIndex++;
-                current = rowIterators.get(iteratorIndex);
-            }
+        if (!hasNext()) {
+            throw new NoSuchElementException();
         }
         return current.next();
     }
@@ -28,6 +28,10 @@ public class ColumnValue implements Comparable<ColumnValue>, Jsonizable, Measura
     private int dataSize = -1;
 
     public Object getValue() {
+        if (value == null && rawData != null) {
+            // a string read from a response is only decoded when it is accessed
+            value = Bytes.toString(rawData);
+        }
         return value;
     }
 
@@ -43,7 +47,9 @@ public class ColumnValue implements Comparable<ColumnValue>, Jsonizable, Measura
             dataSize = 8;
             break;
         case STRING:
-        	if (value == null) {
+        	if (rawData != null) {
+        		dataSize = rawData.length;
+        	} else if (value == null) {
         		dataSize = 0;
         	} else {
         		dataSize = CalculateHelper.calcStringSizeInBytes(this.asString());
@@ -119,6 +125,21 @@ public class ColumnValue implements Comparable<ColumnValue>, Jsonizable, Measura
         return columnValue;
     }
 
+    /**
+     * Construct an attribute column of type {@link ColumnType#STRING} from the raw bytes of the utf-8 string,
+     * which are decoded into a string only when the value is accessed.
+     * <p>Note: The value must not be a null pointer.</p>
+     *
+     * @param rawData The raw bytes for utf-8 string.
+     * @return The generated instance.
+     */
+    public static ColumnValue fromStringInBytes(byte[] rawData) {
+        Preconditions.checkNotNull(rawData, "The value of rawData should not be null.");
+        ColumnValue columnValue = new ColumnValue(null, ColumnType.STRING);
+        columnValue.rawData = rawData;
+        return columnValue;
+    }
+
     /**
      * Constructs a property column of type {@link ColumnType#INTEGER}.
      *
@@ -172,7 +193,7 @@ public class ColumnValue implements Comparable<ColumnValue>, Jsonizable, Measura
             throw new IllegalStateException("The type of column is not STRING.");
         }
 
-        return (String) value;
+        return (String) getValue();
     }
 
     public byte[] asStringInBytes() {
@@ -288,10 +309,11 @@ public class ColumnValue implements Comparable<ColumnValue>, Jsonizable, Measura
             if (this.type == ColumnType.BINARY) {
                 return Bytes.equals((byte[]) value, (byte[]) val.value);
             } else {
-                if (this.value == null) {
-                    return val.value == null;
+                Object value = getValue();
+                if (value == null) {
+                    return val.getValue() == null;
                 } else {
-                    return this.value.equals(val.value);
+                    return value.equals(val.getValue());
                 }
             }
         } else {
@@ -304,19 +326,20 @@ public class ColumnValue implements Comparable<ColumnValue>, Jsonizable, Measura
         if (this.type == ColumnType.BINARY) {
             return Arrays.hashCode(asBinary()) * 31 + this.type.hashCode();
         } else {
-            return this.value.hashCode() * 31 + this.type.hashCode();
+            return getValue().hashCode() * 31 + this.type.hashCode();
         }
     }
 
     @Override
     public String toString() {
-        if (this.value == null) {
+        Object value = getValue();
+        if (value == null) {
             return "null";
         }
         if (this.type == ColumnType.BINARY) {
             return Arrays.toString(asBinary());
         } else {
-            return this.value.toString();
+            return value.toString();
         }
     }
 
@@ -335,7 +358,7 @@ public class ColumnValue implements Comparable<ColumnValue>, Jsonizable, Measura
 
         switch (this.type) {
             case STRING:
-                return ((String) value).compareTo(target.asString());
+                return asString().compareTo(target.asString());
             case INTEGER:
                 return ((Long) value).compareTo(target.asLong());
             case BINARY:
@@ -18,6 +18,18 @@ public class RangeIteratorParameter extends RowQueryCriteria {
      */
     private int bufferSize = -1;
 
+    /**
+     * The number of pages the iterator may read ahead asynchronously while the caller is still consuming the current page.
+     * The default value 0 means no read-ahead, and the next GetRange is only sent after the current page has been drained.
+     */
+    private int prefetchDepth = 0;
+
+    /**
+     * The maximum total size in bytes of the pages that have been read ahead but not yet consumed.
+     * The default value -1 means the read-ahead is only bounded by {@link #prefetchDepth}.
+     */
+    private long prefetchMaxBytes = -1;
+
     private PrimaryKey inclusiveStartPrimaryKey;
 
     private PrimaryKey exclusiveEndPrimaryKey;
@@ -81,6 +93,50 @@ public class RangeIteratorParameter extends RowQueryCriteria {
         this.bufferSize = bufferSize;
     }
 
+    /**
+     * Get the number of pages the iterator may read ahead.
+     *
+     * @return The read-ahead depth, 0 means read-ahead is disabled.
+     */
+    public int getPrefetchDepth() {
+        return prefetchDepth;
+    }
+
+    /**
+     * Set the number of pages the iterator may read ahead asynchronously.
+     * Since every GetRange depends on the next start primary key of the previous one, at most one request is in flight,
+     * and the next one is sent as soon as the previous response arrives, as long as fewer than prefetchDepth pages are waiting to be consumed.
+     * 0 means read-ahead is disabled (default value).
+     *
+     * @param prefetchDepth The read-ahead depth.
+     */
+    public void setPrefetchDepth(int prefetchDepth) {
+        Preconditions.checkArgument(prefetchDepth >= 0, "The prefetch depth must not be negative.");
+        this.prefetchDepth = prefetchDepth;
+    }
+
+    /**
+     * Get the memory budget of the pages read ahead but not yet consumed.
+     *
+     * @return The memory budget in bytes, -1 means no limit.
+     */
+    public long getPrefetchMaxBytes() {
+        return prefetchMaxBytes;
+    }
+
+    /**
+     * Set the memory budget of the pages read ahead but not yet consumed.
+     * No further read-ahead is sent once the buffered pages reach this size, so the buffered size can exceed it by at most one page.
+     * -1 means no limit (default value), the read-ahead is then only bounded by the prefetch depth.
+     *
+     * @param prefetchMaxBytes The memory budget in bytes, greater than 0, or -1 for no limit.
+     */
+    public void setPrefetchMaxBytes(long prefetchMaxBytes) {
+        Preconditions.checkArgument(prefetchMaxBytes > 0 || prefetchMaxBytes == -1,
+                "The prefetch max bytes must be greater than 0, or -1 for no limit.");
+        this.prefetchMaxBytes = prefetchMaxBytes;
+    }
+
     /**
      * Get the read order of the range query (forward(FORWARD) or backward(BACKWARD)).
      *
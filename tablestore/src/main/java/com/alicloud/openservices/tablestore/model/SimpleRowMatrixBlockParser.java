@@ -328,6 +328,69 @@ public class SimpleRowMatrixBlockParser {
         return rows;
     }
 
+    /**
+     * Copies the INTEGER values of a field in all the rows of the block, without creating objects for the rows,
+     * and without moving the cursor.
+     *
+     * @param fieldIndex The index of the field.
+     * @param values     The value of the i-th row is copied to values[offset + i], a null value is copied as 0.
+     * @param nulls      Whether the value of the i-th row is null is copied to nulls[offset + i], can be null.
+     * @param offset     The offset in values and nulls.
+     * @return the count of the rows copied, which is {@link #getRowCount()}.
+     */
+    public int copyLongs(int fieldIndex, long[] values, boolean[] nulls, int offset) {
+        checkCopyArguments(fieldIndex, values.length, nulls, offset);
+        return copyValues(fieldIndex, ColumnType.INTEGER, values, null, nulls, offset);
+    }
+
+    /**
+     * Copies the DOUBLE values of a field in all the rows of the block, see {@link #copyLongs(int, long[], boolean[], int)}.
+     */
+    public int copyDoubles(int fieldIndex, double[] values, boolean[] nulls, int offset) {
+        checkCopyArguments(fieldIndex, values.length, nulls, offset);
+        return copyValues(fieldIndex, ColumnType.DOUBLE, null, values, nulls, offset);
+    }
+
+    private void checkCopyArguments(int fieldIndex, int length, boolean[] nulls, int offset) {
+        if (fieldIndex < 0 || fieldIndex >= fieldCount) {
+            throw new ClientException("Invalid fieldIndex:" + fieldIndex + ". FieldCount:" + fieldCount);
+        }
+        if (offset < 0 || offset + rowCount > length || (nulls != null && offset + rowCount > nulls.length)) {
+            throw new ClientException("The array is too small to copy " + rowCount + " rows at offset " + offset);
+        }
+    }
+
+    private int copyValues(int fieldIndex, ColumnType expect, long[] longs, double[] doubles, boolean[] nulls, int offset) {
+        // walk the rows on our own, so that the offsets of the current row are kept
+        int rowOffset = dataOffset;
+        for (int row = 0; row < rowCount; row++) {
+            buffer.position(rowOffset);
+            final byte tagRow = buffer.get();
+            ensureEqual(tagRow, SimpleRowMatrixBlockConstants.TAG_ROW, "tagRow");
+            for (int i = 0; i < fieldCount; i++) {
+                final ColumnType type = toColumnType(buffer.get());
+                if (i != fieldIndex) {
+                    skipColumn(type);
+                    continue;
+                }
+                if (type != null && type != expect) {
+                    throw new ClientException("ColumnType mismatch. Actual:" + type +
+                            ". Expect:" + expect);
+                }
+                if (nulls != null) {
+                    nulls[offset + row] = (type == null);
+                }
+                if (longs != null) {
+                    longs[offset + row] = type == null ? 0 : buffer.getLong();
+                } else {
+                    doubles[offset + row] = type == null ? 0 : buffer.getDouble();
+                }
+            }
+            rowOffset = buffer.position();
+        }
+        return rowCount;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("SimpleRowMatrixBlock{");
@@ -8,9 +8,17 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
- * Row iterator for SimleRowMatrixBlock
+ * Row iterator for SimleRowMatrixBlock.
+ * <p>
+ * The fields of the current row are read by index or name without creating objects for the rows. The blocks can
+ * also be taken as a whole by {@link #nextBlock()}, to copy their fields to arrays by
+ * {@link SimpleRowMatrixBlockParser#copyLongs(int, long[], boolean[], int)}. With prefetch, the next block is
+ * requested as soon as the current one arrives, so that it is sent while the current one is consumed.
+ * </p>
  */
 public class SimpleRowMatrixBlockRowIterator implements Iterator<Long> {
 
@@ -26,10 +34,25 @@ public class SimpleRowMatrixBlockRowIterator implements Iterator<Long> {
     // if true verify field names of first response the same as the following responses
     private boolean verifyFieldNames;
 
+    // whether a row of the current block has been read, or the block has been returned by nextBlock()
+    private boolean blockStarted;
+    private boolean prefetch;
+    private Future<BulkExportResponse> prefetched;
+
     public SimpleRowMatrixBlockRowIterator(SyncClientInterface client, BulkExportQueryCriteria parameter, boolean verifyFieldNames) {
+        this(client, parameter, verifyFieldNames, false);
+    }
+
+    /**
+     * @param prefetch Whether to request the next block by the async client of the client while the current one is
+     *                 consumed. At most one block is requested ahead.
+     */
+    public SimpleRowMatrixBlockRowIterator(SyncClientInterface client, BulkExportQueryCriteria parameter,
+                                           boolean verifyFieldNames, boolean prefetch) {
         this.client = client;
         this.parameter = parameter;
         this.verifyFieldNames = verifyFieldNames;
+        this.prefetch = prefetch;
         this.completedBytes = 0;
         fetchData(buildRequest());
     }
@@ -59,9 +82,17 @@ public class SimpleRowMatrixBlockRowIterator implements Iterator<Long> {
     }
 
     private void fetchData(BulkExportRequest request) {
-        this.result = client.bulkExport(request);
+        if (prefetched != null) {
+            this.result = takePrefetched();
+        } else {
+            this.result = client.bulkExport(request);
+        }
         this.completedBytes += this.result.getBodyBytes();
         this.block = new SimpleRowMatrixBlockParser(this.result.getRows());
+        this.blockStarted = false;
+        if (prefetch && hasMoreBlocks()) {
+            prefetched = client.asAsyncClient().bulkExport(buildRequest(), null);
+        }
 
         if (fieldNames == null) {
             String[] fns = block.parseFieldNames();
@@ -83,11 +114,31 @@ public class SimpleRowMatrixBlockRowIterator implements Iterator<Long> {
         }
     }
 
+    private BulkExportResponse takePrefetched() {
+        Future<BulkExportResponse> future = prefetched;
+        prefetched = null;
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException(String.format(
+                    "The thread was interrupted: %s", e.getMessage()));
+        } catch (ExecutionException e) {
+            throw new ClientException("Failed to prefetch the next block.", e.getCause());
+        }
+    }
+
+    private boolean hasMoreBlocks() {
+        PrimaryKey nextToken = result.getNextStartPrimaryKey();
+        return nextToken != null && !nextToken.isEmpty();
+    }
+
     private boolean isBufferHasMoreData() {
         return block != null && block.hasNext();
     }
 
     private long getNextFromBuffer() {
+        blockStarted = true;
         block.next();
         return index++;
     }
@@ -100,18 +151,38 @@ public class SimpleRowMatrixBlockRowIterator implements Iterator<Long> {
         }
 
         // need to send one more request
-        PrimaryKey nextToken = result.getNextStartPrimaryKey();
-        while (nextToken != null && !nextToken.isEmpty()) {
+        while (hasMoreBlocks()) {
             fetchData(buildRequest());
             if (isBufferHasMoreData()) {
                 return true;
             }
-            nextToken = result.getNextStartPrimaryKey();
         }
 
         return false;
     }
 
+    /**
+     * Takes the next block as a whole, to read it by its own cursor or copy its fields to arrays. The rows of the
+     * block are skipped by the row iterator.
+     *
+     * @return The current block if none of its rows has been read, else the next block, or null if there is no
+     * more block.
+     */
+    public SimpleRowMatrixBlockParser nextBlock() {
+        while (blockStarted || block.getRowCount() == 0) {
+            if (!hasMoreBlocks()) {
+                return null;
+            }
+            fetchData(buildRequest());
+        }
+        blockStarted = true;
+        SimpleRowMatrixBlockParser taken = block;
+        index += taken.getRowCount();
+        // the rows of the taken block are not returned by the row iterator
+        block = null;
+        return taken;
+    }
+
     @Override
     public Long next() {
         if (!hasNext()) {
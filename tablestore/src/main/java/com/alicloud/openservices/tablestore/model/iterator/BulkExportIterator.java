@@ -5,7 +5,6 @@ import com.alicloud.openservices.tablestore.SyncClientInterface;
 import com.alicloud.openservices.tablestore.model.*;
 import com.alicloud.openservices.tablestore.model.tunnel.BulkExportQueryCriteria;
 
-import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 public class BulkExportIterator implements RowIterator {
@@ -14,7 +13,7 @@ public class BulkExportIterator implements RowIterator {
     private RangeIteratorParameter parameter;
 
     private BulkExportResponse result;
-    private Iterator<Row> rowsIter;
+    private SimpleRowMatrixBlockParser parser;
     private int totalCount;
     private int bufferSize;
     private int rowsRead;
@@ -63,17 +62,18 @@ public class BulkExportIterator implements RowIterator {
     private void fetchData(BulkExportRequest request) {
         BulkExportResponse result = client.bulkExport(request);
         this.result = result;
-        SimpleRowMatrixBlockParser parser = new SimpleRowMatrixBlockParser(result.getRows());
-        this.rowsIter = parser.getRows().iterator();
-        this.rowsRead += parser.getRows().size();
+        // the rows are parsed one by one as they are iterated, rather than all at once by getRows()
+        this.parser = new SimpleRowMatrixBlockParser(result.getRows());
+        this.rowsRead += parser.getRowCount();
     }
 
     private boolean isBufferHasMoreData() {
-        return rowsIter.hasNext();
+        return parser.hasNext();
     }
 
     private Row getNextFromBuffer() {
-        return rowsIter.next();
+        parser.next();
+        return parser.getRow();
     }
 
     @Override
@@ -1,10 +1,13 @@
 package com.alicloud.openservices.tablestore.model.iterator;
 
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.NoSuchElementException;
 
+import com.alicloud.openservices.tablestore.AsyncClientInterface;
 import com.alicloud.openservices.tablestore.ClientException;
 import com.alicloud.openservices.tablestore.SyncClientInterface;
+import com.alicloud.openservices.tablestore.TableStoreCallback;
 import com.alicloud.openservices.tablestore.model.GetRangeRequest;
 import com.alicloud.openservices.tablestore.model.GetRangeResponse;
 import com.alicloud.openservices.tablestore.model.PrimaryKey;
@@ -24,6 +27,20 @@ public class GetRangeRowIterator implements RowIterator {
     private int rowsRead;
     private long completedBytes;
 
+    /**
+     * The state below is only used when read-ahead is enabled, and is guarded by prefetchLock.
+     */
+    private AsyncClientInterface asyncClient;
+    private int prefetchDepth;
+    private long prefetchMaxBytes;
+    private final Object prefetchLock = new Object();
+    private final LinkedList<GetRangeResponse> prefetchedPages = new LinkedList<GetRangeResponse>();
+    private long prefetchedBytes;
+    private boolean fetching;
+    private Exception prefetchException;
+    private GetRangeResponse lastFetched;
+    private int rowsFetched;
+
     public GetRangeRowIterator(SyncClientInterface client, RangeIteratorParameter parameter) {
         this.client = client;
         this.parameter = parameter;
@@ -37,10 +54,17 @@ public class GetRangeRowIterator implements RowIterator {
             bufferSize = totalCount;
         }
 
-        fetchData(buildRequest());
+        this.prefetchDepth = parameter.getPrefetchDepth();
+        this.prefetchMaxBytes = parameter.getPrefetchMaxBytes();
+        if (prefetchDepth > 0) {
+            this.asyncClient = client.asAsyncClient();
+            consume(takePrefetchedPage());
+        } else {
+            fetchData(buildRequest(result, rowsRead));
+        }
     }
 
-    private GetRangeRequest buildRequest() {
+    private GetRangeRequest buildRequest(GetRangeResponse lastResult, int rowsRead) {
         RangeRowQueryCriteria criteria = new RangeRowQueryCriteria(parameter.getTableName());
         criteria.setDirection(parameter.getDirection());
         criteria.addColumnsToGet(parameter.getColumnsToGet());
@@ -60,10 +84,10 @@ public class GetRangeRowIterator implements RowIterator {
             criteria.setFilter(parameter.getFilter());
         }
 
-        if (result == null) {
+        if (lastResult == null) {
             criteria.setInclusiveStartPrimaryKey(parameter.getInclusiveStartPrimaryKey());
         } else {
-            criteria.setInclusiveStartPrimaryKey(result.getNextStartPrimaryKey());
+            criteria.setInclusiveStartPrimaryKey(lastResult.getNextStartPrimaryKey());
         }
 
         criteria.setExclusiveEndPrimaryKey(parameter.getExclusiveEndPrimaryKey());
@@ -78,13 +102,116 @@ public class GetRangeRowIterator implements RowIterator {
     }
 
     private void fetchData(GetRangeRequest request) {
-        GetRangeResponse result = client.getRange(request);
+        consume(client.getRange(request));
+    }
+
+    private void consume(GetRangeResponse result) {
         this.result = result;
         this.rowsIter = result.getRows().iterator();
         this.rowsRead += result.getRows().size();
         this.completedBytes += result.getBodyBytes();
     }
 
+    private boolean hasMoreToFetch(GetRangeResponse lastResult, int rowsRead) {
+        if (lastResult == null) {
+            return true;
+        }
+        PrimaryKey nextToken = lastResult.getNextStartPrimaryKey();
+        return nextToken != null && !nextToken.isEmpty() && totalCount != rowsRead;
+    }
+
+    /**
+     * Whether another page should be read ahead, must be called with prefetchLock held.
+     */
+    private boolean shouldPrefetch() {
+        return !fetching
+                && prefetchException == null
+                && hasMoreToFetch(lastFetched, rowsFetched)
+                && prefetchedPages.size() < prefetchDepth
+                && (prefetchMaxBytes == -1 || prefetchedBytes < prefetchMaxBytes);
+    }
+
+    /**
+     * Sends the next GetRange, must be called with prefetchLock held.
+     * The request is built from the last fetched page, so at most one request is in flight at any time.
+     */
+    private void sendPrefetch() {
+        fetching = true;
+        try {
+            asyncClient.getRange(buildRequest(lastFetched, rowsFetched), prefetchCallback());
+        } catch (RuntimeException ex) {
+            fetching = false;
+            prefetchException = ex;
+        }
+    }
+
+    private TableStoreCallback<GetRangeRequest, GetRangeResponse> prefetchCallback() {
+        return new TableStoreCallback<GetRangeRequest, GetRangeResponse>() {
+            @Override
+            public void onCompleted(GetRangeRequest req, GetRangeResponse res) {
+                synchronized (prefetchLock) {
+                    fetching = false;
+                    lastFetched = res;
+                    rowsFetched += res.getRows().size();
+                    prefetchedPages.addLast(res);
+                    prefetchedBytes += res.getBodyBytes();
+                    if (shouldPrefetch()) {
+                        sendPrefetch();
+                    }
+                    prefetchLock.notifyAll();
+                }
+            }
+
+            @Override
+            public void onFailed(GetRangeRequest req, Exception ex) {
+                synchronized (prefetchLock) {
+                    fetching = false;
+                    prefetchException = ex;
+                    prefetchLock.notifyAll();
+                }
+            }
+        };
+    }
+
+    /**
+     * Takes the next read-ahead page, waiting for the in-flight request if necessary.
+     *
+     * @return The next page, or null if the range has been read completely.
+     */
+    private GetRangeResponse takePrefetchedPage() {
+        synchronized (prefetchLock) {
+            while (prefetchedPages.isEmpty()) {
+                if (prefetchException != null) {
+                    Exception ex = prefetchException;
+                    if (ex instanceof RuntimeException) {
+                        throw (RuntimeException) ex;
+                    }
+                    throw new ClientException("Failed to read ahead the next range.", ex);
+                }
+                if (!fetching) {
+                    if (!hasMoreToFetch(lastFetched, rowsFetched)) {
+                        return null;
+                    }
+                    sendPrefetch();
+                }
+                try {
+                    prefetchLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ClientException(String.format(
+                            "The thread was interrupted: %s", e.getMessage()));
+                }
+            }
+
+            GetRangeResponse page = prefetchedPages.removeFirst();
+            prefetchedBytes -= page.getBodyBytes();
+            if (shouldPrefetch()) {
+                sendPrefetch();
+            }
+            return page;
+        }
+    }
+
     private boolean isBufferHasMoreData() {
         return rowsIter.hasNext();
     }
@@ -100,14 +227,24 @@ public class GetRangeRowIterator implements RowIterator {
             return true;
         }
 
+        if (prefetchDepth > 0) {
+            GetRangeResponse page = takePrefetchedPage();
+            while (page != null) {
+                consume(page);
+                if (isBufferHasMoreData()) {
+                    return true;
+                }
+                page = takePrefetchedPage();
+            }
+            return false;
+        }
+
         // need to send one more request
-        PrimaryKey nextToken = result.getNextStartPrimaryKey();
-        while (nextToken != null && !nextToken.isEmpty() && totalCount != rowsRead) {
-            fetchData(buildRequest());
+        while (hasMoreToFetch(result, rowsRead)) {
+            fetchData(buildRequest(result, rowsRead));
             if (isBufferHasMoreData()) {
                 return true;
             }
-            nextToken = result.getNextStartPrimaryKey();
         }
 
         return false;
@@ -135,4 +272,3 @@ public class GetRangeRowIterator implements RowIterator {
         return completedBytes;
     }
 }
-
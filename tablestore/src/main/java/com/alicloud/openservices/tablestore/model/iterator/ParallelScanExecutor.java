@@ -0,0 +1,347 @@
+package com.alicloud.openservices.tablestore.model.iterator;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+
+import com.alicloud.openservices.tablestore.AsyncClientInterface;
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.TableStoreCallback;
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+import com.alicloud.openservices.tablestore.model.ComputeSplitsRequest;
+import com.alicloud.openservices.tablestore.model.ComputeSplitsResponse;
+import com.alicloud.openservices.tablestore.model.Row;
+import com.alicloud.openservices.tablestore.model.SearchIndexSplitsOptions;
+import com.alicloud.openservices.tablestore.model.search.ParallelScanRequest;
+import com.alicloud.openservices.tablestore.model.search.ParallelScanResponse;
+import com.alicloud.openservices.tablestore.model.search.ScanQuery;
+
+/**
+ * Reads the rows of a ParallelScan request with all the parallel ids of its session scanned concurrently.
+ * <p>
+ * If the request has no session, it is computed by ComputeSplits, and the parallelism is the splits size, limited
+ * by the maxParallel of the scan query if set. Each parallel id has at most one request in flight, sent as soon as
+ * the previous page of the id has arrived, so that the rows of an id keep their order and the aliveTime of the id is
+ * refreshed while the rows are consumed. The pages which have arrived but have not been consumed, and the requests
+ * in flight, are at most maxBufferedPages.
+ * </p>
+ * <p>
+ * The rows are consumed in the thread calling {@link #iterator()} or {@link #forEach(PartitionCallback)}. If they
+ * are not consumed for longer than the aliveTime of the scan query, the pending ids expire on the server and the
+ * scan fails with OTSServerSessionExpired. The first failure of any id stops the scan and is thrown to the consumer.
+ * </p>
+ */
+public class ParallelScanExecutor {
+
+    /**
+     * Receives the pages of the scan, in the thread calling {@link #forEach(PartitionCallback)}.
+     */
+    public interface PartitionCallback {
+        /**
+         * @param parallelId The parallel id the rows were read from.
+         * @param rows       The rows of a page, in the order of the id.
+         */
+        void onRows(int parallelId, List<Row> rows);
+    }
+
+    private static final class Page {
+        private final int parallelId;
+        private final ParallelScanResponse response;
+
+        Page(int parallelId, ParallelScanResponse response) {
+            this.parallelId = parallelId;
+            this.response = response;
+        }
+    }
+
+    private final AsyncClientInterface client;
+    private final ParallelScanRequest request;
+    private final byte[] sessionId;
+    private final int parallelism;
+    private final int maxConcurrency;
+    private final int maxBufferedPages;
+
+    /**
+     * The state below is guarded by lock.
+     */
+    private final Object lock = new Object();
+    private final LinkedList<Page> pages = new LinkedList<Page>();
+    private final LinkedList<Integer> readyIds = new LinkedList<Integer>();
+    private final byte[][] tokens;
+    private int inFlight;
+    private int pendingIds;
+    private boolean started;
+    private boolean closed;
+    private Exception exception;
+    private long completedBytes;
+
+    /**
+     * Scans all the parallel ids concurrently, with up to 2 pages buffered for each of them.
+     */
+    public ParallelScanExecutor(AsyncClientInterface client, ParallelScanRequest request) {
+        this(client, request, -1, -1);
+    }
+
+    /**
+     * @param maxConcurrency   The max count of the requests in flight, -1 for the parallelism of the scan.
+     * @param maxBufferedPages The max count of the pages buffered or in flight, -1 for twice maxConcurrency.
+     */
+    public ParallelScanExecutor(AsyncClientInterface client, ParallelScanRequest request,
+                                int maxConcurrency, int maxBufferedPages) {
+        Preconditions.checkNotNull(client, "The client must not be null.");
+        Preconditions.checkNotNull(request, "The request must not be null.");
+        Preconditions.checkNotNull(request.getScanQuery(), "The scan query must not be null.");
+        Preconditions.checkArgument(maxConcurrency > 0 || maxConcurrency == -1,
+                "The maxConcurrency must be greater than 0 or be -1.");
+        Preconditions.checkArgument(maxBufferedPages > 0 || maxBufferedPages == -1,
+                "The maxBufferedPages must be greater than 0 or be -1.");
+        if (null != request.getScanQuery().getToken()) {
+            throw new IllegalArgumentException("ScanQuery's token must be null when initializing the ParallelScanExecutor.");
+        }
+        this.client = client;
+        this.request = request;
+
+        Integer maxParallel = request.getScanQuery().getMaxParallel();
+        if (request.getSessionId() != null) {
+            Preconditions.checkArgument(maxParallel != null && maxParallel > 0,
+                    "The maxParallel of the scan query must be set with the session id.");
+            this.sessionId = request.getSessionId();
+            this.parallelism = maxParallel;
+        } else {
+            ComputeSplitsResponse splits = computeSplits();
+            this.sessionId = splits.getSessionId();
+            int splitsSize = splits.getSplitsSize();
+            this.parallelism = maxParallel != null && maxParallel > 0 ? Math.min(maxParallel, splitsSize) : splitsSize;
+        }
+
+        this.maxConcurrency = maxConcurrency == -1 ? parallelism : Math.min(maxConcurrency, parallelism);
+        this.maxBufferedPages = maxBufferedPages == -1 ? 2 * this.maxConcurrency : maxBufferedPages;
+        this.tokens = new byte[parallelism][];
+        for (int i = 0; i < parallelism; i++) {
+            readyIds.addLast(i);
+        }
+        this.pendingIds = parallelism;
+    }
+
+    private ComputeSplitsResponse computeSplits() {
+        ComputeSplitsRequest splitsRequest = new ComputeSplitsRequest(request.getTableName(),
+                new SearchIndexSplitsOptions(request.getIndexName()));
+        try {
+            return client.computeSplits(splitsRequest, null).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException(String.format("The thread was interrupted: %s", e.getMessage()));
+        } catch (ExecutionException e) {
+            throw new ClientException("Failed to compute the splits of the parallel scan.", e.getCause());
+        }
+    }
+
+    private ParallelScanRequest buildRequest(int parallelId, byte[] token) {
+        ScanQuery query = request.getScanQuery();
+        ScanQuery partitionQuery = new ScanQuery();
+        partitionQuery.setQuery(query.getQuery());
+        partitionQuery.setLimit(query.getLimit());
+        partitionQuery.setAliveTime(query.getAliveTime());
+        partitionQuery.setMaxParallel(parallelism);
+        partitionQuery.setCurrentParallelId(parallelId);
+        partitionQuery.setToken(token);
+
+        ParallelScanRequest partitionRequest = new ParallelScanRequest();
+        partitionRequest.setTableName(request.getTableName());
+        partitionRequest.setIndexName(request.getIndexName());
+        partitionRequest.setColumnsToGet(request.getColumnsToGet());
+        partitionRequest.setSessionId(sessionId);
+        partitionRequest.setTimeoutInMillisecond(request.getTimeoutInMillisecond());
+        partitionRequest.setExtension(request.getExtension());
+        partitionRequest.setScanQuery(partitionQuery);
+        return partitionRequest;
+    }
+
+    /**
+     * Sends the requests of the ready ids within the limits, must be called with lock held.
+     */
+    private void schedule() {
+        while (!closed && exception == null && !readyIds.isEmpty()
+                && inFlight < maxConcurrency && inFlight + pages.size() < maxBufferedPages) {
+            final int parallelId = readyIds.removeFirst();
+            inFlight++;
+            try {
+                client.parallelScan(buildRequest(parallelId, tokens[parallelId]), callback(parallelId));
+            } catch (RuntimeException ex) {
+                inFlight--;
+                exception = ex;
+            }
+        }
+    }
+
+    private TableStoreCallback<ParallelScanRequest, ParallelScanResponse> callback(final int parallelId) {
+        return new TableStoreCallback<ParallelScanRequest, ParallelScanResponse>() {
+            @Override
+            public void onCompleted(ParallelScanRequest req, ParallelScanResponse res) {
+                synchronized (lock) {
+                    inFlight--;
+                    if (closed) {
+                        return;
+                    }
+                    pages.addLast(new Page(parallelId, res));
+                    tokens[parallelId] = res.getNextToken();
+                    if (res.getNextToken() == null) {
+                        pendingIds--;
+                    } else {
+                        readyIds.addLast(parallelId);
+                    }
+                    schedule();
+                    lock.notifyAll();
+                }
+            }
+
+            @Override
+            public void onFailed(ParallelScanRequest req, Exception ex) {
+                synchronized (lock) {
+                    inFlight--;
+                    if (exception == null) {
+                        exception = ex;
+                    }
+                    lock.notifyAll();
+                }
+            }
+        };
+    }
+
+    private void start() {
+        synchronized (lock) {
+            if (started) {
+                throw new IllegalStateException("The ParallelScanExecutor can only be consumed once.");
+            }
+            started = true;
+            schedule();
+        }
+    }
+
+    /**
+     * Takes the next page, waiting for the requests in flight if necessary.
+     *
+     * @return The next page, or null if all the parallel ids have been read completely.
+     */
+    private Page takePage() {
+        synchronized (lock) {
+            while (true) {
+                if (closed) {
+                    throw new ClientException("The ParallelScanExecutor has been closed.");
+                }
+                if (exception != null) {
+                    Exception ex = exception;
+                    if (ex instanceof RuntimeException) {
+                        throw (RuntimeException) ex;
+                    }
+                    throw new ClientException("Failed to scan the parallel ids.", ex);
+                }
+                if (!pages.isEmpty()) {
+                    Page page = pages.removeFirst();
+                    completedBytes += page.response.getBodyBytes();
+                    schedule();
+                    return page;
+                }
+                if (pendingIds == 0) {
+                    return null;
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ClientException(String.format(
+                            "The thread was interrupted: %s", e.getMessage()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the scan and returns its rows, the pages of the parallel ids in the order they arrive.
+     */
+    public RowIterator iterator() {
+        start();
+        return new RowIterator() {
+            private Iterator<Row> rowsIterator;
+
+            @Override
+            public boolean hasNext() {
+                while (rowsIterator == null || !rowsIterator.hasNext()) {
+                    Page page = takePage();
+                    if (page == null) {
+                        return false;
+                    }
+                    rowsIterator = page.response.getRows().iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public Row next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return rowsIterator.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new ClientException("RowIterator do not support remove().");
+            }
+
+            @Override
+            public long getTotalCount() {
+                throw new ClientException("ParallelScanExecutor do not support getTotalCount().");
+            }
+        };
+    }
+
+    /**
+     * Starts the scan and passes its pages to the callback, until all the parallel ids have been read completely.
+     */
+    public void forEach(PartitionCallback callback) {
+        Preconditions.checkNotNull(callback, "The callback must not be null.");
+        start();
+        Page page = takePage();
+        while (page != null) {
+            callback.onRows(page.parallelId, page.response.getRows());
+            page = takePage();
+        }
+    }
+
+    /**
+     * Stops the scan. The requests in flight are not cancelled but their pages are dropped.
+     */
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            pages.clear();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * @return the count of the parallel ids scanned.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return the session id shared by the parallel ids.
+     */
+    public byte[] getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * @return the body bytes of the pages consumed.
+     */
+    public long getCompletedBytes() {
+        synchronized (lock) {
+            return completedBytes;
+        }
+    }
+}
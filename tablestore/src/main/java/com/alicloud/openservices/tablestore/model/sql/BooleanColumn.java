@@ -0,0 +1,40 @@
+package com.alicloud.openservices.tablestore.model.sql;
+
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.ColumnValues;
+import com.alicloud.openservices.tablestore.model.ColumnType;
+
+/**
+ * A column of booleans.
+ */
+public class BooleanColumn extends SQLColumn {
+
+    BooleanColumn(String name, ColumnType columnType, int rowCount, ColumnValues columnValues) {
+        super(name, columnType, rowCount, columnValues);
+    }
+
+    /**
+     * Query the value of a row
+     *
+     * @param rowIndex row cursor
+     * @return the value, which is undefined if it is null
+     */
+    public boolean getBoolean(int rowIndex) {
+        checkRowIndex(rowIndex);
+        return columnValues.boolValues(rowIndex);
+    }
+
+    /**
+     * Copy the values of the rows into the array
+     *
+     * @param fromRowIndex the cursor of the first row
+     * @param dest         the destination array
+     * @param destPos      the position of the first value in the destination array
+     * @param length       the number of rows
+     */
+    public void copyTo(int fromRowIndex, boolean[] dest, int destPos, int length) {
+        checkRowRange(fromRowIndex, length, dest.length, destPos);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = columnValues.boolValues(fromRowIndex + i);
+        }
+    }
+}
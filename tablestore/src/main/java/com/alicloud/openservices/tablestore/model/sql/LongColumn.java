@@ -0,0 +1,66 @@
+package com.alicloud.openservices.tablestore.model.sql;
+
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.ColumnValues;
+import com.alicloud.openservices.tablestore.model.ColumnType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A column of 64-bit integers. The DATETIME, TIME and DATE columns are also read as their encoded values,
+ * which are the microseconds since the epoch, the nanoseconds of the day and the seconds since the epoch.
+ */
+public class LongColumn extends SQLColumn {
+
+    LongColumn(String name, ColumnType columnType, int rowCount, ColumnValues columnValues) {
+        super(name, columnType, rowCount, columnValues);
+    }
+
+    /**
+     * Query the value of a row
+     *
+     * @param rowIndex row cursor
+     * @return the value, which is undefined if it is null
+     */
+    public long getLong(int rowIndex) {
+        checkRowIndex(rowIndex);
+        return columnValues.longValues(rowIndex);
+    }
+
+    /**
+     * Copy the values of the rows into the array
+     *
+     * @param fromRowIndex the cursor of the first row
+     * @param dest         the destination array
+     * @param destPos      the position of the first value in the destination array
+     * @param length       the number of rows
+     */
+    public void copyTo(int fromRowIndex, long[] dest, int destPos, int length) {
+        checkRowRange(fromRowIndex, length, dest.length, destPos);
+        if (length == 0) {
+            return;
+        }
+        ByteBuffer vector = columnValues.longValuesAsByteBuffer();
+        if (vector == null) {
+            // the payload has no values, which read as 0 like getLong
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = columnValues.longValues(fromRowIndex + i);
+            }
+            return;
+        }
+        ByteBuffer values = vector.slice().order(ByteOrder.LITTLE_ENDIAN);
+        values.position(fromRowIndex * 8);
+        values.asLongBuffer().get(dest, destPos, length);
+    }
+
+    /**
+     * Returns the values of all the rows
+     *
+     * @return the values
+     */
+    public long[] toLongArray() {
+        long[] values = new long[rowCount()];
+        copyTo(0, values, 0, values.length);
+        return values;
+    }
+}
@@ -0,0 +1,69 @@
+package com.alicloud.openservices.tablestore.model.sql;
+
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.ColumnValues;
+import com.alicloud.openservices.tablestore.model.ColumnType;
+
+/**
+ * A column of a SQL dataset, which reads the values of the rows from the columnar payload without boxing them.
+ * The value of a row which is null is undefined, check it with {@link #isNull(int)}.
+ */
+public abstract class SQLColumn {
+
+    private final String name;
+
+    private final ColumnType columnType;
+
+    private final int rowCount;
+
+    protected final ColumnValues columnValues;
+
+    SQLColumn(String name, ColumnType columnType, int rowCount, ColumnValues columnValues) {
+        this.name = name;
+        this.columnType = columnType;
+        this.rowCount = rowCount;
+        this.columnValues = columnValues;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ColumnType getColumnType() {
+        return columnType;
+    }
+
+    /**
+     * Returns the total number of rows of the column
+     *
+     * @return total number of rows
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Whether the value of the row is null
+     *
+     * @param rowIndex row cursor
+     * @return true if the value is null
+     */
+    public boolean isNull(int rowIndex) {
+        checkRowIndex(rowIndex);
+        return columnValues.isNullvalues(rowIndex);
+    }
+
+    protected void checkRowIndex(int rowIndex) {
+        if (rowIndex >= rowCount || rowIndex < 0) {
+            throw new IllegalStateException("Row index " + rowIndex + " out of range");
+        }
+    }
+
+    protected void checkRowRange(int fromRowIndex, int length, int destLength, int destPos) {
+        if (fromRowIndex < 0 || length < 0 || fromRowIndex + length > rowCount) {
+            throw new IllegalStateException("Row range [" + fromRowIndex + ", " + (fromRowIndex + length) + ") out of range");
+        }
+        if (destPos < 0 || destPos + length > destLength) {
+            throw new IllegalArgumentException("The destination array is too small to copy " + length + " values from " + destPos);
+        }
+    }
+}
@@ -38,4 +38,85 @@ public interface SQLResultSet {
      */
     boolean absolute(int rowIndex);
 
+    /**
+     * Returns a column of 64-bit integers, whose values are read without boxing.
+     * The typed columns throw UnsupportedOperationException by default, for the implementations of the previous versions.
+     *
+     * @param columnIndex column cursor
+     * @return the column
+     */
+    default LongColumn getLongColumn(int columnIndex) {
+        throw new UnsupportedOperationException("The typed columns are only read from the columnar FlatBuffers payload.");
+    }
+
+    /**
+     * Returns a column of 64-bit integers, whose values are read without boxing
+     *
+     * @param name column name
+     * @return the column
+     */
+    default LongColumn getLongColumn(String name) {
+        return getLongColumn(SQLResultSetImpl.getColumnIndex(getSQLTableMeta(), name));
+    }
+
+    /**
+     * Returns a column of doubles, whose values are read without boxing
+     *
+     * @param columnIndex column cursor
+     * @return the column
+     */
+    default DoubleColumn getDoubleColumn(int columnIndex) {
+        throw new UnsupportedOperationException("The typed columns are only read from the columnar FlatBuffers payload.");
+    }
+
+    /**
+     * Returns a column of doubles, whose values are read without boxing
+     *
+     * @param name column name
+     * @return the column
+     */
+    default DoubleColumn getDoubleColumn(String name) {
+        return getDoubleColumn(SQLResultSetImpl.getColumnIndex(getSQLTableMeta(), name));
+    }
+
+    /**
+     * Returns a column of booleans, whose values are read without boxing
+     *
+     * @param columnIndex column cursor
+     * @return the column
+     */
+    default BooleanColumn getBooleanColumn(int columnIndex) {
+        throw new UnsupportedOperationException("The typed columns are only read from the columnar FlatBuffers payload.");
+    }
+
+    /**
+     * Returns a column of booleans, whose values are read without boxing
+     *
+     * @param name column name
+     * @return the column
+     */
+    default BooleanColumn getBooleanColumn(String name) {
+        return getBooleanColumn(SQLResultSetImpl.getColumnIndex(getSQLTableMeta(), name));
+    }
+
+    /**
+     * Returns a column of strings, whose dictionary is decoded once
+     *
+     * @param columnIndex column cursor
+     * @return the column
+     */
+    default StringColumn getStringColumn(int columnIndex) {
+        throw new UnsupportedOperationException("The typed columns are only read from the columnar FlatBuffers payload.");
+    }
+
+    /**
+     * Returns a column of strings, whose dictionary is decoded once
+     *
+     * @param name column name
+     * @return the column
+     */
+    default StringColumn getStringColumn(String name) {
+        return getStringColumn(SQLResultSetImpl.getColumnIndex(getSQLTableMeta(), name));
+    }
+
 }
@@ -51,4 +51,32 @@ public class SQLResultSetImpl implements SQLResultSet {
         }
     }
 
+    @Override
+    public LongColumn getLongColumn(int columnIndex) {
+        return sqlRows.getLongColumn(columnIndex);
+    }
+
+    @Override
+    public DoubleColumn getDoubleColumn(int columnIndex) {
+        return sqlRows.getDoubleColumn(columnIndex);
+    }
+
+    @Override
+    public BooleanColumn getBooleanColumn(int columnIndex) {
+        return sqlRows.getBooleanColumn(columnIndex);
+    }
+
+    @Override
+    public StringColumn getStringColumn(int columnIndex) {
+        return sqlRows.getStringColumn(columnIndex);
+    }
+
+    static int getColumnIndex(SQLTableMeta sqlTableMeta, String name) {
+        Integer columnIndex = sqlTableMeta.getColumnsMap().get(name);
+        if (columnIndex == null) {
+            throw new IllegalStateException("SQLResultSet doesn't contains field name: " + name);
+        }
+        return columnIndex;
+    }
+
 }
@@ -38,6 +38,8 @@ public class SQLRowsFBsColumnBased implements SQLRows {
 
     private long columnCount;
 
+    private SQLColumn[] columns;
+
     public SQLRowsFBsColumnBased(SQLResponseColumns columns) {
         this.columnNames = new String[columns.columnsLength()];
         this.columnTypes = new byte[columns.columnsLength()];
@@ -54,6 +56,7 @@ public class SQLRowsFBsColumnBased implements SQLRows {
         }
         this.rowCount = columns.rowCount();
         this.columnCount = columns.columnsLength();
+        this.columns = new SQLColumn[columns.columnsLength()];
         this.sqlTableMeta = resolveSQLTableMetaFromColumns();
     }
 
@@ -200,6 +203,61 @@ public class SQLRowsFBsColumnBased implements SQLRows {
         }
     }
 
+    @Override
+    public LongColumn getLongColumn(int columnIndex) {
+        ColumnType type = checkColumn(columnIndex, ColumnType.INTEGER, ColumnType.DATETIME, ColumnType.TIME, ColumnType.DATE);
+        if (type != ColumnType.INTEGER && columnComplexTypeInfos[columnIndex].columnEncodeType() != DataType.LONG) {
+            throw new UnsupportedOperationException("encoding Type need to be: " + DataType.LONG + " , but get: "
+                    + columnComplexTypeInfos[columnIndex].columnEncodeType());
+        }
+        if (columns[columnIndex] == null) {
+            columns[columnIndex] = new LongColumn(columnNames[columnIndex], type, (int) rowCount, columnValues[columnIndex]);
+        }
+        return (LongColumn) columns[columnIndex];
+    }
+
+    @Override
+    public DoubleColumn getDoubleColumn(int columnIndex) {
+        ColumnType type = checkColumn(columnIndex, ColumnType.DOUBLE);
+        if (columns[columnIndex] == null) {
+            columns[columnIndex] = new DoubleColumn(columnNames[columnIndex], type, (int) rowCount, columnValues[columnIndex]);
+        }
+        return (DoubleColumn) columns[columnIndex];
+    }
+
+    @Override
+    public BooleanColumn getBooleanColumn(int columnIndex) {
+        ColumnType type = checkColumn(columnIndex, ColumnType.BOOLEAN);
+        if (columns[columnIndex] == null) {
+            columns[columnIndex] = new BooleanColumn(columnNames[columnIndex], type, (int) rowCount, columnValues[columnIndex]);
+        }
+        return (BooleanColumn) columns[columnIndex];
+    }
+
+    @Override
+    public StringColumn getStringColumn(int columnIndex) {
+        ColumnType type = checkColumn(columnIndex, ColumnType.STRING);
+        if (columns[columnIndex] == null) {
+            RLEStringValues rleStringValue = columnTypes[columnIndex] == DataType.STRING_RLE ? rleStringValues[columnIndex] : null;
+            columns[columnIndex] = new StringColumn(columnNames[columnIndex], type, (int) rowCount, columnValues[columnIndex], rleStringValue);
+        }
+        return (StringColumn) columns[columnIndex];
+    }
+
+    private ColumnType checkColumn(int columnIndex, ColumnType... expectedTypes) {
+        if (columnIndex >= columnCount || columnIndex < 0) {
+            throw new IllegalStateException("Column index " + columnIndex + " out of range");
+        }
+        ColumnType type = sqlTableMeta.getSchema().get(columnIndex).getType();
+        for (ColumnType expectedType : expectedTypes) {
+            if (type == expectedType) {
+                return type;
+            }
+        }
+        throw new UnsupportedOperationException("Column type collates failed, response type: " + expectedTypes[0] +
+                ", but the real is: " + type);
+    }
+
     private String resolveRLEString(RLEStringValues rleStringValue, int rowIndex) {
         return rleStringValue.array(rleStringValue.indexMapping(rowIndex));
     }
@@ -0,0 +1,120 @@
+package com.alicloud.openservices.tablestore.model.sql;
+
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.ColumnValues;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.RLEStringValues;
+import com.alicloud.openservices.tablestore.model.ColumnType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A column of strings. A dictionary encoded (RLE) column is read as the indexes of the rows in its dictionary,
+ * and each string of the dictionary is decoded once, so reading the rows does not allocate.
+ * A plain column is seen as a column whose dictionary is its rows.
+ */
+public class StringColumn extends SQLColumn {
+
+    private final RLEStringValues rleStringValues;
+
+    private String[] dictionary;
+
+    StringColumn(String name, ColumnType columnType, int rowCount, ColumnValues columnValues, RLEStringValues rleStringValues) {
+        super(name, columnType, rowCount, columnValues);
+        this.rleStringValues = rleStringValues;
+    }
+
+    /**
+     * Whether the column is encoded with a dictionary
+     *
+     * @return true if the strings of the rows are indexes in the dictionary
+     */
+    public boolean isDictionaryEncoded() {
+        return rleStringValues != null;
+    }
+
+    /**
+     * Query the value of a row
+     *
+     * @param rowIndex row cursor
+     * @return the value, which is undefined if it is null
+     */
+    public String getString(int rowIndex) {
+        checkRowIndex(rowIndex);
+        if (rleStringValues == null) {
+            return columnValues.stringValues(rowIndex);
+        }
+        return getDictionary()[rleStringValues.indexMapping(rowIndex)];
+    }
+
+    /**
+     * Returns the number of the strings in the dictionary
+     *
+     * @return the size of the dictionary
+     */
+    public int getDictionarySize() {
+        return rleStringValues == null ? rowCount() : rleStringValues.arrayLength();
+    }
+
+    /**
+     * Query the string of the dictionary
+     *
+     * @param dictionaryIndex the index in the dictionary
+     * @return the string
+     */
+    public String getDictionaryValue(int dictionaryIndex) {
+        if (dictionaryIndex >= getDictionarySize() || dictionaryIndex < 0) {
+            throw new IllegalStateException("Dictionary index " + dictionaryIndex + " out of range");
+        }
+        if (rleStringValues == null) {
+            return columnValues.stringValues(dictionaryIndex);
+        }
+        return getDictionary()[dictionaryIndex];
+    }
+
+    /**
+     * Query the index of the string of a row in the dictionary. The rows of the same index have the same string,
+     * so they can be grouped by it.
+     *
+     * @param rowIndex row cursor
+     * @return the index in the dictionary
+     */
+    public int getDictionaryIndex(int rowIndex) {
+        checkRowIndex(rowIndex);
+        return rleStringValues == null ? rowIndex : rleStringValues.indexMapping(rowIndex);
+    }
+
+    /**
+     * Copy the indexes of the strings of the rows in the dictionary into the array
+     *
+     * @param fromRowIndex the cursor of the first row
+     * @param dest         the destination array
+     * @param destPos      the position of the first index in the destination array
+     * @param length       the number of rows
+     */
+    public void copyDictionaryIndexesTo(int fromRowIndex, int[] dest, int destPos, int length) {
+        checkRowRange(fromRowIndex, length, dest.length, destPos);
+        if (length == 0) {
+            return;
+        }
+        if (rleStringValues == null) {
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = fromRowIndex + i;
+            }
+            return;
+        }
+        ByteBuffer indexes = rleStringValues.indexMappingAsByteBuffer().slice().order(ByteOrder.LITTLE_ENDIAN);
+        indexes.position(fromRowIndex * 4);
+        indexes.asIntBuffer().get(dest, destPos, length);
+    }
+
+    private String[] getDictionary() {
+        if (dictionary == null) {
+            String[] strings = new String[rleStringValues.arrayLength()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = rleStringValues.array(i);
+            }
+            dictionary = strings;
+        }
+        return dictionary;
+    }
+}
@@ -9,9 +9,17 @@ import java.util.*;
 
 public class TimeseriesKey implements Comparable<TimeseriesKey> {
 
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
     private final String measurementName;
     private final String dataSource;
     private final SortedMap<String, String> tags = new TreeMap<String, String>();
+    /**
+     * The hash of the measurement, the data source and the tags, see {@link #getMetaCacheHash(String)}.
+     */
+    private final long seriesHash;
 
     public TimeseriesKey(String measurementName, String dataSource) {
         this(measurementName, dataSource, null);
@@ -31,6 +39,13 @@ public class TimeseriesKey implements Comparable<TimeseriesKey> {
         if (tags != null) {
             this.tags.putAll(tags);
         }
+        long hash = hashString(FNV_OFFSET_BASIS, this.measurementName);
+        hash = hashString(hash, this.dataSource);
+        for (Map.Entry<String, String> entry : this.tags.entrySet()) {
+            hash = hashString(hash, entry.getKey());
+            hash = hashString(hash, entry.getValue());
+        }
+        this.seriesHash = hash;
     }
 
     public String getMeasurementName() {
@@ -69,6 +84,40 @@ public class TimeseriesKey implements Comparable<TimeseriesKey> {
         return sb.toString();
     }
 
+    /**
+     * The 64-bit hash of the table name and this timeseries, which is the key of the meta cache of the client.
+     * Unlike {@link #buildMetaCacheKey(String)}, it does not allocate.
+     */
+    public long getMetaCacheHash(String tableName) {
+        return mix(hashString(FNV_OFFSET_BASIS, tableName) * GOLDEN_GAMMA + seriesHash);
+    }
+
+    /**
+     * FNV-1a of the length and the chars of the string, the length separates the adjacent strings.
+     */
+    private static long hashString(long hash, String s) {
+        if (s == null) {
+            return (hash ^ -1L) * FNV_PRIME;
+        }
+        hash = (hash ^ s.length()) * FNV_PRIME;
+        for (int i = 0; i < s.length(); i++) {
+            hash = (hash ^ s.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * The finalizer of MurmurHash3, which spreads every bit of the input over the output.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
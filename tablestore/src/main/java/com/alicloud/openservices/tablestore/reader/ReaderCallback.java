@@ -12,6 +12,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import com.alicloud.openservices.tablestore.AsyncClientInterface;
 import com.alicloud.openservices.tablestore.TableStoreCallback;
 import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.core.RowCache;
 import com.alicloud.openservices.tablestore.model.BatchGetRowRequest;
 import com.alicloud.openservices.tablestore.model.BatchGetRowResponse;
 import com.alicloud.openservices.tablestore.model.Error;
@@ -34,6 +35,9 @@ public class ReaderCallback<Req, Res> implements TableStoreCallback<Req, Res> {
     private final Map<String, List<ReaderGroup>> groupMap;
     private final Logger logger = LoggerFactory.getLogger(ReaderCallback.class);
     private final TableStoreCallback<PrimaryKeyWithTable, RowReadResult> callback;
+    private final RowCache rowCache;
+    // The callback is created right before the request is sent.
+    private final long sentAtNanos = System.nanoTime();
 
     public ReaderCallback(
             AsyncClientInterface ots,
@@ -52,6 +56,7 @@ public class ReaderCallback<Req, Res> implements TableStoreCallback<Req, Res> {
         this.bucketSemaphore = bucketSemaphore;
         this.statistics = statistics;
         this.groupMap = groupMap;
+        this.rowCache = ReaderUtils.getRowCache(ots);
     }
 
     @Override
@@ -68,6 +73,7 @@ public class ReaderCallback<Req, Res> implements TableStoreCallback<Req, Res> {
             for (BatchGetRowResponse.RowResult status : succeed) {
                 ReaderGroup group = groupMap.get(status.getTableName()).get(status.getIndex());
                 PrimaryKey primaryKey = request.getPrimaryKey(status.getTableName(), status.getIndex());
+                cacheRow(request.getCriteria(status.getTableName()), primaryKey, status);
                 triggerSucceedCallback(status, group, primaryKey);
             }
 
@@ -98,6 +104,13 @@ public class ReaderCallback<Req, Res> implements TableStoreCallback<Req, Res> {
         requestComplete();
     }
 
+    private void cacheRow(MultiRowQueryCriteria criteria, PrimaryKey primaryKey, BatchGetRowResponse.RowResult rowResult) {
+        // a wide row with a next token is partial, a cache hit would return it as complete
+        if (rowCache != null && RowCache.isCacheable(criteria) && !rowResult.hasNextToken()) {
+            rowCache.put(rowResult.getTableName(), primaryKey, criteria.getColumnsToGet(), rowResult.getRow(), sentAtNanos);
+        }
+    }
+
     private void triggerSucceedCallback(final BatchGetRowResponse.RowResult rowResult, final ReaderGroup group, final PrimaryKey primaryKey) {
         statistics.totalSucceedRowsCount.incrementAndGet();
         group.succeedOneRow(primaryKey, rowResult);
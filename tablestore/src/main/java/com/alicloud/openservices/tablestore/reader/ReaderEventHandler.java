@@ -65,8 +65,8 @@ public class ReaderEventHandler implements EventHandler<ReaderEvent> {
             statistics.totalRowsCount.incrementAndGet();
             final PrimaryKeyWithTable primaryKeyWithTable = readerEvent.pkWithTable;
             final PkWithGroup pkWithGroup = new PkWithGroup(primaryKeyWithTable, readerEvent.readerGroup);
-            boolean succeed = requestManager.appendPrimaryKey(pkWithGroup);
-            if (!succeed) {
+            // A row served by the row cache of the client is not read from the server.
+            if (!requestManager.completeFromCache(pkWithGroup) && !requestManager.appendPrimaryKey(pkWithGroup)) {
                 // Indicates that the request size has reached the upper limit.
                 reqWithGroups = requestManager.makeRequest();
                 requestManager.appendPrimaryKey(pkWithGroup);
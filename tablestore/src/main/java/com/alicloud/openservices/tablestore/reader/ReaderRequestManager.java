@@ -11,8 +11,13 @@ import java.util.concurrent.Semaphore;
 
 import com.alicloud.openservices.tablestore.AsyncClientInterface;
 import com.alicloud.openservices.tablestore.TableStoreCallback;
+import com.alicloud.openservices.tablestore.core.RowCache;
 import com.alicloud.openservices.tablestore.model.BatchGetRowRequest;
+import com.alicloud.openservices.tablestore.model.BatchGetRowResponse;
+import com.alicloud.openservices.tablestore.model.CapacityUnit;
+import com.alicloud.openservices.tablestore.model.ConsumedCapacity;
 import com.alicloud.openservices.tablestore.model.MultiRowQueryCriteria;
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
 import com.alicloud.openservices.tablestore.model.RowQueryCriteria;
 
 public class ReaderRequestManager {
@@ -28,7 +33,11 @@ public class ReaderRequestManager {
     // Store table-level RowQueryCriteria information, such as columnsToGet, MaxVersion, etc.
     private final Map<String, RowQueryCriteria> criteriaSetting;
     private final Map<String, List<ReaderGroup>> groupMap;
+    private final RowCache rowCache;
+    // The criteria the rows of each table are read with, to look them up in the row cache.
+    private final Map<String, MultiRowQueryCriteria> cacheCriteria;
     private ReaderCallbackFactory callbackFactory;
+    private TableStoreCallback<PrimaryKeyWithTable, RowReadResult> callback;
     private int totalPksCount;
 
     public ReaderRequestManager(
@@ -45,6 +54,8 @@ public class ReaderRequestManager {
         this.executor = executor;
         this.bucketSemaphore = bucketSemaphore;
         this.statistics = statistics;
+        this.callback = callback;
+        this.rowCache = ReaderUtils.getRowCache(ots);
 
         callbackFactory = new ReaderCallbackFactory(ots, callbackSemaphore, callback, executor, bucketSemaphore, statistics);
 
@@ -52,6 +63,7 @@ public class ReaderRequestManager {
         criteriaMap = new HashMap<String, MultiRowQueryCriteria>();
         criteriaSetting = new HashMap<String, RowQueryCriteria>();
         groupMap = new HashMap<String, List<ReaderGroup>>();
+        cacheCriteria = new HashMap<String, MultiRowQueryCriteria>();
     }
 
     public int getTotalPksCount() {
@@ -93,6 +105,47 @@ public class ReaderRequestManager {
         return true;
     }
 
+    /**
+     * Completes the row from the row cache of the client.
+     *
+     * @return false if the row is not cached, then it should be read from the server.
+     */
+    public boolean completeFromCache(PkWithGroup pkWithGroup) {
+        if (rowCache == null) {
+            return false;
+        }
+        final String tableName = pkWithGroup.primaryKeyWithTable.getTableName();
+        final PrimaryKey primaryKey = pkWithGroup.primaryKeyWithTable.getPrimaryKey();
+        MultiRowQueryCriteria criteria = cacheCriteria.get(tableName);
+        if (criteria == null) {
+            criteria = newCriteria(tableName);
+            cacheCriteria.put(tableName, criteria);
+        }
+        if (!RowCache.isCacheable(criteria)) {
+            return false;
+        }
+        RowCache.Entry entry = rowCache.get(tableName, primaryKey, criteria.getColumnsToGet());
+        if (entry == null) {
+            statistics.totalCacheMissRowsCount.incrementAndGet();
+            return false;
+        }
+        statistics.totalCacheHitRowsCount.incrementAndGet();
+        statistics.totalSucceedRowsCount.incrementAndGet();
+        final BatchGetRowResponse.RowResult rowResult = new BatchGetRowResponse.RowResult(
+                tableName, entry.getRow(), new ConsumedCapacity(new CapacityUnit(0, 0)), 0);
+        pkWithGroup.readerGroup.succeedOneRow(primaryKey, rowResult);
+        final TableStoreCallback<PrimaryKeyWithTable, RowReadResult> callback = this.callback;
+        if (callback != null) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    callback.onCompleted(new PrimaryKeyWithTable(tableName, primaryKey), new RowReadResult(primaryKey, rowResult));
+                }
+            });
+        }
+        return true;
+    }
+
     public void sendRequest(ReqWithGroups reqWithGroups) {
         BatchGetRowRequest finalRequest = reqWithGroups.getRequest();
         ots.batchGetRow(finalRequest, callbackFactory.newInstance(reqWithGroups.getGroupMap()));
@@ -101,6 +154,7 @@ public class ReaderRequestManager {
     public void setRowQueryCriteria(RowQueryCriteria rowQueryCriteria) {
         String tableName = rowQueryCriteria.getTableName();
         this.criteriaSetting.put(tableName, rowQueryCriteria);
+        this.cacheCriteria.remove(tableName);
         if (criteriaMap.containsKey(tableName)) {
             criteriaMap.get(tableName).clearColumnsToGet();
             rowQueryCriteria.copyTo(criteriaMap.get(tableName));
@@ -108,24 +162,29 @@ public class ReaderRequestManager {
     }
 
     public void setCallback(TableStoreCallback<PrimaryKeyWithTable, RowReadResult> callback) {
+        this.callback = callback;
         callbackFactory = new ReaderCallbackFactory(ots, callbackSemaphore, callback, executor, bucketSemaphore, statistics);
     }
 
     private void prepareCriteriaMap(String tableName) {
         if (!criteriaMap.containsKey(tableName)) {
-            MultiRowQueryCriteria multiRowQueryCriteria = new MultiRowQueryCriteria(tableName);
-            multiRowQueryCriteria.setMaxVersions(config.getDefaultMaxVersions());
-            if (criteriaSetting.containsKey(tableName)) {
-                multiRowQueryCriteria.clearColumnsToGet();
-                criteriaSetting.get(tableName).copyTo(multiRowQueryCriteria);
-            }
-            criteriaMap.put(tableName, multiRowQueryCriteria);
+            criteriaMap.put(tableName, newCriteria(tableName));
         }
         if (!groupMap.containsKey(tableName)) {
             groupMap.put(tableName, new ArrayList<ReaderGroup>());
         }
     }
 
+    private MultiRowQueryCriteria newCriteria(String tableName) {
+        MultiRowQueryCriteria multiRowQueryCriteria = new MultiRowQueryCriteria(tableName);
+        multiRowQueryCriteria.setMaxVersions(config.getDefaultMaxVersions());
+        if (criteriaSetting.containsKey(tableName)) {
+            multiRowQueryCriteria.clearColumnsToGet();
+            criteriaSetting.get(tableName).copyTo(multiRowQueryCriteria);
+        }
+        return multiRowQueryCriteria;
+    }
+
     private Map<String, List<ReaderGroup>> deepCopyMap() {
         Map<String, List<ReaderGroup>> copy = new HashMap<String, List<ReaderGroup>>();
         for (Map.Entry<String, List<ReaderGroup>> entry : groupMap.entrySet()) {
@@ -8,6 +8,8 @@ public class ReaderStatistics {
     AtomicLong totalSucceedRowsCount = new AtomicLong(0);
     AtomicLong totalFailedRowsCount = new AtomicLong(0);
     AtomicLong totalSingleRowRequestCount = new AtomicLong(0);
+    AtomicLong totalCacheHitRowsCount = new AtomicLong(0);
+    AtomicLong totalCacheMissRowsCount = new AtomicLong(0);
 
     public ReaderStatistics() {
 
@@ -33,6 +35,26 @@ public class ReaderStatistics {
         return totalSingleRowRequestCount.longValue();
     }
 
+    /**
+     * The rows served by the row cache of the client, see {@link com.alicloud.openservices.tablestore.RowCacheConfiguration}.
+     */
+    public long getTotalCacheHitRowsCount() {
+        return totalCacheHitRowsCount.longValue();
+    }
+
+    public long getTotalCacheMissRowsCount() {
+        return totalCacheMissRowsCount.longValue();
+    }
+
+    /**
+     * @return the ratio of the rows looked up in the row cache which were served by it, or 0 if there was no lookup.
+     */
+    public double getCacheHitRate() {
+        long hits = totalCacheHitRowsCount.get();
+        long lookups = hits + totalCacheMissRowsCount.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
     public String toString() {
         StringBuilder builder = new StringBuilder();
         builder.append("ReaderStatistics: {\n")
@@ -41,6 +63,8 @@ public class ReaderStatistics {
                 .append("    totalSucceedRowsCount=").append(totalSucceedRowsCount.get()).append(",\n")
                 .append("    totalFailedRowsCount=").append(totalFailedRowsCount.get()).append(",\n")
                 .append("    totalSingleRowRequestCount=").append(totalSingleRowRequestCount.get()).append(",\n")
+                .append("    totalCacheHitRowsCount=").append(totalCacheHitRowsCount.get()).append(",\n")
+                .append("    totalCacheMissRowsCount=").append(totalCacheMissRowsCount.get()).append(",\n")
                 .append("}");
 
         return builder.toString();
@@ -2,7 +2,10 @@ package com.alicloud.openservices.tablestore.reader;
 
 import java.util.Map;
 
+import com.alicloud.openservices.tablestore.AsyncClient;
+import com.alicloud.openservices.tablestore.AsyncClientInterface;
 import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.core.RowCache;
 import com.alicloud.openservices.tablestore.model.PrimaryKey;
 import com.alicloud.openservices.tablestore.model.PrimaryKeyColumn;
 import com.alicloud.openservices.tablestore.model.PrimaryKeyType;
@@ -10,6 +13,13 @@ import com.alicloud.openservices.tablestore.model.TableMeta;
 
 public class ReaderUtils {
 
+    /**
+     * @return the row cache of the client, which is shared with its writes, or null if it has none.
+     */
+    public static RowCache getRowCache(AsyncClientInterface ots) {
+        return ots instanceof AsyncClient ? ((AsyncClient) ots).getRowCache() : null;
+    }
+
     public static void checkTableMeta(TableMeta meta, PrimaryKey primaryKey) {
         if (meta.getPrimaryKeyList().size() != primaryKey.size()) {
             throw new ClientException("In table:" + meta.getTableName() + ", the size of primaryKey:" + primaryKey.size() + " is not equals to that of the table meta:" + meta.getPrimaryKeyList().size() + ".");
@@ -10,6 +10,7 @@ public class TimeseriesWriterHandleStatistics implements WriterStatistics {
     AtomicLong totalSucceedRowsCount = new AtomicLong(0);
     AtomicLong totalFailedRowsCount = new AtomicLong(0);
     AtomicLong totalSingleRowRequestCount = new AtomicLong(0);
+    AtomicLong concurrencyLimit = new AtomicLong(0);
 
     public TimeseriesWriterHandleStatistics() {
 
@@ -61,6 +62,15 @@ public class TimeseriesWriterHandleStatistics implements WriterStatistics {
         return totalSingleRowRequestCount.longValue();
     }
 
+    @Override
+    public long getConcurrencyLimit() {
+        return concurrencyLimit.longValue();
+    }
+
+    public void setConcurrencyLimit(long concurrencyLimit) {
+        this.concurrencyLimit.set(concurrencyLimit);
+    }
+
     public String toString() {
         StringBuilder builder = new StringBuilder();
         builder.append("WriterStatistics: {\n")
@@ -69,6 +79,7 @@ public class TimeseriesWriterHandleStatistics implements WriterStatistics {
                 .append("    totalSucceedRowsCount=").append(totalSucceedRowsCount.get()).append(",\n")
                 .append("    totalFailedRowsCount=").append(totalFailedRowsCount.get()).append(",\n")
                 .append("    totalSingleRowRequestCount=").append(totalSingleRowRequestCount.get()).append(",\n")
+                .append("    concurrencyLimit=").append(concurrencyLimit.get()).append(",\n")
                 .append("}");
 
         return builder.toString();
@@ -25,6 +25,7 @@ public class AggregatorLongAverage implements Aggregator<Long> {
     @Override
     public void add(Long v) {
         sum += v;
+        count++;
     }
 
     @Override
@@ -32,7 +33,7 @@ public class AggregatorLongAverage implements Aggregator<Long> {
         if (count == 0) {
             return ColumnValue.fromDouble(0);
         }
-        return ColumnValue.fromDouble(sum / count);
+        return ColumnValue.fromDouble((double) sum / count);
     }
 
     @Override
@@ -0,0 +1,120 @@
+package com.alicloud.openservices.tablestore.timestream.model.aggregator;
+
+import com.alicloud.openservices.tablestore.ClientException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The aggregation of the values of a field in a time bucket, see {@link Downsampler}.
+ * The timestamps are in microseconds, as the timestamps of the data points.
+ */
+public class DownsampleBucket {
+    private final long startTime;
+    private long count = 0;
+    private double sum = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double last = Double.NaN;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private final QuantileSketch sketch;
+
+    DownsampleBucket(long startTime, QuantileSketch sketch) {
+        this.startTime = startTime;
+        this.sketch = sketch;
+    }
+
+    void add(long timestamp, double value) {
+        count++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        // the points of a timeline may be read in descending order
+        if (timestamp >= lastTimestamp) {
+            last = value;
+            lastTimestamp = timestamp;
+        }
+        if (sketch != null) {
+            sketch.add(value);
+        }
+    }
+
+    void merge(DownsampleBucket other) {
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        if (other.lastTimestamp > lastTimestamp) {
+            last = other.last;
+            lastTimestamp = other.lastTimestamp;
+        }
+        if (sketch != null) {
+            sketch.merge(other.sketch);
+        }
+    }
+
+    /**
+     * @return the start of the bucket, in microseconds.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getStartTime(TimeUnit unit) {
+        return unit.convert(startTime, TimeUnit.MICROSECONDS);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getAverage() {
+        return sum / count;
+    }
+
+    /**
+     * @return the value of the latest point of the bucket.
+     */
+    public double getLast() {
+        return last;
+    }
+
+    /**
+     * @return the timestamp of the latest point of the bucket, in microseconds.
+     */
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * @param quantile The quantile, in [0, 1], e.g. 0.99 for the 99th percentile.
+     * @return the estimated value of the quantile, within the relative accuracy of the {@link Downsampler}.
+     */
+    public double getPercentile(double quantile) {
+        if (sketch == null) {
+            throw new ClientException("The percentiles are not enabled for the Downsampler.");
+        }
+        return sketch.getQuantile(quantile);
+    }
+
+    @Override
+    public String toString() {
+        return "{startTime:" + startTime + ", count:" + count + ", sum:" + sum + ", min:" + min + ", max:" + max
+                + ", last:" + last + "}";
+    }
+}
@@ -0,0 +1,228 @@
+package com.alicloud.openservices.tablestore.timestream.model.aggregator;
+
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.model.ColumnValue;
+import com.alicloud.openservices.tablestore.timestream.model.Point;
+import com.alicloud.openservices.tablestore.timestream.model.query.DataGetter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downsamples the values of a field of data points into time buckets: count, sum, min, max, average, last and,
+ * if enabled, percentiles.
+ * <p>
+ * The points are aggregated as they are read, only the accumulators of the buckets are kept. The timelines can be
+ * aggregated in parallel, each one into its own partial buckets, which are merged into the buckets of the downsampler.
+ * The points without the field are skipped, the field must be an INTEGER or a DOUBLE.
+ * </p>
+ */
+public class Downsampler {
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    private final String field;
+    private final long bucketSizeInMicros;
+    private double relativeAccuracy = -1;
+    private final TreeMap<Long, DownsampleBucket> buckets = new TreeMap<Long, DownsampleBucket>();
+    private DownsampleBucket lastBucket;
+    private long pointCount = 0;
+
+    /**
+     * @param field      The field to aggregate.
+     * @param bucketSize The size of the time buckets, the buckets start at the multiples of the size.
+     * @param unit       The unit of the bucket size.
+     */
+    public Downsampler(String field, long bucketSize, TimeUnit unit) {
+        if (field == null || field.isEmpty()) {
+            throw new ClientException("The field must not be empty.");
+        }
+        if (unit.toMicros(bucketSize) <= 0) {
+            throw new ClientException("The bucket size must be at least one microsecond.");
+        }
+        this.field = field;
+        this.bucketSizeInMicros = unit.toMicros(bucketSize);
+    }
+
+    /**
+     * Enables the percentiles of the buckets, estimated with the default relative accuracy.
+     */
+    public Downsampler withPercentiles() {
+        return withPercentiles(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * Enables the percentiles of the buckets.
+     *
+     * @param relativeAccuracy The max relative error of the percentiles, in (0, 1). The memory of a bucket grows
+     *                         with the log of the ratio of its largest and smallest values, divided by the accuracy.
+     */
+    public Downsampler withPercentiles(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new ClientException("The relative accuracy must be in (0, 1).");
+        }
+        if (pointCount > 0) {
+            throw new ClientException("The percentiles must be enabled before adding points.");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        return this;
+    }
+
+    private Downsampler newPartial() {
+        Downsampler partial = new Downsampler(field, bucketSizeInMicros, TimeUnit.MICROSECONDS);
+        partial.relativeAccuracy = relativeAccuracy;
+        return partial;
+    }
+
+    public void add(Point point) {
+        ColumnValue value = point.getField(field);
+        if (value == null) {
+            return;
+        }
+        switch (value.getType()) {
+            case INTEGER:
+                add(point.getTimestamp(), value.asLong());
+                return;
+            case DOUBLE:
+                add(point.getTimestamp(), value.asDouble());
+                return;
+            default:
+                throw new ClientException("The field " + field + " must be an INTEGER or a DOUBLE, but is " + value.getType());
+        }
+    }
+
+    /**
+     * @param timestamp The timestamp of the value, in microseconds.
+     */
+    public void add(long timestamp, double value) {
+        // the buckets of the negative timestamps start at or before them too
+        long startTime = timestamp - Math.floorMod(timestamp, bucketSizeInMicros);
+        // the points of a timeline come in order, so they mostly fall in the bucket of the previous one
+        DownsampleBucket bucket = lastBucket;
+        if (bucket == null || bucket.getStartTime() != startTime) {
+            bucket = buckets.get(startTime);
+            if (bucket == null) {
+                bucket = newBucket(startTime);
+                buckets.put(startTime, bucket);
+            }
+            lastBucket = bucket;
+        }
+        bucket.add(timestamp, value);
+        pointCount++;
+    }
+
+    private DownsampleBucket newBucket(long startTime) {
+        return new DownsampleBucket(startTime, relativeAccuracy > 0 ? new QuantileSketch(relativeAccuracy) : null);
+    }
+
+    /**
+     * Aggregates the points of a timeline, such as the {@link DataGetter#fetchAll()} of a timeline.
+     */
+    public Downsampler addAll(Iterator<Point> points) {
+        while (points.hasNext()) {
+            add(points.next());
+        }
+        return this;
+    }
+
+    /**
+     * Aggregates the timelines of the getters in parallel, each one into partial buckets merged into the buckets.
+     * If a timeline fails, none of the timelines is merged.
+     *
+     * @param getters  The getters of the timelines, fetched in the executor.
+     * @param executor The executor running the partial aggregations.
+     */
+    public Downsampler addAll(List<DataGetter> getters, ExecutorService executor) {
+        List<Callable<Iterator<Point>>> timelines = new ArrayList<Callable<Iterator<Point>>>(getters.size());
+        for (final DataGetter getter : getters) {
+            timelines.add(new Callable<Iterator<Point>>() {
+                @Override
+                public Iterator<Point> call() {
+                    return getter.fetchAll();
+                }
+            });
+        }
+        return addAllTimelines(timelines, executor);
+    }
+
+    /**
+     * Aggregates the timelines in parallel, see {@link #addAll(List, ExecutorService)}.
+     *
+     * @param timelines The timelines, each one opened and read in the executor.
+     */
+    public Downsampler addAllTimelines(List<Callable<Iterator<Point>>> timelines, ExecutorService executor) {
+        List<Future<Downsampler>> partials = new ArrayList<Future<Downsampler>>(timelines.size());
+        for (final Callable<Iterator<Point>> timeline : timelines) {
+            partials.add(executor.submit(new Callable<Downsampler>() {
+                @Override
+                public Downsampler call() throws Exception {
+                    return newPartial().addAll(timeline.call());
+                }
+            }));
+        }
+        // merge every partial as it is done, so that the partials of the finished timelines are released, but into
+        // a total which is only merged once all the timelines are done
+        Downsampler total = newPartial();
+        try {
+            for (Future<Downsampler> partial : partials) {
+                total.merge(partial.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException(String.format("The thread was interrupted: %s", e.getMessage()));
+        } catch (ExecutionException e) {
+            for (Future<Downsampler> partial : partials) {
+                partial.cancel(true);
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ClientException("Failed to aggregate the timeline.", e.getCause());
+        }
+        merge(total);
+        return this;
+    }
+
+    /**
+     * Merges the buckets of another downsampler of the same field, bucket size and percentiles.
+     */
+    public void merge(Downsampler other) {
+        if (other.bucketSizeInMicros != bucketSizeInMicros || other.relativeAccuracy != relativeAccuracy) {
+            throw new ClientException("The downsamplers must have the same bucket size and percentiles.");
+        }
+        for (Map.Entry<Long, DownsampleBucket> entry : other.buckets.entrySet()) {
+            DownsampleBucket bucket = buckets.get(entry.getKey());
+            if (bucket == null) {
+                bucket = newBucket(entry.getKey());
+                buckets.put(entry.getKey(), bucket);
+            }
+            bucket.merge(entry.getValue());
+        }
+        pointCount += other.pointCount;
+    }
+
+    /**
+     * @return the buckets with at least one point, in ascending order of time.
+     */
+    public List<DownsampleBucket> getBuckets() {
+        return new ArrayList<DownsampleBucket>(buckets.values());
+    }
+
+    /**
+     * @return the count of the points aggregated.
+     */
+    public long getPointCount() {
+        return pointCount;
+    }
+
+    public String getField() {
+        return field;
+    }
+}
@@ -0,0 +1,141 @@
+package com.alicloud.openservices.tablestore.timestream.model.aggregator;
+
+/**
+ * Estimates the quantiles of a stream of values with a bounded relative error, without keeping the values.<br/>
+ * The values are counted in buckets growing exponentially by gamma = (1 + a) / (1 - a), so that any value of a bucket
+ * is within the relative accuracy a of the value returned for the bucket. The sketches of the parts of a stream can be
+ * merged.
+ */
+final class QuantileSketch {
+    /**
+     * The values smaller in magnitude are counted as 0.
+     */
+    private static final double MIN_INDEXABLE_VALUE = 1e-9;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final BucketStore positives = new BucketStore();
+    private final BucketStore negatives = new BucketStore();
+    private long zeroCount;
+    private long count;
+
+    QuantileSketch(double relativeAccuracy) {
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Adds a value, the values which are not finite are ignored.
+     */
+    void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        if (value > MIN_INDEXABLE_VALUE) {
+            positives.add(index(value), 1);
+        } else if (value < -MIN_INDEXABLE_VALUE) {
+            negatives.add(index(-value), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+    }
+
+    void merge(QuantileSketch other) {
+        if (other.gamma != gamma) {
+            throw new IllegalArgumentException("The sketches must have the same relative accuracy.");
+        }
+        positives.merge(other.positives);
+        negatives.merge(other.negatives);
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    /**
+     * @param quantile The quantile, in [0, 1].
+     * @return the estimated value of the quantile, or NaN if there is no value.
+     */
+    double getQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("The quantile must be in [0, 1].");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (quantile * (count - 1));
+        // the negative values in ascending order, i.e. from the largest magnitude
+        long seen = 0;
+        for (int i = negatives.counts.length - 1; i >= 0; i--) {
+            seen += negatives.counts[i];
+            if (seen > rank) {
+                return -value(negatives.offset + i);
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < positives.counts.length; i++) {
+            seen += positives.counts[i];
+            if (seen > rank) {
+                return value(positives.offset + i);
+            }
+        }
+        // unreachable, as the counts of the stores add up to count
+        return value(positives.offset + positives.counts.length - 1);
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    /**
+     * The counts of the buckets of indexes [offset, offset + counts.length).
+     */
+    private static final class BucketStore {
+        private static final long[] EMPTY = new long[0];
+
+        private long[] counts = EMPTY;
+        private int offset;
+
+        void add(int index, long n) {
+            if (counts.length == 0) {
+                counts = new long[16];
+                offset = index - 8;
+            } else if (index < offset || index >= offset + counts.length) {
+                int min = Math.min(index, offset);
+                int max = Math.max(index, offset + counts.length - 1);
+                // leave room on both sides, as the values tend to spread around the first ones
+                int slack = (max - min + 1) / 2;
+                long[] grown = new long[max - min + 1 + 2 * slack];
+                int newOffset = min - slack;
+                System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+                counts = grown;
+                offset = newOffset;
+            }
+            counts[index - offset] += n;
+        }
+
+        void merge(BucketStore other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.alicloud.openservices.tablestore.AsyncClient;
 import com.alicloud.openservices.tablestore.ClientException;
 import com.alicloud.openservices.tablestore.model.filter.Filter;
 import com.alicloud.openservices.tablestore.timestream.model.*;
+import com.alicloud.openservices.tablestore.timestream.model.aggregator.Downsampler;
 
 import java.util.concurrent.TimeUnit;
 
@@ -88,6 +89,15 @@ public class DataGetter extends DataQuery {
         return getTimestream();
     }
 
+    /**
+     * Query and aggregate the points into the time buckets of the downsampler, without keeping them
+     * @param downsampler {@link Downsampler}, the field and time buckets to aggregate
+     * @return The downsampler
+     */
+    public Downsampler downsample(Downsampler downsampler) {
+        return downsampler.addAll(fetchAll());
+    }
+
     private PointIterator getTimestream() {
         return getTimestream(identifier);
     }
@@ -23,6 +23,8 @@ import static com.alicloud.openservices.tablestore.core.protocol.ResponseFactory
  * ProcessDataPipeline is a cyclic pipeline task on ChannelConnect for executing data reading and data processing. 
  * Each stage can specify its particular execution resources (thread pool). Each stage of the task will only occupy the processing resources of the corresponding stage, without direct interference between stages. The relevant thread pool configurations are in TunnelWorkerConfig (readRecordsExecutor && processRecordsExecutor).
  * When each round of data reading and data processing is completed without any errors, a new processing cycle will start immediately.
+ * If read records prefetch is enabled, the next round is read while the current round is being processed, so the network and the processor
+ * are busy at the same time. At most one round (readMaxBytesPerRound) is prefetched per channel, and the rounds are still processed in order.
  */
 public class ProcessDataPipeline implements Runnable {
     private static final Logger LOG = LoggerFactory.getLogger(ProcessDataPipeline.class);
@@ -34,6 +36,8 @@ public class ProcessDataPipeline implements Runnable {
     private Semaphore semaphore;
     private int readMaxTimesPerRound = 1;
     private int readMaxBytesPerRound = 4 * 1024 * 1024; // 4M bytes
+    private boolean enableReadRecordsPrefetch = false;
+    private volatile PrefetchedRound prefetchedRound;
 
     /**
      * pipelineHelperExecutor is used for pipeline initialization, error handling during runtime, etc.
@@ -109,44 +113,16 @@ public class ProcessDataPipeline implements Runnable {
             public ProcessRecordsInput doProcess(ReadRecordsRequest readRecordsRequest) throws StageException {
                 if (connect.getStatus() == ChannelConnectStatus.RUNNING) {
                     if (connect.getToken() != null && !(FINISH_TAG).equals(connect.getToken())) {
-                        try {
-                            LOG.debug("Begin read records, connect: {}", connect);
-                            long beginTs = System.currentTimeMillis();
-                            ReadRecordsResponse resp = null;
-                            List<StreamRecord> totalRecords = new LinkedList<StreamRecord>();
-                            int totalBytes = 0, times = 0, totalRecordsCount = 0;
-                            while (totalBytes < readMaxBytesPerRound && times < readMaxTimesPerRound) {
-                                resp = connect.getClient().readRecords(readRecordsRequest);
-                                totalRecords.addAll(resp.getRecords());
-                                totalRecordsCount += resp.getRecords().size();
-                                totalBytes += resp.getMemoizedSerializedSize();
-                                times++;
-
-                                if (resp.getNextToken() == null || FINISH_TAG.equals(resp.getNextToken())) {
-                                    LOG.info("Channel {} next token is null", connect.getChannelId());
-                                    break;
-                                }
-                                if (backoff != null) {
-                                    if (needResetBackoff(resp.getRecords().size(), resp.getMemoizedSerializedSize(), resp.getMayMoreRecord())) {
-                                        LOG.debug("Backoff is reset");
-                                        backoff.reset();
-                                    } else {
-                                        long sleepMills = backoff.nextBackOffMillis();
-                                        LOG.debug("Data is not full, sleep {} msec.", sleepMills);
-                                        Thread.sleep(backoff.nextBackOffMillis());
-                                        break;
-                                    }
-                                }
-                                readRecordsRequest.setToken(resp.getNextToken());
-                            }
-                            if (resp == null) {
-                                LOG.info("ReadRecordsResponse is null, channelId: {}", connect.getChannelId());
-                                return new ProcessRecordsInput(totalRecords, null, null);
-                            } else {
-                                LOG.info("GetRecords, Num: {}, LoopTimes: {}, TotalBytes: {}, Channel connect: {}, Latency: {} ms, Next Token: {}",
-                                        totalRecordsCount, times, totalBytes, connect, System.currentTimeMillis() - beginTs, resp.getNextToken());
-                                return new ProcessRecordsInput(totalRecords, resp.getNextToken(), resp.getRequestId(), connect.getChannelId());
+                        PrefetchedRound round = takePrefetchedRound(readRecordsRequest.getToken());
+                        if (round != null) {
+                            if (round.error != null) {
+                                throw new StageException(this, readRecordsRequest, round.error.getMessage(), round.error);
                             }
+                            LOG.debug("Use prefetched records, connect: {}", connect);
+                            return round.input;
+                        }
+                        try {
+                            return readRecords(readRecordsRequest);
                         } catch (Exception e) {
                             throw new StageException(this, readRecordsRequest, e.getMessage(), e);
                         }
@@ -162,19 +138,65 @@ public class ProcessDataPipeline implements Runnable {
         };
     }
 
+    /**
+     * Reads one round of records, at most readMaxTimesPerRound requests and about readMaxBytesPerRound bytes.
+     */
+    private ProcessRecordsInput readRecords(ReadRecordsRequest readRecordsRequest) throws Exception {
+        LOG.debug("Begin read records, connect: {}", connect);
+        long beginTs = System.currentTimeMillis();
+        ReadRecordsResponse resp = null;
+        List<StreamRecord> totalRecords = new LinkedList<StreamRecord>();
+        int totalBytes = 0, times = 0, totalRecordsCount = 0;
+        while (totalBytes < readMaxBytesPerRound && times < readMaxTimesPerRound) {
+            resp = connect.getClient().readRecords(readRecordsRequest);
+            totalRecords.addAll(resp.getRecords());
+            totalRecordsCount += resp.getRecords().size();
+            totalBytes += resp.getMemoizedSerializedSize();
+            times++;
+
+            if (resp.getNextToken() == null || FINISH_TAG.equals(resp.getNextToken())) {
+                LOG.info("Channel {} next token is null", connect.getChannelId());
+                break;
+            }
+            if (backoff != null) {
+                if (needResetBackoff(resp.getRecords().size(), resp.getMemoizedSerializedSize(), resp.getMayMoreRecord())) {
+                    LOG.debug("Backoff is reset");
+                    backoff.reset();
+                } else {
+                    long sleepMills = backoff.nextBackOffMillis();
+                    LOG.debug("Data is not full, sleep {} msec.", sleepMills);
+                    Thread.sleep(backoff.nextBackOffMillis());
+                    break;
+                }
+            }
+            readRecordsRequest.setToken(resp.getNextToken());
+        }
+        if (resp == null) {
+            LOG.info("ReadRecordsResponse is null, channelId: {}", connect.getChannelId());
+            return new ProcessRecordsInput(totalRecords, null, null);
+        } else {
+            LOG.info("GetRecords, Num: {}, LoopTimes: {}, TotalBytes: {}, Channel connect: {}, Latency: {} ms, Next Token: {}",
+                    totalRecordsCount, times, totalBytes, connect, System.currentTimeMillis() - beginTs, resp.getNextToken());
+            return new ProcessRecordsInput(totalRecords, resp.getNextToken(), resp.getRequestId(), connect.getChannelId());
+        }
+    }
+
     private Stage<ProcessRecordsInput, Boolean> createProcessRecordsStage() {
         return new AbstractStage<ProcessRecordsInput, Boolean>() {
             @Override
             public Boolean doProcess(ProcessRecordsInput processRecordsInput) throws StageException {
                 if (connect.getStatus() == ChannelConnectStatus.RUNNING) {
                     try {
+                        PrefetchedRound round = startPrefetch(processRecordsInput.getNextToken());
                         IChannelProcessor processor = connect.getProcessor();
                         processor.process(processRecordsInput);
 
                         // everything is ok, set channel connect new token, and loop pipeline.
                         connect.setToken(processRecordsInput.getNextToken());
-                        LOG.info("Continue run pipeline, connect: {}", connect);
-                        connect.getChannelExecutorService().submit(connect.getProcessPipeline());
+                        if (round == null || round.processed()) {
+                            LOG.info("Continue run pipeline, connect: {}", connect);
+                            connect.getChannelExecutorService().submit(connect.getProcessPipeline());
+                        }
                         if (semaphore != null) {
                             semaphore.release();
                             LOG.info("Channel {} release semaphore succeed", connect.getChannelId());
@@ -192,6 +214,81 @@ public class ProcessDataPipeline implements Runnable {
     }
 
 
+    /**
+     * Starts to read the round following the one being processed, in the read records executor.
+     * The next round of the pipeline is submitted by whichever of the processing and the prefetch finishes last,
+     * so the read stage never waits for a prefetch, and the rounds are still processed (and checkpointed) one by one in token order.
+     *
+     * @return The prefetched round, or null if prefetch is disabled or the channel has no more records.
+     */
+    private PrefetchedRound startPrefetch(String nextToken) {
+        if (!enableReadRecordsPrefetch || nextToken == null || FINISH_TAG.equals(nextToken)) {
+            return null;
+        }
+        final PrefetchedRound round = new PrefetchedRound(nextToken);
+        prefetchedRound = round;
+        readRecordsExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (connect.getStatus() != ChannelConnectStatus.RUNNING) {
+                        throw new IllegalStateException("Channel is not running.");
+                    }
+                    round.input = readRecords(new ReadRecordsRequest(connect.getTunnelId(), connect.getClientId(),
+                            connect.getChannelId(), round.token));
+                } catch (Exception e) {
+                    LOG.warn("Prefetch records failed, channelId: {}, error: {}", connect.getChannelId(), e.toString());
+                    round.error = e;
+                }
+                if (round.prefetched()) {
+                    LOG.info("Continue run pipeline with prefetched records, connect: {}", connect);
+                    connect.getChannelExecutorService().submit(connect.getProcessPipeline());
+                }
+            }
+        });
+        return round;
+    }
+
+    private PrefetchedRound takePrefetchedRound(String token) {
+        PrefetchedRound round = prefetchedRound;
+        if (round == null || !round.token.equals(token)) {
+            return null;
+        }
+        prefetchedRound = null;
+        return round;
+    }
+
+    /**
+     * The records read ahead of the processing, starting from the token.
+     */
+    private static class PrefetchedRound {
+        private final String token;
+        private volatile ProcessRecordsInput input;
+        private volatile Exception error;
+        private boolean prefetched = false;
+        private boolean processed = false;
+
+        PrefetchedRound(String token) {
+            this.token = token;
+        }
+
+        /**
+         * @return Whether the previous round has been processed, then the caller runs the next round of the pipeline.
+         */
+        synchronized boolean prefetched() {
+            prefetched = true;
+            return processed;
+        }
+
+        /**
+         * @return Whether the prefetch has finished, then the caller runs the next round of the pipeline.
+         */
+        synchronized boolean processed() {
+            processed = true;
+            return prefetched;
+        }
+    }
+
     private boolean needResetBackoff(int numRec, int size, Boolean mayMoreRecord) {
         if (mayMoreRecord != null) {
             return mayMoreRecord;
@@ -234,4 +331,12 @@ public class ProcessDataPipeline implements Runnable {
     public void setReadMaxBytesPerRound(int readMaxBytesPerRound) {
         this.readMaxBytesPerRound = readMaxBytesPerRound;
     }
+
+    public boolean isEnableReadRecordsPrefetch() {
+        return enableReadRecordsPrefetch;
+    }
+
+    public void setEnableReadRecordsPrefetch(boolean enableReadRecordsPrefetch) {
+        this.enableReadRecordsPrefetch = enableReadRecordsPrefetch;
+    }
 }
@@ -0,0 +1,113 @@
+package com.alicloud.openservices.tablestore.tunnel.worker;
+
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.alicloud.openservices.tablestore.core.protocol.ResponseFactory.FINISH_TAG;
+
+/**
+ * Checkpoint recorder which does not block the data processing of the Channel.
+ * {@link #checkpoint(String)} only keeps the latest token, and the latest token is recorded to the server every flush interval,
+ * so the tokens of several rounds are coalesced into a single Checkpoint request.
+ * The FINISH_TAG token, {@link #flush()} and {@link #close()} record the latest token immediately.
+ * Only tokens of processed data are ever recorded, so the consumption is still at-least-once: the data processed after
+ * the latest recorded token is consumed again by the next owner of the Channel.
+ */
+public class AsyncCheckpointer implements ICheckpointer {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncCheckpointer.class);
+
+    private static final int FLUSH_THREAD_COUNT = 4;
+
+    /**
+     * Shared by all the Channels of the process, the flushes only send Checkpoint requests.
+     */
+    private static final ScheduledExecutorService FLUSH_EXECUTOR = new ScheduledThreadPoolExecutor(FLUSH_THREAD_COUNT,
+            new ThreadFactory() {
+                private final AtomicInteger counter = new AtomicInteger(1);
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "tunnel-checkpoint-flusher-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    private final ICheckpointer checkpointer;
+    private final AtomicReference<String> pendingToken = new AtomicReference<String>();
+    private final ScheduledFuture<?> flushTask;
+
+    /**
+     * @param checkpointer          The checkpointer which records the tokens to the server.
+     * @param flushIntervalInMillis The interval to record the latest token.
+     */
+    public AsyncCheckpointer(ICheckpointer checkpointer, long flushIntervalInMillis) {
+        Preconditions.checkNotNull(checkpointer, "Checkpointer cannot be null.");
+        Preconditions.checkArgument(flushIntervalInMillis > 0, "The flush interval should be greater than 0.");
+        this.checkpointer = checkpointer;
+        this.flushTask = FLUSH_EXECUTOR.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                flushQuietly();
+            }
+        }, flushIntervalInMillis, flushIntervalInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void checkpoint(String token) {
+        if (token == null) {
+            token = FINISH_TAG;
+        }
+        pendingToken.set(token);
+        if (FINISH_TAG.equals(token) || flushTask.isCancelled()) {
+            flush();
+        }
+    }
+
+    /**
+     * Records the latest token to the server, and waits for it.
+     */
+    public synchronized void flush() {
+        // taken under the lock, so a token is never recorded after a newer one
+        String token = pendingToken.getAndSet(null);
+        if (token == null) {
+            return;
+        }
+        try {
+            checkpointer.checkpoint(token);
+        } catch (RuntimeException e) {
+            // record it again with the next flush, unless a newer token has arrived
+            pendingToken.compareAndSet(null, token);
+            throw e;
+        }
+    }
+
+    /**
+     * Stops the periodic flush, and records the latest token.
+     */
+    public void close() {
+        flushTask.cancel(false);
+        flushQuietly();
+    }
+
+    public String getPendingToken() {
+        return pendingToken.get();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            LOG.warn("Flush checkpoint failed, checkpointer: {}, detail: {}", checkpointer, e.toString());
+        }
+    }
+}
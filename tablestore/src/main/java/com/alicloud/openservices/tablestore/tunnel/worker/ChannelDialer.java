@@ -66,6 +66,7 @@ public class ChannelDialer implements IChannelDialer {
         }
         pipeline.setReadMaxBytesPerRound(config.getReadMaxBytesPerRound());
         pipeline.setReadMaxTimesPerRound(config.getReadMaxTimesPerRound());
+        pipeline.setEnableReadRecordsPrefetch(config.isEnableReadRecordsPrefetch());
         channelConnect.setProcessPipeline(pipeline);
 
         if (channelConnect.isStreamChannel()) {
@@ -13,6 +13,9 @@ public class ChannelProcessFactory implements IChannelProcessorFactory {
     @Override
     public IChannelProcessor createProcessor(String tunnelId, String clientId, String channelId,
                                              ICheckpointer checkpointer) {
+        if (config.isEnableAsyncCheckpoint()) {
+            checkpointer = new AsyncCheckpointer(checkpointer, config.getCheckpointIntervalInMillis());
+        }
         DefaultChannelProcessor processor = new DefaultChannelProcessor(config.getChannelProcessor(), checkpointer,
             config.getCheckpointIntervalInMillis());
         return processor;
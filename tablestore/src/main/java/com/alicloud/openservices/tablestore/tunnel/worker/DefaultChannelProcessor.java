@@ -36,6 +36,9 @@ public class DefaultChannelProcessor implements IChannelProcessor {
             } catch (Exception e) {
                 LOG.error("checkpoint error, detail: {}", e.toString());
             }
+        } else if (checkpointer instanceof AsyncCheckpointer) {
+            // Only keeps the latest token, which is recorded by the periodic flush of the async checkpointer.
+            checkpointer.checkpoint(input.getNextToken());
         } else if (System.currentTimeMillis() - latestCheckpoint > checkpointIntervalInMillis) {
             LOG.info("begin do checkpoint, token = {}", input.getNextToken());
             try {
@@ -49,6 +52,10 @@ public class DefaultChannelProcessor implements IChannelProcessor {
 
     @Override
     public void shutdown() {
+        if (checkpointer instanceof AsyncCheckpointer) {
+            // Records the latest processed token before the Channel is handed over.
+            ((AsyncCheckpointer) checkpointer).close();
+        }
         recordProcessor.shutdown();
     }
 }
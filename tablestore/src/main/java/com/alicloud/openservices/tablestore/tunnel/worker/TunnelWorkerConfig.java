@@ -81,6 +81,20 @@ public class TunnelWorkerConfig {
 
     private boolean enableClosingChannelDetect = true;
 
+    /**
+     * Whether each Channel reads the next round of data while the current round is being processed, which keeps the network and the processor
+     * busy at the same time. At most one extra round (readMaxBytesPerRound) per Channel is held in memory, and the data is still processed and
+     * checkpointed in order. The default value is false.
+     */
+    private boolean enableReadRecordsPrefetch = false;
+
+    /**
+     * Whether the checkpoints are recorded asynchronously. Each Channel only keeps its latest token after a round is processed, and the latest
+     * token is recorded to the server every checkpointIntervalInMillis, so the checkpoint no longer blocks the next round. The latest token is also
+     * recorded when the Channel finishes or is closed; the data processed after the recorded token is consumed again. The default value is false.
+     */
+    private boolean enableAsyncCheckpoint = false;
+
     public TunnelWorkerConfig() {
         this(
                 newDefaultThreadPool("read-records-executor-"),
@@ -284,4 +298,20 @@ public class TunnelWorkerConfig {
     public boolean isEnableClosingChannelDetect() {
         return enableClosingChannelDetect;
     }
+
+    public boolean isEnableReadRecordsPrefetch() {
+        return enableReadRecordsPrefetch;
+    }
+
+    public void setEnableReadRecordsPrefetch(boolean enableReadRecordsPrefetch) {
+        this.enableReadRecordsPrefetch = enableReadRecordsPrefetch;
+    }
+
+    public boolean isEnableAsyncCheckpoint() {
+        return enableAsyncCheckpoint;
+    }
+
+    public void setEnableAsyncCheckpoint(boolean enableAsyncCheckpoint) {
+        this.enableAsyncCheckpoint = enableAsyncCheckpoint;
+    }
 }
@@ -32,22 +32,26 @@ public class Bucket {
 
     private final Semaphore semaphore;
 
+    private final BufferCapacitySignal capacitySignal;
+
     private TableStoreCallback<RowChange, RowWriteResult> resultCallback;
 
     public Bucket(BucketConfig bucketConfig, AsyncClientInterface ots, WriterConfig writerConfig,
                   TableStoreCallback<RowChange, RowWriteResult> resultCallback, Executor executor,
-                  WriterHandleStatistics writerStatistics, Semaphore semaphore) {
+                  WriterHandleStatistics writerStatistics, Semaphore semaphore,
+                  ScheduledExecutorService retryExecutor) {
         RowChangeEvent.RowChangeEventFactory factory = new RowChangeEvent.RowChangeEventFactory();
 
         this.bucketConfig = bucketConfig;
         this.writerConfig = writerConfig;
         this.semaphore = semaphore;
         this.resultCallback = resultCallback;
+        this.capacitySignal = new BufferCapacitySignal();
         disruptorExecutor = Executors.newFixedThreadPool(1);
         disruptor = new Disruptor<RowChangeEvent>(factory, this.writerConfig.getBufferSize(), disruptorExecutor);
         ringBuffer = disruptor.getRingBuffer();
         eventHandler = new RowEventHandler(ots, bucketConfig, writerConfig, this.resultCallback, executor,
-                writerStatistics, this.semaphore);
+                writerStatistics, this.semaphore, retryExecutor, capacitySignal);
 
         disruptor.handleEventsWith(eventHandler);
         disruptor.start();
@@ -67,6 +71,13 @@ public class Bucket {
         }
     }
 
+    /**
+     * Waits until the ring buffer has a free slot, see {@link BufferCapacitySignal#awaitCapacity}.
+     */
+    public boolean awaitCapacity(long timeoutNanos) throws InterruptedException {
+        return capacitySignal.awaitCapacity(ringBuffer, timeoutNanos);
+    }
+
     public void setResultCallback(TableStoreCallback<RowChange, RowWriteResult> resultCallback) {
         eventHandler.setCallback(resultCallback);
     }
@@ -83,7 +94,11 @@ public class Bucket {
                 return;
             } catch (InsufficientCapacityException e) {
                 try {
-                    Thread.sleep(1);
+                    if (!capacitySignal.awaitCapacity(ringBuffer, -1)) {
+                        // the bucket is closed and the signal will never be consumed
+                        latch.countDown();
+                        return;
+                    }
                 } catch (InterruptedException exp) {
                 }
             }
@@ -92,6 +107,7 @@ public class Bucket {
 
     public synchronized void close() {
         disruptor.shutdown();
+        capacitySignal.close();
         disruptorExecutor.shutdown();
     }
 
@@ -0,0 +1,76 @@
+package com.alicloud.openservices.tablestore.writer;
+
+import com.lmax.disruptor.RingBuffer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lets the producers of a bucket wait for a free slot in its ring buffer instead of polling it.<br/>
+ * The consumer calls {@link #signal()} after it has released a slot, which only costs a volatile read while no producer is waiting.
+ * A producer registers itself as a waiter before it checks the capacity under the lock, so a slot released in between
+ * is either seen by the check or followed by a signal, and no wakeup is lost.
+ */
+public class BufferCapacitySignal {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger(0);
+    private volatile boolean closed = false;
+
+    public void signal() {
+        if (waiters.get() > 0) {
+            lock.lock();
+            try {
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Wakes up all waiting producers, and makes further waits return at once.
+     */
+    public void close() {
+        closed = true;
+        lock.lock();
+        try {
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the ring buffer has a free slot.
+     *
+     * @param ringBuffer   The ring buffer to wait for.
+     * @param timeoutNanos The maximum time to wait, or a negative value to wait without a timeout.
+     * @return true if the ring buffer has a free slot, false if the timeout elapsed or the signal was closed.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public boolean awaitCapacity(RingBuffer<?> ringBuffer, long timeoutNanos) throws InterruptedException {
+        waiters.incrementAndGet();
+        lock.lock();
+        try {
+            long remaining = timeoutNanos;
+            while (!ringBuffer.hasAvailableCapacity(1)) {
+                if (closed) {
+                    return false;
+                }
+                if (timeoutNanos < 0) {
+                    notFull.await();
+                } else if (remaining <= 0) {
+                    return false;
+                } else {
+                    remaining = notFull.awaitNanos(remaining);
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+            waiters.decrementAndGet();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.alicloud.openservices.tablestore.writer;
 
 import com.alicloud.openservices.tablestore.core.utils.Preconditions;
 import com.alicloud.openservices.tablestore.writer.enums.BatchRequestType;
+import com.alicloud.openservices.tablestore.writer.enums.BatchRetryMode;
+import com.alicloud.openservices.tablestore.writer.enums.BufferFullPolicy;
 import com.alicloud.openservices.tablestore.writer.enums.DispatchMode;
 import com.alicloud.openservices.tablestore.writer.enums.WriteMode;
 import com.alicloud.openservices.tablestore.writer.enums.WriterRetryStrategy;
@@ -109,6 +111,53 @@ public class WriterConfig {
      */
     private boolean allowDuplicatedRowInBatchRequest = true;
 
+    /**
+     * How a batch request that fails as a whole is retried.
+     * Default value: rewrite every row with a single-row request
+     */
+    private BatchRetryMode batchRetryMode = BatchRetryMode.SINGLE_ROW;
+
+    /**
+     * Takes effect in BISECT batch retry mode.
+     * The backoff before resending the halves of a failed batch, or the whole batch if it is throttled,
+     * doubled at each retry level, in milliseconds.
+     * Default value: 100
+     */
+    private int batchRetryBackoffInMillis = 100;
+
+    /**
+     * Takes effect in BISECT batch retry mode.
+     * The upper bound of the doubled backoff of a retry level, in milliseconds.
+     * Default value: 1000
+     */
+    private int maxBatchRetryBackoffInMillis = 1000;
+
+    /**
+     * Whether the total request concurrency is adjusted at runtime, starting from concurrency.
+     * The limit grows while requests succeed with a stable latency, and is halved when the server throttles requests.
+     * Default value: disabled, the concurrency is fixed
+     */
+    private boolean enableAdaptiveConcurrency = false;
+
+    /**
+     * Takes effect when adaptive concurrency is enabled.
+     * The lower bound of the request concurrency.
+     * Default value: 1
+     */
+    private int minConcurrency = 1;
+
+    /**
+     * Takes effect when adaptive concurrency is enabled.
+     * The upper bound of the request concurrency.
+     * Default value: 100
+     */
+    private int maxConcurrency = 100;
+
+    /**
+     * What addRowChange and addRowChangeWithFuture do when the buffer of the target bucket is full.
+     * Default value: block until the bucket frees a slot
+     */
+    private BufferFullPolicy bufferFullPolicy = BufferFullPolicy.BLOCK;
 
 
     public WriterConfig() {}
@@ -371,4 +420,66 @@ public class WriterConfig {
     public void setAllowDuplicatedRowInBatchRequest(boolean allowDuplicatedRowInBatchRequest) {
         this.allowDuplicatedRowInBatchRequest = allowDuplicatedRowInBatchRequest;
     }
+
+    public BatchRetryMode getBatchRetryMode() {
+        return batchRetryMode;
+    }
+
+    public void setBatchRetryMode(BatchRetryMode batchRetryMode) {
+        Preconditions.checkArgument(batchRetryMode != null, "The BatchRetryMode should not be null.");
+        this.batchRetryMode = batchRetryMode;
+    }
+
+    public int getBatchRetryBackoffInMillis() {
+        return batchRetryBackoffInMillis;
+    }
+
+    public void setBatchRetryBackoffInMillis(int batchRetryBackoffInMillis) {
+        Preconditions.checkArgument(batchRetryBackoffInMillis >= 0, "The BatchRetryBackoffInMillis should not be negative.");
+        this.batchRetryBackoffInMillis = batchRetryBackoffInMillis;
+    }
+
+    public int getMaxBatchRetryBackoffInMillis() {
+        return maxBatchRetryBackoffInMillis;
+    }
+
+    public void setMaxBatchRetryBackoffInMillis(int maxBatchRetryBackoffInMillis) {
+        Preconditions.checkArgument(maxBatchRetryBackoffInMillis >= 0, "The MaxBatchRetryBackoffInMillis should not be negative.");
+        this.maxBatchRetryBackoffInMillis = maxBatchRetryBackoffInMillis;
+    }
+
+    public boolean isEnableAdaptiveConcurrency() {
+        return enableAdaptiveConcurrency;
+    }
+
+    public void setEnableAdaptiveConcurrency(boolean enableAdaptiveConcurrency) {
+        this.enableAdaptiveConcurrency = enableAdaptiveConcurrency;
+    }
+
+    public int getMinConcurrency() {
+        return minConcurrency;
+    }
+
+    public void setMinConcurrency(int minConcurrency) {
+        Preconditions.checkArgument(minConcurrency > 0, "The MinConcurrency should be greater than 0.");
+        this.minConcurrency = minConcurrency;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        Preconditions.checkArgument(maxConcurrency > 0, "The MaxConcurrency should be greater than 0.");
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public BufferFullPolicy getBufferFullPolicy() {
+        return bufferFullPolicy;
+    }
+
+    public void setBufferFullPolicy(BufferFullPolicy bufferFullPolicy) {
+        Preconditions.checkArgument(bufferFullPolicy != null, "The BufferFullPolicy should not be null.");
+        this.bufferFullPolicy = bufferFullPolicy;
+    }
 }
@@ -7,4 +7,26 @@ public interface WriterStatistics {
     long getTotalSucceedRowsCount();
     long getTotalFailedRowsCount();
     long getTotalSingleRowRequestCount();
+
+    /**
+     * The current limit of concurrent requests, which changes over time when adaptive concurrency is enabled.
+     * The default returns 0, for the implementations which do not limit the concurrency.
+     */
+    default long getConcurrencyLimit() {
+        return 0;
+    }
+
+    /**
+     * The total time callers have been blocked because the buffer was full, in milliseconds.
+     */
+    default long getTotalBlockedTimeInMillis() {
+        return 0;
+    }
+
+    /**
+     * The number of rows that were not accepted because the buffer was full.
+     */
+    default long getTotalRejectedRowsCount() {
+        return 0;
+    }
 }
@@ -0,0 +1,17 @@
+package com.alicloud.openservices.tablestore.writer.enums;
+
+
+public enum BatchRetryMode {
+    /**
+     * When a batch request fails as a whole, every row in it is rewritten with a single-row request.
+     * One failed batch of N rows turns into N requests.
+     */
+    SINGLE_ROW,
+    /**
+     * When a batch request fails as a whole, it is split into two halves and each half is resent as a batch after a backoff,
+     * recursively, until the failing rows are isolated. A batch with only one row is rewritten with a single-row request.
+     * Isolating K dirty rows in a batch of N rows costs about 2 * K * log2(N) requests.
+     * A batch which is throttled is not split, it is resent as a whole after the backoff.
+     */
+    BISECT
+}
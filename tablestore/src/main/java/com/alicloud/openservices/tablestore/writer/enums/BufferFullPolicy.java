@@ -0,0 +1,14 @@
+package com.alicloud.openservices.tablestore.writer.enums;
+
+
+public enum BufferFullPolicy {
+    /**
+     * When the buffer of the target bucket is full, the caller is parked until the bucket consumes a row and frees a slot.
+     */
+    BLOCK,
+    /**
+     * When the buffer of the target bucket is full, the row is rejected at once with a ClientException,
+     * so the caller can drop it or apply its own backpressure.
+     */
+    REJECT
+}
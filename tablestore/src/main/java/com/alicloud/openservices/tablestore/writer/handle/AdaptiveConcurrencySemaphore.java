@@ -0,0 +1,132 @@
+package com.alicloud.openservices.tablestore.writer.handle;
+
+import com.alicloud.openservices.tablestore.core.ErrorCode;
+import com.alicloud.openservices.tablestore.core.utils.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * The total concurrency semaphore of a writer whose number of permits is adjusted by AIMD (additive increase, multiplicative decrease).<br/>
+ * While requests succeed and their latency stays close to the best latency observed, the limit grows by one permit every
+ * limit successful requests, so roughly by one per round trip of the whole window.
+ * When a request is throttled by the server, e.g. OTSServerBusy or OTSQuotaExhausted, the limit is halved,
+ * at most once per smoothed latency so that the requests already in flight do not collapse the limit one after another.
+ * The limit always stays within [minLimit, maxLimit].
+ */
+public class AdaptiveConcurrencySemaphore extends Semaphore {
+    private static Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencySemaphore.class);
+
+    /**
+     * The weight of a new sample in the smoothed latency.
+     */
+    private static final double LATENCY_SMOOTHING = 0.1;
+
+    /**
+     * The weight of a new sample when the baseline latency drifts up, so the baseline follows a server that becomes slower for good.
+     */
+    private static final double BASELINE_DRIFT = 0.01;
+
+    /**
+     * The limit stops increasing once the smoothed latency exceeds the baseline latency by this ratio.
+     */
+    private static final double LATENCY_TOLERANCE = 2.0;
+
+    private static final double BACKOFF_RATIO = 0.5;
+
+    private static final long MIN_DECREASE_INTERVAL_IN_MILLIS = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final WriterHandleStatistics writerStatistics;
+
+    private int limit;
+    private int succeedSinceIncrease = 0;
+    private double smoothedLatency = -1;
+    private double baselineLatency = -1;
+    private long lastDecreaseTime = 0;
+
+    public AdaptiveConcurrencySemaphore(int initialLimit, int minLimit, int maxLimit, WriterHandleStatistics writerStatistics) {
+        super(initialLimit);
+        Preconditions.checkArgument(minLimit > 0, "The min limit should be greater than 0.");
+        Preconditions.checkArgument(minLimit <= maxLimit, "The min limit should not be greater than the max limit.");
+        Preconditions.checkArgument(initialLimit >= minLimit && initialLimit <= maxLimit,
+                "The initial limit should be between the min limit and the max limit.");
+        Preconditions.checkNotNull(writerStatistics, "The writer statistics can not be null.");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.writerStatistics = writerStatistics;
+        writerStatistics.concurrencyLimit.set(initialLimit);
+    }
+
+    /**
+     * Whether the error code means that the server is overloaded or throttling, rather than that the request is invalid.
+     */
+    public static boolean isThrottlingError(String errorCode) {
+        return ErrorCode.SERVER_BUSY.equals(errorCode)
+                || ErrorCode.QUOTA_EXHAUSTED.equals(errorCode)
+                || ErrorCode.NOT_ENOUGH_CAPACITY_UNIT.equals(errorCode)
+                || ErrorCode.STORAGE_TIMEOUT.equals(errorCode)
+                || ErrorCode.SERVER_UNAVAILABLE.equals(errorCode)
+                || ErrorCode.REQUEST_TIMEOUT.equals(errorCode);
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Reports a request that was not throttled.
+     *
+     * @param latencyInMillis The latency of the request.
+     */
+    public synchronized void onSucceed(long latencyInMillis) {
+        if (smoothedLatency < 0) {
+            smoothedLatency = latencyInMillis;
+            baselineLatency = latencyInMillis;
+        } else {
+            smoothedLatency += (latencyInMillis - smoothedLatency) * LATENCY_SMOOTHING;
+            if (latencyInMillis < baselineLatency) {
+                baselineLatency = latencyInMillis;
+            } else {
+                baselineLatency += (latencyInMillis - baselineLatency) * BASELINE_DRIFT;
+            }
+        }
+
+        if (smoothedLatency > Math.max(baselineLatency, 1) * LATENCY_TOLERANCE) {
+            succeedSinceIncrease = 0;
+            return;
+        }
+
+        if (++succeedSinceIncrease >= limit && limit < maxLimit) {
+            succeedSinceIncrease = 0;
+            limit++;
+            release();
+            writerStatistics.concurrencyLimit.set(limit);
+            logger.debug("Increase concurrency limit to {}.", limit);
+        }
+    }
+
+    /**
+     * Reports a request that was throttled by the server.
+     */
+    public synchronized void onThrottled() {
+        long now = System.currentTimeMillis();
+        if (now - lastDecreaseTime < Math.max(MIN_DECREASE_INTERVAL_IN_MILLIS, (long) smoothedLatency)) {
+            return;
+        }
+
+        int newLimit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+        succeedSinceIncrease = 0;
+        if (newLimit < limit) {
+            // the permits held by requests in flight are returned as usual, the semaphore only hands out the new limit afterwards
+            reducePermits(limit - newLimit);
+            limit = newLimit;
+            lastDecreaseTime = now;
+            writerStatistics.concurrencyLimit.set(limit);
+            logger.info("Decrease concurrency limit to {}.", limit);
+        }
+    }
+}
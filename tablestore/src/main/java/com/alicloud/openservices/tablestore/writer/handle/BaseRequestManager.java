@@ -13,6 +13,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
 
 
@@ -43,7 +44,8 @@ public abstract class BaseRequestManager implements RequestManager {
 
     public BaseRequestManager(AsyncClientInterface ots, WriterConfig writerConfig, BucketConfig bucketConfig, Executor executor,
                                        WriterHandleStatistics writerStatistics, TableStoreCallback<RowChange, RowWriteResult> callback,
-                                       Semaphore callbackSemaphore, Semaphore bucketSemaphore) {
+                                       Semaphore callbackSemaphore, Semaphore bucketSemaphore,
+                                       ScheduledExecutorService retryExecutor) {
         this.ots = ots;
         this.writerConfig = writerConfig;
         this.bucketConfig = bucketConfig;
@@ -56,7 +58,7 @@ public abstract class BaseRequestManager implements RequestManager {
         this.totalRowsCount = 0;
         this.allowDuplicatedRowInBatchRequest = bucketConfig.isAllowDuplicateRowInBatchRequest();
         this.callbackFactory =  new FlushCallbackFactory(ots, callbackSemaphore, callback, executor,
-                writerStatistics, bucketConfig, bucketSemaphore);
+                writerStatistics, writerConfig, bucketConfig, bucketSemaphore, retryExecutor);
     }
 
     @Override
@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
 
 public class BatchWriteRowRequestManager extends BaseRequestManager {
@@ -18,8 +19,9 @@ public class BatchWriteRowRequestManager extends BaseRequestManager {
 
     public BatchWriteRowRequestManager(AsyncClientInterface ots, WriterConfig writerConfig, BucketConfig bucketConfig, Executor executor,
                                        WriterHandleStatistics writerStatistics, TableStoreCallback<RowChange, RowWriteResult> callback,
-                                       Semaphore callbackSemaphore, Semaphore bucketSemaphore) {
-        super(ots, writerConfig, bucketConfig, executor, writerStatistics, callback, callbackSemaphore, bucketSemaphore);
+                                       Semaphore callbackSemaphore, Semaphore bucketSemaphore,
+                                       ScheduledExecutorService retryExecutor) {
+        super(ots, writerConfig, bucketConfig, executor, writerStatistics, callback, callbackSemaphore, bucketSemaphore, retryExecutor);
     }
 
     @Override
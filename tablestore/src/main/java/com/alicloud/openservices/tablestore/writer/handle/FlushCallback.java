@@ -7,46 +7,65 @@ import com.alicloud.openservices.tablestore.model.*;
 import com.alicloud.openservices.tablestore.model.Error;
 import com.alicloud.openservices.tablestore.writer.Group;
 import com.alicloud.openservices.tablestore.writer.RowWriteResult;
+import com.alicloud.openservices.tablestore.writer.WriterConfig;
 import com.alicloud.openservices.tablestore.writer.config.BucketConfig;
+import com.alicloud.openservices.tablestore.writer.enums.BatchRetryMode;
 import com.alicloud.openservices.tablestore.writer.enums.WriteMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 class FlushCallback<Req, Res> implements TableStoreCallback<Req, Res> {
     private static Logger logger = LoggerFactory.getLogger(FlushCallback.class);
+    /**
+     * The max retry depth at which a throttled batch is resent as a whole, its rows fail beyond it.
+     */
+    private static final int MAX_THROTTLED_BATCH_RETRY_DEPTH = 10;
 
     private final AsyncClientInterface ots;
     private final AtomicInteger count;
     private final Semaphore semaphore;
+    private final WriterConfig writerConfig;
     private final BucketConfig bucketConfig;
     private final TableStoreCallback<RowChange, RowWriteResult> callback;
     private final Executor executor;
     private final WriterHandleStatistics writerStatistics;
     private final Semaphore bucketSemaphore;
+    private final ScheduledExecutorService retryExecutor;
     private final List<Group> groupList;
+    private final int retryDepth;
+    private final long startTime;
     public static AtomicLong counter = new AtomicLong(0);
 
     public FlushCallback(AsyncClientInterface ots, AtomicInteger count, Semaphore semaphore,
                          TableStoreCallback<RowChange, RowWriteResult> callback,
-                         Executor executor, WriterHandleStatistics writerStatistics,
-                         BucketConfig bucketConfig, Semaphore bucketSemaphore, List<Group> groupList) {
+                         Executor executor, WriterHandleStatistics writerStatistics, WriterConfig writerConfig,
+                         BucketConfig bucketConfig, Semaphore bucketSemaphore, ScheduledExecutorService retryExecutor,
+                         List<Group> groupList, int retryDepth) {
         this.ots = ots;
         this.count = count;
         this.semaphore = semaphore;
+        this.writerConfig = writerConfig;
         this.bucketConfig = bucketConfig;
         this.callback = callback;
         this.executor = executor;
         this.writerStatistics = writerStatistics;
         this.bucketSemaphore = bucketSemaphore;
+        this.retryExecutor = retryExecutor;
         this.groupList = groupList;
+        this.retryDepth = retryDepth;
+        this.startTime = System.currentTimeMillis();
     }
 
     private void triggerSucceedCallback(final RowChange rowChange, final ConsumedCapacity consumedCapacity, final Row row, final Group group) {
@@ -119,6 +138,22 @@ class FlushCallback<Req, Res> implements TableStoreCallback<Req, Res> {
         }
     }
 
+    /**
+     * Feeds the outcome of the request into the adaptive concurrency limit, if enabled.
+     * The latency of a bisect retry includes its backoff, so only the successes of the original requests are counted.
+     */
+    private void reportToConcurrencyLimit(boolean throttled) {
+        if (!(semaphore instanceof AdaptiveConcurrencySemaphore)) {
+            return;
+        }
+        AdaptiveConcurrencySemaphore limiter = (AdaptiveConcurrencySemaphore) semaphore;
+        if (throttled) {
+            limiter.onThrottled();
+        } else if (retryDepth == 0) {
+            limiter.onSucceed(System.currentTimeMillis() - startTime);
+        }
+    }
+
     public void onCompleted(BatchWriteRowRequest originRequest, BatchWriteRowResponse result) {
         List<BatchWriteRowResponse.RowResult> succeed = new ArrayList<BatchWriteRowResponse.RowResult>();
         List<BatchWriteRowResponse.RowResult> failed = new ArrayList<BatchWriteRowResponse.RowResult>();
@@ -131,13 +166,16 @@ class FlushCallback<Req, Res> implements TableStoreCallback<Req, Res> {
                     status.getRow(), group);
         }
 
+        boolean throttled = false;
         for (BatchWriteRowResponse.RowResult status : failed) {
             Error error = status.getError();
             Group group = groupList.get(status.getIndex());
+            throttled |= AdaptiveConcurrencySemaphore.isThrottlingError(error.getCode());
             triggerFailedCallback(originRequest.getRowChange(status.getTableName(), status.getIndex()),
                     new TableStoreException(error.getMessage(), null, error.getCode(), result.getRequestId(), 0),
                     group);
         }
+        reportToConcurrencyLimit(throttled);
     }
 
     public void onCompleted(BulkImportRequest originRequest, BulkImportResponse result) {
@@ -152,13 +190,16 @@ class FlushCallback<Req, Res> implements TableStoreCallback<Req, Res> {
                     null, group);
         }
 
+        boolean throttled = false;
         for (BulkImportResponse.RowResult status : failed) {
             Error error = status.getError();
             Group group = groupList.get(status.getIndex());
+            throttled |= AdaptiveConcurrencySemaphore.isThrottlingError(error.getCode());
             triggerFailedCallback(originRequest.getRowChange(status.getIndex()),
                     new TableStoreException(error.getMessage(), null, error.getCode(), result.getRequestId(), 0),
                     group);
         }
+        reportToConcurrencyLimit(throttled);
     }
 
     @Override
@@ -171,12 +212,15 @@ class FlushCallback<Req, Res> implements TableStoreCallback<Req, Res> {
         } else if (request instanceof PutRowRequest) {
             PutRowRequest pr = (PutRowRequest) request;
             triggerSucceedCallback(pr.getRowChange(), ((PutRowResponse) response).getConsumedCapacity(), ((PutRowResponse) response).getRow(), groupList.get(0));
+            reportToConcurrencyLimit(false);
         } else if (request instanceof UpdateRowRequest) {
             UpdateRowRequest ur = (UpdateRowRequest) request;
             triggerSucceedCallback(ur.getRowChange(), ((UpdateRowResponse) response).getConsumedCapacity(), ((UpdateRowResponse) response).getRow(), groupList.get(0));
+            reportToConcurrencyLimit(false);
         } else if (request instanceof DeleteRowRequest) {
             DeleteRowRequest dr = (DeleteRowRequest) request;
             triggerSucceedCallback(dr.getRowChange(), ((DeleteRowResponse) response).getConsumedCapacity(), ((DeleteRowResponse) response).getRow(), groupList.get(0));
+            reportToConcurrencyLimit(false);
         }
 
         requestComplete();
@@ -198,10 +242,21 @@ class FlushCallback<Req, Res> implements TableStoreCallback<Req, Res> {
 
     public void failedOnException(Req request, TableStoreException ex) {
         logger.debug("OnFailed on TableStoreException: {}, {}", request.getClass().getName(), ex);
+        if (AdaptiveConcurrencySemaphore.isThrottlingError(ex.getErrorCode())) {
+            reportToConcurrencyLimit(true);
+        }
         if (request instanceof BatchWriteRowRequest) {
-            retryBatchWrite((BatchWriteRowRequest) request);
+            if (BatchRetryMode.BISECT.equals(writerConfig.getBatchRetryMode())) {
+                retryBatchInHalves(flattenRowChanges((BatchWriteRowRequest) request), false, ex);
+            } else {
+                retryBatchWrite((BatchWriteRowRequest) request);
+            }
         } else if (request instanceof BulkImportRequest) {
-            retryBulkImport((BulkImportRequest) request);
+            if (BatchRetryMode.BISECT.equals(writerConfig.getBatchRetryMode())) {
+                retryBatchInHalves(((BulkImportRequest) request).getRowChange(), true, ex);
+            } else {
+                retryBulkImport((BulkImportRequest) request);
+            }
         } else if (request instanceof PutRowRequest) {
             PutRowRequest pr = (PutRowRequest) request;
             triggerFailedCallback(pr.getRowChange(), ex, groupList.get(0));
@@ -219,10 +274,7 @@ class FlushCallback<Req, Res> implements TableStoreCallback<Req, Res> {
         logger.debug("OnFailed on ClientException: {}, {}", request.getClass().getName(), ex);
         List<RowChange> failedRows = new ArrayList<RowChange>();
         if (request instanceof BatchWriteRowRequest) {
-            BatchWriteRowRequest bwr = (BatchWriteRowRequest) request;
-            for (Map.Entry<String, List<RowChange>> entry : bwr.getRowChange().entrySet()) {
-                failedRows.addAll(entry.getValue());
-            }
+            failedRows.addAll(flattenRowChanges((BatchWriteRowRequest) request));
         } else if (request instanceof BulkImportRequest) {
             BulkImportRequest bir = (BulkImportRequest) request;
             failedRows.addAll(bir.getRowChange());
@@ -275,6 +327,201 @@ class FlushCallback<Req, Res> implements TableStoreCallback<Req, Res> {
         }
     }
 
+    private List<RowChange> flattenRowChanges(BatchWriteRowRequest request) {
+        List<RowChange> rowChanges = new ArrayList<RowChange>();
+        for (Map.Entry<String, List<RowChange>> entry : request.getRowChange().entrySet()) {
+            rowChanges.addAll(entry.getValue());
+        }
+        return rowChanges;
+    }
+
+    /**
+     * The BISECT alternative to {@link #retryBatchWrite} and {@link #retryBulkImport}.
+     * Rather than degrading every row into a single-row request, a batch which fails because of its rows is split into
+     * two halves, and each half is resent as a batch. A half that fails as a whole is split again, so dirty rows are
+     * isolated with O(log n) extra requests. A batch which is throttled is not split, since its rows are not at fault:
+     * it is resent as a whole, at most {@link #MAX_THROTTLED_BATCH_RETRY_DEPTH} times, after which its rows fail.
+     * Every resend waits for a backoff that doubles at each retry level, up to
+     * {@link WriterConfig#getMaxBatchRetryBackoffInMillis()}, on the {@link #retryExecutor}.
+     * In SEQUENTIAL mode the batches are resent one after another, in the order of the rows.
+     *
+     * @param rowChanges The rows of the failed batch, in the same order as {@link #groupList}.
+     * @param bulkImport Whether the batches are resent as BulkImport instead of BatchWriteRow.
+     * @param ex         The failure of the whole batch.
+     */
+    private void retryBatchInHalves(List<RowChange> rowChanges, boolean bulkImport, TableStoreException ex) {
+        if (rowChanges.size() == 1) {
+            retrySingleRowChange(rowChanges.get(0), groupList.get(0));
+            return;
+        }
+
+        List<RetryBatch> retryBatches = planBatchRetry(rowChanges, ex);
+        if (WriteMode.SEQUENTIAL.equals(bucketConfig.getWriteMode())) {
+            if (!retryBatches.isEmpty()) {
+                // the request completes when the last batch of the chain has been resent
+                this.count.incrementAndGet();
+                retrySequentialBatches(new ArrayDeque<RetryBatch>(retryBatches), bulkImport);
+            }
+        } else {
+            for (RetryBatch retryBatch : retryBatches) {
+                retryParallelBatch(retryBatch, bulkImport);
+            }
+        }
+    }
+
+    /**
+     * @return the batches to resend after the rows of {@link #groupList} failed as a whole, which are empty if the
+     * rows have failed.
+     */
+    private List<RetryBatch> planBatchRetry(List<RowChange> rowChanges, TableStoreException ex) {
+        long backoff = Math.min((long) writerConfig.getBatchRetryBackoffInMillis() << Math.min(retryDepth, 10),
+                writerConfig.getMaxBatchRetryBackoffInMillis());
+        List<RetryBatch> retryBatches = new ArrayList<RetryBatch>(2);
+        if (AdaptiveConcurrencySemaphore.isThrottlingError(ex.getErrorCode())) {
+            if (retryDepth >= MAX_THROTTLED_BATCH_RETRY_DEPTH) {
+                triggerFailedCallback(rowChanges, ex, groupList);
+            } else {
+                retryBatches.add(new RetryBatch(rowChanges, groupList, retryDepth + 1, backoff));
+            }
+            return retryBatches;
+        }
+
+        int middle = rowChanges.size() / 2;
+        retryBatches.add(new RetryBatch(rowChanges.subList(0, middle), groupList.subList(0, middle), retryDepth + 1, backoff));
+        retryBatches.add(new RetryBatch(rowChanges.subList(middle, rowChanges.size()),
+                groupList.subList(middle, groupList.size()), retryDepth + 1, backoff));
+        return retryBatches;
+    }
+
+    private void retryParallelBatch(RetryBatch retryBatch, boolean bulkImport) {
+        if (retryBatch.rowChanges.size() == 1) {
+            retrySingleRowChange(retryBatch.rowChanges.get(0), retryBatch.groupList.get(0));
+            return;
+        }
+
+        this.count.incrementAndGet();
+        final Runnable send;
+        if (bulkImport) {
+            final BulkImportRequest request = new BulkImportRequest(bucketConfig.getTableName());
+            request.addRowChanges(retryBatch.rowChanges);
+            final FlushCallback<BulkImportRequest, BulkImportResponse> subCallback = new FlushCallback<BulkImportRequest, BulkImportResponse>(
+                    ots, count, semaphore, callback, executor, writerStatistics, writerConfig, bucketConfig, bucketSemaphore,
+                    retryExecutor, retryBatch.groupList, retryBatch.retryDepth);
+            send = new Runnable() {
+                @Override
+                public void run() {
+                    writerStatistics.totalRequestCount.incrementAndGet();
+                    ots.bulkImport(request, subCallback);
+                }
+            };
+        } else {
+            final BatchWriteRowRequest request = new BatchWriteRowRequest();
+            for (RowChange rowChange : retryBatch.rowChanges) {
+                request.addRowChange(rowChange);
+            }
+            final FlushCallback<BatchWriteRowRequest, BatchWriteRowResponse> subCallback = new FlushCallback<BatchWriteRowRequest, BatchWriteRowResponse>(
+                    ots, count, semaphore, callback, executor, writerStatistics, writerConfig, bucketConfig, bucketSemaphore,
+                    retryExecutor, retryBatch.groupList, retryBatch.retryDepth);
+            send = new Runnable() {
+                @Override
+                public void run() {
+                    writerStatistics.totalRequestCount.incrementAndGet();
+                    ots.batchWriteRow(request, subCallback);
+                }
+            };
+        }
+        retryExecutor.schedule(send, retryBatch.backoffInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Resends the first pending batch after its backoff, then the next one, so that the requests of the bucket stay
+     * serial without blocking a thread during the backoff. The batches which a failed batch is retried as are resent
+     * before the batches after it.
+     */
+    private void retrySequentialBatches(final Deque<RetryBatch> pendingBatches, final boolean bulkImport) {
+        final RetryBatch retryBatch = pendingBatches.pollFirst();
+        if (retryBatch == null) {
+            requestComplete();
+            return;
+        }
+
+        retryExecutor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    List<RetryBatch> retryBatches = retrySequentialBatch(retryBatch, bulkImport);
+                    for (int i = retryBatches.size() - 1; i >= 0; i--) {
+                        pendingBatches.addFirst(retryBatches.get(i));
+                    }
+                } finally {
+                    retrySequentialBatches(pendingBatches, bulkImport);
+                }
+            }
+        }, retryBatch.backoffInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the batches to resend if the batch failed as a whole.
+     */
+    private List<RetryBatch> retrySequentialBatch(RetryBatch retryBatch, boolean bulkImport) {
+        if (retryBatch.rowChanges.size() == 1) {
+            retrySingleRowChange(retryBatch.rowChanges.get(0), retryBatch.groupList.get(0));
+            return new ArrayList<RetryBatch>(0);
+        }
+
+        FlushCallback<Request, Response> subCallback = new FlushCallback<Request, Response>(
+                ots, count, semaphore, callback, executor, writerStatistics, writerConfig, bucketConfig, bucketSemaphore,
+                retryExecutor, retryBatch.groupList, retryBatch.retryDepth);
+        Request request;
+        if (bulkImport) {
+            BulkImportRequest bulkImportRequest = new BulkImportRequest(bucketConfig.getTableName());
+            bulkImportRequest.addRowChanges(retryBatch.rowChanges);
+            request = bulkImportRequest;
+        } else {
+            BatchWriteRowRequest batchWriteRowRequest = new BatchWriteRowRequest();
+            for (RowChange rowChange : retryBatch.rowChanges) {
+                batchWriteRowRequest.addRowChange(rowChange);
+            }
+            request = batchWriteRowRequest;
+        }
+        writerStatistics.totalRequestCount.incrementAndGet();
+        // the same handling as the callback of a parallel batch, without its request completion, and the retries of a
+        // failed batch are queued into the chain instead of being sent on their own
+        try {
+            if (bulkImport) {
+                subCallback.onCompleted((BulkImportRequest) request, ots.asSyncClient().bulkImport((BulkImportRequest) request));
+            } else {
+                subCallback.onCompleted((BatchWriteRowRequest) request, ots.asSyncClient().batchWriteRow((BatchWriteRowRequest) request));
+            }
+        } catch (TableStoreException e) {
+            if (AdaptiveConcurrencySemaphore.isThrottlingError(e.getErrorCode())) {
+                subCallback.reportToConcurrencyLimit(true);
+            }
+            return subCallback.planBatchRetry(retryBatch.rowChanges, e);
+        } catch (Exception e) {
+            subCallback.failedOnUnknownException(request, e);
+        }
+        return new ArrayList<RetryBatch>(0);
+    }
+
+    /**
+     * The rows of a batch to resend, with their groups, the retry depth of the callback of the batch and the backoff
+     * before it is sent.
+     */
+    private static final class RetryBatch {
+        private final List<RowChange> rowChanges;
+        private final List<Group> groupList;
+        private final int retryDepth;
+        private final long backoffInMillis;
+
+        RetryBatch(List<RowChange> rowChanges, List<Group> groupList, int retryDepth, long backoffInMillis) {
+            this.rowChanges = new ArrayList<RowChange>(rowChanges);
+            this.groupList = new ArrayList<Group>(groupList);
+            this.retryDepth = retryDepth;
+            this.backoffInMillis = backoffInMillis;
+        }
+    }
+
     private void retrySingleRowChange(RowChange rowChange, Group group) {
         writerStatistics.totalSingleRowRequestCount.incrementAndGet();
         writerStatistics.totalRequestCount.incrementAndGet();
@@ -295,17 +542,17 @@ class FlushCallback<Req, Res> implements TableStoreCallback<Req, Res> {
             RowPutChange rowPutChange = (RowPutChange) rowChange;
             PutRowRequest pr = new PutRowRequest();
             pr.setRowChange(rowPutChange);
-            ots.putRow(pr, new FlushCallback<PutRowRequest, PutRowResponse>(ots, count, semaphore, callback, executor, writerStatistics, bucketConfig, bucketSemaphore, subGroupList));
+            ots.putRow(pr, new FlushCallback<PutRowRequest, PutRowResponse>(ots, count, semaphore, callback, executor, writerStatistics, writerConfig, bucketConfig, bucketSemaphore, retryExecutor, subGroupList, retryDepth));
         } else if (rowChange instanceof RowUpdateChange) {
             UpdateRowRequest ur = new UpdateRowRequest();
             RowUpdateChange rowUpdateChange = (RowUpdateChange) rowChange;
             ur.setRowChange(rowUpdateChange);
-            ots.updateRow(ur, new FlushCallback<UpdateRowRequest, UpdateRowResponse>(ots, count, semaphore, callback, executor, writerStatistics, bucketConfig, bucketSemaphore, subGroupList));
+            ots.updateRow(ur, new FlushCallback<UpdateRowRequest, UpdateRowResponse>(ots, count, semaphore, callback, executor, writerStatistics, writerConfig, bucketConfig, bucketSemaphore, retryExecutor, subGroupList, retryDepth));
         } else if (rowChange instanceof RowDeleteChange) {
             DeleteRowRequest dr = new DeleteRowRequest();
             RowDeleteChange rowDeleteChange = (RowDeleteChange) rowChange;
             dr.setRowChange(rowDeleteChange);
-            ots.deleteRow(dr, new FlushCallback<DeleteRowRequest, DeleteRowResponse>(ots, count, semaphore, callback, executor, writerStatistics, bucketConfig, bucketSemaphore, subGroupList));
+            ots.deleteRow(dr, new FlushCallback<DeleteRowRequest, DeleteRowResponse>(ots, count, semaphore, callback, executor, writerStatistics, writerConfig, bucketConfig, bucketSemaphore, retryExecutor, subGroupList, retryDepth));
         }
     }
 
@@ -13,6 +13,7 @@ import com.alicloud.openservices.tablestore.writer.config.BucketConfig;
 
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -26,24 +27,27 @@ public class FlushCallbackFactory implements CallbackFactory {
     protected Executor executor;
     protected WriterHandleStatistics writerStatistics;
     protected Semaphore bucketSemaphore;
+    protected ScheduledExecutorService retryExecutor;
 
     public FlushCallbackFactory(AsyncClientInterface ots, Semaphore callbackSemaphore,
                                 TableStoreCallback<RowChange, RowWriteResult> callback,
-                                Executor executor, WriterHandleStatistics writerStatistics,
-                                BucketConfig bucketConfig, Semaphore bucketSemaphore) {
+                                Executor executor, WriterHandleStatistics writerStatistics, WriterConfig writerConfig,
+                                BucketConfig bucketConfig, Semaphore bucketSemaphore, ScheduledExecutorService retryExecutor) {
         this.ots = ots;
         this.callbackSemaphore = callbackSemaphore;
+        this.writerConfig = writerConfig;
         this.bucketConfig = bucketConfig;
         this.callback = callback;
         this.executor = executor;
         this.writerStatistics = writerStatistics;
         this.bucketSemaphore = bucketSemaphore;
+        this.retryExecutor = retryExecutor;
     }
 
     @Override
     public TableStoreCallback newInstance(List<Group> groupList) {
         return new FlushCallback<DeleteRowRequest, DeleteRowResponse>(
                 ots, new AtomicInteger(1), callbackSemaphore, callback, executor,
-                writerStatistics, bucketConfig, bucketSemaphore, groupList);
+                writerStatistics, writerConfig, bucketConfig, bucketSemaphore, retryExecutor, groupList, 0);
     }
 }
@@ -6,17 +6,19 @@ import com.alicloud.openservices.tablestore.TableStoreCallback;
 import com.alicloud.openservices.tablestore.model.*;
 import com.alicloud.openservices.tablestore.writer.*;
 import com.alicloud.openservices.tablestore.writer.config.BucketConfig;
-import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceReportingEventHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
 
 
 
-public class RowEventHandler implements EventHandler<RowChangeEvent> {
+public class RowEventHandler implements SequenceReportingEventHandler<RowChangeEvent> {
     private static Logger logger = LoggerFactory.getLogger(RowEventHandler.class);
 
     private AsyncClientInterface ots;
@@ -29,6 +31,9 @@ public class RowEventHandler implements EventHandler<RowChangeEvent> {
     private WriterHandleStatistics writerStatistics;
     private Semaphore callbackSemaphore;
     private Semaphore bucketSemaphore;
+    private ScheduledExecutorService retryExecutor;
+    private BufferCapacitySignal capacitySignal;
+    private Sequence sequenceCallback;
 
     private RequestManager requestManager;
 
@@ -40,7 +45,9 @@ public class RowEventHandler implements EventHandler<RowChangeEvent> {
             TableStoreCallback<RowChange, RowWriteResult> callback,
             Executor executor,
             WriterHandleStatistics writerStatistics,
-            Semaphore semaphore) {
+            Semaphore semaphore,
+            ScheduledExecutorService retryExecutor,
+            BufferCapacitySignal capacitySignal) {
         this.ots = ots;
         this.concurrency = writerConfig.getConcurrency();
         this.bucketConfig = bucketConfig;
@@ -49,7 +56,8 @@ public class RowEventHandler implements EventHandler<RowChangeEvent> {
         this.executor = executor;
         this.writerStatistics = writerStatistics;
         this.writerConfig = writerConfig;
-
+        this.retryExecutor = retryExecutor;
+        this.capacitySignal = capacitySignal;
 
         switch (writerConfig.getWriteMode()) {
             case SEQUENTIAL:
@@ -57,7 +65,8 @@ public class RowEventHandler implements EventHandler<RowChangeEvent> {
                 break;
             case PARALLEL:
             default:
-                bucketConcurrency = concurrency;
+                // with adaptive concurrency the total semaphore is the one that limits the requests
+                bucketConcurrency = writerConfig.isEnableAdaptiveConcurrency() ? writerConfig.getMaxConcurrency() : concurrency;
                 break;
         }
         bucketSemaphore = new Semaphore(bucketConcurrency);
@@ -69,12 +78,12 @@ public class RowEventHandler implements EventHandler<RowChangeEvent> {
         switch (writerConfig.getBatchRequestType()) {
             case BULK_IMPORT:
                 requestManager = new BulkImportRequestManager(this.ots, writerConfig, this.bucketConfig, executor,
-                        writerStatistics, callback, callbackSemaphore, bucketSemaphore);
+                        writerStatistics, callback, callbackSemaphore, bucketSemaphore, retryExecutor);
                 break;
             case BATCH_WRITE_ROW:
             default:
                 requestManager = new BatchWriteRowRequestManager(this.ots, writerConfig, this.bucketConfig, executor,
-                        writerStatistics, callback, callbackSemaphore, bucketSemaphore);
+                        writerStatistics, callback, callbackSemaphore, bucketSemaphore, retryExecutor);
                 break;
         }
     }
@@ -84,6 +93,11 @@ public class RowEventHandler implements EventHandler<RowChangeEvent> {
         initRequestManager();
     }
 
+    @Override
+    public void setSequenceCallback(Sequence sequenceCallback) {
+        this.sequenceCallback = sequenceCallback;
+    }
+
     @Override
     public void onEvent(final RowChangeEvent rowChangeEvent, long sequence, boolean endOfBatch) throws Exception {
 
@@ -145,6 +159,11 @@ public class RowEventHandler implements EventHandler<RowChangeEvent> {
             logger.debug("Finish bucket waitFlush.");
             latch.countDown();
         }
+
+        // The event has been copied out, so its slot is released right away instead of at the end of the batch,
+        // and the producers waiting for a free slot are woken up.
+        sequenceCallback.setVolatile(sequence);
+        capacitySignal.signal();
     }
 
 }
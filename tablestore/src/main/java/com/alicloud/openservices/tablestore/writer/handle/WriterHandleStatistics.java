@@ -10,6 +10,9 @@ public class WriterHandleStatistics implements WriterStatistics {
     AtomicLong totalSucceedRowsCount = new AtomicLong(0);
     AtomicLong totalFailedRowsCount = new AtomicLong(0);
     AtomicLong totalSingleRowRequestCount = new AtomicLong(0);
+    AtomicLong concurrencyLimit = new AtomicLong(0);
+    AtomicLong totalBlockedTimeInNanos = new AtomicLong(0);
+    AtomicLong totalRejectedRowsCount = new AtomicLong(0);
 
     public WriterHandleStatistics() {
 
@@ -40,6 +43,33 @@ public class WriterHandleStatistics implements WriterStatistics {
         return totalSingleRowRequestCount.longValue();
     }
 
+    @Override
+    public long getConcurrencyLimit() {
+        return concurrencyLimit.longValue();
+    }
+
+    public void setConcurrencyLimit(long concurrencyLimit) {
+        this.concurrencyLimit.set(concurrencyLimit);
+    }
+
+    @Override
+    public long getTotalBlockedTimeInMillis() {
+        return totalBlockedTimeInNanos.longValue() / 1000000;
+    }
+
+    @Override
+    public long getTotalRejectedRowsCount() {
+        return totalRejectedRowsCount.longValue();
+    }
+
+    public void addBlockedTime(long nanos) {
+        totalBlockedTimeInNanos.addAndGet(nanos);
+    }
+
+    public void incrementRejectedRowsCount() {
+        totalRejectedRowsCount.incrementAndGet();
+    }
+
     public String toString() {
         StringBuilder builder = new StringBuilder();
         builder.append("WriterStatistics: {\n")
@@ -48,6 +78,9 @@ public class WriterHandleStatistics implements WriterStatistics {
                 .append("    totalSucceedRowsCount=").append(totalSucceedRowsCount.get()).append(",\n")
                 .append("    totalFailedRowsCount=").append(totalFailedRowsCount.get()).append(",\n")
                 .append("    totalSingleRowRequestCount=").append(totalSingleRowRequestCount.get()).append(",\n")
+                .append("    concurrencyLimit=").append(concurrencyLimit.get()).append(",\n")
+                .append("    totalBlockedTimeInMillis=").append(getTotalBlockedTimeInMillis()).append(",\n")
+                .append("    totalRejectedRowsCount=").append(totalRejectedRowsCount.get()).append(",\n")
                 .append("}");
 
         return builder.toString();
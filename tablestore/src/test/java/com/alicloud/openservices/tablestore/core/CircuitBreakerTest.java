@@ -0,0 +1,129 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.CircuitBreakerConfiguration;
+import com.alicloud.openservices.tablestore.CircuitBreakerOpenException;
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+
+    private static CircuitBreakerConfiguration buildConfig(long openDurationInMillis) {
+        CircuitBreakerConfiguration config = new CircuitBreakerConfiguration();
+        config.setMinRequestCount(10);
+        config.setFailureRatioThreshold(0.5);
+        config.setOpenDurationInMillis(openDurationInMillis);
+        return config;
+    }
+
+    @Test
+    public void testOpenOnFailureRatio() {
+        CircuitBreaker breaker = new CircuitBreaker("GetRow/table", buildConfig(60000));
+        for (int i = 0; i < 5; i++) {
+            breaker.onSuccess();
+        }
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        // 4 failures of 9 requests, under the min request count
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(1, breaker.getOpenedCount());
+
+        assertFalse(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(2, breaker.getRejectedCount());
+    }
+
+    @Test
+    public void testStayClosedUnderThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker("GetRow/table", buildConfig(60000));
+        for (int i = 0; i < 100; i++) {
+            if (i % 3 == 0) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(34, breaker.getFailureCount());
+        assertEquals(66, breaker.getSuccessCount());
+    }
+
+    @Test
+    public void testHalfOpenProbe() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("GetRow/table", buildConfig(100));
+        for (int i = 0; i < 10; i++) {
+            breaker.onFailure();
+        }
+        assertFalse(breaker.tryAcquirePermission());
+        Thread.sleep(200);
+
+        // a single probe is let through
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpenedCount());
+
+        Thread.sleep(200);
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getFailureCount());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void testRegistry() {
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(buildConfig(60000));
+        CircuitBreaker breaker = registry.getCircuitBreaker("GetRow", "table");
+        assertSame(breaker, registry.getCircuitBreaker("GetRow", "table"));
+        assertTrue(breaker != registry.getCircuitBreaker("GetRow", "table2"));
+        assertTrue(breaker != registry.getCircuitBreaker("PutRow", "table"));
+        assertEquals("ListTable", registry.getCircuitBreaker("ListTable", null).getName());
+        assertEquals("GetRow/table", breaker.getName());
+        assertEquals(4, registry.getCircuitBreakers().size());
+    }
+
+    @Test
+    public void testTableNameOf() {
+        PrimaryKeyBuilder primaryKeyBuilder = PrimaryKeyBuilder.createPrimaryKeyBuilder();
+        primaryKeyBuilder.addPrimaryKeyColumn("PK", PrimaryKeyValue.fromLong(1));
+        PrimaryKey primaryKey = primaryKeyBuilder.build();
+        assertEquals("table", CircuitBreakerRegistry.tableNameOf(
+                new GetRowRequest(new SingleRowQueryCriteria("table", primaryKey))));
+        assertEquals("table", CircuitBreakerRegistry.tableNameOf(new PutRowRequest(new RowPutChange("table", primaryKey))));
+
+        BatchGetRowRequest batchGetRowRequest = new BatchGetRowRequest();
+        MultiRowQueryCriteria criteria = new MultiRowQueryCriteria("table");
+        criteria.addRow(primaryKey);
+        criteria.setMaxVersions(1);
+        batchGetRowRequest.addMultiRowQueryCriteria(criteria);
+        assertEquals("table", CircuitBreakerRegistry.tableNameOf(batchGetRowRequest));
+        MultiRowQueryCriteria criteria2 = new MultiRowQueryCriteria("table2");
+        criteria2.addRow(primaryKey);
+        criteria2.setMaxVersions(1);
+        batchGetRowRequest.addMultiRowQueryCriteria(criteria2);
+        assertNull(CircuitBreakerRegistry.tableNameOf(batchGetRowRequest));
+        assertNull(CircuitBreakerRegistry.tableNameOf(new ListTableRequest()));
+    }
+
+    @Test
+    public void testIsServiceFailure() {
+        assertTrue(CircuitBreakerRegistry.isServiceFailure(new ClientException("timeout")));
+        assertTrue(CircuitBreakerRegistry.isServiceFailure(
+                new TableStoreException("busy", null, ErrorCode.SERVER_BUSY, "requestId", 503)));
+        assertTrue(CircuitBreakerRegistry.isServiceFailure(
+                new TableStoreException("unavailable", null, ErrorCode.PARTITION_UNAVAILABLE, "requestId", 400)));
+        assertFalse(CircuitBreakerRegistry.isServiceFailure(
+                new TableStoreException("invalid", null, ErrorCode.INVALID_PARAMETER, "requestId", 400)));
+        assertFalse(CircuitBreakerRegistry.isServiceFailure(new CircuitBreakerOpenException("open")));
+    }
+}
@@ -0,0 +1,207 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.ClientConfiguration;
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.GetRowBatchingConfiguration;
+import com.alicloud.openservices.tablestore.PartialResultFailedException;
+import com.alicloud.openservices.tablestore.TableStoreCallback;
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.core.auth.DefaultCredentialProvider;
+import com.alicloud.openservices.tablestore.core.http.AsyncServiceClient;
+import com.alicloud.openservices.tablestore.model.*;
+import com.alicloud.openservices.tablestore.model.Error;
+import com.aliyun.ots.thirdparty.org.apache.http.concurrent.FutureCallback;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class GetRowBatcherTest {
+
+    private ClientConfiguration config;
+    private AsyncServiceClient client;
+    private ExecutorService callbackExecutor;
+    private ScheduledExecutorService retryExecutor;
+    private final List<BatchGetRowRequest> sentRequests = Collections.synchronizedList(new ArrayList<BatchGetRowRequest>());
+    private final List<TableStoreCallback<BatchGetRowRequest, BatchGetRowResponse>> sentCallbacks =
+            Collections.synchronizedList(new ArrayList<TableStoreCallback<BatchGetRowRequest, BatchGetRowResponse>>());
+
+    @Before
+    public void setUp() {
+        config = new ClientConfiguration();
+        client = new AsyncServiceClient(config);
+        callbackExecutor = Executors.newFixedThreadPool(2);
+        retryExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        client.shutdown();
+        callbackExecutor.shutdown();
+        retryExecutor.shutdown();
+    }
+
+    /**
+     * A batcher which keeps the batches instead of sending them.
+     */
+    private GetRowBatcher buildBatcher(int maxBatchSize, long maxDelayInMicros) {
+        GetRowBatchingConfiguration batchingConfig = new GetRowBatchingConfiguration();
+        batchingConfig.setMaxBatchSize(maxBatchSize);
+        batchingConfig.setMaxDelayInMicros(maxDelayInMicros);
+        return new GetRowBatcher(batchingConfig) {
+            @Override
+            protected void send(BatchGetRowRequest request, TableStoreCallback<BatchGetRowRequest, BatchGetRowResponse> callback) {
+                sentRequests.add(request);
+                sentCallbacks.add(callback);
+            }
+        };
+    }
+
+    private static PrimaryKey buildPrimaryKey(long pk) {
+        return PrimaryKeyBuilder.createPrimaryKeyBuilder().addPrimaryKeyColumn("PK", PrimaryKeyValue.fromLong(pk)).build();
+    }
+
+    private static GetRowRequest buildRequest(long pk) {
+        SingleRowQueryCriteria criteria = new SingleRowQueryCriteria("Table", buildPrimaryKey(pk));
+        criteria.setMaxVersions(1);
+        return new GetRowRequest(criteria);
+    }
+
+    private static Row buildRow(long pk) {
+        return new Row(buildPrimaryKey(pk), new Column[]{new Column("col", ColumnValue.fromLong(pk), 1)});
+    }
+
+    /**
+     * Adds the request, whose launcher counts the times it is sent on its own.
+     */
+    private CallbackImpledFuture<GetRowRequest, GetRowResponse> add(GetRowBatcher batcher, GetRowRequest request,
+                                                                      final AtomicInteger fired) {
+        OperationLauncher<GetRowRequest, GetRowResponse> launcher = new OperationLauncher<GetRowRequest, GetRowResponse>("", client,
+                new DefaultCredentialProvider("accessid", "accesskey"), config, request) {
+            @Override
+            public void fire(GetRowRequest request, FutureCallback<GetRowResponse> cb) {
+                fired.incrementAndGet();
+            }
+        };
+        AsyncCompletion<GetRowRequest, GetRowResponse> completion = new AsyncCompletion<GetRowRequest, GetRowResponse>(
+                launcher, request, new TraceLogger("traceId", 1000), callbackExecutor, new DefaultRetryStrategy(), retryExecutor);
+        CallbackImpledFuture<GetRowRequest, GetRowResponse> future = new CallbackImpledFuture<GetRowRequest, GetRowResponse>();
+        completion.watchBy(future);
+        batcher.add(request, launcher, completion);
+        return future;
+    }
+
+    @Test
+    public void testSendWhenFull() throws Exception {
+        GetRowBatcher batcher = buildBatcher(3, TimeUnit.SECONDS.toMicros(3600));
+        AtomicInteger[] fired = new AtomicInteger[3];
+        List<CallbackImpledFuture<GetRowRequest, GetRowResponse>> futures = new ArrayList<CallbackImpledFuture<GetRowRequest, GetRowResponse>>();
+        for (int i = 0; i < 3; i++) {
+            fired[i] = new AtomicInteger();
+            futures.add(add(batcher, buildRequest(i), fired[i]));
+            assertEquals(i == 2 ? 1 : 0, sentRequests.size());
+        }
+        MultiRowQueryCriteria criteria = sentRequests.get(0).getCriteria("Table");
+        assertEquals(3, criteria.getRowKeys().size());
+        assertEquals(1, criteria.getMaxVersions());
+
+        BatchGetRowResponse response = new BatchGetRowResponse(new Response("requestId"));
+        response.addResult(new BatchGetRowResponse.RowResult("Table", buildRow(0), new ConsumedCapacity(new CapacityUnit(1, 0)), 0,
+                new byte[]{1, 2}));
+        response.addResult(new BatchGetRowResponse.RowResult("Table", null, new ConsumedCapacity(new CapacityUnit(1, 0)), 1));
+        response.addResult(new BatchGetRowResponse.RowResult("Table", new Error("OTSServerBusy", "busy"), 2));
+        sentCallbacks.get(0).onCompleted(sentRequests.get(0), response);
+
+        assertEquals(buildRow(0).toString(), futures.get(0).get(10, TimeUnit.SECONDS).getRow().toString());
+        // the row is partial, its token is kept
+        assertArrayEquals(new byte[]{1, 2}, futures.get(0).get(10, TimeUnit.SECONDS).getNextToken());
+        assertNull(futures.get(1).get(10, TimeUnit.SECONDS).getRow());
+        assertFalse(futures.get(1).get(10, TimeUnit.SECONDS).hasNextToken());
+        assertEquals("requestId", futures.get(1).get(10, TimeUnit.SECONDS).getRequestId());
+        // the failed row is sent again on its own
+        assertFalse(futures.get(2).isDone());
+        assertEquals(0, fired[0].get() + fired[1].get());
+        assertEquals(1, fired[2].get());
+        assertEquals(1, batcher.getBatchCount());
+        assertEquals(3, batcher.getBatchedRequestCount());
+        assertEquals(1, batcher.getRetriedRequestCount());
+        batcher.shutdown();
+    }
+
+    @Test
+    public void testSendAfterDelay() throws Exception {
+        GetRowBatcher batcher = buildBatcher(100, 1000);
+        add(batcher, buildRequest(1), new AtomicInteger());
+        add(batcher, buildRequest(2), new AtomicInteger());
+        Thread.sleep(500);
+        assertEquals(1, sentRequests.size());
+        assertEquals(2, sentRequests.get(0).getCriteria("Table").getRowKeys().size());
+        batcher.shutdown();
+    }
+
+    @Test
+    public void testBatchByCriteria() throws Exception {
+        GetRowBatcher batcher = buildBatcher(100, TimeUnit.SECONDS.toMicros(3600));
+        CallbackImpledFuture<GetRowRequest, GetRowResponse> first = add(batcher, buildRequest(1), new AtomicInteger());
+        CallbackImpledFuture<GetRowRequest, GetRowResponse> second = add(batcher, buildRequest(1), new AtomicInteger());
+        GetRowRequest otherColumns = buildRequest(1);
+        otherColumns.getRowQueryCriteria().addColumnsToGet("col");
+        add(batcher, otherColumns, new AtomicInteger());
+        // the pending batches are sent at shutdown
+        batcher.shutdown();
+        assertEquals(2, sentRequests.size());
+        assertEquals(3, batcher.getBatchedRequestCount());
+
+        BatchGetRowRequest request = sentRequests.get(0).getCriteria("Table").getColumnsToGet().isEmpty()
+                ? sentRequests.get(0) : sentRequests.get(1);
+        TableStoreCallback<BatchGetRowRequest, BatchGetRowResponse> callback = sentCallbacks.get(sentRequests.indexOf(request));
+        // the requests of the same row share it
+        assertEquals(1, request.getCriteria("Table").getRowKeys().size());
+        BatchGetRowResponse response = new BatchGetRowResponse(new Response("requestId"));
+        response.addResult(new BatchGetRowResponse.RowResult("Table", buildRow(1), new ConsumedCapacity(new CapacityUnit(1, 0)), 0));
+        callback.onCompleted(request, response);
+        assertEquals(buildRow(1).toString(), first.get(10, TimeUnit.SECONDS).getRow().toString());
+        assertEquals(buildRow(1).toString(), second.get(10, TimeUnit.SECONDS).getRow().toString());
+    }
+
+    @Test
+    public void testBatchFailure() throws Exception {
+        GetRowBatcher batcher = buildBatcher(2, TimeUnit.SECONDS.toMicros(3600));
+        AtomicInteger fired = new AtomicInteger();
+        CallbackImpledFuture<GetRowRequest, GetRowResponse> first = add(batcher, buildRequest(1), fired);
+        CallbackImpledFuture<GetRowRequest, GetRowResponse> second = add(batcher, buildRequest(2), fired);
+        ClientException failure = new ClientException("failed");
+        sentCallbacks.get(0).onFailed(sentRequests.get(0), failure);
+        for (CallbackImpledFuture<GetRowRequest, GetRowResponse> future : new CallbackImpledFuture[]{first, second}) {
+            try {
+                future.get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ClientException e) {
+                assertSame(failure, e.getCause());
+            }
+        }
+        assertEquals(0, fired.get());
+        batcher.shutdown();
+    }
+
+    @Test
+    public void testWithoutPartialRetry() {
+        RetryStrategy retry = GetRowBatcher.withoutPartialRetry(new DefaultRetryStrategy());
+        TableStoreException serverBusy = new TableStoreException("busy", null, ErrorCode.SERVER_BUSY, "requestId", 503);
+        assertTrue(retry.nextPause(OperationNames.OP_BATCH_GET_ROW, serverBusy) > 0);
+        PartialResultFailedException partial = new PartialResultFailedException(null, "requestId",
+                new BatchGetRowResponse(new Response("requestId")));
+        partial.addError(serverBusy);
+        assertEquals(0, retry.clone().nextPause(OperationNames.OP_BATCH_GET_ROW, partial));
+    }
+}
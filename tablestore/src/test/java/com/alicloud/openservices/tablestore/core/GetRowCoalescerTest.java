@@ -0,0 +1,223 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.ClientConfiguration;
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.core.auth.DefaultCredentialProvider;
+import com.alicloud.openservices.tablestore.core.http.AsyncServiceClient;
+import com.alicloud.openservices.tablestore.model.*;
+import com.alicloud.openservices.tablestore.model.filter.SingleColumnValueFilter;
+import com.aliyun.ots.thirdparty.org.apache.http.concurrent.FutureCallback;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class GetRowCoalescerTest {
+
+    private ClientConfiguration config;
+    private AsyncServiceClient client;
+    private ExecutorService callbackExecutor;
+    private ScheduledExecutorService retryExecutor;
+
+    @Before
+    public void setUp() {
+        config = new ClientConfiguration();
+        client = new AsyncServiceClient(config);
+        callbackExecutor = Executors.newFixedThreadPool(2);
+        retryExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        client.shutdown();
+        callbackExecutor.shutdown();
+        retryExecutor.shutdown();
+    }
+
+    private static GetRowRequest buildRequest(long pk) {
+        PrimaryKeyBuilder primaryKeyBuilder = PrimaryKeyBuilder.createPrimaryKeyBuilder();
+        primaryKeyBuilder.addPrimaryKeyColumn("PK", PrimaryKeyValue.fromLong(pk));
+        SingleRowQueryCriteria criteria = new SingleRowQueryCriteria("Table", primaryKeyBuilder.build());
+        criteria.setMaxVersions(1);
+        return new GetRowRequest(criteria);
+    }
+
+    /**
+     * The completion of a request, whose launcher never sends it.
+     */
+    private AsyncCompletion<GetRowRequest, GetRowResponse> buildCompletion(GetRowRequest request,
+            CallbackImpledFuture<GetRowRequest, GetRowResponse> future) {
+        AsyncCompletion<GetRowRequest, GetRowResponse> completion = new AsyncCompletion<GetRowRequest, GetRowResponse>(
+                new OperationLauncher<GetRowRequest, GetRowResponse>("", client,
+                        new DefaultCredentialProvider("accessid", "accesskey"), config, request) {
+                    @Override
+                    public void fire(GetRowRequest request, FutureCallback<GetRowResponse> cb) {
+                        fail();
+                    }
+                }, request, new TraceLogger("traceId", 1000), callbackExecutor, new DefaultRetryStrategy(), retryExecutor);
+        completion.watchBy(future);
+        return completion;
+    }
+
+    @Test
+    public void testCoalesceIdenticalRequests() throws Exception {
+        GetRowCoalescer coalescer = new GetRowCoalescer();
+        CallbackImpledFuture<GetRowRequest, GetRowResponse>[] futures = new CallbackImpledFuture[3];
+        AsyncCompletion<GetRowRequest, GetRowResponse> leader = null;
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = new CallbackImpledFuture<GetRowRequest, GetRowResponse>();
+            AsyncCompletion<GetRowRequest, GetRowResponse> completion = buildCompletion(buildRequest(1), futures[i]);
+            // only the first request is sent
+            assertEquals(i > 0, coalescer.coalesce(buildRequest(1), completion));
+            if (i == 0) {
+                leader = completion;
+            }
+        }
+        assertEquals(1, coalescer.getInFlightCount());
+
+        Row row = new Row(buildRequest(1).getRowQueryCriteria().getPrimaryKey(),
+                new Column[]{new Column("col", ColumnValue.fromLong(1), 1)});
+        leader.completed(new GetRowResponse(new Response("requestId"), row, new ConsumedCapacity(new CapacityUnit(1, 0))));
+        for (CallbackImpledFuture<GetRowRequest, GetRowResponse> future : futures) {
+            assertSame(row, future.get(10, TimeUnit.SECONDS).getRow());
+        }
+        assertEquals(1, coalescer.getSentCount());
+        assertEquals(2, coalescer.getCoalescedCount());
+        assertEquals(0, coalescer.getInFlightCount());
+
+        // a request after the response is sent again
+        assertFalse(coalescer.coalesce(buildRequest(1),
+                buildCompletion(buildRequest(1), new CallbackImpledFuture<GetRowRequest, GetRowResponse>())));
+        assertEquals(2, coalescer.getSentCount());
+    }
+
+    @Test
+    public void testFailureFansOut() throws Exception {
+        GetRowCoalescer coalescer = new GetRowCoalescer();
+        CallbackImpledFuture<GetRowRequest, GetRowResponse> leaderFuture = new CallbackImpledFuture<GetRowRequest, GetRowResponse>();
+        CallbackImpledFuture<GetRowRequest, GetRowResponse> followerFuture = new CallbackImpledFuture<GetRowRequest, GetRowResponse>();
+        AsyncCompletion<GetRowRequest, GetRowResponse> leader = buildCompletion(buildRequest(1), leaderFuture);
+        assertFalse(coalescer.coalesce(buildRequest(1), leader));
+        assertTrue(coalescer.coalesce(buildRequest(1), buildCompletion(buildRequest(1), followerFuture)));
+
+        ClientException failure = new ClientException("failed");
+        leader.onFailed(buildRequest(1), failure);
+        for (CallbackImpledFuture<GetRowRequest, GetRowResponse> future : new CallbackImpledFuture[]{leaderFuture, followerFuture}) {
+            try {
+                future.get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ClientException e) {
+                assertSame(failure, e.getCause());
+            }
+        }
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    public void testInvalidateDetachesRequestsInFlight() throws Exception {
+        GetRowCoalescer coalescer = new GetRowCoalescer();
+        CallbackImpledFuture<GetRowRequest, GetRowResponse> leaderFuture = new CallbackImpledFuture<GetRowRequest, GetRowResponse>();
+        CallbackImpledFuture<GetRowRequest, GetRowResponse> followerFuture = new CallbackImpledFuture<GetRowRequest, GetRowResponse>();
+        AsyncCompletion<GetRowRequest, GetRowResponse> leader = buildCompletion(buildRequest(1), leaderFuture);
+        assertFalse(coalescer.coalesce(buildRequest(1), leader));
+        assertTrue(coalescer.coalesce(buildRequest(1), buildCompletion(buildRequest(1), followerFuture)));
+        assertFalse(coalescer.coalesce(buildRequest(2),
+                buildCompletion(buildRequest(2), new CallbackImpledFuture<GetRowRequest, GetRowResponse>())));
+
+        // a write of the row, the requests issued afterwards are sent again
+        coalescer.invalidate("Table", buildRequest(1).getRowQueryCriteria().getPrimaryKey());
+        assertEquals(1, coalescer.getInFlightCount());
+        assertFalse(coalescer.coalesce(buildRequest(1),
+                buildCompletion(buildRequest(1), new CallbackImpledFuture<GetRowRequest, GetRowResponse>())));
+        assertEquals(2, coalescer.getInFlightCount());
+        assertEquals(3, coalescer.getSentCount());
+
+        // the requests which have joined before the write still share the response
+        Row row = new Row(buildRequest(1).getRowQueryCriteria().getPrimaryKey(),
+                new Column[]{new Column("col", ColumnValue.fromLong(1), 1)});
+        leader.completed(new GetRowResponse(new Response("requestId"), row, new ConsumedCapacity(new CapacityUnit(1, 0))));
+        assertSame(row, leaderFuture.get(10, TimeUnit.SECONDS).getRow());
+        assertSame(row, followerFuture.get(10, TimeUnit.SECONDS).getRow());
+        // the completion of the detached request leaves the new request in flight
+        assertEquals(2, coalescer.getInFlightCount());
+    }
+
+    @Test
+    public void testInvalidateDetachesAllRequestsOfTheRowOnly() throws Exception {
+        GetRowCoalescer coalescer = new GetRowCoalescer();
+        GetRowRequest allColumns = buildRequest(1);
+        GetRowRequest someColumns = buildRequest(1);
+        someColumns.getRowQueryCriteria().addColumnsToGet("col");
+        AsyncCompletion<GetRowRequest, GetRowResponse> leader = buildCompletion(allColumns,
+                new CallbackImpledFuture<GetRowRequest, GetRowResponse>());
+        assertFalse(coalescer.coalesce(allColumns, leader));
+        assertFalse(coalescer.coalesce(someColumns,
+                buildCompletion(someColumns, new CallbackImpledFuture<GetRowRequest, GetRowResponse>())));
+        assertFalse(coalescer.coalesce(buildRequest(2),
+                buildCompletion(buildRequest(2), new CallbackImpledFuture<GetRowRequest, GetRowResponse>())));
+        assertEquals(3, coalescer.getInFlightCount());
+
+        // both requests of the row are detached, the request of the other row is not
+        coalescer.invalidate("Table", buildRequest(1).getRowQueryCriteria().getPrimaryKey());
+        coalescer.invalidate("OtherTable", buildRequest(2).getRowQueryCriteria().getPrimaryKey());
+        assertEquals(1, coalescer.getInFlightCount());
+        assertTrue(coalescer.coalesce(buildRequest(2),
+                buildCompletion(buildRequest(2), new CallbackImpledFuture<GetRowRequest, GetRowResponse>())));
+
+        // the requests issued after the write are in flight again, and detached by the next write
+        assertFalse(coalescer.coalesce(buildRequest(1),
+                buildCompletion(buildRequest(1), new CallbackImpledFuture<GetRowRequest, GetRowResponse>())));
+        assertTrue(coalescer.coalesce(buildRequest(1),
+                buildCompletion(buildRequest(1), new CallbackImpledFuture<GetRowRequest, GetRowResponse>())));
+        // the completion of a detached request leaves them in flight
+        leader.completed(new GetRowResponse(new Response("requestId"), null, new ConsumedCapacity(new CapacityUnit(1, 0))));
+        assertEquals(2, coalescer.getInFlightCount());
+        coalescer.invalidate("Table", buildRequest(1).getRowQueryCriteria().getPrimaryKey());
+        assertEquals(1, coalescer.getInFlightCount());
+        assertFalse(coalescer.coalesce(buildRequest(1),
+                buildCompletion(buildRequest(1), new CallbackImpledFuture<GetRowRequest, GetRowResponse>())));
+    }
+
+    @Test
+    public void testDifferentRequestsAreNotCoalesced() {
+        GetRowCoalescer coalescer = new GetRowCoalescer();
+        GetRowRequest[] requests = new GetRowRequest[5];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = buildRequest(1);
+        }
+        requests[1] = buildRequest(2);
+        requests[2].getRowQueryCriteria().addColumnsToGet("col");
+        requests[3].getRowQueryCriteria().setMaxVersions(2);
+        requests[4].getRowQueryCriteria().setTimeRange(new TimeRange(0, 100));
+        for (GetRowRequest request : requests) {
+            assertFalse(coalescer.coalesce(request,
+                    buildCompletion(request, new CallbackImpledFuture<GetRowRequest, GetRowResponse>())));
+        }
+        assertEquals(requests.length, coalescer.getInFlightCount());
+        assertEquals(0, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void testIsCoalescible() {
+        assertTrue(GetRowCoalescer.isCoalescible(buildRequest(1)));
+
+        GetRowRequest request = buildRequest(1);
+        request.getRowQueryCriteria().setFilter(
+                new SingleColumnValueFilter("col", SingleColumnValueFilter.CompareOperator.EQUAL, ColumnValue.fromLong(1)));
+        assertFalse(GetRowCoalescer.isCoalescible(request));
+
+        request = buildRequest(1);
+        request.getRowQueryCriteria().setStartColumn("col");
+        assertFalse(GetRowCoalescer.isCoalescible(request));
+
+        request = buildRequest(1);
+        request.setTransactionId("transactionId");
+        assertFalse(GetRowCoalescer.isCoalescible(request));
+    }
+}
@@ -0,0 +1,196 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.ClientConfiguration;
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.HedgingConfiguration;
+import com.alicloud.openservices.tablestore.core.auth.DefaultCredentialProvider;
+import com.alicloud.openservices.tablestore.core.http.AsyncServiceClient;
+import com.alicloud.openservices.tablestore.model.*;
+import com.aliyun.ots.thirdparty.org.apache.http.concurrent.FutureCallback;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class RequestHedgerTest {
+
+    private AsyncServiceClient client;
+
+    private static class RecordingCallback implements FutureCallback<GetRowResponse> {
+        private final AtomicInteger completedCount = new AtomicInteger();
+        private final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+
+        @Override
+        public void completed(GetRowResponse result) {
+            completedCount.incrementAndGet();
+        }
+
+        @Override
+        public void failed(Exception ex) {
+            failure.set(ex);
+        }
+
+        @Override
+        public void cancelled() {
+        }
+    }
+
+    private GetRowRequest buildRequest() {
+        PrimaryKeyBuilder primaryKeyBuilder = PrimaryKeyBuilder.createPrimaryKeyBuilder();
+        primaryKeyBuilder.addPrimaryKeyColumn("PK", PrimaryKeyValue.fromLong(1));
+        return new GetRowRequest(new SingleRowQueryCriteria("Table", primaryKeyBuilder.build()));
+    }
+
+    /**
+     * A launcher which keeps the callbacks of the fired requests instead of sending them.
+     */
+    private OperationLauncher<GetRowRequest, GetRowResponse> buildLauncher(
+            HedgingConfiguration hedgingConfig, final List<FutureCallback<GetRowResponse>> fired) {
+        ClientConfiguration config = new ClientConfiguration();
+        config.setHedgingConfiguration(hedgingConfig);
+        client = new AsyncServiceClient(config);
+        return new OperationLauncher<GetRowRequest, GetRowResponse>("", client,
+                new DefaultCredentialProvider("accessid", "accesskey"), config, buildRequest()) {
+            @Override
+            public void fire(GetRowRequest request, FutureCallback<GetRowResponse> cb) {
+                fired.add(cb);
+            }
+        };
+    }
+
+    private static HedgingConfiguration buildConfig(int maxHedgeTokens) {
+        HedgingConfiguration config = new HedgingConfiguration();
+        config.setMinDelayInMillis(50);
+        config.setMaxHedgeTokens(maxHedgeTokens);
+        config.setHedgeRatio(0.001);
+        return config;
+    }
+
+    private static GetRowResponse buildResponse() {
+        return new GetRowResponse(new Response("requestId"), null, new ConsumedCapacity(new CapacityUnit(1, 0)));
+    }
+
+    /**
+     * Completes enough requests at once for the hedge delay to be the min delay.
+     */
+    private void warmUp(OperationLauncher<GetRowRequest, GetRowResponse> launcher,
+                        List<FutureCallback<GetRowResponse>> fired) {
+        for (int i = 0; i < 100; i++) {
+            launcher.launch(buildRequest(), new RecordingCallback());
+            fired.remove(0).completed(buildResponse());
+        }
+        assertEquals(50, client.getRequestHedger().getHedgeDelayInMillis(OperationNames.OP_GET_ROW));
+        assertEquals(0, client.getRequestHedger().getHedgeCount());
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    @Test
+    public void testHedgeWinsAndCancelsOriginal() throws InterruptedException {
+        List<FutureCallback<GetRowResponse>> fired = Collections.synchronizedList(new ArrayList<FutureCallback<GetRowResponse>>());
+        OperationLauncher<GetRowRequest, GetRowResponse> launcher = buildLauncher(buildConfig(10), fired);
+        warmUp(launcher, fired);
+
+        RecordingCallback callback = new RecordingCallback();
+        launcher.launch(buildRequest(), callback);
+        assertEquals(1, fired.size());
+        FutureTask<Object> originalExchange = new FutureTask<Object>(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, null);
+        ((RequestHedger.Attempt<GetRowResponse>) fired.get(0)).setFuture(originalExchange);
+        Thread.sleep(300);
+        assertEquals(2, fired.size());
+
+        fired.get(1).completed(buildResponse());
+        assertEquals(1, callback.completedCount.get());
+        assertTrue(originalExchange.isCancelled());
+        // the cancelled original request is ignored
+        fired.get(0).cancelled();
+        fired.get(0).completed(buildResponse());
+        assertEquals(1, callback.completedCount.get());
+        assertNull(callback.failure.get());
+        assertEquals(1, client.getRequestHedger().getHedgeCount());
+        assertEquals(1, client.getRequestHedger().getWonHedgeCount());
+    }
+
+    @Test
+    public void testNoHedgeForFastResponse() throws InterruptedException {
+        List<FutureCallback<GetRowResponse>> fired = Collections.synchronizedList(new ArrayList<FutureCallback<GetRowResponse>>());
+        OperationLauncher<GetRowRequest, GetRowResponse> launcher = buildLauncher(buildConfig(10), fired);
+        warmUp(launcher, fired);
+
+        RecordingCallback callback = new RecordingCallback();
+        launcher.launch(buildRequest(), callback);
+        fired.get(0).completed(buildResponse());
+        Thread.sleep(300);
+        assertEquals(1, fired.size());
+        assertEquals(1, callback.completedCount.get());
+        assertEquals(0, client.getRequestHedger().getHedgeCount());
+    }
+
+    @Test
+    public void testFailsOnceAllRequestsFailed() throws InterruptedException {
+        List<FutureCallback<GetRowResponse>> fired = Collections.synchronizedList(new ArrayList<FutureCallback<GetRowResponse>>());
+        OperationLauncher<GetRowRequest, GetRowResponse> launcher = buildLauncher(buildConfig(10), fired);
+        warmUp(launcher, fired);
+
+        // a failure before the hedge delay fails the call at once
+        RecordingCallback callback = new RecordingCallback();
+        launcher.launch(buildRequest(), callback);
+        fired.remove(0).failed(new ClientException("connection reset"));
+        assertNotNull(callback.failure.get());
+        Thread.sleep(300);
+        assertTrue(fired.isEmpty());
+
+        // after the hedge is sent, the call waits for both requests
+        callback = new RecordingCallback();
+        launcher.launch(buildRequest(), callback);
+        Thread.sleep(300);
+        assertEquals(2, fired.size());
+        fired.get(0).failed(new ClientException("connection reset"));
+        assertNull(callback.failure.get());
+        ClientException lastFailure = new ClientException("timeout");
+        fired.get(1).failed(lastFailure);
+        assertSame(lastFailure, callback.failure.get());
+        assertEquals(0, callback.completedCount.get());
+    }
+
+    @Test
+    public void testHedgesLimitedByTokens() throws InterruptedException {
+        List<FutureCallback<GetRowResponse>> fired = Collections.synchronizedList(new ArrayList<FutureCallback<GetRowResponse>>());
+        OperationLauncher<GetRowRequest, GetRowResponse> launcher = buildLauncher(buildConfig(1), fired);
+        warmUp(launcher, fired);
+
+        launcher.launch(buildRequest(), new RecordingCallback());
+        launcher.launch(buildRequest(), new RecordingCallback());
+        Thread.sleep(300);
+        // the bucket holds a single token
+        assertEquals(3, fired.size());
+        assertEquals(1, client.getRequestHedger().getHedgeCount());
+        assertEquals(1, client.getRequestHedger().getRejectedHedgeCount());
+    }
+
+    @Test
+    public void testOnlyPointReadsAreHedged() {
+        RequestHedger hedger = new RequestHedger(new HedgingConfiguration());
+        assertTrue(hedger.isHedgeable(OperationNames.OP_GET_ROW));
+        assertTrue(hedger.isHedgeable(OperationNames.OP_BATCH_GET_ROW));
+        assertFalse(hedger.isHedgeable(OperationNames.OP_PUT_ROW));
+        assertFalse(hedger.isHedgeable(OperationNames.OP_GET_RANGE));
+        hedger.shutdown();
+    }
+}
@@ -0,0 +1,94 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.ClientConfiguration;
+import com.alicloud.openservices.tablestore.RetryBudgetConfiguration;
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.core.auth.DefaultCredentialProvider;
+import com.alicloud.openservices.tablestore.core.http.AsyncServiceClient;
+import com.alicloud.openservices.tablestore.model.*;
+import com.aliyun.ots.thirdparty.org.apache.http.concurrent.FutureCallback;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class RetryBudgetTest {
+
+    private static RetryBudgetConfiguration buildConfig(double retryRatio, int minRetriesPerSecond) {
+        RetryBudgetConfiguration config = new RetryBudgetConfiguration();
+        config.setRetryRatio(retryRatio);
+        config.setMinRetriesPerSecond(minRetriesPerSecond);
+        config.setWindowSizeInSec(10);
+        return config;
+    }
+
+    @Test
+    public void testRetryRatio() {
+        RetryBudget budget = new RetryBudget(buildConfig(0.1, 0));
+        assertFalse(budget.tryAcquireRetry());
+        for (int i = 0; i < 100; i++) {
+            budget.recordRequest();
+        }
+        for (int i = 0; i < 10; i++) {
+            assertTrue(budget.tryAcquireRetry());
+        }
+        assertFalse(budget.tryAcquireRetry());
+        assertEquals(100, budget.getRequestCount());
+        assertEquals(10, budget.getRetryCount());
+        assertEquals(2, budget.getRejectedRetryCount());
+    }
+
+    @Test
+    public void testMinRetries() {
+        RetryBudget budget = new RetryBudget(buildConfig(0, 1));
+        // one retry per second of the window, whatever the requests
+        for (int i = 0; i < 10; i++) {
+            assertTrue(budget.tryAcquireRetry());
+        }
+        assertFalse(budget.tryAcquireRetry());
+    }
+
+    @Test
+    public void testCompletionFailsFastWhenBudgetIsSpent() throws InterruptedException {
+        ClientConfiguration config = new ClientConfiguration();
+        config.setRetryBudgetConfiguration(buildConfig(0, 0));
+        AsyncServiceClient client = new AsyncServiceClient(config);
+        client.shutdown();
+        ExecutorService callbackExecutor = Executors.newFixedThreadPool(1);
+        ScheduledExecutorService retryExecutor = Executors.newSingleThreadScheduledExecutor();
+
+        PrimaryKeyBuilder primaryKeyBuilder = PrimaryKeyBuilder.createPrimaryKeyBuilder();
+        primaryKeyBuilder.addPrimaryKeyColumn("PK", PrimaryKeyValue.fromLong(1));
+        GetRowRequest request = new GetRowRequest(new SingleRowQueryCriteria("Table", primaryKeyBuilder.build()));
+        final AtomicInteger fired = new AtomicInteger();
+        final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+        AsyncCompletion<GetRowRequest, GetRowResponse> completion = new AsyncCompletion<GetRowRequest, GetRowResponse>(
+                new OperationLauncher<GetRowRequest, GetRowResponse>("", client,
+                        new DefaultCredentialProvider("accessid", "accesskey"), config, request) {
+                    @Override
+                    public void fire(GetRowRequest request, FutureCallback<GetRowResponse> cb) {
+                        fired.incrementAndGet();
+                    }
+                }, request, new TraceLogger("traceId", 1000), callbackExecutor, new DefaultRetryStrategy(), retryExecutor) {
+            @Override
+            public void onFailed(GetRowRequest req, Exception ex) {
+                failure.set(ex);
+            }
+        };
+
+        TableStoreException serverBusy = new TableStoreException("busy", null, ErrorCode.SERVER_BUSY, "requestId", 503);
+        completion.failed(serverBusy);
+        Thread.sleep(100);
+        assertEquals(0, fired.get());
+        assertSame(serverBusy, failure.get());
+        assertEquals(1, client.getRetryBudget().getRejectedRetryCount());
+
+        callbackExecutor.shutdown();
+        retryExecutor.shutdown();
+    }
+}
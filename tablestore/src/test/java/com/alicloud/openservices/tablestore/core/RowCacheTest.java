@@ -0,0 +1,198 @@
+package com.alicloud.openservices.tablestore.core;
+
+import com.alicloud.openservices.tablestore.AsyncClient;
+import com.alicloud.openservices.tablestore.ClientConfiguration;
+import com.alicloud.openservices.tablestore.RowCacheConfiguration;
+import com.alicloud.openservices.tablestore.model.*;
+import com.alicloud.openservices.tablestore.reader.ReaderCallback;
+import com.alicloud.openservices.tablestore.reader.ReaderGroup;
+import com.alicloud.openservices.tablestore.reader.ReaderStatistics;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RowCacheTest {
+
+    private static final Set<String> ALL_COLUMNS = Collections.emptySet();
+
+    private static PrimaryKey buildPrimaryKey(long value) {
+        return PrimaryKeyBuilder.createPrimaryKeyBuilder().addPrimaryKeyColumn("pk", PrimaryKeyValue.fromLong(value)).build();
+    }
+
+    private static Row buildRow(long value) {
+        return new Row(buildPrimaryKey(value), new Column[]{new Column("col", ColumnValue.fromLong(value), 1)});
+    }
+
+    private static RowCacheConfiguration buildConfig() {
+        RowCacheConfiguration config = new RowCacheConfiguration();
+        config.setTtlInMillis(60000);
+        config.setNegativeTtlInMillis(60000);
+        return config;
+    }
+
+    @Test
+    public void testGetAndPut() {
+        RowCache cache = new RowCache(buildConfig());
+        assertNull(cache.get("table", buildPrimaryKey(1), ALL_COLUMNS));
+        cache.put("table", buildPrimaryKey(1), ALL_COLUMNS, buildRow(1), System.nanoTime());
+        cache.put("table", buildPrimaryKey(2), ALL_COLUMNS, null, System.nanoTime());
+
+        assertEquals(buildRow(1).toString(), cache.get("table", buildPrimaryKey(1), ALL_COLUMNS).getRow().toString());
+        // the absence of the row is cached
+        assertNotNull(cache.get("table", buildPrimaryKey(2), ALL_COLUMNS));
+        assertNull(cache.get("table", buildPrimaryKey(2), ALL_COLUMNS).getRow());
+        // the other columns or tables are other entries
+        assertNull(cache.get("table", buildPrimaryKey(1), Collections.singleton("col")));
+        assertNull(cache.get("table2", buildPrimaryKey(1), ALL_COLUMNS));
+        assertEquals(3, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(2, cache.getRowCount());
+    }
+
+    @Test
+    public void testInvalidate() {
+        RowCache cache = new RowCache(buildConfig());
+        long sentAtNanos = System.nanoTime();
+        cache.put("table", buildPrimaryKey(1), ALL_COLUMNS, buildRow(1), sentAtNanos);
+        cache.put("table", buildPrimaryKey(1), new HashSet<String>(Collections.singleton("col")), buildRow(1), sentAtNanos);
+        cache.invalidate("table", buildPrimaryKey(1));
+        assertNull(cache.get("table", buildPrimaryKey(1), ALL_COLUMNS));
+        assertNull(cache.get("table", buildPrimaryKey(1), Collections.singleton("col")));
+        assertEquals(0, cache.getRowCount());
+        assertEquals(0, cache.getWeightInBytes());
+
+        // a response of a request sent before the invalidation is not cached
+        cache.put("table", buildPrimaryKey(1), ALL_COLUMNS, buildRow(1), sentAtNanos);
+        assertNull(cache.get("table", buildPrimaryKey(1), ALL_COLUMNS));
+        cache.put("table", buildPrimaryKey(1), ALL_COLUMNS, buildRow(1), System.nanoTime());
+        assertNotNull(cache.get("table", buildPrimaryKey(1), ALL_COLUMNS));
+    }
+
+    @Test
+    public void testExpire() throws InterruptedException {
+        RowCacheConfiguration config = new RowCacheConfiguration();
+        config.setTtlInMillis(100);
+        config.setNegativeTtlInMillis(0);
+        RowCache cache = new RowCache(config);
+        cache.put("table", buildPrimaryKey(1), ALL_COLUMNS, buildRow(1), System.nanoTime());
+        cache.put("table", buildPrimaryKey(2), ALL_COLUMNS, null, System.nanoTime());
+        assertNotNull(cache.get("table", buildPrimaryKey(1), ALL_COLUMNS));
+        assertNull(cache.get("table", buildPrimaryKey(2), ALL_COLUMNS));
+        Thread.sleep(200);
+        assertNull(cache.get("table", buildPrimaryKey(1), ALL_COLUMNS));
+        assertEquals(0, cache.getRowCount());
+    }
+
+    @Test
+    public void testEvictByCountAndWeight() {
+        RowCacheConfiguration config = buildConfig();
+        config.setMaxRowCount(16 * 8);
+        RowCache cache = new RowCache(config);
+        for (int i = 0; i < 10000; i++) {
+            cache.put("table", buildPrimaryKey(i), ALL_COLUMNS, buildRow(i), System.nanoTime());
+            assertTrue(cache.getRowCount() <= 16 * 8);
+        }
+        assertTrue(cache.getEvictionCount() >= 10000 - 16 * 8);
+
+        config = buildConfig();
+        config.setMaxWeightInBytes(16 * 1024);
+        cache = new RowCache(config);
+        for (int i = 0; i < 10000; i++) {
+            cache.put("table", buildPrimaryKey(i), ALL_COLUMNS, buildRow(i), System.nanoTime());
+            assertTrue(cache.getWeightInBytes() <= 16 * 1024);
+        }
+        assertTrue(cache.getRowCount() > 0);
+    }
+
+    @Test
+    public void testIsCacheable() {
+        SingleRowQueryCriteria criteria = new SingleRowQueryCriteria("table", buildPrimaryKey(1));
+        assertFalse(RowCache.isCacheable(criteria));
+        criteria.setMaxVersions(1);
+        assertTrue(RowCache.isCacheable(criteria));
+        criteria.setMaxVersions(2);
+        assertFalse(RowCache.isCacheable(criteria));
+        criteria.setMaxVersions(1);
+        criteria.setTimeRange(new TimeRange(0, 100));
+        assertFalse(RowCache.isCacheable(criteria));
+    }
+
+    @Test
+    public void testClientReadsThroughCache() throws Exception {
+        ClientConfiguration config = new ClientConfiguration();
+        config.setRowCacheConfiguration(buildConfig());
+        config.setRetryStrategy(new AlwaysRetryStrategy(1, 2));
+        // nothing listens on the endpoint, so a request which is sent fails
+        AsyncClient client = new AsyncClient("http://127.0.0.1:9", "accessid", "accesskey", "instance", config);
+        try {
+            RowCache cache = client.getRowCache();
+            cache.put("table", buildPrimaryKey(1), ALL_COLUMNS, buildRow(1), System.nanoTime());
+
+            SingleRowQueryCriteria criteria = new SingleRowQueryCriteria("table", buildPrimaryKey(1));
+            criteria.setMaxVersions(1);
+            GetRowResponse response = client.getRow(new GetRowRequest(criteria), null).get(10, TimeUnit.SECONDS);
+            assertEquals(buildRow(1).toString(), response.getRow().toString());
+            assertEquals(1, cache.getHitCount());
+
+            // the write invalidates the row even if it fails
+            try {
+                client.putRow(new PutRowRequest(new RowPutChange("table", buildPrimaryKey(1))), null).get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (Exception e) {
+                assertNull(cache.get("table", buildPrimaryKey(1), ALL_COLUMNS));
+            }
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    @Test
+    public void testPartialRowIsNotCached() {
+        ClientConfiguration config = new ClientConfiguration();
+        config.setRowCacheConfiguration(buildConfig());
+        AsyncClient client = new AsyncClient("http://127.0.0.1:9", "accessid", "accesskey", "instance", config);
+        try {
+            MultiRowQueryCriteria criteria = new MultiRowQueryCriteria("table");
+            criteria.setMaxVersions(1);
+            criteria.addRow(buildPrimaryKey(1));
+            criteria.addRow(buildPrimaryKey(2));
+            BatchGetRowRequest request = new BatchGetRowRequest();
+            request.addMultiRowQueryCriteria(criteria);
+            Map<String, List<ReaderGroup>> groupMap = new HashMap<String, List<ReaderGroup>>();
+            groupMap.put("table", Arrays.asList(new ReaderGroup(1), new ReaderGroup(1)));
+            Executor executor = new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    command.run();
+                }
+            };
+            ReaderCallback<BatchGetRowRequest, BatchGetRowResponse> callback = new ReaderCallback<BatchGetRowRequest, BatchGetRowResponse>(
+                    client, new AtomicInteger(1), new Semaphore(0), null, executor, new Semaphore(0), new ReaderStatistics(), groupMap);
+
+            BatchGetRowResponse response = new BatchGetRowResponse(new Response("requestId"));
+            // the first row is wide, the rest of its columns are read with the token
+            response.addResult(new BatchGetRowResponse.RowResult("table", buildRow(1), new ConsumedCapacity(new CapacityUnit(1, 0)), 0,
+                    new byte[]{1}));
+            response.addResult(new BatchGetRowResponse.RowResult("table", buildRow(2), new ConsumedCapacity(new CapacityUnit(1, 0)), 1));
+            callback.onCompleted(request, response);
+
+            RowCache cache = client.getRowCache();
+            assertNull(cache.get("table", buildPrimaryKey(1), ALL_COLUMNS));
+            assertEquals(buildRow(2).toString(), cache.get("table", buildPrimaryKey(2), ALL_COLUMNS).getRow().toString());
+        } finally {
+            client.shutdown();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.alicloud.openservices.tablestore.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SlidingWindowCounterTest {
+
+    @Test
+    public void testSlide() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10, 2);
+        counter.add(0, 100);
+        counter.add(0, 100);
+        counter.add(1, 105);
+        assertEquals(2, counter.sum(0, 105));
+        assertEquals(1, counter.sum(1, 105));
+        assertEquals(2, counter.sum(0, 109));
+        // the bucket of the second 100 is out of the window
+        assertEquals(0, counter.sum(0, 110));
+        assertEquals(1, counter.sum(1, 110));
+        // the bucket is reused by a later second
+        counter.add(1, 115);
+        assertEquals(1, counter.sum(1, 115));
+    }
+
+    @Test
+    public void testResetWithClockOriginNearZero() {
+        // the seconds are derived from System.nanoTime, whose origin is arbitrary
+        for (long origin : new long[]{-1, 0, 1, -25, Long.MIN_VALUE / 2}) {
+            SlidingWindowCounter counter = new SlidingWindowCounter(10, 2);
+            for (int i = 0; i < 10; i++) {
+                counter.add(1, origin + i % 3);
+            }
+            assertEquals(10, counter.sum(1, origin + 2));
+            counter.reset();
+            for (int i = 0; i < 3; i++) {
+                assertEquals(0, counter.sum(0, origin + i));
+                assertEquals(0, counter.sum(1, origin + i));
+            }
+            counter.add(0, origin + 3);
+            assertEquals(1, counter.sum(0, origin + 3));
+            assertEquals(0, counter.sum(1, origin + 3));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.alicloud.openservices.tablestore.core.auth;
+
+import com.alicloud.openservices.tablestore.core.Constants;
+import com.alicloud.openservices.tablestore.core.http.OTSUri;
+import com.alicloud.openservices.tablestore.core.http.RequestMessage;
+import com.alicloud.openservices.tablestore.core.utils.Bytes;
+import com.alicloud.openservices.tablestore.core.utils.DateUtil;
+import com.aliyun.ots.thirdparty.org.apache.http.client.methods.HttpPost;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RequestSignerCacheTest {
+
+    private static String sign(RequestSigner signer, String date) {
+        OTSUri uri = new OTSUri("http://localhost", "GetRow");
+        RequestMessage request = new RequestMessage(new HttpPost(uri.getUri()));
+        request.setActionUri(uri);
+        request.addHeader(Constants.OTS_HEADER_DATE, date);
+        signer.sign(request);
+        return request.getRequest().getFirstHeader(Constants.OTS_HEADER_SIGNATURE).getValue();
+    }
+
+    @Test
+    public void testSignerIsReusedUntilCredentialsChange() {
+        RequestSignerCache cache = new RequestSignerCache();
+        ServiceCredentials credentials = new DefaultCredentials("accessKeyId", "accessKeySecret");
+
+        RequestSigner signer = cache.getSigner("instance", credentials);
+        assertSame(signer, cache.getSigner("instance", credentials));
+        assertNotSame(signer, cache.getSigner("another", credentials));
+
+        ServiceCredentials newCredentials = new DefaultCredentials("accessKeyId", "newAccessKeySecret");
+        RequestSigner newSigner = cache.getSigner("instance", newCredentials);
+        assertNotSame(signer, newSigner);
+        assertFalse(signer.isSigningWith(newCredentials));
+        assertTrue(newSigner.isSigningWith(newCredentials));
+    }
+
+    @Test
+    public void testCachedSignerSignsLikeNewSigner() {
+        RequestSignerCache cache = new RequestSignerCache();
+        ServiceCredentials credentials = new DefaultCredentials("accessKeyId", "accessKeySecret");
+        RequestSigner cached = cache.getSigner("instance", credentials);
+
+        for (int i = 0; i < 3; i++) {
+            String date = "2024-01-0" + (i + 1) + "T00:00:00.000Z";
+            assertEquals(sign(new RequestSigner("instance", credentials), date), sign(cached, date));
+        }
+    }
+
+    @Test
+    public void testCopiedSignature() {
+        HmacSHA256Signature prototype = new HmacSHA256Signature(Bytes.toBytes("key"));
+        HmacSHA256Signature fresh = new HmacSHA256Signature(Bytes.toBytes("key"));
+        fresh.updateUTF8String("data");
+
+        HmacSHA256Signature copy = prototype.copy();
+        copy.updateUTF8String("data");
+        assertEquals(fresh.computeSignature(), copy.computeSignature());
+
+        // the prototype is not changed by its copies
+        HmacSHA256Signature another = prototype.copy();
+        another.updateUTF8String("other");
+        HmacSHA256Signature expected = new HmacSHA256Signature(Bytes.toBytes("key"));
+        expected.updateUTF8String("other");
+        assertEquals(expected.computeSignature(), another.computeSignature());
+    }
+
+    @Test
+    public void testCachedIso8601Date() {
+        String date = DateUtil.getCachedIso8601Date();
+        long skew = Math.abs(DateUtil.parseIso8601Date(date).getTime() - System.currentTimeMillis());
+        assertTrue(skew <= 10000);
+    }
+}
@@ -0,0 +1,86 @@
+package com.alicloud.openservices.tablestore.core.http;
+
+import com.alicloud.openservices.tablestore.core.utils.BinaryUtil;
+import com.alicloud.openservices.tablestore.core.utils.CompressUtil;
+import com.aliyun.ots.thirdparty.org.apache.http.entity.ByteArrayEntity;
+import com.aliyun.ots.thirdparty.org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import static org.junit.Assert.*;
+
+public class RequestBodyTest {
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void testWriteAndGrow() throws Exception {
+        byte[] content = randomBytes(100000);
+        RequestBody body = RequestBody.acquire(10);
+        body.write(content[0]);
+        body.write(content, 1, content.length - 1);
+
+        assertEquals(content.length, body.size());
+        assertArrayEquals(BinaryUtil.calculateMd5(content), body.digestMd5());
+        ByteArrayEntity entity = body.toEntity();
+        assertEquals(content.length, entity.getContentLength());
+        assertArrayEquals(content, EntityUtils.toByteArray(entity));
+        body.release();
+    }
+
+    @Test
+    public void testCommitInPlace() throws Exception {
+        byte[] content = randomBytes(5000);
+        RequestBody body = RequestBody.acquire(content.length);
+        body.ensureFree(content.length);
+        System.arraycopy(content, 0, body.array(), body.size(), content.length);
+        body.commit(content.length);
+
+        assertArrayEquals(BinaryUtil.calculateMd5(content), body.digestMd5());
+        assertArrayEquals(content, EntityUtils.toByteArray(body.toEntity()));
+        body.release();
+    }
+
+    @Test
+    public void testReleasedBodyIsReset() throws Exception {
+        RequestBody body = RequestBody.acquire(100);
+        body.write(randomBytes(100), 0, 100);
+        body.release();
+
+        byte[] content = randomBytes(10);
+        RequestBody reused = RequestBody.acquire(10);
+        reused.write(content, 0, content.length);
+        assertEquals(content.length, reused.size());
+        assertArrayEquals(BinaryUtil.calculateMd5(content), reused.digestMd5());
+        reused.release();
+    }
+
+    @Test
+    public void testDeflateIntoBody() throws Exception {
+        byte[] content = new byte[200000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 7);
+        }
+        RequestBody body = RequestBody.acquire(content.length / 2);
+        Deflater deflater = new Deflater();
+        DeflaterOutputStream output = new DeflaterOutputStream(body, deflater, 8192);
+        output.write(content);
+        output.finish();
+        deflater.end();
+
+        byte[] compressed = EntityUtils.toByteArray(body.toEntity());
+        assertTrue(compressed.length < content.length);
+        assertArrayEquals(BinaryUtil.calculateMd5(compressed), body.digestMd5());
+        assertArrayEquals(content, CompressUtil.decompress(new ByteArrayInputStream(compressed), content.length, new Inflater()));
+        body.release();
+    }
+}
@@ -0,0 +1,81 @@
+package com.alicloud.openservices.tablestore.core.protocol;
+
+import com.alicloud.openservices.tablestore.model.*;
+import com.aliyun.ots.thirdparty.com.google.protobuf.ByteString;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PlainBufferBuilderTest {
+
+    private static PrimaryKey primaryKey(int i) {
+        return PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("pk0", PrimaryKeyValue.fromString("key" + i))
+                .addPrimaryKeyColumn("pk1", PrimaryKeyValue.fromLong(i))
+                .build();
+    }
+
+    @Test
+    public void testBuildRowChangesWithHeader() throws IOException {
+        List<RowChange> rowChanges = new ArrayList<RowChange>();
+        for (int i = 0; i < 30; i++) {
+            switch (i % 3) {
+                case 0: {
+                    RowPutChange put = new RowPutChange("table", primaryKey(i));
+                    put.addColumn("string", ColumnValue.fromString("value" + i));
+                    put.addColumn("long", ColumnValue.fromLong(i), 1000);
+                    put.addColumn("binary", ColumnValue.fromBinary(new byte[i]));
+                    rowChanges.add(put);
+                    break;
+                }
+                case 1: {
+                    RowUpdateChange update = new RowUpdateChange("table", primaryKey(i));
+                    update.put("double", ColumnValue.fromDouble(i));
+                    update.deleteColumns("deleted");
+                    update.increment(new Column("counter", ColumnValue.fromLong(1)));
+                    rowChanges.add(update);
+                    break;
+                }
+                default:
+                    rowChanges.add(new RowDeleteChange("table", primaryKey(i)));
+            }
+        }
+
+        List<ByteString> result = PlainBufferBuilder.buildRowChangesWithHeader(rowChanges);
+        assertEquals(rowChanges.size(), result.size());
+        for (int i = 0; i < rowChanges.size(); i++) {
+            RowChange rowChange = rowChanges.get(i);
+            byte[] expected;
+            if (rowChange instanceof RowPutChange) {
+                expected = PlainBufferBuilder.buildRowPutChangeWithHeader((RowPutChange) rowChange);
+            } else if (rowChange instanceof RowUpdateChange) {
+                expected = PlainBufferBuilder.buildRowUpdateChangeWithHeader((RowUpdateChange) rowChange);
+            } else {
+                expected = PlainBufferBuilder.buildRowDeleteChangeWithHeader((RowDeleteChange) rowChange);
+            }
+            assertArrayEquals(expected, result.get(i).toByteArray());
+        }
+
+        assertTrue(PlainBufferBuilder.buildRowChangesWithHeader(new ArrayList<RowChange>()).isEmpty());
+
+        // the rows survive the serialization of the whole request
+        BatchWriteRowRequest request = new BatchWriteRowRequest();
+        for (RowChange rowChange : rowChanges) {
+            request.addRowChange(rowChange);
+        }
+        OtsInternalApi.BatchWriteRowRequest message = OtsInternalApi.BatchWriteRowRequest.parseFrom(
+                OTSProtocolBuilder.buildBatchWriteRowRequest(request).toByteArray());
+        List<OtsInternalApi.RowInBatchWriteRowRequest> rows = message.getTables(0).getRowsList();
+        assertEquals(rowChanges.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(result.get(i), rows.get(i).getRowChange());
+        }
+        assertEquals(OtsInternalApi.OperationType.PUT, rows.get(0).getType());
+        assertEquals(OtsInternalApi.OperationType.UPDATE, rows.get(1).getType());
+        assertEquals(OtsInternalApi.OperationType.DELETE, rows.get(2).getType());
+    }
+}
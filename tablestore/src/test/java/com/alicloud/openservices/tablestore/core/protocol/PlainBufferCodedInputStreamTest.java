@@ -322,4 +322,48 @@ public class PlainBufferCodedInputStreamTest {
             }
         }
     }
+
+    @Test
+    public void testReadRowsWithRepeatedNames() throws IOException {
+        List<PlainBufferRow> rows = new ArrayList<PlainBufferRow>();
+        int size = 4;
+        for (int i = 0; i < 10; i++) {
+            PlainBufferCell pk = new PlainBufferCell();
+            pk.setCellName("pk");
+            pk.setPkCellValue(PrimaryKeyValue.fromLong(i));
+            List<PlainBufferCell> cells = new ArrayList<PlainBufferCell>();
+            for (int j = 0; j < 3; j++) {
+                PlainBufferCell cell = new PlainBufferCell();
+                cell.setCellName("col" + j);
+                cell.setCellValue(ColumnValue.fromString("value" + i + "_" + j));
+                cell.setCellTimestamp(1000 + i);
+                cells.add(cell);
+            }
+            PlainBufferRow row = new PlainBufferRow(new ArrayList<PlainBufferCell>(Arrays.asList(pk)), cells, false);
+            rows.add(row);
+            size += PlainBufferBuilder.computePlainBufferRow(row);
+        }
+        PlainBufferOutputStream output = new PlainBufferOutputStream(size);
+        PlainBufferCodedOutputStream codedOutput = new PlainBufferCodedOutputStream(output);
+        codedOutput.writeHeader();
+        for (PlainBufferRow row : rows) {
+            codedOutput.writeRow(row);
+        }
+
+        PlainBufferCodedInputStream codedInput = new PlainBufferCodedInputStream(new PlainBufferInputStream(output.getBuffer()));
+        List<PlainBufferRow> result = codedInput.readRowsWithHeader();
+        assertEquals(rows.size(), result.size());
+        for (int i = 0; i < rows.size(); i++) {
+            List<PlainBufferCell> cells = result.get(i).getCells();
+            for (int j = 0; j < cells.size(); j++) {
+                assertEquals("col" + j, cells.get(j).getCellName());
+                // the names are decoded once per buffer
+                assertSame(result.get(0).getCells().get(j).getCellName(), cells.get(j).getCellName());
+                assertSame(result.get(0).getCells().get(j).getNameRawData(), cells.get(j).getNameRawData());
+                assertEquals(ColumnValue.fromString("value" + i + "_" + j), cells.get(j).getCellValue());
+                assertEquals("value" + i + "_" + j, cells.get(j).getCellValue().asString());
+            }
+            assertEquals(rows.get(i).getChecksum(), result.get(i).getChecksum());
+        }
+    }
 }
@@ -220,4 +220,49 @@ public class PlainBufferInputStreamTest {
 
         }
     }
+
+    @Test
+    public void testReadCellName() throws Exception {
+        String[] names = new String[PlainBufferInputStream.CELL_NAME_TABLE_SIZE * 2];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "column_" + i;
+        }
+        int size = 7;
+        for (String name : names) {
+            size += Bytes.toBytes(name).length * 2;
+        }
+        PlainBufferOutputStream output = new PlainBufferOutputStream(size);
+        for (int round = 0; round < 2; round++) {
+            for (String name : names) {
+                output.writeBytes(Bytes.toBytes(name));
+            }
+        }
+        output.writeBytes(Bytes.toBytes("column_"));
+
+        PlainBufferInputStream input = new PlainBufferInputStream(output.getBuffer());
+        String[] firstRound = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            firstRound[i] = input.readCellName(Bytes.toBytes(names[i]).length);
+            assertEquals(names[i], firstRound[i]);
+            assertArrayEquals(Bytes.toBytes(names[i]), input.getLastCellNameRawData());
+        }
+        int reused = 0;
+        for (int i = 0; i < names.length; i++) {
+            String name = input.readCellName(Bytes.toBytes(names[i]).length);
+            assertEquals(names[i], name);
+            if (name == firstRound[i]) {
+                reused++;
+            }
+        }
+        assertTrue(reused > 0);
+        // a prefix of a cached name is not mistaken for it
+        assertEquals("column_", input.readCellName(7));
+        assertTrue(input.isAtEnd());
+
+        try {
+            input.readCellName(1);
+            fail();
+        } catch (IOException e) {
+        }
+    }
 }
@@ -0,0 +1,160 @@
+package com.alicloud.openservices.tablestore.core.protocol.timeseries;
+
+import com.alicloud.openservices.tablestore.core.protocol.timeseries.flatbuffer.DataType;
+import com.alicloud.openservices.tablestore.core.protocol.timeseries.flatbuffer.FlatBufferRowGroup;
+import com.alicloud.openservices.tablestore.core.protocol.timeseries.flatbuffer.FlatBufferRowInGroup;
+import com.alicloud.openservices.tablestore.core.protocol.timeseries.flatbuffer.FlatBufferRows;
+import com.alicloud.openservices.tablestore.core.utils.PrimitiveTimeseriesMetaCache;
+import com.alicloud.openservices.tablestore.core.utils.TimeseriesMetaCache;
+import com.alicloud.openservices.tablestore.model.ColumnValue;
+import com.alicloud.openservices.tablestore.model.timeseries.PutTimeseriesDataRequest;
+import com.alicloud.openservices.tablestore.model.timeseries.TimeseriesKey;
+import com.alicloud.openservices.tablestore.model.timeseries.TimeseriesRow;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.flatbuffers.FlatBufferBuilder;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TimeseriesProtocolBuilderTest {
+
+    private static final String TABLE_NAME = "table";
+
+    private final TimeseriesMetaCache metaCache = new PrimitiveTimeseriesMetaCache(1024 * 1024, 3600);
+
+    private static TimeseriesRow row(String measurement, String dataSource, long time, boolean withStatus) {
+        Map<String, String> tags = new HashMap<String, String>();
+        tags.put("region", "hangzhou");
+        tags.put("host", "host_" + dataSource);
+        TimeseriesRow row = new TimeseriesRow(new TimeseriesKey(measurement, dataSource, tags), time);
+        row.addField("cpu", ColumnValue.fromDouble(time * 0.5));
+        row.addField("count", ColumnValue.fromLong(time));
+        if (withStatus) {
+            row.addField("status", ColumnValue.fromString("status_" + time));
+        }
+        return row;
+    }
+
+    /**
+     * The rows of two measurements interleaved, and a row with an extra field.
+     */
+    private static List<TimeseriesRow> interleavedRows() {
+        List<TimeseriesRow> rows = new ArrayList<TimeseriesRow>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(row("cpu", "ds" + (i % 3), i, false));
+            rows.add(row("mem", "ds" + (i % 3), i, false));
+        }
+        rows.add(row("cpu", "ds0", 100, true));
+        return rows;
+    }
+
+    private static ByteBuffer encodeOneGroupPerRow(List<TimeseriesRow> rows, TimeseriesMetaCache metaCache) {
+        FlatBufferBuilder fbb = new FlatBufferBuilder();
+        int[] rowGroupOffs = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            rowGroupOffs[i] = TimeseriesProtocolBuilder.buildRowToRowGroupOffset(rows.get(i), fbb, TABLE_NAME, metaCache);
+        }
+        fbb.finish(FlatBufferRows.createFlatBufferRows(fbb, FlatBufferRows.createRowGroupsVector(fbb, rowGroupOffs)));
+        return fbb.dataBuffer();
+    }
+
+    @Test
+    public void testGroupRowsBySchema() {
+        List<TimeseriesRow> rows = interleavedRows();
+        metaCache.put(TABLE_NAME, rows.get(1).getTimeseriesKey(), 12345L);
+        ByteBuffer data = TimeseriesProtocolBuilder.buildFlatbufferRows(rows, TABLE_NAME, metaCache);
+        int[] rowIndexes = TimeseriesProtocolBuilder.buildEncodedRowIndexes(rows);
+        assertEquals(rows.size(), rowIndexes.length);
+
+        FlatBufferRows flatBufferRows = FlatBufferRows.getRootAsFlatBufferRows(data);
+        assertEquals(3, flatBufferRows.rowGroupsLength());
+        int[] expectedGroupSizes = {10, 10, 1};
+        String[] expectedMeasurements = {"cpu", "mem", "cpu"};
+        int position = 0;
+        for (int g = 0; g < flatBufferRows.rowGroupsLength(); g++) {
+            FlatBufferRowGroup group = flatBufferRows.rowGroups(g);
+            assertEquals(expectedMeasurements[g], group.measurementName());
+            assertEquals(expectedGroupSizes[g], group.rowsLength());
+            for (int r = 0; r < group.rowsLength(); r++) {
+                int rowIndex = rowIndexes[position++];
+                TimeseriesRow expected = rows.get(rowIndex);
+                assertEquals(expected.getTimeseriesKey().getMeasurementName(), group.measurementName());
+                assertEquals(expected.getFields().size(), group.fieldNamesLength());
+                FlatBufferRowInGroup row = group.rows(r);
+                assertEquals(expected.getTimeInUs(), row.time());
+                assertEquals(expected.getTimeseriesKey().getDataSource(), row.dataSource());
+                assertEquals("", row.tags());
+                assertEquals(2, row.tagListLength());
+                assertEquals("host", row.tagList(0).name());
+                assertEquals("host_" + expected.getTimeseriesKey().getDataSource(), row.tagList(0).value());
+                assertEquals("hangzhou", row.tagList(1).value());
+                int idx = 0;
+                for (Map.Entry<String, ColumnValue> field : expected.getFields().entrySet()) {
+                    assertEquals(field.getKey(), group.fieldNames(idx));
+                    switch (group.fieldTypes(idx)) {
+                        case DataType.LONG:
+                            assertEquals(field.getValue().asLong(), row.fieldValues().longValues(0));
+                            break;
+                        case DataType.DOUBLE:
+                            assertEquals(field.getValue().asDouble(), row.fieldValues().doubleValues(0), 0);
+                            break;
+                        case DataType.STRING:
+                            assertEquals(field.getValue().asString(), row.fieldValues().stringValues(0));
+                            break;
+                        default:
+                            fail();
+                    }
+                    idx++;
+                }
+                assertEquals(expected.getTimeseriesKey().equals(rows.get(1).getTimeseriesKey()) ? 12345L : 0L,
+                        row.metaCacheUpdateTime());
+            }
+        }
+        assertEquals(rows.size(), position);
+        // the groups are in order of their first rows, and keep the order of their rows
+        assertEquals(0, rowIndexes[0]);
+        assertEquals(2, rowIndexes[1]);
+        assertEquals(1, rowIndexes[10]);
+        assertEquals(20, rowIndexes[20]);
+    }
+
+    @Test
+    public void testGroupedRowsAreSmaller() {
+        List<TimeseriesRow> rows = interleavedRows();
+        int grouped = TimeseriesProtocolBuilder.buildFlatbufferRows(rows, TABLE_NAME, metaCache).remaining();
+        int oneGroupPerRow = encodeOneGroupPerRow(rows, metaCache).remaining();
+        assertTrue(grouped + " < " + oneGroupPerRow, grouped < oneGroupPerRow);
+    }
+
+    @Test
+    public void testPooledBuilderIsReused() {
+        List<TimeseriesRow> rows = interleavedRows();
+        PutTimeseriesDataRequest request = new PutTimeseriesDataRequest(TABLE_NAME);
+        request.setRows(rows);
+        Timeseries.PutTimeseriesDataRequest first = TimeseriesProtocolBuilder.buildPutTimeseriesDataRequest(request, metaCache);
+        Timeseries.PutTimeseriesDataRequest second = TimeseriesProtocolBuilder.buildPutTimeseriesDataRequest(request, metaCache);
+        assertEquals(first.getRowsData().getRowsData(), second.getRowsData().getRowsData());
+        assertEquals(TimeseriesProtocolBuilder.buildFlatbufferRows(rows, TABLE_NAME, metaCache),
+                first.getRowsData().getRowsData().asReadOnlyByteBuffer());
+    }
+
+    @Test
+    public void testGuavaMetaCache() {
+        List<TimeseriesRow> rows = interleavedRows();
+        metaCache.put(TABLE_NAME, rows.get(0).getTimeseriesKey(), 100);
+        Cache<String, Long> guavaCache = CacheBuilder.newBuilder().build();
+        guavaCache.put(rows.get(0).getTimeseriesKey().buildMetaCacheKey(TABLE_NAME), 100L);
+        // the cache of the previous versions, keyed by the meta cache keys, gives the same encoding
+        assertEquals(TimeseriesProtocolBuilder.buildFlatbufferRows(rows, TABLE_NAME, metaCache),
+                TimeseriesProtocolBuilder.buildFlatbufferRows(rows, TABLE_NAME, guavaCache));
+        assertFalse(TimeseriesProtocolBuilder.buildFlatbufferRows(rows, TABLE_NAME, metaCache).equals(
+                TimeseriesProtocolBuilder.buildFlatbufferRows(rows, TABLE_NAME, CacheBuilder.newBuilder().<String, Long>build())));
+    }
+}
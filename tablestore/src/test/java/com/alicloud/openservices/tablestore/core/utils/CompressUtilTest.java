@@ -0,0 +1,95 @@
+package com.alicloud.openservices.tablestore.core.utils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import static org.junit.Assert.*;
+
+public class CompressUtilTest {
+
+    private static byte[] content(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i % 13);
+        }
+        return bytes;
+    }
+
+    private static byte[] deflate(byte[] content, Deflater deflater) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(output, deflater);
+        deflaterOutput.write(content);
+        deflaterOutput.finish();
+        return output.toByteArray();
+    }
+
+    @Test
+    public void testPooledCodecsAreReused() throws Exception {
+        byte[] content = content(100000);
+
+        Deflater deflater = CompressUtil.acquireDeflater(Deflater.DEFAULT_COMPRESSION);
+        byte[] first = deflate(content, deflater);
+        CompressUtil.releaseDeflater(deflater);
+
+        // a reset codec produces the same output as a fresh one
+        Deflater reused = CompressUtil.acquireDeflater(Deflater.DEFAULT_COMPRESSION);
+        assertSame(deflater, reused);
+        assertArrayEquals(first, deflate(content, reused));
+        CompressUtil.releaseDeflater(reused);
+
+        Inflater inflater = CompressUtil.acquireInflater();
+        CompressUtil.releaseInflater(inflater);
+        assertSame(inflater, CompressUtil.acquireInflater());
+        CompressUtil.releaseInflater(inflater);
+    }
+
+    @Test
+    public void testDecompressWithPooledInflater() throws Exception {
+        byte[] content = content(50000);
+        for (int i = 0; i < 3; i++) {
+            byte[] compressed = deflate(content, new Deflater());
+            assertArrayEquals(content, CompressUtil.decompress(new ByteArrayInputStream(compressed), content.length));
+        }
+    }
+
+    @Test
+    public void testCompressionLevel() throws Exception {
+        byte[] content = content(100000);
+
+        Deflater fast = CompressUtil.acquireDeflater(Deflater.BEST_SPEED);
+        byte[] fastCompressed = deflate(content, fast);
+        CompressUtil.releaseDeflater(fast);
+
+        Deflater best = CompressUtil.acquireDeflater(Deflater.BEST_COMPRESSION);
+        byte[] bestCompressed = deflate(content, best);
+        CompressUtil.releaseDeflater(best);
+
+        assertTrue(bestCompressed.length <= fastCompressed.length);
+        assertArrayEquals(content, CompressUtil.decompress(new ByteArrayInputStream(fastCompressed), content.length));
+        assertArrayEquals(content, CompressUtil.decompress(new ByteArrayInputStream(bestCompressed), content.length));
+    }
+
+    @Test
+    public void testPoolIsBounded() {
+        Deflater[] deflaters = new Deflater[CompressUtil.MAX_POOLED_CODECS + 5];
+        for (int i = 0; i < deflaters.length; i++) {
+            deflaters[i] = CompressUtil.acquireDeflater(Deflater.DEFAULT_COMPRESSION);
+        }
+        for (Deflater deflater : deflaters) {
+            CompressUtil.releaseDeflater(deflater);
+        }
+        for (int i = 0; i < CompressUtil.MAX_POOLED_CODECS; i++) {
+            CompressUtil.acquireDeflater(Deflater.DEFAULT_COMPRESSION);
+        }
+        // the extra codecs have been ended rather than pooled
+        Deflater fresh = CompressUtil.acquireDeflater(Deflater.DEFAULT_COMPRESSION);
+        for (Deflater deflater : deflaters) {
+            assertNotSame(deflater, fresh);
+        }
+    }
+}
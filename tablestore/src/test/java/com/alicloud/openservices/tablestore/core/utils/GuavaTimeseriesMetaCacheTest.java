@@ -0,0 +1,25 @@
+package com.alicloud.openservices.tablestore.core.utils;
+
+import com.alicloud.openservices.tablestore.model.timeseries.TimeseriesKey;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GuavaTimeseriesMetaCacheTest {
+
+    @Test
+    public void testGetAndPut() {
+        Cache<String, Long> guavaCache = CacheBuilder.newBuilder().build();
+        TimeseriesMetaCache cache = new GuavaTimeseriesMetaCache(guavaCache);
+        TimeseriesKey key = new TimeseriesKey("cpu", "host");
+        assertEquals(0, cache.get("table", key));
+        cache.put("table", key, 100);
+        assertEquals(100, cache.get("table", key));
+        assertEquals(Long.valueOf(100), guavaCache.getIfPresent(key.buildMetaCacheKey("table")));
+        assertEquals(1, cache.size());
+        cache.invalidateAll();
+        assertEquals(0, guavaCache.size());
+    }
+}
@@ -0,0 +1,88 @@
+package com.alicloud.openservices.tablestore.core.utils;
+
+import com.alicloud.openservices.tablestore.model.timeseries.TimeseriesKey;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class PrimitiveTimeseriesMetaCacheTest {
+
+    @Test
+    public void testGetAndPut() {
+        PrimitiveTimeseriesMetaCache cache = new PrimitiveTimeseriesMetaCache(1024 * 1024, 3600);
+        assertEquals(0, cache.get(42));
+        cache.put(42, 100);
+        cache.put(0, 200);
+        assertEquals(100, cache.get(42));
+        assertEquals(200, cache.get(0));
+        cache.put(42, 300);
+        assertEquals(300, cache.get(42));
+        assertEquals(2, cache.size());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.get(42));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testMatchesMapWithEviction() {
+        // 16 segments of at most 64 entries
+        PrimitiveTimeseriesMetaCache cache = new PrimitiveTimeseriesMetaCache(16 * 64 * PrimitiveTimeseriesMetaCache.ENTRY_SIZE_IN_BYTES, 3600);
+        Map<Long, Long> expected = new HashMap<Long, Long>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            // a small key space, so that there are both hits and evictions
+            long key = random.nextInt(4096) * 0x9e3779b97f4a7c15L;
+            long value = i + 1;
+            cache.put(key, value);
+            expected.put(key, value);
+            long probe = random.nextInt(4096) * 0x9e3779b97f4a7c15L;
+            long cached = cache.get(probe);
+            // an evicted key is absent, a present key has its latest value
+            assertTrue(cached == 0 || cached == expected.get(probe));
+            assertTrue(cache.size() <= 16 * 64);
+        }
+        assertEquals(16 * 64, cache.size());
+    }
+
+    @Test
+    public void testZeroSize() {
+        PrimitiveTimeseriesMetaCache cache = new PrimitiveTimeseriesMetaCache(0, 3600);
+        cache.put(42, 100);
+        assertEquals(0, cache.get(42));
+    }
+
+    @Test
+    public void testExpireAfterAccess() throws InterruptedException {
+        PrimitiveTimeseriesMetaCache cache = new PrimitiveTimeseriesMetaCache(1024 * 1024, 1);
+        cache.put(42, 100);
+        Thread.sleep(2100);
+        assertEquals(0, cache.get(42));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testMetaCacheHash() {
+        Map<String, String> tags = new TreeMap<String, String>();
+        tags.put("region", "hangzhou");
+        tags.put("host", "host_1");
+        Map<String, String> reorderedTags = new HashMap<String, String>();
+        reorderedTags.put("host", "host_1");
+        reorderedTags.put("region", "hangzhou");
+        TimeseriesKey key = new TimeseriesKey("cpu", "ds", tags);
+
+        assertEquals(key.getMetaCacheHash("table"), new TimeseriesKey("cpu", "ds", reorderedTags).getMetaCacheHash("table"));
+        assertTrue(key.getMetaCacheHash("table") != key.getMetaCacheHash("table2"));
+        assertTrue(key.getMetaCacheHash("table") != new TimeseriesKey("cpu", "ds").getMetaCacheHash("table"));
+        // the boundaries of the strings are part of the hash
+        assertTrue(new TimeseriesKey("cpu", "ds").getMetaCacheHash("table")
+                != new TimeseriesKey("cpud", "s").getMetaCacheHash("table"));
+        tags.put("host", "host_2");
+        assertTrue(key.getMetaCacheHash("table") != new TimeseriesKey("cpu", "ds", tags).getMetaCacheHash("table"));
+    }
+}
@@ -0,0 +1,230 @@
+package com.alicloud.openservices.tablestore.ecosystem;
+
+import com.alicloud.openservices.tablestore.SyncClient;
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.model.ComputeSplitsBySizeRequest;
+import com.alicloud.openservices.tablestore.model.ComputeSplitsBySizeResponse;
+import com.alicloud.openservices.tablestore.model.Response;
+import com.alicloud.openservices.tablestore.model.Split;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class DefaultTablestoreSplitManagerTest {
+
+    private static final String TABLE_NAME = "test_table";
+
+    /**
+     * Returns as many splits as the count of ComputeSplitsBySize requests received, so that a refresh can be seen.
+     */
+    private static class CountingClient extends SyncClient {
+        private final AtomicInteger requestCount = new AtomicInteger();
+        private volatile boolean fail = false;
+
+        CountingClient() {
+            super("http://127.0.0.1:9", "ak", "sk", "instance");
+        }
+
+        @Override
+        public ComputeSplitsBySizeResponse computeSplitsBySize(ComputeSplitsBySizeRequest request) {
+            int count = requestCount.incrementAndGet();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fail) {
+                throw new TableStoreException("Server busy", null, "OTSServerBusy", "reqId", 503);
+            }
+            ComputeSplitsBySizeResponse response = new ComputeSplitsBySizeResponse(new Response("reqId"));
+            List<Split> splits = new ArrayList<Split>();
+            for (int i = 0; i < count; i++) {
+                splits.add(new Split());
+            }
+            response.setSplits(splits);
+            return response;
+        }
+    }
+
+    private CountingClient client;
+    private DefaultTablestoreSplitManager manager;
+
+    @Before
+    public void setUp() {
+        client = new CountingClient();
+        manager = new DefaultTablestoreSplitManager(client);
+        DefaultTablestoreSplitManager.setSplitCacheOptions(DefaultTablestoreSplitManager.DEFAULT_SPLIT_CACHE_MAX_SIZE,
+                DefaultTablestoreSplitManager.DEFAULT_SPLIT_CACHE_EXPIRE_AFTER_WRITE_SECONDS,
+                DefaultTablestoreSplitManager.DEFAULT_SPLIT_CACHE_REFRESH_AFTER_WRITE_SECONDS);
+    }
+
+    @After
+    public void tearDown() {
+        DefaultTablestoreSplitManager.setSplitCacheOptions(DefaultTablestoreSplitManager.DEFAULT_SPLIT_CACHE_MAX_SIZE,
+                DefaultTablestoreSplitManager.DEFAULT_SPLIT_CACHE_EXPIRE_AFTER_WRITE_SECONDS,
+                DefaultTablestoreSplitManager.DEFAULT_SPLIT_CACHE_REFRESH_AFTER_WRITE_SECONDS);
+        DefaultTablestoreSplitManager.setEnableSplitCache(true);
+        client.shutdown();
+    }
+
+    private ComputeParameters parameter(long splitSizeInMBs) {
+        return new ComputeParameters(100, splitSizeInMBs, ComputeParameters.ComputeMode.KV);
+    }
+
+    @Test
+    public void testConcurrentLoadsComputeOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Split>>> futures = new ArrayList<Future<List<Split>>>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Callable<List<Split>>() {
+                    @Override
+                    public List<Split> call() {
+                        return manager.getTableSplits(client, TABLE_NAME, parameter(100));
+                    }
+                }));
+            }
+            for (Future<List<Split>> future : futures) {
+                assertEquals(1, future.get().size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, client.requestCount.get());
+        // the tasks waiting for the load count as misses, but only one load is done
+        assertEquals(1, DefaultTablestoreSplitManager.getSplitCacheStats().loadSuccessCount());
+        assertEquals(8, DefaultTablestoreSplitManager.getSplitCacheStats().requestCount());
+
+        // the parameters are part of the key
+        assertEquals(2, manager.getTableSplits(client, TABLE_NAME, parameter(200)).size());
+        assertEquals(1, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+        assertEquals(2, DefaultTablestoreSplitManager.getSplitCacheSize());
+        assertEquals(1, DefaultTablestoreSplitManager.getSplitCacheStats().hitCount());
+
+        DefaultTablestoreSplitManager.invalidateSplitCache();
+        assertEquals(3, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+    }
+
+    @Test
+    public void testExpireAfterWrite() throws InterruptedException {
+        DefaultTablestoreSplitManager.setSplitCacheOptions(10, 1, 1);
+        assertEquals(1, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+        assertEquals(1, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+        Thread.sleep(1100);
+        assertEquals(2, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+    }
+
+    @Test
+    public void testRefreshAfterWrite() throws InterruptedException {
+        DefaultTablestoreSplitManager.setSplitCacheOptions(10, 60, 1);
+        assertEquals(1, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+        Thread.sleep(1100);
+        // the old splits are returned while they are computed again in background
+        assertEquals(1, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (manager.getTableSplits(client, TABLE_NAME, parameter(100)).size() == 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+        assertEquals(2, client.requestCount.get());
+    }
+
+    @Test
+    public void testRefreshWithClientOfRead() throws InterruptedException {
+        DefaultTablestoreSplitManager.setSplitCacheOptions(10, 60, 1);
+        assertEquals(1, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+        // the client of the first load is not kept, a refresh uses the client of the read which triggers it
+        client.fail = true;
+        CountingClient other = new CountingClient();
+        try {
+            Thread.sleep(1100);
+            assertEquals(1, manager.getTableSplits(other, TABLE_NAME, parameter(100)).size());
+            long deadline = System.currentTimeMillis() + 5000;
+            while (other.requestCount.get() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, client.requestCount.get());
+            assertEquals(1, other.requestCount.get());
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailedRefreshKeepsSplits() throws InterruptedException {
+        DefaultTablestoreSplitManager.setSplitCacheOptions(10, 60, 1);
+        assertEquals(1, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+        client.fail = true;
+        Thread.sleep(1100);
+        assertEquals(1, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (client.requestCount.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // the failed refresh leaves the old splits, and the next read tries again
+        Thread.sleep(200);
+        client.fail = false;
+        assertEquals(1, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+        while (manager.getTableSplits(client, TABLE_NAME, parameter(100)).size() == 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+    }
+
+    @Test
+    public void testBoundedSize() {
+        DefaultTablestoreSplitManager.setSplitCacheOptions(2, 60, 60);
+        for (int i = 1; i <= 5; i++) {
+            manager.getTableSplits(client, TABLE_NAME, parameter(i));
+        }
+        assertTrue(DefaultTablestoreSplitManager.getSplitCacheSize() <= 2);
+        assertTrue(DefaultTablestoreSplitManager.getSplitCacheStats().evictionCount() >= 3);
+    }
+
+    @Test
+    public void testFailureIsNotCached() {
+        client.fail = true;
+        try {
+            manager.getTableSplits(client, TABLE_NAME, parameter(100));
+            fail();
+        } catch (TableStoreException e) {
+            assertEquals("OTSServerBusy", e.getErrorCode());
+        }
+        client.fail = false;
+        assertEquals(2, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+    }
+
+    @Test
+    public void testDisabledCache() {
+        DefaultTablestoreSplitManager.setEnableSplitCache(false);
+        assertEquals(1, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+        assertEquals(2, manager.getTableSplits(client, TABLE_NAME, parameter(100)).size());
+        assertEquals(0, DefaultTablestoreSplitManager.getSplitCacheSize());
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        try {
+            DefaultTablestoreSplitManager.setSplitCacheOptions(0, 60, 60);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            DefaultTablestoreSplitManager.setSplitCacheOptions(10, 0, 60);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
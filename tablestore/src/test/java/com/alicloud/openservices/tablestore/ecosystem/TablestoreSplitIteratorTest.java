@@ -0,0 +1,205 @@
+package com.alicloud.openservices.tablestore.ecosystem;
+
+import com.alicloud.openservices.tablestore.AsyncClientInterface;
+import com.alicloud.openservices.tablestore.SyncClientInterface;
+import com.alicloud.openservices.tablestore.TableStoreCallback;
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TablestoreSplitIteratorTest {
+
+    private static final String TABLE_NAME = "test_table";
+    private static final int PAGE_SIZE = 10;
+    private static final long PAGE_BODY_BYTES = 100;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final Random random = new Random(7);
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private int failAtRequest = -1;
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static PrimaryKey pk(long value) {
+        return PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("pk", PrimaryKeyValue.fromLong(value)).build();
+    }
+
+    private GetRangeResponse handle(GetRangeRequest request) {
+        if (requestCount.incrementAndGet() == failAtRequest) {
+            throw new TableStoreException("Server busy", null, "OTSServerBusy", "reqId", 503);
+        }
+        RangeRowQueryCriteria criteria = request.getRangeRowQueryCriteria();
+        assertEquals(1, criteria.getMaxVersions());
+        long start = criteria.getInclusiveStartPrimaryKey().getPrimaryKeyColumn(0).getValue().asLong();
+        long end = criteria.getExclusiveEndPrimaryKey().getPrimaryKeyColumn(0).getValue().asLong();
+        List<Row> rows = new ArrayList<Row>();
+        long next = start;
+        for (; next < end && rows.size() < PAGE_SIZE; next++) {
+            rows.add(new Row(pk(next), new Column[0]));
+        }
+        GetRangeResponse response = new GetRangeResponse(new Response("reqId"), new ConsumedCapacity(new CapacityUnit(1, 0)));
+        response.setRows(rows);
+        response.setNextStartPrimaryKey(next < end ? pk(next) : null);
+        response.setBodyBytes(PAGE_BODY_BYTES);
+        return response;
+    }
+
+    private SyncClientInterface buildClient() {
+        final AsyncClientInterface asyncClient = (AsyncClientInterface) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[]{AsyncClientInterface.class}, new InvocationHandler() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Object invoke(Object proxy, Method method, final Object[] args) {
+                        assertEquals("getRange", method.getName());
+                        final GetRangeRequest request = (GetRangeRequest) args[0];
+                        final TableStoreCallback<GetRangeRequest, GetRangeResponse> callback =
+                                (TableStoreCallback<GetRangeRequest, GetRangeResponse>) args[1];
+                        int current = inFlight.incrementAndGet();
+                        while (true) {
+                            int max = maxInFlight.get();
+                            if (current <= max || maxInFlight.compareAndSet(max, current)) {
+                                break;
+                            }
+                        }
+                        final int delay;
+                        synchronized (random) {
+                            delay = random.nextInt(5);
+                        }
+                        executor.submit(new Runnable() {
+                            @Override
+                            public void run() {
+                                GetRangeResponse response;
+                                try {
+                                    Thread.sleep(delay);
+                                    response = handle(request);
+                                } catch (Exception ex) {
+                                    inFlight.decrementAndGet();
+                                    callback.onFailed(request, ex);
+                                    return;
+                                }
+                                inFlight.decrementAndGet();
+                                callback.onCompleted(request, response);
+                            }
+                        });
+                        return null;
+                    }
+                });
+        return (SyncClientInterface) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[]{SyncClientInterface.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        assertEquals("asAsyncClient", method.getName());
+                        return asyncClient;
+                    }
+                });
+    }
+
+    private List<TablestoreSplit.PkRange> buildRanges() {
+        List<TablestoreSplit.PkRange> ranges = new ArrayList<TablestoreSplit.PkRange>();
+        ranges.add(new TablestoreSplit.PkRange(pk(0), pk(30)));
+        ranges.add(new TablestoreSplit.PkRange(pk(100), pk(125)));
+        ranges.add(new TablestoreSplit.PkRange(pk(200), pk(200)));
+        ranges.add(new TablestoreSplit.PkRange(pk(300), pk(345)));
+        return ranges;
+    }
+
+    private List<Long> expectedRows() {
+        List<Long> values = new ArrayList<Long>();
+        for (long[] range : new long[][]{{0, 30}, {100, 125}, {300, 345}}) {
+            for (long i = range[0]; i < range[1]; i++) {
+                values.add(i);
+            }
+        }
+        return values;
+    }
+
+    private List<Long> readAll(TablestoreSplitIterator iterator) {
+        List<Long> values = new ArrayList<Long>();
+        while (iterator.hasNext()) {
+            values.add(iterator.next().getPrimaryKey().getPrimaryKeyColumn(0).getValue().asLong());
+        }
+        return values;
+    }
+
+    @Test
+    public void testKeepsOrderOfRanges() {
+        TablestoreSplitIterator iterator = new TablestoreSplitIterator(buildClient(), buildRanges(), TABLE_NAME, null, 3, 4);
+        assertEquals(expectedRows(), readAll(iterator));
+        assertFalse(iterator.hasNext());
+        assertTrue(maxInFlight.get() <= 3);
+        // 3 + 3 + 1 + 5 pages, the empty range returns an empty page
+        assertEquals(12, requestCount.get());
+    }
+
+    @Test
+    public void testSerialScan() {
+        TablestoreSplitIterator iterator = new TablestoreSplitIterator(buildClient(), buildRanges(), TABLE_NAME, null, 1, 1);
+        assertEquals(expectedRows(), readAll(iterator));
+        assertEquals(1, maxInFlight.get());
+    }
+
+    @Test
+    public void testBoundedByBufferedPages() throws InterruptedException {
+        TablestoreSplitIterator iterator = new TablestoreSplitIterator(buildClient(), buildRanges(), TABLE_NAME, null, 4, 3);
+        executor.awaitTermination(300, TimeUnit.MILLISECONDS);
+        // nothing is consumed, so only the budget of pages is fetched
+        assertEquals(3, requestCount.get());
+
+        // consuming the first page frees budget for one more page
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            iterator.next();
+        }
+        executor.awaitTermination(300, TimeUnit.MILLISECONDS);
+        assertEquals(4, requestCount.get());
+    }
+
+    @Test
+    public void testRangeProgress() {
+        TablestoreSplitIterator iterator = new TablestoreSplitIterator(buildClient(), buildRanges(), TABLE_NAME, null);
+        readAll(iterator);
+        List<TablestoreSplitIterator.RangeProgress> progress = iterator.getRangeProgress();
+        assertEquals(4, progress.size());
+        assertEquals(30, progress.get(0).getRowCount());
+        assertEquals(3, progress.get(0).getPageCount());
+        assertEquals(3 * PAGE_BODY_BYTES, progress.get(0).getCompletedBytes());
+        assertEquals(0, progress.get(2).getRowCount());
+        assertEquals(45, progress.get(3).getRowCount());
+        assertEquals(pk(300), progress.get(3).getBegin());
+        assertEquals(pk(345), progress.get(3).getEnd());
+        for (TablestoreSplitIterator.RangeProgress rangeProgress : progress) {
+            assertTrue(rangeProgress.isFinished());
+        }
+    }
+
+    @Test
+    public void testFailure() {
+        failAtRequest = 5;
+        TablestoreSplitIterator iterator = new TablestoreSplitIterator(buildClient(), buildRanges(), TABLE_NAME, null);
+        try {
+            readAll(iterator);
+            fail();
+        } catch (TableStoreException e) {
+            assertEquals("OTSServerBusy", e.getErrorCode());
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.alicloud.openservices.tablestore.model;
+
+import com.alicloud.openservices.tablestore.AsyncClientInterface;
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.SyncClientInterface;
+import com.alicloud.openservices.tablestore.core.protocol.PlainBufferCrc8;
+import com.alicloud.openservices.tablestore.model.iterator.BulkExportIterator;
+import com.alicloud.openservices.tablestore.model.tunnel.BulkExportQueryCriteria;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SimpleRowMatrixBlockParserTest {
+
+    private static final String TABLE_NAME = "test_table";
+    private static final int ROWS_PER_BLOCK = 5;
+    private static final int BLOCK_COUNT = 3;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger syncRequestCount = new AtomicInteger();
+    private final AtomicInteger asyncRequestCount = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Builds a block of the rows [start, start + count), with the fields pk, value and count.
+     * The value is null for the rows divisible by 3, the count is null for the rows divisible by 4.
+     */
+    private static ByteBuffer buildBlock(int start, int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(SimpleRowMatrixBlockConstants.API_VERSION);
+        int offsetsPosition = buffer.position();
+        buffer.putInt(0).putInt(0);
+        buffer.putInt(1).putInt(2);
+        for (String name : new String[]{"pk", "value", "count"}) {
+            buffer.putShort((short) name.length());
+            buffer.put(name.getBytes());
+        }
+        int optionsOffset = buffer.position();
+        buffer.put(SimpleRowMatrixBlockConstants.TAG_ENTIRE_PRIMARY_KEYS).put((byte) 1);
+        buffer.put(SimpleRowMatrixBlockConstants.TAG_ROW_COUNT).putInt(count);
+        int dataOffset = buffer.position();
+        for (int i = start; i < start + count; i++) {
+            buffer.put(SimpleRowMatrixBlockConstants.TAG_ROW);
+            buffer.put((byte) 0).putLong(i);
+            if (i % 3 == 0) {
+                buffer.put((byte) 6);
+            } else {
+                buffer.put((byte) 1).putDouble(i * 0.5);
+            }
+            if (i % 4 == 0) {
+                buffer.put((byte) 6);
+            } else {
+                buffer.put((byte) 0).putLong(i * 10L);
+            }
+        }
+        buffer.put(SimpleRowMatrixBlockConstants.TAG_CHECKSUM);
+        buffer.putInt(offsetsPosition, dataOffset);
+        buffer.putInt(offsetsPosition + 4, optionsOffset);
+        byte crc = 0;
+        for (int i = 0; i < buffer.position(); i++) {
+            crc = PlainBufferCrc8.crc8(crc, buffer.get(i));
+        }
+        buffer.put(crc);
+        return ByteBuffer.wrap(buffer.array(), 0, buffer.position()).slice();
+    }
+
+    private static PrimaryKey pk(long value) {
+        return PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("pk", PrimaryKeyValue.fromLong(value)).build();
+    }
+
+    private BulkExportResponse handle(BulkExportRequest request) {
+        int start = (int) request.getBulkExportQueryCriteria().getInclusiveStartPrimaryKey()
+                .getPrimaryKeyColumn(0).getValue().asLong();
+        BulkExportResponse response = new BulkExportResponse(new Response("reqId"), new ConsumedCapacity(new CapacityUnit(1, 0)));
+        response.setRows(buildBlock(start, ROWS_PER_BLOCK));
+        int next = start + ROWS_PER_BLOCK;
+        response.setNextStartPrimaryKey(next < ROWS_PER_BLOCK * BLOCK_COUNT ? pk(next) : null);
+        return response;
+    }
+
+    private SyncClientInterface buildClient() {
+        final AsyncClientInterface asyncClient = (AsyncClientInterface) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[]{AsyncClientInterface.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, final Object[] args) {
+                        assertEquals("bulkExport", method.getName());
+                        asyncRequestCount.incrementAndGet();
+                        return executor.submit(new Callable<BulkExportResponse>() {
+                            @Override
+                            public BulkExportResponse call() {
+                                return handle((BulkExportRequest) args[0]);
+                            }
+                        });
+                    }
+                });
+        return (SyncClientInterface) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[]{SyncClientInterface.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("asAsyncClient")) {
+                            return asyncClient;
+                        }
+                        assertEquals("bulkExport", method.getName());
+                        syncRequestCount.incrementAndGet();
+                        return handle((BulkExportRequest) args[0]);
+                    }
+                });
+    }
+
+    private BulkExportQueryCriteria buildCriteria() {
+        BulkExportQueryCriteria criteria = new BulkExportQueryCriteria(TABLE_NAME);
+        criteria.setInclusiveStartPrimaryKey(pk(0));
+        criteria.setExclusiveEndPrimaryKey(pk(Long.MAX_VALUE));
+        return criteria;
+    }
+
+    @Test
+    public void testCopyValues() {
+        SimpleRowMatrixBlockParser parser = new SimpleRowMatrixBlockParser(buildBlock(10, 6));
+        long[] counts = new long[8];
+        boolean[] countNulls = new boolean[8];
+        assertEquals(6, parser.copyLongs(2, counts, countNulls, 2));
+        assertArrayEquals(new long[]{0, 0, 100, 110, 0, 130, 140, 150}, counts);
+        for (int i = 0; i < 8; i++) {
+            assertEquals(i == 4, countNulls[i]);
+        }
+
+        double[] values = new double[6];
+        assertEquals(6, parser.copyDoubles(1, values, null, 0));
+        assertArrayEquals(new double[]{5, 5.5, 0, 6.5, 7, 0}, values, 0);
+
+        // the cursor is not moved by the copies
+        assertEquals(0, parser.next());
+        assertEquals(10, parser.getLong(0));
+        parser.copyLongs(0, new long[6], null, 0);
+        assertEquals(10, parser.getLong(0));
+        assertEquals(1, parser.next());
+        assertEquals(11, parser.getLong(0));
+    }
+
+    @Test
+    public void testCopyInvalidArguments() {
+        SimpleRowMatrixBlockParser parser = new SimpleRowMatrixBlockParser(buildBlock(0, 4));
+        try {
+            parser.copyLongs(1, new long[4], null, 0);
+            fail();
+        } catch (ClientException e) {
+            assertTrue(e.getMessage().contains("mismatch"));
+        }
+        try {
+            parser.copyLongs(3, new long[4], null, 0);
+            fail();
+        } catch (ClientException e) {
+        }
+        try {
+            parser.copyLongs(0, new long[4], null, 1);
+            fail();
+        } catch (ClientException e) {
+        }
+        try {
+            parser.copyDoubles(1, new double[4], new boolean[3], 0);
+            fail();
+        } catch (ClientException e) {
+        }
+    }
+
+    @Test
+    public void testRowIteratorWithPrefetch() {
+        SimpleRowMatrixBlockRowIterator iterator =
+                new SimpleRowMatrixBlockRowIterator(buildClient(), buildCriteria(), true, true);
+        int index = 0;
+        while (iterator.hasNext()) {
+            assertEquals(index, iterator.next().longValue());
+            assertEquals(index, iterator.getLong("pk"));
+            assertEquals(index % 3 == 0, iterator.isNull(1));
+            index++;
+        }
+        assertEquals(ROWS_PER_BLOCK * BLOCK_COUNT, index);
+        // the first block is read by the sync client, the others are prefetched
+        assertEquals(1, syncRequestCount.get());
+        assertEquals(BLOCK_COUNT - 1, asyncRequestCount.get());
+    }
+
+    @Test
+    public void testNextBlock() {
+        SimpleRowMatrixBlockRowIterator iterator =
+                new SimpleRowMatrixBlockRowIterator(buildClient(), buildCriteria(), false, true);
+        // the rest of a started block is read by the row iterator
+        assertTrue(iterator.hasNext());
+        assertEquals(0, iterator.next().longValue());
+
+        List<Long> pks = new ArrayList<Long>();
+        SimpleRowMatrixBlockParser block = iterator.nextBlock();
+        while (block != null) {
+            long[] values = new long[block.getRowCount()];
+            block.copyLongs(0, values, null, 0);
+            for (long value : values) {
+                pks.add(value);
+            }
+            block = iterator.nextBlock();
+        }
+        assertEquals(2 * ROWS_PER_BLOCK, pks.size());
+        for (int i = 0; i < pks.size(); i++) {
+            assertEquals(ROWS_PER_BLOCK + i, pks.get(i).longValue());
+        }
+        assertFalse(iterator.hasNext());
+        assertEquals(1, syncRequestCount.get());
+    }
+
+    @Test
+    public void testBulkExportIterator() {
+        RangeIteratorParameter parameter = new RangeIteratorParameter(TABLE_NAME);
+        parameter.setInclusiveStartPrimaryKey(pk(0));
+        parameter.setExclusiveEndPrimaryKey(pk(Long.MAX_VALUE));
+        BulkExportIterator iterator = new BulkExportIterator(buildClient(), parameter);
+        int index = 0;
+        while (iterator.hasNext()) {
+            Row row = iterator.next();
+            assertEquals(index, row.getPrimaryKey().getPrimaryKeyColumn(0).getValue().asLong());
+            assertEquals(index % 3 == 0, !row.contains("value"));
+            index++;
+        }
+        assertEquals(ROWS_PER_BLOCK * BLOCK_COUNT, index);
+    }
+}
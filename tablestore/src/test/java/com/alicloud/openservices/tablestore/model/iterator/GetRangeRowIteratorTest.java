@@ -0,0 +1,212 @@
+package com.alicloud.openservices.tablestore.model.iterator;
+
+import com.alicloud.openservices.tablestore.AsyncClientInterface;
+import com.alicloud.openservices.tablestore.SyncClientInterface;
+import com.alicloud.openservices.tablestore.TableStoreCallback;
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class GetRangeRowIteratorTest {
+
+    private static final String TABLE_NAME = "test_table";
+    private static final long PAGE_BODY_BYTES = 100;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private int tableRows = 100;
+    private int failAtRequest = -1;
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private PrimaryKey pk(long value) {
+        return PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("pk", PrimaryKeyValue.fromLong(value)).build();
+    }
+
+    private GetRangeResponse handle(GetRangeRequest request) {
+        if (requestCount.incrementAndGet() == failAtRequest) {
+            throw new TableStoreException("Server busy", null, "OTSServerBusy", "reqId", 503);
+        }
+        RangeRowQueryCriteria criteria = request.getRangeRowQueryCriteria();
+        long start = criteria.getInclusiveStartPrimaryKey().getPrimaryKeyColumn(0).getValue().asLong();
+        int limit = criteria.getLimit() > 0 ? Math.min(criteria.getLimit(), 10) : 10;
+        List<Row> rows = new ArrayList<Row>();
+        long next = start;
+        for (; next < tableRows && rows.size() < limit; next++) {
+            rows.add(new Row(pk(next), new Column[0]));
+        }
+        GetRangeResponse response = new GetRangeResponse(new Response("reqId"), new ConsumedCapacity(new CapacityUnit(1, 0)));
+        response.setRows(rows);
+        response.setNextStartPrimaryKey(next < tableRows ? pk(next) : null);
+        response.setBodyBytes(PAGE_BODY_BYTES);
+        return response;
+    }
+
+    private SyncClientInterface buildClient() {
+        final AsyncClientInterface asyncClient = (AsyncClientInterface) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[]{AsyncClientInterface.class}, new InvocationHandler() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Object invoke(Object proxy, Method method, final Object[] args) {
+                        assertEquals("getRange", method.getName());
+                        final GetRangeRequest request = (GetRangeRequest) args[0];
+                        final TableStoreCallback<GetRangeRequest, GetRangeResponse> callback =
+                                (TableStoreCallback<GetRangeRequest, GetRangeResponse>) args[1];
+                        executor.submit(new Runnable() {
+                            @Override
+                            public void run() {
+                                GetRangeResponse response;
+                                try {
+                                    response = handle(request);
+                                } catch (Exception ex) {
+                                    callback.onFailed(request, ex);
+                                    return;
+                                }
+                                callback.onCompleted(request, response);
+                            }
+                        });
+                        return null;
+                    }
+                });
+        return (SyncClientInterface) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[]{SyncClientInterface.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("asAsyncClient")) {
+                            return asyncClient;
+                        }
+                        assertEquals("getRange", method.getName());
+                        return handle((GetRangeRequest) args[0]);
+                    }
+                });
+    }
+
+    private RangeIteratorParameter buildParameter() {
+        RangeIteratorParameter parameter = new RangeIteratorParameter(TABLE_NAME);
+        parameter.setInclusiveStartPrimaryKey(pk(0));
+        parameter.setExclusiveEndPrimaryKey(pk(Long.MAX_VALUE));
+        return parameter;
+    }
+
+    private List<Long> readAll(Iterator<Row> iterator) {
+        List<Long> values = new ArrayList<Long>();
+        while (iterator.hasNext()) {
+            values.add(iterator.next().getPrimaryKey().getPrimaryKeyColumn(0).getValue().asLong());
+        }
+        return values;
+    }
+
+    private void waitForRequests(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (requestCount.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // give a wrongly issued extra request the chance to show up
+        Thread.sleep(100);
+    }
+
+    @Test
+    public void testPrefetchReturnsSameRowsAsSync() {
+        RangeIteratorParameter parameter = buildParameter();
+        List<Long> expected = readAll(new GetRangeRowIterator(buildClient(), parameter));
+        assertEquals(100, expected.size());
+
+        parameter.setPrefetchDepth(3);
+        assertEquals(expected, readAll(new GetRangeRowIterator(buildClient(), parameter)));
+    }
+
+    @Test
+    public void testPrefetchWithMaxCount() {
+        RangeIteratorParameter parameter = buildParameter();
+        parameter.setMaxCount(25);
+        parameter.setBufferSize(7);
+        List<Long> expected = readAll(new GetRangeRowIterator(buildClient(), parameter));
+        assertEquals(25, expected.size());
+
+        parameter.setPrefetchDepth(2);
+        assertEquals(expected, readAll(new GetRangeRowIterator(buildClient(), parameter)));
+    }
+
+    @Test
+    public void testPrefetchBoundedByDepth() throws InterruptedException {
+        RangeIteratorParameter parameter = buildParameter();
+        parameter.setPrefetchDepth(2);
+        new GetRangeRowIterator(buildClient(), parameter);
+
+        // the first page is consumed by the constructor, two more are read ahead
+        waitForRequests(3);
+        assertEquals(3, requestCount.get());
+    }
+
+    @Test
+    public void testPrefetchBoundedByMaxBytes() throws InterruptedException {
+        RangeIteratorParameter parameter = buildParameter();
+        parameter.setPrefetchDepth(5);
+        parameter.setPrefetchMaxBytes(PAGE_BODY_BYTES * 2);
+        GetRangeRowIterator iterator = new GetRangeRowIterator(buildClient(), parameter);
+
+        waitForRequests(3);
+        assertEquals(3, requestCount.get());
+
+        // consuming one page frees budget for one more
+        for (int i = 0; i < 11; i++) {
+            iterator.next();
+        }
+        waitForRequests(4);
+        assertEquals(4, requestCount.get());
+    }
+
+    @Test
+    public void testPrefetchFailure() {
+        failAtRequest = 3;
+        RangeIteratorParameter parameter = buildParameter();
+        parameter.setPrefetchDepth(1);
+        GetRangeRowIterator iterator = new GetRangeRowIterator(buildClient(), parameter);
+        try {
+            readAll(iterator);
+            fail();
+        } catch (TableStoreException e) {
+            assertEquals("OTSServerBusy", e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void testInvalidPrefetchArguments() {
+        RangeIteratorParameter parameter = buildParameter();
+        try {
+            parameter.setPrefetchDepth(-1);
+            fail();
+        } catch (IllegalArgumentException e) {
+
+        }
+        for (long prefetchMaxBytes : new long[]{0, -2, Long.MIN_VALUE}) {
+            try {
+                parameter.setPrefetchMaxBytes(prefetchMaxBytes);
+                fail();
+            } catch (IllegalArgumentException e) {
+
+            }
+        }
+        // -1 restores the default, no limit
+        parameter.setPrefetchMaxBytes(100);
+        parameter.setPrefetchMaxBytes(-1);
+        assertEquals(-1, parameter.getPrefetchMaxBytes());
+    }
+}
@@ -0,0 +1,256 @@
+package com.alicloud.openservices.tablestore.model.iterator;
+
+import com.alicloud.openservices.tablestore.AsyncClientInterface;
+import com.alicloud.openservices.tablestore.TableStoreCallback;
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.model.*;
+import com.alicloud.openservices.tablestore.model.search.ParallelScanRequest;
+import com.alicloud.openservices.tablestore.model.search.ParallelScanResponse;
+import com.alicloud.openservices.tablestore.model.search.ScanQuery;
+import com.alicloud.openservices.tablestore.model.search.query.MatchAllQuery;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ParallelScanExecutorTest {
+
+    private static final String TABLE_NAME = "test_table";
+    private static final String INDEX_NAME = "test_index";
+    private static final byte[] SESSION_ID = new byte[]{1, 2, 3};
+    private static final int ROWS_PER_ID = 25;
+    private static final int PAGE_SIZE = 10;
+    private static final long PAGE_BODY_BYTES = 100;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private int splitsSize = 4;
+    private int failAtRequest = -1;
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private ParallelScanResponse handle(ParallelScanRequest request) {
+        if (requestCount.incrementAndGet() == failAtRequest) {
+            throw new TableStoreException("Session expired", null, "OTSServerSessionExpired", "reqId", 400);
+        }
+        ScanQuery query = request.getScanQuery();
+        assertTrue(Arrays.equals(SESSION_ID, request.getSessionId()));
+        assertEquals(TABLE_NAME, request.getTableName());
+        assertEquals(INDEX_NAME, request.getIndexName());
+        int parallelId = query.getCurrentParallelId();
+        assertTrue(parallelId >= 0 && parallelId < query.getMaxParallel());
+        int start = query.getToken() == null ? 0 : query.getToken()[0];
+        List<Row> rows = new ArrayList<Row>();
+        int next = start;
+        for (; next < ROWS_PER_ID && rows.size() < PAGE_SIZE; next++) {
+            PrimaryKey pk = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                    .addPrimaryKeyColumn("pk", PrimaryKeyValue.fromLong(parallelId * 1000L + next)).build();
+            rows.add(new Row(pk, new Column[0]));
+        }
+        ParallelScanResponse response = new ParallelScanResponse(new Response("reqId"));
+        response.setRows(rows);
+        response.setNextToken(next < ROWS_PER_ID ? new byte[]{(byte) next} : null);
+        response.setBodyBytes(PAGE_BODY_BYTES);
+        return response;
+    }
+
+    private AsyncClientInterface buildClient() {
+        return (AsyncClientInterface) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[]{AsyncClientInterface.class}, new InvocationHandler() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Object invoke(Object proxy, Method method, final Object[] args) {
+                        if (method.getName().equals("computeSplits")) {
+                            assertNull(args[1]);
+                            return executor.submit(new Callable<ComputeSplitsResponse>() {
+                                @Override
+                                public ComputeSplitsResponse call() {
+                                    ComputeSplitsResponse response = new ComputeSplitsResponse(new Response("reqId"));
+                                    response.setSessionId(SESSION_ID);
+                                    response.setSplitsSize(splitsSize);
+                                    return response;
+                                }
+                            });
+                        }
+                        assertEquals("parallelScan", method.getName());
+                        final ParallelScanRequest request = (ParallelScanRequest) args[0];
+                        final TableStoreCallback<ParallelScanRequest, ParallelScanResponse> callback =
+                                (TableStoreCallback<ParallelScanRequest, ParallelScanResponse>) args[1];
+                        int current = inFlight.incrementAndGet();
+                        while (true) {
+                            int max = maxInFlight.get();
+                            if (current <= max || maxInFlight.compareAndSet(max, current)) {
+                                break;
+                            }
+                        }
+                        executor.submit(new Runnable() {
+                            @Override
+                            public void run() {
+                                ParallelScanResponse response;
+                                try {
+                                    response = handle(request);
+                                } catch (Exception ex) {
+                                    inFlight.decrementAndGet();
+                                    callback.onFailed(request, ex);
+                                    return;
+                                }
+                                inFlight.decrementAndGet();
+                                callback.onCompleted(request, response);
+                            }
+                        });
+                        return null;
+                    }
+                });
+    }
+
+    private ParallelScanRequest buildRequest() {
+        ScanQuery query = new ScanQuery();
+        query.setQuery(new MatchAllQuery());
+        query.setLimit(PAGE_SIZE);
+        query.setAliveTime(30);
+        ParallelScanRequest request = new ParallelScanRequest();
+        request.setTableName(TABLE_NAME);
+        request.setIndexName(INDEX_NAME);
+        request.setScanQuery(query);
+        return request;
+    }
+
+    private List<Long> expectedRows(int parallelism) {
+        List<Long> values = new ArrayList<Long>();
+        for (int id = 0; id < parallelism; id++) {
+            for (int i = 0; i < ROWS_PER_ID; i++) {
+                values.add(id * 1000L + i);
+            }
+        }
+        return values;
+    }
+
+    private long value(Row row) {
+        return row.getPrimaryKey().getPrimaryKeyColumn(0).getValue().asLong();
+    }
+
+    @Test
+    public void testIteratorReadsAllParallelIds() {
+        ParallelScanExecutor scanExecutor = new ParallelScanExecutor(buildClient(), buildRequest());
+        assertEquals(4, scanExecutor.getParallelism());
+        assertTrue(Arrays.equals(SESSION_ID, scanExecutor.getSessionId()));
+
+        List<Long> values = new ArrayList<Long>();
+        RowIterator iterator = scanExecutor.iterator();
+        while (iterator.hasNext()) {
+            values.add(value(iterator.next()));
+        }
+        Collections.sort(values);
+        assertEquals(expectedRows(4), values);
+        // 3 pages for each id
+        assertEquals(12, requestCount.get());
+        assertEquals(12 * PAGE_BODY_BYTES, scanExecutor.getCompletedBytes());
+    }
+
+    @Test
+    public void testForEachKeepsOrderOfParallelId() {
+        ParallelScanRequest request = buildRequest();
+        request.getScanQuery().setMaxParallel(3);
+        ParallelScanExecutor scanExecutor = new ParallelScanExecutor(buildClient(), request, 2, 2);
+        assertEquals(3, scanExecutor.getParallelism());
+
+        final Map<Integer, List<Long>> rowsById = new HashMap<Integer, List<Long>>();
+        scanExecutor.forEach(new ParallelScanExecutor.PartitionCallback() {
+            @Override
+            public void onRows(int parallelId, List<Row> rows) {
+                if (!rowsById.containsKey(parallelId)) {
+                    rowsById.put(parallelId, new ArrayList<Long>());
+                }
+                for (Row row : rows) {
+                    rowsById.get(parallelId).add(value(row));
+                }
+            }
+        });
+        assertEquals(3, rowsById.size());
+        for (int id = 0; id < 3; id++) {
+            assertEquals(expectedRows(3).subList(id * ROWS_PER_ID, (id + 1) * ROWS_PER_ID), rowsById.get(id));
+        }
+        assertTrue(maxInFlight.get() <= 2);
+        // the request of the caller is not changed
+        assertNull(request.getScanQuery().getToken());
+    }
+
+    @Test
+    public void testSessionOfRequest() {
+        ParallelScanRequest request = buildRequest();
+        request.setSessionId(SESSION_ID);
+        request.getScanQuery().setMaxParallel(2);
+        // computeSplits is not called, so the splits size does not matter
+        splitsSize = 100;
+        ParallelScanExecutor scanExecutor = new ParallelScanExecutor(buildClient(), request);
+        assertEquals(2, scanExecutor.getParallelism());
+
+        List<Long> values = new ArrayList<Long>();
+        RowIterator iterator = scanExecutor.iterator();
+        while (iterator.hasNext()) {
+            values.add(value(iterator.next()));
+        }
+        Collections.sort(values);
+        assertEquals(expectedRows(2), values);
+    }
+
+    @Test
+    public void testFailure() {
+        failAtRequest = 5;
+        ParallelScanExecutor scanExecutor = new ParallelScanExecutor(buildClient(), buildRequest());
+        RowIterator iterator = scanExecutor.iterator();
+        try {
+            while (iterator.hasNext()) {
+                iterator.next();
+            }
+            fail();
+        } catch (TableStoreException e) {
+            assertEquals("OTSServerSessionExpired", e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        ParallelScanRequest request = buildRequest();
+        request.getScanQuery().setToken(new byte[]{1});
+        try {
+            new ParallelScanExecutor(buildClient(), request);
+            fail();
+        } catch (IllegalArgumentException e) {
+
+        }
+        try {
+            new ParallelScanExecutor(buildClient(), buildRequest(), 0, -1);
+            fail();
+        } catch (IllegalArgumentException e) {
+
+        }
+        ParallelScanExecutor scanExecutor = new ParallelScanExecutor(buildClient(), buildRequest());
+        scanExecutor.iterator();
+        try {
+            scanExecutor.iterator();
+            fail();
+        } catch (IllegalStateException e) {
+
+        }
+    }
+}
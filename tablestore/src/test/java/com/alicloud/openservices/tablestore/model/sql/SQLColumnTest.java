@@ -0,0 +1,251 @@
+package com.alicloud.openservices.tablestore.model.sql;
+
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.ColumnValues;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.ComplexColumnTypeInfo;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.DataType;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.LogicType;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.RLEStringValues;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.SQLResponseColumn;
+import com.alicloud.openservices.tablestore.core.protocol.sql.flatbuffers.SQLResponseColumns;
+import com.alicloud.openservices.tablestore.model.ColumnType;
+import com.google.flatbuffers.FlatBufferBuilder;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.*;
+
+public class SQLColumnTest {
+
+    private static final int ROW_COUNT = 5;
+    private static final boolean[] IS_NULL = {false, true, false, false, false};
+    private static final long[] LONGS = {1, 0, -3, Long.MAX_VALUE, 5};
+    private static final double[] DOUBLES = {1.5, 0, -3.25, Double.MAX_VALUE, 5e-10};
+    private static final boolean[] BOOLS = {true, false, false, true, true};
+    private static final String[] STRINGS = {"a", null, "", "d", "a"};
+    private static final String[] DICTIONARY = {"hangzhou", "beijing"};
+    private static final int[] DICTIONARY_INDEXES = {1, 0, 0, 1, 1};
+    private static final long[] DATETIMES = {1689840111874921L, 0, 0, -1000, 1};
+
+    private static int addColumn(FlatBufferBuilder builder, String name, byte type, byte logicType, byte encodeType,
+                                 int valuesOffset) {
+        int nameOffset = builder.createString(name);
+        int typeInfoOffset = ComplexColumnTypeInfo.createComplexColumnTypeInfo(builder, logicType, encodeType);
+        return SQLResponseColumn.createSQLResponseColumn(builder, nameOffset, type, valuesOffset, typeInfoOffset);
+    }
+
+    private static SQLRowsFBsColumnBased buildRows() {
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        int[] columns = new int[6];
+
+        int nulls = ColumnValues.createIsNullvaluesVector(builder, IS_NULL);
+        int values = ColumnValues.createColumnValues(builder, nulls, ColumnValues.createLongValuesVector(builder, LONGS), 0, 0, 0, 0, 0);
+        columns[0] = addColumn(builder, "long", DataType.LONG, (byte) 0, (byte) 0, values);
+
+        nulls = ColumnValues.createIsNullvaluesVector(builder, IS_NULL);
+        values = ColumnValues.createColumnValues(builder, nulls, 0, 0, ColumnValues.createDoubleValuesVector(builder, DOUBLES), 0, 0, 0);
+        columns[1] = addColumn(builder, "double", DataType.DOUBLE, (byte) 0, (byte) 0, values);
+
+        nulls = ColumnValues.createIsNullvaluesVector(builder, IS_NULL);
+        values = ColumnValues.createColumnValues(builder, nulls, 0, ColumnValues.createBoolValuesVector(builder, BOOLS), 0, 0, 0, 0);
+        columns[2] = addColumn(builder, "bool", DataType.BOOLEAN, (byte) 0, (byte) 0, values);
+
+        int[] stringOffsets = new int[ROW_COUNT];
+        for (int i = 0; i < ROW_COUNT; i++) {
+            stringOffsets[i] = builder.createString(STRINGS[i] == null ? "" : STRINGS[i]);
+        }
+        int stringVector = ColumnValues.createStringValuesVector(builder, stringOffsets);
+        nulls = ColumnValues.createIsNullvaluesVector(builder, IS_NULL);
+        values = ColumnValues.createColumnValues(builder, nulls, 0, 0, 0, stringVector, 0, 0);
+        columns[3] = addColumn(builder, "string", DataType.STRING, (byte) 0, (byte) 0, values);
+
+        int[] dictionaryOffsets = new int[DICTIONARY.length];
+        for (int i = 0; i < DICTIONARY.length; i++) {
+            dictionaryOffsets[i] = builder.createString(DICTIONARY[i]);
+        }
+        int rle = RLEStringValues.createRLEStringValues(builder, RLEStringValues.createArrayVector(builder, dictionaryOffsets),
+                RLEStringValues.createIndexMappingVector(builder, DICTIONARY_INDEXES));
+        nulls = ColumnValues.createIsNullvaluesVector(builder, IS_NULL);
+        values = ColumnValues.createColumnValues(builder, nulls, 0, 0, 0, 0, 0, rle);
+        columns[4] = addColumn(builder, "rle", DataType.STRING_RLE, (byte) 0, (byte) 0, values);
+
+        nulls = ColumnValues.createIsNullvaluesVector(builder, IS_NULL);
+        values = ColumnValues.createColumnValues(builder, nulls, ColumnValues.createLongValuesVector(builder, DATETIMES), 0, 0, 0, 0, 0);
+        columns[5] = addColumn(builder, "datetime", DataType.COMPLEX, LogicType.DATETIME, DataType.LONG, values);
+
+        int root = SQLResponseColumns.createSQLResponseColumns(builder, SQLResponseColumns.createColumnsVector(builder, columns), ROW_COUNT);
+        builder.finish(root);
+        return new SQLRowsFBsColumnBased(SQLResponseColumns.getRootAsSQLResponseColumns(builder.dataBuffer()));
+    }
+
+    @Test
+    public void testLongAndDoubleColumns() {
+        SQLRowsFBsColumnBased rows = buildRows();
+        LongColumn longColumn = rows.getLongColumn(0);
+        DoubleColumn doubleColumn = rows.getDoubleColumn(1);
+        assertEquals("long", longColumn.getName());
+        assertEquals(ColumnType.INTEGER, longColumn.getColumnType());
+        assertEquals(ROW_COUNT, longColumn.rowCount());
+        for (int i = 0; i < ROW_COUNT; i++) {
+            assertEquals(IS_NULL[i], longColumn.isNull(i));
+            assertEquals(IS_NULL[i], doubleColumn.isNull(i));
+            if (!IS_NULL[i]) {
+                assertEquals(rows.get(i, 0), longColumn.getLong(i));
+                assertEquals(rows.get(i, 1), doubleColumn.getDouble(i));
+            }
+        }
+        assertArrayEquals(LONGS, longColumn.toLongArray());
+        assertArrayEquals(DOUBLES, doubleColumn.toDoubleArray(), 0);
+
+        long[] longs = new long[4];
+        longColumn.copyTo(2, longs, 1, 3);
+        assertArrayEquals(new long[]{0, LONGS[2], LONGS[3], LONGS[4]}, longs);
+        double[] doubles = new double[2];
+        doubleColumn.copyTo(3, doubles, 0, 2);
+        assertArrayEquals(new double[]{DOUBLES[3], DOUBLES[4]}, doubles, 0);
+        try {
+            longColumn.copyTo(3, longs, 0, 3);
+            fail();
+        } catch (IllegalStateException e) {
+            // the rows are out of range
+        }
+        try {
+            longColumn.copyTo(0, longs, 2, 3);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // the array is too small
+        }
+    }
+
+    @Test
+    public void testAbsentValues() {
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        int nulls = ColumnValues.createIsNullvaluesVector(builder, new boolean[]{true, true, true});
+        builder.finish(ColumnValues.createColumnValues(builder, nulls, 0, 0, 0, 0, 0, 0));
+        ColumnValues columnValues = ColumnValues.getRootAsColumnValues(builder.dataBuffer());
+        // the values of a column without a vector read as 0, like its rows
+        long[] longs = {-1, -1, -1};
+        new LongColumn("long", ColumnType.INTEGER, 3, columnValues).copyTo(0, longs, 0, 3);
+        assertArrayEquals(new long[]{0, 0, 0}, longs);
+        double[] doubles = {-1, -1};
+        new DoubleColumn("double", ColumnType.DOUBLE, 3, columnValues).copyTo(1, doubles, 0, 2);
+        assertArrayEquals(new double[]{0, 0}, doubles, 0);
+    }
+
+    @Test
+    public void testDefaultColumnsOfResultSet() {
+        final SQLRowsFBsColumnBased rows = buildRows();
+        SQLResultSet resultSet = new SQLResultSet() {
+            @Override
+            public SQLTableMeta getSQLTableMeta() {
+                return rows.getSQLTableMeta();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return false;
+            }
+
+            @Override
+            public SQLRow next() {
+                return null;
+            }
+
+            @Override
+            public long rowCount() {
+                return rows.rowCount();
+            }
+
+            @Override
+            public boolean absolute(int rowIndex) {
+                return false;
+            }
+
+            @Override
+            public LongColumn getLongColumn(int columnIndex) {
+                return rows.getLongColumn(columnIndex);
+            }
+        };
+        // the columns by name are looked up by index
+        assertSame(rows.getLongColumn(0), resultSet.getLongColumn("long"));
+        try {
+            resultSet.getLongColumn("missing");
+            fail();
+        } catch (IllegalStateException e) {
+            // the column does not exist
+        }
+        try {
+            resultSet.getDoubleColumn("double");
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // the implementation has no typed columns
+        }
+    }
+
+    @Test
+    public void testBooleanColumn() {
+        SQLRowsFBsColumnBased rows = buildRows();
+        BooleanColumn column = rows.getBooleanColumn(2);
+        boolean[] bools = new boolean[ROW_COUNT];
+        column.copyTo(0, bools, 0, ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            assertEquals(BOOLS[i], bools[i]);
+        }
+        assertEquals(rows.get(0, 2), column.getBoolean(0));
+    }
+
+    @Test
+    public void testStringColumns() {
+        SQLRowsFBsColumnBased rows = buildRows();
+        StringColumn plain = rows.getStringColumn(3);
+        assertFalse(plain.isDictionaryEncoded());
+        assertEquals(ROW_COUNT, plain.getDictionarySize());
+        StringColumn rle = rows.getStringColumn(4);
+        assertTrue(rle.isDictionaryEncoded());
+        assertEquals(DICTIONARY.length, rle.getDictionarySize());
+        // the column and its dictionary are decoded once
+        assertSame(rle, rows.getStringColumn(4));
+        assertSame(rle.getString(0), rle.getString(3));
+        for (int i = 0; i < ROW_COUNT; i++) {
+            if (!IS_NULL[i]) {
+                assertEquals(rows.get(i, 3), plain.getString(i));
+                assertEquals(rows.get(i, 4), rle.getString(i));
+            }
+            assertEquals(i, plain.getDictionaryIndex(i));
+            assertEquals(DICTIONARY_INDEXES[i], rle.getDictionaryIndex(i));
+            assertEquals(DICTIONARY[DICTIONARY_INDEXES[i]], rle.getDictionaryValue(rle.getDictionaryIndex(i)));
+        }
+        int[] indexes = new int[3];
+        rle.copyDictionaryIndexesTo(2, indexes, 0, 3);
+        assertArrayEquals(new int[]{0, 1, 1}, indexes);
+        plain.copyDictionaryIndexesTo(2, indexes, 0, 3);
+        assertArrayEquals(new int[]{2, 3, 4}, indexes);
+    }
+
+    @Test
+    public void testDateTimeColumnAsLong() {
+        SQLRowsFBsColumnBased rows = buildRows();
+        LongColumn column = rows.getLongColumn(5);
+        assertEquals(ColumnType.DATETIME, column.getColumnType());
+        assertEquals(DATETIMES[0], column.getLong(0));
+        ZonedDateTime dateTime = (ZonedDateTime) rows.get(0, 5);
+        assertEquals(dateTime.toEpochSecond() * 1000000 + dateTime.getNano() / 1000, column.getLong(0));
+    }
+
+    @Test
+    public void testTypeMismatch() {
+        SQLRowsFBsColumnBased rows = buildRows();
+        try {
+            rows.getDoubleColumn(0);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // a long column is not a double column
+        }
+        try {
+            rows.getStringColumn(6);
+            fail();
+        } catch (IllegalStateException e) {
+            // the column is out of range
+        }
+    }
+}
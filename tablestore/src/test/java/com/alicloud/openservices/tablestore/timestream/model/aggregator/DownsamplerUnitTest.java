@@ -0,0 +1,228 @@
+package com.alicloud.openservices.tablestore.timestream.model.aggregator;
+
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.timestream.model.Point;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class DownsamplerUnitTest {
+
+    private static Point point(long seconds, double value) {
+        return new Point.Builder(seconds, TimeUnit.SECONDS).addField("cpu", value).build();
+    }
+
+    @Test
+    public void testBuckets() {
+        Downsampler downsampler = new Downsampler("cpu", 1, TimeUnit.MINUTES);
+        downsampler.add(point(0, 1.0));
+        downsampler.add(point(10, 3.0));
+        downsampler.add(point(59, 2.0));
+        downsampler.add(point(60, 10.0));
+        downsampler.add(new Point.Builder(61, TimeUnit.SECONDS).addField("cpu", 20L).build());
+        // the points without the field are skipped
+        downsampler.add(new Point.Builder(62, TimeUnit.SECONDS).addField("mem", 1.0).build());
+        downsampler.add(point(185, -4.0));
+
+        Assert.assertEquals(6, downsampler.getPointCount());
+        List<DownsampleBucket> buckets = downsampler.getBuckets();
+        Assert.assertEquals(3, buckets.size());
+
+        DownsampleBucket first = buckets.get(0);
+        Assert.assertEquals(0, first.getStartTime());
+        Assert.assertEquals(3, first.getCount());
+        Assert.assertEquals(6.0, first.getSum(), 0);
+        Assert.assertEquals(1.0, first.getMin(), 0);
+        Assert.assertEquals(3.0, first.getMax(), 0);
+        Assert.assertEquals(2.0, first.getAverage(), 0);
+        Assert.assertEquals(2.0, first.getLast(), 0);
+        Assert.assertEquals(TimeUnit.SECONDS.toMicros(59), first.getLastTimestamp());
+
+        Assert.assertEquals(1, buckets.get(1).getStartTime(TimeUnit.MINUTES));
+        Assert.assertEquals(30.0, buckets.get(1).getSum(), 0);
+        Assert.assertEquals(20.0, buckets.get(1).getLast(), 0);
+        Assert.assertEquals(3, buckets.get(2).getStartTime(TimeUnit.MINUTES));
+        Assert.assertEquals(-4.0, buckets.get(2).getMin(), 0);
+
+        try {
+            first.getPercentile(0.5);
+            Assert.fail();
+        } catch (ClientException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testLastOfDescendingPoints() {
+        Downsampler downsampler = new Downsampler("cpu", 1, TimeUnit.MINUTES);
+        downsampler.add(point(50, 5.0));
+        downsampler.add(point(20, 2.0));
+        Assert.assertEquals(5.0, downsampler.getBuckets().get(0).getLast(), 0);
+    }
+
+    @Test
+    public void testNegativeTimestamps() {
+        Downsampler downsampler = new Downsampler("cpu", 10, TimeUnit.MICROSECONDS);
+        downsampler.add(-1, 1.0);
+        downsampler.add(-10, 2.0);
+        downsampler.add(-11, 3.0);
+        downsampler.add(0, 4.0);
+        downsampler.add(9, 5.0);
+
+        List<DownsampleBucket> buckets = downsampler.getBuckets();
+        Assert.assertEquals(3, buckets.size());
+        Assert.assertEquals(-20, buckets.get(0).getStartTime());
+        Assert.assertEquals(3.0, buckets.get(0).getSum(), 0);
+        Assert.assertEquals(-10, buckets.get(1).getStartTime());
+        Assert.assertEquals(3.0, buckets.get(1).getSum(), 0);
+        Assert.assertEquals(0, buckets.get(2).getStartTime());
+        Assert.assertEquals(9.0, buckets.get(2).getSum(), 0);
+    }
+
+    @Test
+    public void testPercentiles() {
+        Downsampler downsampler = new Downsampler("cpu", 1, TimeUnit.HOURS).withPercentiles(0.01);
+        Random random = new Random(7);
+        List<Double> values = new ArrayList<Double>();
+        for (int i = 0; i < 10000; i++) {
+            double value = Math.exp(random.nextGaussian() * 2) * (i % 10 == 0 ? -1 : 1);
+            if (i % 100 == 0) {
+                value = 0;
+            }
+            values.add(value);
+            downsampler.add(point(i % 3600, value));
+        }
+        Collections.sort(values);
+        DownsampleBucket bucket = downsampler.getBuckets().get(0);
+        for (double quantile : new double[]{0, 0.05, 0.1, 0.5, 0.9, 0.99, 1}) {
+            double expected = values.get((int) (quantile * (values.size() - 1)));
+            Assert.assertEquals(expected, bucket.getPercentile(quantile), Math.abs(expected) * 0.01 + 1e-9);
+        }
+    }
+
+    @Test
+    public void testParallelTimelines() {
+        Random random = new Random(11);
+        final List<List<Point>> timelines = new ArrayList<List<Point>>();
+        Downsampler sequential = new Downsampler("cpu", 10, TimeUnit.SECONDS).withPercentiles();
+        for (int t = 0; t < 8; t++) {
+            List<Point> points = new ArrayList<Point>();
+            for (int i = 0; i < 1000; i++) {
+                // integral values, so that the sums do not depend on the order of the additions
+                Point point = point(i, random.nextInt(1000));
+                points.add(point);
+                sequential.add(point);
+            }
+            timelines.add(points);
+        }
+
+        List<Callable<Iterator<Point>>> sources = new ArrayList<Callable<Iterator<Point>>>();
+        for (final List<Point> points : timelines) {
+            sources.add(new Callable<Iterator<Point>>() {
+                @Override
+                public Iterator<Point> call() {
+                    return points.iterator();
+                }
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Downsampler parallel;
+        try {
+            parallel = new Downsampler("cpu", 10, TimeUnit.SECONDS).withPercentiles().addAllTimelines(sources, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(8000, parallel.getPointCount());
+        List<DownsampleBucket> expected = sequential.getBuckets();
+        List<DownsampleBucket> actual = parallel.getBuckets();
+        Assert.assertEquals(100, actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).getStartTime(), actual.get(i).getStartTime());
+            Assert.assertEquals(expected.get(i).getCount(), actual.get(i).getCount());
+            Assert.assertEquals(expected.get(i).getSum(), actual.get(i).getSum(), 0);
+            Assert.assertEquals(expected.get(i).getMin(), actual.get(i).getMin(), 0);
+            Assert.assertEquals(expected.get(i).getMax(), actual.get(i).getMax(), 0);
+            Assert.assertEquals(expected.get(i).getLastTimestamp(), actual.get(i).getLastTimestamp());
+            Assert.assertEquals(expected.get(i).getPercentile(0.9), actual.get(i).getPercentile(0.9), 0);
+        }
+    }
+
+    @Test
+    public void testParallelFailure() {
+        List<Callable<Iterator<Point>>> sources = new ArrayList<Callable<Iterator<Point>>>();
+        sources.add(new Callable<Iterator<Point>>() {
+            @Override
+            public Iterator<Point> call() {
+                return Arrays.asList(point(1, 1.0)).iterator();
+            }
+        });
+        sources.add(new Callable<Iterator<Point>>() {
+            @Override
+            public Iterator<Point> call() {
+                return Arrays.asList(new Point.Builder(1, TimeUnit.SECONDS).addField("cpu", "high").build()).iterator();
+            }
+        });
+        Downsampler downsampler = new Downsampler("cpu", 10, TimeUnit.SECONDS);
+        downsampler.add(point(100, 5.0));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            downsampler.addAllTimelines(sources, executor);
+            Assert.fail();
+        } catch (ClientException e) {
+            Assert.assertTrue(e.getMessage().contains("INTEGER or a DOUBLE"));
+        } finally {
+            executor.shutdownNow();
+        }
+        // the timeline which succeeded is not merged either
+        Assert.assertEquals(1, downsampler.getPointCount());
+        Assert.assertEquals(1, downsampler.getBuckets().size());
+        Assert.assertEquals(100, downsampler.getBuckets().get(0).getStartTime(TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        try {
+            new Downsampler("cpu", 0, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ClientException e) {
+            // pass
+        }
+        try {
+            new Downsampler("", 1, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ClientException e) {
+            // pass
+        }
+        try {
+            new Downsampler("cpu", 1, TimeUnit.SECONDS).withPercentiles(1);
+            Assert.fail();
+        } catch (ClientException e) {
+            // pass
+        }
+        try {
+            new Downsampler("cpu", 1, TimeUnit.SECONDS).merge(new Downsampler("cpu", 2, TimeUnit.SECONDS));
+            Assert.fail();
+        } catch (ClientException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testLongAverage() {
+        AggregatorLongAverage average = new AggregatorLongAverage("avg");
+        average.add(1L);
+        average.add(2L);
+        Assert.assertEquals(1.5, average.getValue().asDouble(), 0);
+    }
+}
@@ -0,0 +1,103 @@
+package com.alicloud.openservices.tablestore.tunnel.unittest;
+
+import com.alicloud.openservices.tablestore.tunnel.worker.AsyncCheckpointer;
+import com.alicloud.openservices.tablestore.tunnel.worker.DefaultChannelProcessor;
+import com.alicloud.openservices.tablestore.tunnel.worker.ICheckpointer;
+import com.alicloud.openservices.tablestore.tunnel.worker.ProcessRecordsInput;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.alicloud.openservices.tablestore.core.protocol.ResponseFactory.FINISH_TAG;
+
+public class AsyncCheckpointerTest extends TestCase {
+
+    private static class RecordingCheckpointer implements ICheckpointer {
+        private final List<String> tokens = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public void checkpoint(String token) {
+            tokens.add(token);
+        }
+    }
+
+    public void testCoalesceUntilFlush() {
+        RecordingCheckpointer recording = new RecordingCheckpointer();
+        AsyncCheckpointer checkpointer = new AsyncCheckpointer(recording, 60000);
+        for (int i = 0; i < 5; i++) {
+            checkpointer.checkpoint("token-" + i);
+        }
+        assertTrue(recording.tokens.isEmpty());
+        assertEquals("token-4", checkpointer.getPendingToken());
+
+        checkpointer.flush();
+        checkpointer.flush();
+        assertEquals(Arrays.asList("token-4"), recording.tokens);
+        assertNull(checkpointer.getPendingToken());
+        checkpointer.close();
+    }
+
+    public void testPeriodicFlush() throws Exception {
+        RecordingCheckpointer recording = new RecordingCheckpointer();
+        AsyncCheckpointer checkpointer = new AsyncCheckpointer(recording, 100);
+        checkpointer.checkpoint("token-0");
+        checkpointer.checkpoint("token-1");
+        Thread.sleep(500);
+        assertEquals(Arrays.asList("token-1"), recording.tokens);
+        checkpointer.close();
+    }
+
+    public void testFinishTagIsBarrier() {
+        RecordingCheckpointer recording = new RecordingCheckpointer();
+        AsyncCheckpointer checkpointer = new AsyncCheckpointer(recording, 60000);
+        checkpointer.checkpoint("token-0");
+        checkpointer.checkpoint(FINISH_TAG);
+        assertEquals(Arrays.asList(FINISH_TAG), recording.tokens);
+        checkpointer.close();
+    }
+
+    public void testFailedFlushIsRetried() {
+        final List<String> tokens = new ArrayList<String>();
+        AsyncCheckpointer checkpointer = new AsyncCheckpointer(new ICheckpointer() {
+            private boolean failed = false;
+
+            @Override
+            public void checkpoint(String token) {
+                if (!failed) {
+                    failed = true;
+                    throw new RuntimeException("checkpoint failed");
+                }
+                tokens.add(token);
+            }
+        }, 60000);
+        checkpointer.checkpoint("token-0");
+        try {
+            checkpointer.flush();
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("token-0", checkpointer.getPendingToken());
+        }
+        checkpointer.flush();
+        assertEquals(Arrays.asList("token-0"), tokens);
+        checkpointer.close();
+    }
+
+    public void testProcessorShutdownFlushes() {
+        RecordingCheckpointer recording = new RecordingCheckpointer();
+        AsyncCheckpointer checkpointer = new AsyncCheckpointer(recording, 60000);
+        DefaultChannelProcessor processor = new DefaultChannelProcessor(new MockChannelProcessor(), checkpointer, 60000);
+        for (int i = 0; i < 3; i++) {
+            processor.process(new ProcessRecordsInput(null, "token-" + i, "trace-" + i));
+        }
+        assertTrue(recording.tokens.isEmpty());
+
+        processor.shutdown();
+        assertEquals(Arrays.asList("token-2"), recording.tokens);
+        // checkpoints after the close are recorded at once
+        checkpointer.checkpoint("token-3");
+        assertEquals(Arrays.asList("token-2", "token-3"), recording.tokens);
+    }
+}
@@ -5,8 +5,13 @@ import com.alicloud.openservices.tablestore.model.tunnel.ChannelStatus;
 import com.alicloud.openservices.tablestore.model.tunnel.internal.Channel;
 import com.alicloud.openservices.tablestore.tunnel.pipeline.ProcessDataPipeline;
 import com.alicloud.openservices.tablestore.tunnel.worker.*;
+import com.alicloud.openservices.tablestore.model.tunnel.internal.ReadRecordsRequest;
+import com.alicloud.openservices.tablestore.model.tunnel.internal.ReadRecordsResponse;
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -89,4 +94,67 @@ public class ProcessDataPipelineTest extends TestCase {
         }
         assertTrue(((MockChannelProcessor) processor).getProcessCount() < loopTimes);
     }
+
+    /**
+     * Reads slowly, and returns a next token that counts the reads.
+     */
+    private static class SlowTunnelClient extends MockTunnelClient {
+        @Override
+        public ReadRecordsResponse readRecords(ReadRecordsRequest request) {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            ReadRecordsResponse resp = super.readRecords(request);
+            String token = request.getToken();
+            int round = token.startsWith("round-") ? Integer.parseInt(token.substring("round-".length())) : 0;
+            resp.setNextToken("round-" + (round + 1));
+            return resp;
+        }
+    }
+
+    private int runRounds(boolean enablePrefetch, final List<String> processedTokens) throws InterruptedException {
+        final MockChannelProcessor mockProcessor = new MockChannelProcessor() {
+            @Override
+            public void process(ProcessRecordsInput input) {
+                processedTokens.add(input.getNextToken());
+                super.process(input);
+            }
+        };
+        channelConnect.setClient(new SlowTunnelClient());
+        channelConnect.setProcessor(mockProcessor);
+        channelConnect.setCurrentChannel(new Channel(CHANNEL_ID, 10, ChannelStatus.OPEN));
+        channelConnect.setStatus(ChannelConnectStatus.RUNNING);
+        ProcessDataPipeline pipeline = new ProcessDataPipeline(channelConnect, config.getChannelHelperExecutor(),
+                config.getReadRecordsExecutor(), config.getProcessRecordsExecutor());
+        pipeline.setEnableReadRecordsPrefetch(enablePrefetch);
+        channelConnect.setProcessPipeline(pipeline);
+        pipeline.run();
+
+        Thread.sleep(2000);
+        channelConnect.setStatus(ChannelConnectStatus.CLOSING);
+        return mockProcessor.getProcessCount();
+    }
+
+    public void testPrefetchProcess() throws InterruptedException {
+        List<String> processedTokens = Collections.synchronizedList(new ArrayList<String>());
+        int processCount = runRounds(true, processedTokens);
+
+        // reading and processing both take 200ms, they overlap instead of taking 400ms per round
+        assertTrue("processCount: " + processCount, processCount >= 7);
+        for (int i = 0; i < processedTokens.size(); i++) {
+            assertEquals("round-" + (i + 1), processedTokens.get(i));
+        }
+    }
+
+    public void testNoPrefetchProcess() throws InterruptedException {
+        List<String> processedTokens = Collections.synchronizedList(new ArrayList<String>());
+        int processCount = runRounds(false, processedTokens);
+
+        assertTrue("processCount: " + processCount, processCount <= 5);
+        for (int i = 0; i < processedTokens.size(); i++) {
+            assertEquals("round-" + (i + 1), processedTokens.get(i));
+        }
+    }
 }
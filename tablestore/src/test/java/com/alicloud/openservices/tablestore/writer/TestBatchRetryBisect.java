@@ -0,0 +1,329 @@
+package com.alicloud.openservices.tablestore.writer;
+
+import com.alicloud.openservices.tablestore.*;
+import com.alicloud.openservices.tablestore.common.ServiceSettings;
+import com.alicloud.openservices.tablestore.model.*;
+import com.alicloud.openservices.tablestore.writer.enums.BatchRetryMode;
+import com.alicloud.openservices.tablestore.writer.enums.WriteMode;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+public class TestBatchRetryBisect {
+    private static ServiceSettings serviceSettings = ServiceSettings.load();
+    private static String MOCK_TABLE_NAME = "mockTableName";
+    private static String PK = "pk";
+    private static String COL_1 = "col1";
+    private static long DIRTY_PK = 37;
+
+    private static AtomicLong succeedRows = new AtomicLong();
+    private static AtomicLong failedRows = new AtomicLong();
+    private static AtomicLong batchRequests = new AtomicLong();
+    private static AtomicLong singleRowRequests = new AtomicLong();
+    private static AtomicLong throttledBatchRequests = new AtomicLong();
+    final ExecutorService executor = Executors.newFixedThreadPool(10);
+
+    private int rowSize = 200;
+    private AsyncClient ots;
+
+
+    @Before
+    public void setUp() throws Exception {
+        succeedRows.getAndSet(0);
+        failedRows.getAndSet(0);
+        batchRequests.getAndSet(0);
+        singleRowRequests.getAndSet(0);
+        throttledBatchRequests.getAndSet(0);
+        ots = new DirtyRowMockClient(
+                serviceSettings.getOTSEndpoint(),
+                serviceSettings.getOTSAccessKeyId(),
+                serviceSettings.getOTSAccessKeySecret(),
+                serviceSettings.getOTSInstanceName());
+    }
+
+    @After
+    public void after() throws Exception {
+        ots.shutdown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void testParallelBisect() throws Exception {
+        WriterConfig config = new WriterConfig();
+        config.setBucketCount(1);
+        config.setBatchRetryMode(BatchRetryMode.BISECT);
+        config.setBatchRetryBackoffInMillis(1);
+        writeAndCheck(config);
+    }
+
+    @Test
+    public void testSequentialBisect() throws Exception {
+        WriterConfig config = new WriterConfig();
+        config.setBucketCount(1);
+        config.setWriteMode(WriteMode.SEQUENTIAL);
+        config.setBatchRetryMode(BatchRetryMode.BISECT);
+        config.setBatchRetryBackoffInMillis(1);
+        writeAndCheck(config);
+    }
+
+    @Test
+    public void testBackoffIsCapped() throws Exception {
+        WriterConfig config = new WriterConfig();
+        config.setBucketCount(1);
+        config.setWriteMode(WriteMode.SEQUENTIAL);
+        config.setBatchRetryMode(BatchRetryMode.BISECT);
+        config.setBatchRetryBackoffInMillis(10000);
+        config.setMaxBatchRetryBackoffInMillis(1);
+        long start = System.currentTimeMillis();
+        writeAndCheck(config);
+        // the 8 split levels wait at most 1 ms each instead of 10 s doubled
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+
+    @Test
+    public void testThrottledBatchIsNotSplit() throws Exception {
+        for (WriteMode writeMode : WriteMode.values()) {
+            ots.shutdown();
+            setUp();
+            throttledBatchRequests.set(3);
+            WriterConfig config = new WriterConfig();
+            config.setBucketCount(1);
+            config.setWriteMode(writeMode);
+            config.setBatchRetryMode(BatchRetryMode.BISECT);
+            config.setBatchRetryBackoffInMillis(1);
+            TableStoreWriter writer = createMockWriter(ots, config, executor);
+            addRows(writer);
+            writer.flush();
+            waitForCallbacks();
+
+            // the throttled batch is resent as a whole 3 times, then split to isolate the dirty row
+            Assert.assertEquals(rowSize - 1, succeedRows.get());
+            Assert.assertEquals(1, failedRows.get());
+            Assert.assertTrue(batchRequests.get() <= 1 + 3 + 2 * 8);
+            Assert.assertTrue(singleRowRequests.get() <= 2);
+            writer.close();
+        }
+    }
+
+    @Test
+    public void testThrottledRetriesAreBounded() throws Exception {
+        throttledBatchRequests.set(Long.MAX_VALUE);
+        WriterConfig config = new WriterConfig();
+        config.setBucketCount(1);
+        config.setWriteMode(WriteMode.SEQUENTIAL);
+        config.setBatchRetryMode(BatchRetryMode.BISECT);
+        config.setBatchRetryBackoffInMillis(1);
+        config.setMaxBatchRetryBackoffInMillis(1);
+        TableStoreWriter writer = createMockWriter(ots, config, executor);
+        addRows(writer);
+        writer.flush();
+        waitForCallbacks();
+
+        // the rows fail after 10 resends of the whole batch, none is written on its own
+        Assert.assertEquals(rowSize, failedRows.get());
+        Assert.assertEquals(1 + 10, batchRequests.get());
+        Assert.assertEquals(0, singleRowRequests.get());
+        writer.close();
+    }
+
+    @Test
+    public void testSingleRowFallback() throws Exception {
+        WriterConfig config = new WriterConfig();
+        config.setBucketCount(1);
+        TableStoreWriter writer = createMockWriter(ots, config, executor);
+        addRows(writer);
+        writer.flush();
+        waitForCallbacks();
+
+        Assert.assertEquals(rowSize - 1, succeedRows.get());
+        Assert.assertEquals(1, failedRows.get());
+        // every row of the failed batch is rewritten on its own
+        Assert.assertTrue(singleRowRequests.get() > 1 + 2 * 8);
+        writer.close();
+    }
+
+    private void writeAndCheck(WriterConfig config) {
+        TableStoreWriter writer = createMockWriter(ots, config, executor);
+        addRows(writer);
+        writer.flush();
+        waitForCallbacks();
+
+        Assert.assertEquals(rowSize - 1, succeedRows.get());
+        Assert.assertEquals(1, failedRows.get());
+        // one dirty row in 200 rows is isolated within 2 * log2(200) batches and the two single rows at the bottom
+        Assert.assertTrue(batchRequests.get() <= 1 + 2 * 8);
+        Assert.assertTrue(singleRowRequests.get() <= 2);
+        writer.close();
+    }
+
+    private void waitForCallbacks() {
+        // user callbacks are delivered on the executor after the flush returns
+        long deadline = System.currentTimeMillis() + 5000;
+        while (succeedRows.get() + failedRows.get() < rowSize && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Assert.fail();
+            }
+        }
+    }
+
+    private void addRows(TableStoreWriter writer) {
+        for (int i = 0; i < rowSize; i++) {
+            PrimaryKey pk = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                    .addPrimaryKeyColumn(PK, PrimaryKeyValue.fromLong(i))
+                    .build();
+
+            RowPutChange rowChange = new RowPutChange(MOCK_TABLE_NAME, pk);
+            rowChange.addColumn(COL_1, ColumnValue.fromLong(i));
+
+            writer.addRowChange(rowChange);
+        }
+    }
+
+    private static boolean isDirty(RowChange rowChange) {
+        return rowChange.getPrimaryKey().getPrimaryKeyColumn(PK).getValue().asLong() == DIRTY_PK;
+    }
+
+    private static TableStoreWriter createMockWriter(AsyncClient ots, WriterConfig config, ExecutorService executor) {
+        TableStoreCallback<RowChange, ConsumedCapacity> callback = new TableStoreCallback<RowChange, ConsumedCapacity>() {
+            @Override
+            public void onCompleted(RowChange rowChange, ConsumedCapacity cc) {
+                succeedRows.incrementAndGet();
+            }
+
+            @Override
+            public void onFailed(RowChange rowChange, Exception ex) {
+                failedRows.incrementAndGet();
+            }
+        };
+        return new DefaultTableStoreWriter(ots, MOCK_TABLE_NAME, config, callback, executor) {
+            /**
+             * The rows are sent by explicit flushes only, so that all of them are in the same batch.
+             */
+            @Override
+            public void startFlushTimer(int flushInterval) {
+            }
+        };
+    }
+
+
+    /**
+     * A BatchWriteRow fails as a whole as long as it contains the dirty row, and a PutRow of the dirty row fails.
+     */
+    public class DirtyRowMockClient extends AsyncClient {
+        private final SyncClient syncClient;
+
+        public DirtyRowMockClient(String endpoint, String accessKeyId, String accessKeySecret, String instanceName) {
+            super(endpoint, accessKeyId, accessKeySecret, instanceName);
+            syncClient = new SyncClient(endpoint, accessKeyId, accessKeySecret, instanceName) {
+                @Override
+                public BatchWriteRowResponse batchWriteRow(BatchWriteRowRequest request) {
+                    return doBatchWriteRow(request);
+                }
+
+                @Override
+                public PutRowResponse putRow(PutRowRequest request) {
+                    return doPutRow(request);
+                }
+            };
+        }
+
+        @Override
+        public Future<DescribeTableResponse> describeTable(
+                DescribeTableRequest request,
+                TableStoreCallback<DescribeTableRequest, DescribeTableResponse> callback) {
+            Response meta = new Response();
+            meta.setRequestId("mockRequestId");
+
+            DescribeTableResponse response = new DescribeTableResponse(meta);
+            TableMeta tableMeta = new TableMeta(MOCK_TABLE_NAME);
+            tableMeta.addPrimaryKeyColumn(PK, PrimaryKeyType.INTEGER);
+            response.setTableMeta(tableMeta);
+
+            if (callback != null) {
+                callback.onCompleted(request, response);
+            }
+            FutureTask<DescribeTableResponse> future = new FutureTask<DescribeTableResponse>(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }, response);
+            future.run();
+            return future;
+        }
+
+        private BatchWriteRowResponse doBatchWriteRow(BatchWriteRowRequest request) {
+            batchRequests.incrementAndGet();
+            if (throttledBatchRequests.getAndDecrement() > 0) {
+                throw new TableStoreException("mock server busy", null, "OTSServerBusy", "mockRequestId", 503);
+            }
+
+            Response meta = new Response();
+            meta.setRequestId("mockRequestId");
+            BatchWriteRowResponse response = new BatchWriteRowResponse(meta);
+            for (Map.Entry<String, List<RowChange>> entry : request.getRowChange().entrySet()) {
+                for (int i = 0; i < entry.getValue().size(); i++) {
+                    if (isDirty(entry.getValue().get(i))) {
+                        throw new TableStoreException("mock dirty row", null, "OTSParameterInvalid", "mockRequestId", 400);
+                    }
+                    ConsumedCapacity consumedCapacity = new ConsumedCapacity(new CapacityUnit(0, 1));
+                    response.addRowResult(new BatchWriteRowResponse.RowResult(entry.getKey(), null, consumedCapacity, i));
+                }
+            }
+            return response;
+        }
+
+        private PutRowResponse doPutRow(PutRowRequest request) {
+            singleRowRequests.incrementAndGet();
+            if (isDirty(request.getRowChange())) {
+                throw new TableStoreException("mock dirty row", null, "OTSParameterInvalid", "mockRequestId", 400);
+            }
+            Response meta = new Response();
+            meta.setRequestId("mockRequestId");
+            return new PutRowResponse(meta, null, new ConsumedCapacity(new CapacityUnit(0, 1)));
+        }
+
+        @Override
+        public Future<BatchWriteRowResponse> batchWriteRow(
+                final BatchWriteRowRequest request,
+                TableStoreCallback<BatchWriteRowRequest, BatchWriteRowResponse> callback) {
+            try {
+                callback.onCompleted(request, doBatchWriteRow(request));
+            } catch (TableStoreException e) {
+                callback.onFailed(request, e);
+            }
+            return null;
+        }
+
+        @Override
+        public Future<PutRowResponse> putRow(
+                final PutRowRequest request,
+                TableStoreCallback<PutRowRequest, PutRowResponse> callback) {
+            try {
+                callback.onCompleted(request, doPutRow(request));
+            } catch (TableStoreException e) {
+                callback.onFailed(request, e);
+            }
+            return null;
+        }
+
+        @Override
+        public SyncClientInterface asSyncClient() {
+            return syncClient;
+        }
+
+        @Override
+        public void shutdown() {
+            syncClient.shutdown();
+            super.shutdown();
+        }
+    }
+}
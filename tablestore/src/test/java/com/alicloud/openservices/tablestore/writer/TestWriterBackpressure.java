@@ -0,0 +1,275 @@
+package com.alicloud.openservices.tablestore.writer;
+
+import com.alicloud.openservices.tablestore.*;
+import com.alicloud.openservices.tablestore.common.ServiceSettings;
+import com.alicloud.openservices.tablestore.model.*;
+import com.alicloud.openservices.tablestore.writer.enums.BufferFullPolicy;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+public class TestWriterBackpressure {
+    private static ServiceSettings serviceSettings = ServiceSettings.load();
+    private static String MOCK_TABLE_NAME = "mockTableName";
+    private static String PK = "pk";
+    private static String COL_1 = "col1";
+    private static final int BUFFER_SIZE = 4;
+
+    private static AtomicLong succeedRows = new AtomicLong();
+    final ExecutorService executor = Executors.newFixedThreadPool(10);
+
+    private StalledMockClient ots;
+    private long nextPk = 0;
+
+
+    @Before
+    public void setUp() throws Exception {
+        succeedRows.getAndSet(0);
+        ots = new StalledMockClient(
+                serviceSettings.getOTSEndpoint(),
+                serviceSettings.getOTSAccessKeyId(),
+                serviceSettings.getOTSAccessKeySecret(),
+                serviceSettings.getOTSInstanceName());
+    }
+
+    @After
+    public void after() throws Exception {
+        ots.shutdown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void testBlockUntilCapacity() throws Exception {
+        final TableStoreWriter writer = createMockWriter(ots, createConfig(BufferFullPolicy.BLOCK), executor);
+        int accepted = fillBuffer(writer);
+
+        final CountDownLatch added = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writer.addRowChange(nextRow());
+                added.countDown();
+            }
+        }).start();
+        Assert.assertFalse(added.await(100, TimeUnit.MILLISECONDS));
+
+        ots.release();
+        Assert.assertTrue(added.await(5, TimeUnit.SECONDS));
+        writer.flush();
+        waitForSucceedRows(accepted + 1);
+
+        Assert.assertEquals(accepted + 1, succeedRows.get());
+        Assert.assertTrue(writer.getWriterStatistics().getTotalBlockedTimeInMillis() >= 100);
+        Assert.assertEquals(0, writer.getWriterStatistics().getTotalRejectedRowsCount());
+        writer.close();
+    }
+
+    @Test
+    public void testOfferTimeout() throws Exception {
+        TableStoreWriter writer = createMockWriter(ots, createConfig(BufferFullPolicy.BLOCK), executor);
+        int accepted = fillBuffer(writer);
+
+        long start = System.currentTimeMillis();
+        Assert.assertFalse(writer.offerRowChange(nextRow(), 50, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(System.currentTimeMillis() - start >= 50);
+        Assert.assertEquals(1, writer.getWriterStatistics().getTotalRejectedRowsCount());
+        Assert.assertTrue(writer.getWriterStatistics().getTotalBlockedTimeInMillis() >= 50);
+
+        ots.release();
+        Assert.assertTrue(writer.offerRowChange(nextRow(), 5, TimeUnit.SECONDS));
+        writer.flush();
+        waitForSucceedRows(accepted + 1);
+
+        Assert.assertEquals(accepted + 1, succeedRows.get());
+        writer.close();
+    }
+
+    @Test
+    public void testRejectWhenFull() throws Exception {
+        TableStoreWriter writer = createMockWriter(ots, createConfig(BufferFullPolicy.REJECT), executor);
+        int accepted = fillBuffer(writer);
+
+        try {
+            writer.addRowChange(nextRow());
+            Assert.fail();
+        } catch (ClientException e) {
+            Assert.assertEquals("The buffer of the writer is full.", e.getMessage());
+        }
+        Assert.assertEquals(1, writer.getWriterStatistics().getTotalRejectedRowsCount());
+        Assert.assertEquals(0, writer.getWriterStatistics().getTotalBlockedTimeInMillis());
+
+        ots.release();
+        writer.flush();
+        waitForSucceedRows(accepted);
+
+        Assert.assertEquals(accepted, succeedRows.get());
+        writer.close();
+    }
+
+    /**
+     * With one row per batch and a concurrency of 1, the first row is sent in a request held by the mock client, and
+     * the consumer stalls on the third row waiting for the concurrency, so the ring buffer fills up after a few rows.
+     */
+    private WriterConfig createConfig(BufferFullPolicy policy) {
+        WriterConfig config = new WriterConfig();
+        config.setBucketCount(1);
+        config.setBufferSize(BUFFER_SIZE);
+        config.setConcurrency(1);
+        config.setMaxBatchRowsCount(1);
+        config.setBufferFullPolicy(policy);
+        return config;
+    }
+
+    private int fillBuffer(TableStoreWriter writer) throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(writer.tryAddRowChange(nextRow()));
+        }
+        Assert.assertTrue(ots.awaitHeldRequest(5, TimeUnit.SECONDS));
+        // once the consumer has taken the third row, it releases no slot until the held request completes
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writer.getWriterStatistics().getTotalRowsCount() < 3) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+
+        int accepted = 3;
+        while (writer.tryAddRowChange(nextRow())) {
+            accepted++;
+        }
+        // the slots of the first two rows are released, the third row and the new ones take the whole buffer
+        Assert.assertEquals(BUFFER_SIZE + 2, accepted);
+        return accepted;
+    }
+
+    private RowChange nextRow() {
+        PrimaryKey pk = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn(PK, PrimaryKeyValue.fromLong(nextPk))
+                .build();
+        RowPutChange rowChange = new RowPutChange(MOCK_TABLE_NAME, pk);
+        rowChange.addColumn(COL_1, ColumnValue.fromLong(nextPk));
+        nextPk++;
+        return rowChange;
+    }
+
+    private void waitForSucceedRows(long expected) throws InterruptedException {
+        // user callbacks are delivered on the executor after the flush returns
+        long deadline = System.currentTimeMillis() + 5000;
+        while (succeedRows.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static TableStoreWriter createMockWriter(AsyncClient ots, WriterConfig config, ExecutorService executor) {
+        TableStoreCallback<RowChange, ConsumedCapacity> callback = new TableStoreCallback<RowChange, ConsumedCapacity>() {
+            @Override
+            public void onCompleted(RowChange rowChange, ConsumedCapacity cc) {
+                succeedRows.incrementAndGet();
+            }
+
+            @Override
+            public void onFailed(RowChange rowChange, Exception ex) {
+            }
+        };
+        return new DefaultTableStoreWriter(ots, MOCK_TABLE_NAME, config, callback, executor) {
+            /**
+             * The rows are sent by explicit flushes only. The first timed flush runs at once, and its signal would
+             * take a slot of the ring buffer among the first rows, changing where the consumer stalls.
+             */
+            @Override
+            public void startFlushTimer(int flushInterval) {
+            }
+        };
+    }
+
+
+    /**
+     * Holds every BatchWriteRow until {@link #release()} is called, and completes them at once afterwards.
+     */
+    public class StalledMockClient extends AsyncClient {
+        private final List<Runnable> pending = new ArrayList<Runnable>();
+        private final CountDownLatch heldRequest = new CountDownLatch(1);
+        private boolean released = false;
+
+        public StalledMockClient(String endpoint, String accessKeyId, String accessKeySecret, String instanceName) {
+            super(endpoint, accessKeyId, accessKeySecret, instanceName);
+        }
+
+        public boolean awaitHeldRequest(long timeout, TimeUnit unit) throws InterruptedException {
+            return heldRequest.await(timeout, unit);
+        }
+
+        public void release() {
+            List<Runnable> toRun;
+            synchronized (this) {
+                released = true;
+                toRun = new ArrayList<Runnable>(pending);
+                pending.clear();
+            }
+            for (Runnable runnable : toRun) {
+                runnable.run();
+            }
+        }
+
+        @Override
+        public Future<DescribeTableResponse> describeTable(
+                DescribeTableRequest request,
+                TableStoreCallback<DescribeTableRequest, DescribeTableResponse> callback) {
+            Response meta = new Response();
+            meta.setRequestId("mockRequestId");
+
+            DescribeTableResponse response = new DescribeTableResponse(meta);
+            TableMeta tableMeta = new TableMeta(MOCK_TABLE_NAME);
+            tableMeta.addPrimaryKeyColumn(PK, PrimaryKeyType.INTEGER);
+            response.setTableMeta(tableMeta);
+
+            if (callback != null) {
+                callback.onCompleted(request, response);
+            }
+            FutureTask<DescribeTableResponse> future = new FutureTask<DescribeTableResponse>(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }, response);
+            future.run();
+            return future;
+        }
+
+        @Override
+        public Future<BatchWriteRowResponse> batchWriteRow(
+                final BatchWriteRowRequest request,
+                final TableStoreCallback<BatchWriteRowRequest, BatchWriteRowResponse> callback) {
+            Runnable complete = new Runnable() {
+                @Override
+                public void run() {
+                    Response meta = new Response();
+                    meta.setRequestId("mockRequestId");
+                    BatchWriteRowResponse response = new BatchWriteRowResponse(meta);
+                    for (Map.Entry<String, List<RowChange>> entry : request.getRowChange().entrySet()) {
+                        for (int i = 0; i < entry.getValue().size(); i++) {
+                            ConsumedCapacity consumedCapacity = new ConsumedCapacity(new CapacityUnit(0, 1));
+                            response.addRowResult(new BatchWriteRowResponse.RowResult(entry.getKey(), null, consumedCapacity, i));
+                        }
+                    }
+                    callback.onCompleted(request, response);
+                }
+            };
+            synchronized (this) {
+                if (!released) {
+                    pending.add(complete);
+                    heldRequest.countDown();
+                    return null;
+                }
+            }
+            complete.run();
+            return null;
+        }
+    }
+}
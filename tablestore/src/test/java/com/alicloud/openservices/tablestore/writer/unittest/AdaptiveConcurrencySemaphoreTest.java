@@ -0,0 +1,98 @@
+package com.alicloud.openservices.tablestore.writer.unittest;
+
+import com.alicloud.openservices.tablestore.writer.handle.AdaptiveConcurrencySemaphore;
+import com.alicloud.openservices.tablestore.writer.handle.WriterHandleStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveConcurrencySemaphoreTest {
+
+    @Test
+    public void testAdditiveIncrease() {
+        WriterHandleStatistics statistics = new WriterHandleStatistics();
+        AdaptiveConcurrencySemaphore semaphore = new AdaptiveConcurrencySemaphore(4, 1, 6, statistics);
+        Assert.assertEquals(4, statistics.getConcurrencyLimit());
+
+        // one more permit after a full window of successes
+        for (int i = 0; i < 3; i++) {
+            semaphore.onSucceed(10);
+        }
+        Assert.assertEquals(4, semaphore.getLimit());
+        semaphore.onSucceed(10);
+        Assert.assertEquals(5, semaphore.getLimit());
+        Assert.assertEquals(5, semaphore.availablePermits());
+        Assert.assertEquals(5, statistics.getConcurrencyLimit());
+
+        // never above the max limit
+        for (int i = 0; i < 100; i++) {
+            semaphore.onSucceed(10);
+        }
+        Assert.assertEquals(6, semaphore.getLimit());
+        Assert.assertEquals(6, semaphore.availablePermits());
+    }
+
+    @Test
+    public void testNoIncreaseWhenLatencyGrows() {
+        AdaptiveConcurrencySemaphore semaphore = new AdaptiveConcurrencySemaphore(4, 1, 100, new WriterHandleStatistics());
+        semaphore.onSucceed(10);
+        for (int i = 0; i < 50; i++) {
+            semaphore.onSucceed(1000);
+        }
+        Assert.assertEquals(4, semaphore.getLimit());
+
+        // the baseline follows a server that stays slow, and the limit grows again
+        for (int i = 0; i < 500; i++) {
+            semaphore.onSucceed(1000);
+        }
+        Assert.assertTrue(semaphore.getLimit() > 4);
+    }
+
+    @Test
+    public void testMultiplicativeDecrease() throws InterruptedException {
+        WriterHandleStatistics statistics = new WriterHandleStatistics();
+        AdaptiveConcurrencySemaphore semaphore = new AdaptiveConcurrencySemaphore(8, 3, 10, statistics);
+        semaphore.acquire(8);
+
+        semaphore.onThrottled();
+        Assert.assertEquals(4, semaphore.getLimit());
+        Assert.assertEquals(4, statistics.getConcurrencyLimit());
+
+        // throttled responses of the requests already in flight do not decrease the limit again
+        semaphore.onThrottled();
+        Assert.assertEquals(4, semaphore.getLimit());
+
+        // the permits of the requests in flight are returned, but only the new limit is handed out again
+        semaphore.release(8);
+        Assert.assertEquals(4, semaphore.availablePermits());
+
+        // never below the min limit
+        Thread.sleep(150);
+        semaphore.onThrottled();
+        Assert.assertEquals(3, semaphore.getLimit());
+        Assert.assertEquals(3, semaphore.availablePermits());
+    }
+
+    @Test
+    public void testThrottlingError() {
+        Assert.assertTrue(AdaptiveConcurrencySemaphore.isThrottlingError("OTSServerBusy"));
+        Assert.assertTrue(AdaptiveConcurrencySemaphore.isThrottlingError("OTSQuotaExhausted"));
+        Assert.assertFalse(AdaptiveConcurrencySemaphore.isThrottlingError("OTSParameterInvalid"));
+        Assert.assertFalse(AdaptiveConcurrencySemaphore.isThrottlingError(null));
+    }
+
+    @Test
+    public void testInvalidLimits() {
+        try {
+            new AdaptiveConcurrencySemaphore(10, 1, 5, new WriterHandleStatistics());
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+
+        }
+        try {
+            new AdaptiveConcurrencySemaphore(1, 0, 5, new WriterHandleStatistics());
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+
+        }
+    }
+}
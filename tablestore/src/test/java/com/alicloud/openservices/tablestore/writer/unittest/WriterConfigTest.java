@@ -2,6 +2,8 @@ package com.alicloud.openservices.tablestore.writer.unittest;
 
 import com.alicloud.openservices.tablestore.writer.WriterConfig;
 import com.alicloud.openservices.tablestore.writer.enums.BatchRequestType;
+import com.alicloud.openservices.tablestore.writer.enums.BatchRetryMode;
+import com.alicloud.openservices.tablestore.writer.enums.BufferFullPolicy;
 import com.alicloud.openservices.tablestore.writer.enums.DispatchMode;
 import com.alicloud.openservices.tablestore.writer.enums.WriteMode;
 import com.alicloud.openservices.tablestore.writer.enums.WriterRetryStrategy;
@@ -32,6 +34,13 @@ public class WriterConfigTest {
         config.setWriterRetryStrategy(WriterRetryStrategy.CERTAIN_ERROR_CODE_NOT_RETRY);
         config.setDispatchMode(DispatchMode.HASH_PARTITION_KEY);
         config.setBatchRequestType(BatchRequestType.BULK_IMPORT);
+        config.setBatchRetryMode(BatchRetryMode.BISECT);
+        config.setBatchRetryBackoffInMillis(50);
+        config.setMaxBatchRetryBackoffInMillis(400);
+        config.setEnableAdaptiveConcurrency(true);
+        config.setMinConcurrency(5);
+        config.setMaxConcurrency(500);
+        config.setBufferFullPolicy(BufferFullPolicy.REJECT);
 
         config.setEnableSchemaCheck(true);
         config.setAllowDuplicatedRowInBatchRequest(false);
@@ -55,6 +64,13 @@ public class WriterConfigTest {
         Assert.assertEquals(WriterRetryStrategy.CERTAIN_ERROR_CODE_NOT_RETRY, config.getWriterRetryStrategy());
         Assert.assertEquals(DispatchMode.HASH_PARTITION_KEY, config.getDispatchMode());
         Assert.assertEquals(BatchRequestType.BULK_IMPORT, config.getBatchRequestType());
+        Assert.assertEquals(BatchRetryMode.BISECT, config.getBatchRetryMode());
+        Assert.assertEquals(50, config.getBatchRetryBackoffInMillis());
+        Assert.assertEquals(400, config.getMaxBatchRetryBackoffInMillis());
+        Assert.assertTrue(config.isEnableAdaptiveConcurrency());
+        Assert.assertEquals(5, config.getMinConcurrency());
+        Assert.assertEquals(500, config.getMaxConcurrency());
+        Assert.assertEquals(BufferFullPolicy.REJECT, config.getBufferFullPolicy());
 
 
         Assert.assertTrue(config.isEnableSchemaCheck());
@@ -125,5 +141,35 @@ public class WriterConfigTest {
             config.setMaxPKColumnSize(0);
             Assert.fail();
         } catch (Exception e) {}
+
+        try {
+            config.setBatchRetryMode(null);
+            Assert.fail();
+        } catch (Exception e) {}
+
+        try {
+            config.setBatchRetryBackoffInMillis(-1);
+            Assert.fail();
+        } catch (Exception e) {}
+
+        try {
+            config.setMaxBatchRetryBackoffInMillis(-1);
+            Assert.fail();
+        } catch (Exception e) {}
+
+        try {
+            config.setMinConcurrency(0);
+            Assert.fail();
+        } catch (Exception e) {}
+
+        try {
+            config.setMaxConcurrency(0);
+            Assert.fail();
+        } catch (Exception e) {}
+
+        try {
+            config.setBufferFullPolicy(null);
+            Assert.fail();
+        } catch (Exception e) {}
     }
 }